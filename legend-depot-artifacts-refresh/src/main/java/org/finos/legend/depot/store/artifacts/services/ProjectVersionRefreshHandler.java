@@ -50,6 +50,7 @@ import java.io.IOException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
@@ -331,6 +332,7 @@ public final class ProjectVersionRefreshHandler implements NotificationEventHand
         storeProjectVersionData.setEvicted(false);
         storeProjectVersionData.getVersionData().setExcluded(false);
         storeProjectVersionData.getVersionData().setExclusionReason(null);
+        storeProjectVersionData.setLastUpdated(new Date());
         projects.createOrUpdate(storeProjectVersionData);
         LOGGER.info("Finished updating project data [{}-{}-{}]", project.getGroupId(), project.getArtifactId(), versionId);
     }
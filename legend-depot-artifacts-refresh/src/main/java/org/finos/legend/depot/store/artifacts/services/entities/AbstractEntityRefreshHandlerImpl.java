@@ -86,12 +86,19 @@ public abstract class AbstractEntityRefreshHandlerImpl
                 List<StoredEntity> storedEntities = transformVersionedEntities(projectData, versionId, entityList);
                 if (versionId.equals(VersionValidator.MASTER_SNAPSHOT))
                 {
-                    message = String.format("removing prior %s artifacts for [%s-%s]",this.entitiesProvider.getType(),gavCoordinates,versionId);
+                    message = String.format("replacing prior %s artifacts for [%s]",this.entitiesProvider.getType(),gavCoordinates);
                     response.addMessage(message);
-                    response.combine(getEntitiesApi().delete(projectData.getGroupId(), projectData.getArtifactId(),versionId,this.entitiesProvider.getType().equals(ArtifactType.VERSIONED_ENTITIES)));
+                    response.combine(getEntitiesApi().replace(projectData.getGroupId(), projectData.getArtifactId(),versionId,this.entitiesProvider.getType().equals(ArtifactType.VERSIONED_ENTITIES),storedEntities));
                     LOGGER.info(message);
                 }
-                response.combine(getEntitiesApi().createOrUpdate(storedEntities));
+                else
+                {
+                    response.combine(getEntitiesApi().createOrUpdate(storedEntities));
+                }
+                if (!versionId.equals(VersionValidator.MASTER_SNAPSHOT) && !response.hasErrors())
+                {
+                    response.combine(getEntitiesApi().createOrUpdateEntitiesBundle(projectData.getGroupId(), projectData.getArtifactId(), versionId, this.entitiesProvider.getType().equals(ArtifactType.VERSIONED_ENTITIES)));
+                }
             }
             else
             {
@@ -32,6 +32,7 @@ import org.slf4j.Logger;
 
 import javax.inject.Inject;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -86,6 +87,7 @@ public class FileGenerationHandlerImpl implements FileGenerationsArtifactsHandle
             }
             // handle files generated by FileGeneration Element
             HashSet<FileGeneration> processedGeneratedFiles = new HashSet<>();
+            List<StoredFileGeneration> storedGenerations = new ArrayList<>();
             fileGenerationEntities.forEach(entity ->
             {
                 String generationPath = (String) entity.getContent().get(GENERATION_OUTPUT_PATH);
@@ -95,7 +97,7 @@ public class FileGenerationHandlerImpl implements FileGenerationsArtifactsHandle
                 generatedFiles.stream().filter(gen -> gen.getPath().startsWith(elementPath)).forEach(gen ->
                 {
                     FileGeneration generation = new FileGeneration(gen.getPath().replace(elementPath, BLANK), gen.getContent());
-                    generations.createOrUpdate(new StoredFileGeneration(projectData.getGroupId(), projectData.getArtifactId(), versionId, entity.getPath(), codeSchemaGenerationType, generation));
+                    storedGenerations.add(new StoredFileGeneration(projectData.getGroupId(), projectData.getArtifactId(), versionId, entity.getPath(), codeSchemaGenerationType, generation));
                     processedGeneratedFiles.add(gen);
                 });
             });
@@ -117,10 +119,11 @@ public class FileGenerationHandlerImpl implements FileGenerationsArtifactsHandle
                     {
                         String elementPath = entityMap.get(entityPath.get()).getPath();
                         FileGeneration generation = new FileGeneration(generatedFile.getPath(), generatedFile.getContent());
-                        generations.createOrUpdate(new StoredFileGeneration(projectData.getGroupId(), projectData.getArtifactId(), versionId, elementPath, null, generation));
+                        storedGenerations.add(new StoredFileGeneration(projectData.getGroupId(), projectData.getArtifactId(), versionId, elementPath, null, generation));
                     }
                 }
             });
+            response.combine(generations.createOrUpdate(storedGenerations));
             String message = String.format("processed [%s] generations for [%s-%s-%s] ", processedGeneratedFiles.size(), projectData.getGroupId(), projectData.getArtifactId(), versionId);
             LOGGER.info(message);
             response.addMessage(message);
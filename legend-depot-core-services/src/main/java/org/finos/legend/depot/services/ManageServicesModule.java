@@ -23,13 +23,22 @@ import org.finos.legend.depot.services.generation.file.ManageFileGenerationsServ
 import org.finos.legend.depot.services.projects.DependenciesCache;
 import org.finos.legend.depot.services.projects.ManageProjectsServiceImpl;
 import org.finos.legend.depot.store.api.projects.ProjectsVersions;
+import org.finos.legend.depot.store.api.projects.UpdateDependencyClosures;
+import org.finos.legend.depot.store.api.projects.UpdateProjectVersionChanges;
+
+import javax.inject.Provider;
 
 public class ManageServicesModule extends ReadDataServicesModule
 {
+    private Provider<UpdateDependencyClosures> dependencyClosuresWriter;
+    private Provider<UpdateProjectVersionChanges> projectVersionChangesWriter;
+
     @Override
     protected void configure()
     {
         super.configure();
+        dependencyClosuresWriter = getProvider(UpdateDependencyClosures.class);
+        projectVersionChangesWriter = getProvider(UpdateProjectVersionChanges.class);
 
         bind(ManageProjectsService.class).to(ManageProjectsServiceImpl.class);
         bind(ManageEntitiesService.class).to(ManageEntitiesServiceImpl.class);
@@ -45,4 +54,16 @@ public class ManageServicesModule extends ReadDataServicesModule
     {
         return false;
     }
+
+    @Override
+    protected UpdateDependencyClosures getDependencyClosuresWriter()
+    {
+        return dependencyClosuresWriter.get();
+    }
+
+    @Override
+    protected UpdateProjectVersionChanges getProjectVersionChangesWriter()
+    {
+        return projectVersionChangesWriter.get();
+    }
 }
@@ -23,14 +23,26 @@ import org.finos.legend.depot.services.api.entities.EntitiesService;
 import org.finos.legend.depot.services.api.entities.EntityClassifierService;
 import org.finos.legend.depot.services.api.generation.file.FileGenerationsService;
 import org.finos.legend.depot.services.api.projects.ProjectsService;
+import org.finos.legend.depot.services.entities.DependencyEntitiesConfiguration;
+import org.finos.legend.depot.services.entities.DependencyEntitiesExecutor;
+import org.finos.legend.depot.services.entities.EntitiesCache;
 import org.finos.legend.depot.services.entities.EntitiesServiceImpl;
 import org.finos.legend.depot.services.entities.EntityClassifierServiceImpl;
 import org.finos.legend.depot.services.generation.file.FileGenerationsServiceImpl;
 import org.finos.legend.depot.services.projects.DependenciesCache;
+import org.finos.legend.depot.services.projects.ProjectVersionChangesFeed;
+import org.finos.legend.depot.services.projects.ProjectVersionEvents;
 import org.finos.legend.depot.services.projects.ProjectsServiceImpl;
+import org.finos.legend.depot.store.api.projects.DependencyClosures;
+import org.finos.legend.depot.store.api.projects.ProjectVersionChanges;
 import org.finos.legend.depot.store.api.projects.ProjectsVersions;
+import org.finos.legend.depot.store.api.projects.UpdateDependencyClosures;
+import org.finos.legend.depot.store.api.projects.UpdateProjectVersionChanges;
+import org.finos.legend.depot.store.mongo.core.ManagedExecutor;
+import org.finos.legend.depot.tracing.api.PrometheusMetricsHandler;
 
 import javax.inject.Named;
+import java.util.concurrent.Executor;
 
 public class ReadDataServicesModule extends PrivateModule
 {
@@ -48,18 +60,88 @@ public class ReadDataServicesModule extends PrivateModule
         expose(EntityClassifierService.class);
         expose(FileGenerationsService.class);
         expose(DependenciesCache.class).annotatedWith(Names.named("dependencyCache"));
+        expose(ProjectVersionChangesFeed.class).annotatedWith(Names.named("projectVersionChangesFeed"));
     }
 
     @Provides
     @Named("dependencyCache")
     @Singleton
-    public DependenciesCache initialiseDependencyCache(ProjectsVersions projectsVersions)
+    public DependenciesCache initialiseDependencyCache(ProjectsVersions projectsVersions, DependencyClosures dependencyClosures, PrometheusMetricsHandler metricsHandler, @Named("projectVersionEvents") ProjectVersionEvents events,
+                                                       @Named("dependenciesCacheRefresher") Executor refresher)
     {
-        return new DependenciesCache(projectsVersions, isPreLoadFromStore());
+        DependenciesCache.registerMetrics(metricsHandler);
+        DependenciesCache dependenciesCache = new DependenciesCache(projectsVersions, dependencyClosures, getDependencyClosuresWriter(), isPreLoadFromStore(), refresher);
+        events.subscribe(dependenciesCache::onChange);
+        return dependenciesCache;
+    }
+
+    @Provides
+    @Named("dependenciesCacheRefresher")
+    @Singleton
+    public Executor getDependenciesCacheRefresher()
+    {
+        return new ManagedExecutor("dependencies-cache-refresher");
+    }
+
+    @Provides
+    @Named("projectVersionEvents")
+    @Singleton
+    public ProjectVersionEvents getProjectVersionEvents()
+    {
+        ProjectVersionEvents events = new ProjectVersionEvents();
+        UpdateProjectVersionChanges changesWriter = getProjectVersionChangesWriter();
+        if (changesWriter != null)
+        {
+            events.subscribe(ProjectVersionChangesFeed.publishTo(changesWriter));
+        }
+        return events;
+    }
+
+    @Provides
+    @Named("projectVersionChangesFeed")
+    @Singleton
+    public ProjectVersionChangesFeed initialiseProjectVersionChangesFeed(ProjectVersionChanges changes, ProjectsVersions projectsVersions, @Named("projectVersionEvents") ProjectVersionEvents events)
+    {
+        return new ProjectVersionChangesFeed(changes, projectsVersions, events);
+    }
+
+    @Provides
+    @Named("entitiesCache")
+    @Singleton
+    public EntitiesCache initialiseEntitiesCache(PrometheusMetricsHandler metricsHandler, @Named("projectVersionEvents") ProjectVersionEvents events)
+    {
+        EntitiesCache.registerMetrics(metricsHandler);
+        EntitiesCache entitiesCache = new EntitiesCache(getEntitiesCacheMaxWeight(), EntitiesCache.DEFAULT_EXPIRY_IN_MILLIS);
+        events.subscribe(entitiesCache::onChange);
+        return entitiesCache;
+    }
+
+    protected long getEntitiesCacheMaxWeight()
+    {
+        return EntitiesCache.DEFAULT_MAX_WEIGHT;
+    }
+
+    @Provides
+    @Named("dependencyEntitiesExecutor")
+    @Singleton
+    public DependencyEntitiesExecutor initialiseDependencyEntitiesExecutor(PrometheusMetricsHandler metricsHandler, DependencyEntitiesConfiguration configuration)
+    {
+        DependencyEntitiesExecutor.registerMetrics(metricsHandler);
+        return new DependencyEntitiesExecutor(configuration);
     }
 
     protected boolean isPreLoadFromStore()
     {
         return true;
     }
+
+    protected UpdateDependencyClosures getDependencyClosuresWriter()
+    {
+        return null;
+    }
+
+    protected UpdateProjectVersionChanges getProjectVersionChangesWriter()
+    {
+        return null;
+    }
 }
@@ -24,6 +24,9 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.finos.legend.depot.domain.version.VersionValidator.MASTER_SNAPSHOT;
 
@@ -32,6 +35,14 @@ public interface EntitiesService
 
     List<Entity> getEntities(String groupId, String artifactId, String versionId, boolean versioned);
 
+    Stream<Entity> getEntitiesAsStream(String groupId, String artifactId, String versionId, boolean versioned);
+
+    /**
+     * Reads the stored gzip bundle of a released version's entities when it has one, otherwise the entities themselves.
+     * The entities reader is handed a supplier so the store cursor is only opened once the entities are consumed.
+     */
+    <T> T readEntities(String groupId, String artifactId, String versionId, boolean versioned, Function<byte[], T> bundleReader, Function<Supplier<Stream<Entity>>, T> entitiesReader);
+
     Optional<Entity> getEntity(String groupId, String artifactId, String versionId, String entityPath);
 
     List<Entity> getEntitiesByPackage(String groupId, String artifactId, String versionId, String packageName, boolean versioned, Set<String> classifierPaths, boolean includeSubPackages);
@@ -53,6 +64,10 @@ public interface EntitiesService
 
     List<ProjectVersionEntities> getDependenciesEntities(List<ProjectVersion> projectDependencies, boolean versioned, boolean transitive, boolean includeOrigin);
 
+    Set<ProjectVersion> getDependencies(List<ProjectVersion> projectDependencies, boolean transitive, boolean includeOrigin);
+
+    Stream<ProjectVersionEntities> getDependenciesEntitiesAsStream(Set<ProjectVersion> dependencies, boolean versioned);
+
     default List<ProjectVersionEntities> getDependenciesEntities(String groupId, String artifactId, String versionId, boolean versioned, boolean transitive, boolean includeOrigin)
     {
         return getDependenciesEntities(Arrays.asList(new ProjectVersion(groupId, artifactId, versionId)), versioned, transitive, includeOrigin);
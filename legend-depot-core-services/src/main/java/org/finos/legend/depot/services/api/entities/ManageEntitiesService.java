@@ -43,5 +43,9 @@ public interface ManageEntitiesService extends EntitiesService
 
     MetadataEventResponse createOrUpdate(List<StoredEntity> versionedEntities);
 
+    MetadataEventResponse replace(String groupId, String artifactId, String versionId, boolean versioned, List<StoredEntity> versionedEntities);
+
+    MetadataEventResponse createOrUpdateEntitiesBundle(String groupId, String artifactId, String versionId, boolean versioned);
+
     List<Pair<String, String>> getOrphanedStoredEntities();
 }
\ No newline at end of file
@@ -16,6 +16,7 @@
 package org.finos.legend.depot.services.api.generation.file;
 
 import org.finos.legend.depot.domain.generation.file.StoredFileGeneration;
+import org.finos.legend.depot.domain.status.StoreOperationResult;
 
 import java.util.List;
 
@@ -40,6 +41,8 @@ public interface ManageFileGenerationsService extends FileGenerationsService
 
     void createOrUpdate(StoredFileGeneration storedFileGeneration);
 
+    StoreOperationResult createOrUpdate(List<StoredFileGeneration> storedFileGenerations);
+
     List<StoredFileGeneration> getAll();
 
     List<StoredFileGeneration> findByType(String groupId, String artifactId, String versionId, String type);
@@ -15,6 +15,7 @@
 
 package org.finos.legend.depot.services.api.projects;
 
+import org.finos.legend.depot.domain.api.Page;
 import org.finos.legend.depot.domain.project.StoreProjectVersionData;
 import org.finos.legend.depot.domain.project.StoreProjectData;
 import org.finos.legend.depot.domain.project.ProjectVersion;
@@ -36,6 +37,11 @@ public interface ProjectsService
      */
     List<StoreProjectData> getProjects(int page, int pageSize);
 
+    /**
+     * NOTE: pass a null continuationToken to read the first page
+     */
+    Page<StoreProjectData> getProjects(String continuationToken, int pageSize);
+
     List<String> getVersions(String groupId, String artifactId);
 
     Optional<VersionId> getLatestVersion(String groupId, String artifactId);
@@ -51,6 +57,8 @@ public interface ProjectsService
 
     Optional<StoreProjectVersionData> find(String groupId, String artifactId, String versionId);
 
+    List<StoreProjectVersionData> find(List<ProjectVersion> projectVersions);
+
     Optional<StoreProjectData> findCoordinates(String groupId, String artifactId);
 
     default Set<ProjectVersion> getDependencies(String groupId, String artifactId, String versionId, boolean transitive)
@@ -0,0 +1,53 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+
+package org.finos.legend.depot.services.entities;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DependencyEntitiesConfiguration
+{
+    @JsonProperty
+    private final Integer threads;
+
+    @JsonProperty
+    private final Integer maxConcurrencyPerRequest;
+
+    @JsonCreator
+    public DependencyEntitiesConfiguration(@JsonProperty("threads") Integer threads, @JsonProperty("maxConcurrencyPerRequest") Integer maxConcurrencyPerRequest)
+    {
+        this.threads = threads;
+        this.maxConcurrencyPerRequest = maxConcurrencyPerRequest;
+    }
+
+    public DependencyEntitiesConfiguration()
+    {
+        this(null, null);
+    }
+
+    public int getThreads()
+    {
+        return threads != null ? threads : DependencyEntitiesExecutor.DEFAULT_THREADS;
+    }
+
+    public int getMaxConcurrencyPerRequest()
+    {
+        return maxConcurrencyPerRequest != null ? maxConcurrencyPerRequest : DependencyEntitiesExecutor.DEFAULT_MAX_CONCURRENCY_PER_REQUEST;
+    }
+}
@@ -0,0 +1,181 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+
+package org.finos.legend.depot.services.entities;
+
+import org.finos.legend.depot.tracing.api.PrometheusMetricsHandler;
+import org.finos.legend.depot.tracing.services.TracerFactory;
+import org.finos.legend.depot.tracing.services.prometheus.PrometheusMetricsFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Dedicated pool for fetching dependency entities, so one request with a large dependency tree cannot take more than
+ * maxConcurrencyPerRequest threads nor run on the shared fork-join pool. The calling thread always takes part in the work,
+ * so a saturated pool slows requests down rather than failing them. Queue wait is measured per dependency, from the start
+ * of the request until a thread picks the dependency up.
+ */
+public final class DependencyEntitiesExecutor
+{
+    public static final int DEFAULT_THREADS = 16;
+    public static final int DEFAULT_MAX_CONCURRENCY_PER_REQUEST = 4;
+    public static final int DEFAULT_QUEUE_SIZE = 1000;
+    public static final String DEPENDENCY_ENTITIES_QUEUE_WAIT = "dependency entities queue wait";
+    public static final String DEPENDENCY_ENTITIES_FETCH = "dependency entities fetch";
+    private static final long KEEP_ALIVE_IN_SECONDS = 60;
+
+    private final ExecutorService executor;
+    private final int maxConcurrencyPerRequest;
+
+    public DependencyEntitiesExecutor(int threads, int maxConcurrencyPerRequest)
+    {
+        this.maxConcurrencyPerRequest = Math.max(1, maxConcurrencyPerRequest);
+        this.executor = threads > 0 && this.maxConcurrencyPerRequest > 1 ? newExecutor(threads) : null;
+    }
+
+    public DependencyEntitiesExecutor(DependencyEntitiesConfiguration configuration)
+    {
+        this(configuration.getThreads(), configuration.getMaxConcurrencyPerRequest());
+    }
+
+    public DependencyEntitiesExecutor()
+    {
+        this(new DependencyEntitiesConfiguration());
+    }
+
+    public int getMaxConcurrencyPerRequest()
+    {
+        return maxConcurrencyPerRequest;
+    }
+
+    public static DependencyEntitiesExecutor callerRuns()
+    {
+        return new DependencyEntitiesExecutor(0, 1);
+    }
+
+    public static void registerMetrics(PrometheusMetricsHandler metricsHandler)
+    {
+        metricsHandler.registerSummary(DEPENDENCY_ENTITIES_QUEUE_WAIT, DEPENDENCY_ENTITIES_QUEUE_WAIT);
+        metricsHandler.registerSummary(DEPENDENCY_ENTITIES_FETCH, DEPENDENCY_ENTITIES_FETCH);
+    }
+
+    private static ExecutorService newExecutor(int threads)
+    {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_IN_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(DEFAULT_QUEUE_SIZE), runnable ->
+        {
+            Thread thread = new Thread(runnable, "dependency-entities-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    public <T, R> List<R> map(List<T> items, Function<T, R> fetch)
+    {
+        AtomicReferenceArray<R> results = new AtomicReferenceArray<>(items.size());
+        AtomicInteger next = new AtomicInteger();
+        long submitted = System.currentTimeMillis();
+        Runnable worker = () ->
+        {
+            try
+            {
+                for (int index = next.getAndIncrement(); index < items.size(); index = next.getAndIncrement())
+                {
+                    long start = System.currentTimeMillis();
+                    PrometheusMetricsFactory.getInstance().observe(DEPENDENCY_ENTITIES_QUEUE_WAIT, submitted, start);
+                    results.set(index, fetch.apply(items.get(index)));
+                    PrometheusMetricsFactory.getInstance().observe(DEPENDENCY_ENTITIES_FETCH, start, System.currentTimeMillis());
+                }
+            }
+            catch (RuntimeException e)
+            {
+                next.set(items.size());
+                throw e;
+            }
+        };
+
+        List<Future<?>> helpers = new ArrayList<>();
+        int helperCount = executor == null ? 0 : Math.min(maxConcurrencyPerRequest, items.size()) - 1;
+        try
+        {
+            Runnable tracedWorker = TracerFactory.get().withActiveSpan(worker);
+            for (int i = 0; i < helperCount; i++)
+            {
+                helpers.add(executor.submit(tracedWorker));
+            }
+        }
+        catch (RejectedExecutionException e)
+        {
+            // pool is saturated, the calling thread picks up the remaining work
+        }
+        try
+        {
+            worker.run();
+        }
+        catch (RuntimeException e)
+        {
+            helpers.forEach(helper -> helper.cancel(false));
+            throw e;
+        }
+        awaitAll(helpers);
+
+        List<R> ordered = new ArrayList<>(items.size());
+        for (int i = 0; i < results.length(); i++)
+        {
+            ordered.add(results.get(i));
+        }
+        return ordered;
+    }
+
+    private static void awaitAll(List<Future<?>> futures)
+    {
+        for (Future<?> future : futures)
+        {
+            try
+            {
+                future.get();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(false));
+                throw new IllegalStateException("interrupted while fetching dependency entities", e);
+            }
+            catch (ExecutionException e)
+            {
+                futures.forEach(f -> f.cancel(false));
+                if (e.getCause() instanceof RuntimeException)
+                {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+}
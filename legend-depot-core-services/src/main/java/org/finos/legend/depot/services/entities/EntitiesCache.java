@@ -0,0 +1,330 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.services.entities;
+
+import org.finos.legend.depot.domain.project.StoreProjectVersionData;
+import org.finos.legend.depot.services.projects.ProjectVersionEvents;
+import org.finos.legend.depot.tracing.api.PrometheusMetricsHandler;
+import org.finos.legend.depot.tracing.services.prometheus.PrometheusMetricsFactory;
+import org.finos.legend.sdlc.domain.model.entity.Entity;
+import org.slf4j.Logger;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static org.finos.legend.depot.domain.version.VersionValidator.MASTER_SNAPSHOT;
+
+/**
+ * Read-through cache of released version entities, evicting least recently used versions once their estimated size exceeds maxWeight.
+ * master-SNAPSHOT is never cached as it is rewritten on every refresh.
+ */
+public final class EntitiesCache
+{
+    private static final Logger LOGGER = org.slf4j.LoggerFactory.getLogger(EntitiesCache.class);
+    public static final long DEFAULT_MAX_WEIGHT = 256L * 1024 * 1024;
+    public static final long DEFAULT_EXPIRY_IN_MILLIS = 60L * 60 * 1000;
+    public static final String ENTITIES_CACHE_HITS = "entities cache hits";
+    public static final String ENTITIES_CACHE_MISSES = "entities cache misses";
+    public static final String ENTITIES_CACHE_EVICTIONS = "entities cache evictions";
+    public static final String ENTITIES_CACHE_WEIGHT = "entities cache weight";
+    private static final long OBJECT_OVERHEAD = 16;
+    private static final long REFERENCE_OVERHEAD = 8;
+
+    private final long maxWeight;
+    private final long expiryInMillis;
+    private final LinkedHashMap<CacheKey, CachedEntities> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong invalidations = new AtomicLong();
+    private long weight = 0;
+
+    public EntitiesCache(long maxWeight, long expiryInMillis)
+    {
+        this.maxWeight = maxWeight;
+        this.expiryInMillis = expiryInMillis;
+    }
+
+    public EntitiesCache()
+    {
+        this(DEFAULT_MAX_WEIGHT, DEFAULT_EXPIRY_IN_MILLIS);
+    }
+
+    public static EntitiesCache disabled()
+    {
+        return new EntitiesCache(0, 0);
+    }
+
+    public static void registerMetrics(PrometheusMetricsHandler metricsHandler)
+    {
+        metricsHandler.registerCounter(ENTITIES_CACHE_HITS, ENTITIES_CACHE_HITS);
+        metricsHandler.registerCounter(ENTITIES_CACHE_MISSES, ENTITIES_CACHE_MISSES);
+        metricsHandler.registerCounter(ENTITIES_CACHE_EVICTIONS, ENTITIES_CACHE_EVICTIONS);
+        metricsHandler.registerGauge(ENTITIES_CACHE_WEIGHT, ENTITIES_CACHE_WEIGHT);
+    }
+
+    public boolean isCacheable(String versionId)
+    {
+        return maxWeight > 0 && !MASTER_SNAPSHOT.equals(versionId);
+    }
+
+    public Optional<List<Entity>> getIfPresent(String groupId, String artifactId, String versionId, boolean versioned)
+    {
+        Optional<List<Entity>> cached = lookup(groupId, artifactId, versionId, versioned);
+        if (cached.isPresent())
+        {
+            PrometheusMetricsFactory.getInstance().incrementCount(ENTITIES_CACHE_HITS);
+        }
+        return cached;
+    }
+
+    /**
+     * Finds an entity among the cached non-versioned entities of a version, counting a hit only when it is found there
+     */
+    public Optional<Entity> getEntityIfPresent(String groupId, String artifactId, String versionId, String entityPath)
+    {
+        Optional<Entity> cached = lookup(groupId, artifactId, versionId, false).flatMap(entities -> entities.stream().filter(entity -> entityPath.equals(entity.getPath())).findFirst());
+        if (isCacheable(versionId))
+        {
+            PrometheusMetricsFactory.getInstance().incrementCount(cached.isPresent() ? ENTITIES_CACHE_HITS : ENTITIES_CACHE_MISSES);
+        }
+        return cached;
+    }
+
+    private Optional<List<Entity>> lookup(String groupId, String artifactId, String versionId, boolean versioned)
+    {
+        if (!isCacheable(versionId))
+        {
+            return Optional.empty();
+        }
+        CacheKey key = new CacheKey(groupId, artifactId, versionId, versioned);
+        synchronized (entries)
+        {
+            CachedEntities cached = entries.get(key);
+            if (cached == null)
+            {
+                return Optional.empty();
+            }
+            if (System.currentTimeMillis() - cached.loadedAt > expiryInMillis)
+            {
+                remove(key);
+                return Optional.empty();
+            }
+            return Optional.of(cached.entities);
+        }
+    }
+
+    public List<Entity> getEntities(String groupId, String artifactId, String versionId, boolean versioned, Supplier<List<Entity>> loader)
+    {
+        if (!isCacheable(versionId))
+        {
+            return loader.get();
+        }
+        Optional<List<Entity>> cached = getIfPresent(groupId, artifactId, versionId, versioned);
+        if (cached.isPresent())
+        {
+            return cached.get();
+        }
+        PrometheusMetricsFactory.getInstance().incrementCount(ENTITIES_CACHE_MISSES);
+        long invalidationsBeforeLoad = invalidations.get();
+        List<Entity> entities = Collections.unmodifiableList(loader.get());
+        long entitiesWeight = estimateWeight(entities);
+        if (entitiesWeight > maxWeight)
+        {
+            LOGGER.info("{}-{}-{} entities too large to cache [{}] bytes", groupId, artifactId, versionId, entitiesWeight);
+            return entities;
+        }
+        synchronized (entries)
+        {
+            if (invalidationsBeforeLoad == invalidations.get())
+            {
+                CacheKey key = new CacheKey(groupId, artifactId, versionId, versioned);
+                remove(key);
+                entries.put(key, new CachedEntities(entities, entitiesWeight, System.currentTimeMillis()));
+                weight += entitiesWeight;
+                evict();
+            }
+        }
+        return entities;
+    }
+
+    public void invalidate(String groupId, String artifactId, String versionId)
+    {
+        invalidateMatching(key -> key.groupId.equals(groupId) && key.artifactId.equals(artifactId) && key.versionId.equals(versionId));
+    }
+
+    public void onChange(ProjectVersionEvents.Change change, StoreProjectVersionData projectVersion)
+    {
+        invalidate(projectVersion.getGroupId(), projectVersion.getArtifactId(), projectVersion.getVersionId());
+    }
+
+    public void invalidate(String groupId, String artifactId)
+    {
+        invalidateMatching(key -> key.groupId.equals(groupId) && key.artifactId.equals(artifactId));
+    }
+
+    public void invalidateAll()
+    {
+        invalidateMatching(key -> true);
+    }
+
+    private void invalidateMatching(Predicate<CacheKey> predicate)
+    {
+        synchronized (entries)
+        {
+            invalidations.incrementAndGet();
+            Iterator<Map.Entry<CacheKey, CachedEntities>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext())
+            {
+                Map.Entry<CacheKey, CachedEntities> entry = iterator.next();
+                if (predicate.test(entry.getKey()))
+                {
+                    weight -= entry.getValue().weight;
+                    iterator.remove();
+                }
+            }
+            PrometheusMetricsFactory.getInstance().setGauge(ENTITIES_CACHE_WEIGHT, weight);
+        }
+    }
+
+    private void remove(CacheKey key)
+    {
+        CachedEntities removed = entries.remove(key);
+        if (removed != null)
+        {
+            weight -= removed.weight;
+        }
+    }
+
+    private void evict()
+    {
+        Iterator<CachedEntities> leastRecentlyUsed = entries.values().iterator();
+        while (weight > maxWeight && leastRecentlyUsed.hasNext())
+        {
+            weight -= leastRecentlyUsed.next().weight;
+            leastRecentlyUsed.remove();
+            PrometheusMetricsFactory.getInstance().incrementCount(ENTITIES_CACHE_EVICTIONS);
+        }
+        PrometheusMetricsFactory.getInstance().setGauge(ENTITIES_CACHE_WEIGHT, weight);
+    }
+
+    public long getWeight()
+    {
+        synchronized (entries)
+        {
+            return weight;
+        }
+    }
+
+    public int size()
+    {
+        synchronized (entries)
+        {
+            return entries.size();
+        }
+    }
+
+    static long estimateWeight(List<Entity> entities)
+    {
+        long total = OBJECT_OVERHEAD;
+        for (Entity entity : entities)
+        {
+            total += REFERENCE_OVERHEAD + OBJECT_OVERHEAD + estimateWeight(entity.getPath()) + estimateWeight(entity.getClassifierPath()) + estimateWeight(entity.getContent());
+        }
+        return total;
+    }
+
+    private static long estimateWeight(Object value)
+    {
+        long total = OBJECT_OVERHEAD;
+        if (value instanceof CharSequence)
+        {
+            total += 2L * ((CharSequence) value).length();
+        }
+        else if (value instanceof Map)
+        {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+            {
+                total += OBJECT_OVERHEAD + estimateWeight(entry.getKey()) + estimateWeight(entry.getValue());
+            }
+        }
+        else if (value instanceof Collection)
+        {
+            for (Object item : (Collection<?>) value)
+            {
+                total += REFERENCE_OVERHEAD + estimateWeight(item);
+            }
+        }
+        return total;
+    }
+
+    private static final class CachedEntities
+    {
+        private final List<Entity> entities;
+        private final long weight;
+        private final long loadedAt;
+
+        private CachedEntities(List<Entity> entities, long weight, long loadedAt)
+        {
+            this.entities = entities;
+            this.weight = weight;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private static final class CacheKey
+    {
+        private final String groupId;
+        private final String artifactId;
+        private final String versionId;
+        private final boolean versioned;
+
+        private CacheKey(String groupId, String artifactId, String versionId, boolean versioned)
+        {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.versionId = versionId;
+            this.versioned = versioned;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if (this == other)
+            {
+                return true;
+            }
+            if (!(other instanceof CacheKey))
+            {
+                return false;
+            }
+            CacheKey that = (CacheKey) other;
+            return versioned == that.versioned && groupId.equals(that.groupId) && artifactId.equals(that.artifactId) && versionId.equals(that.versionId);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(groupId, artifactId, versionId, versioned);
+        }
+    }
+}
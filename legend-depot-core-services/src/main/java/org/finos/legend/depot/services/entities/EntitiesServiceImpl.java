@@ -15,9 +15,6 @@
 
 package org.finos.legend.depot.services.entities;
 
-import org.eclipse.collections.api.list.MutableList;
-import org.eclipse.collections.impl.list.mutable.FastList;
-import org.eclipse.collections.impl.parallel.ParallelIterate;
 import org.finos.legend.depot.domain.entity.EntityDefinition;
 import org.finos.legend.depot.domain.entity.ProjectVersionEntities;
 import org.finos.legend.depot.domain.entity.StoredEntity;
@@ -30,40 +27,94 @@ import org.finos.legend.sdlc.domain.model.entity.Entity;
 import org.slf4j.Logger;
 
 import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.finos.legend.depot.domain.version.VersionValidator.MASTER_SNAPSHOT;
 
 public class EntitiesServiceImpl implements EntitiesService
 {
     private static final Logger LOGGER = org.slf4j.LoggerFactory.getLogger(EntitiesServiceImpl.class);
     public static final String CALCULATE_PROJECT_DEPENDENCIES = "calculateProjectDependencies";
     public static final String RETRIEVE_DEPENDENCY_ENTITIES = "retrieveDependencyEntities";
+    private static final String PACKAGE = "package";
+    private static final String PACKAGE_SEPARATOR = "::";
+    private static final int DEPENDENCIES_BATCH_SIZE = 25;
+    private static final Comparator<ProjectVersion> GAV_ORDER = Comparator.comparing(ProjectVersion::getGroupId).thenComparing(ProjectVersion::getArtifactId).thenComparing(ProjectVersion::getVersionId);
     private final Entities entities;
     protected final ProjectsService projects;
+    protected final EntitiesCache entitiesCache;
+    private final DependencyEntitiesExecutor dependencyEntitiesExecutor;
 
 
     @Inject
-    public EntitiesServiceImpl(Entities entities, ProjectsService projects)
+    public EntitiesServiceImpl(Entities entities, ProjectsService projects, @Named("entitiesCache") EntitiesCache entitiesCache, @Named("dependencyEntitiesExecutor") DependencyEntitiesExecutor dependencyEntitiesExecutor)
     {
         this.entities = entities;
         this.projects = projects;
+        this.entitiesCache = entitiesCache;
+        this.dependencyEntitiesExecutor = dependencyEntitiesExecutor;
+    }
+
+    public EntitiesServiceImpl(Entities entities, ProjectsService projects)
+    {
+        this(entities, projects, EntitiesCache.disabled(), DependencyEntitiesExecutor.callerRuns());
     }
 
     @Override
     public List<Entity> getEntities(String groupId, String artifactId, String versionId, boolean versioned)
     {
         this.projects.checkExists(groupId, artifactId, versionId);
-        return entities.getEntities(groupId, artifactId, versionId, versioned);
+        return entitiesCache.getEntities(groupId, artifactId, versionId, versioned, () -> entities.getEntities(groupId, artifactId, versionId, versioned));
+    }
+
+    @Override
+    public Stream<Entity> getEntitiesAsStream(String groupId, String artifactId, String versionId, boolean versioned)
+    {
+        this.projects.checkExists(groupId, artifactId, versionId);
+        Optional<List<Entity>> cached = entitiesCache.getIfPresent(groupId, artifactId, versionId, versioned);
+        return cached.isPresent() ? cached.get().stream() : loadEntitiesAsStream(groupId, artifactId, versionId, versioned);
+    }
+
+    private Stream<Entity> loadEntitiesAsStream(String groupId, String artifactId, String versionId, boolean versioned)
+    {
+        if (entitiesCache.isCacheable(versionId))
+        {
+            return entitiesCache.getEntities(groupId, artifactId, versionId, versioned, () -> entities.getEntities(groupId, artifactId, versionId, versioned)).stream();
+        }
+        return entities.getEntitiesAsStream(groupId, artifactId, versionId, versioned);
+    }
+
+    @Override
+    public <T> T readEntities(String groupId, String artifactId, String versionId, boolean versioned, Function<byte[], T> bundleReader, Function<Supplier<Stream<Entity>>, T> entitiesReader)
+    {
+        this.projects.checkExists(groupId, artifactId, versionId);
+        Optional<List<Entity>> cached = entitiesCache.getIfPresent(groupId, artifactId, versionId, versioned);
+        if (cached.isPresent())
+        {
+            return entitiesReader.apply(() -> cached.get().stream());
+        }
+        Optional<byte[]> bundle = MASTER_SNAPSHOT.equals(versionId) ? Optional.empty() : entities.getEntitiesBundle(groupId, artifactId, versionId, versioned);
+        return bundle.isPresent() ? bundleReader.apply(bundle.get()) : entitiesReader.apply(() -> loadEntitiesAsStream(groupId, artifactId, versionId, versioned));
     }
 
     @Override
     public Optional<Entity> getEntity(String groupId, String artifactId, String versionId, String entityPath)
     {
         this.projects.checkExists(groupId, artifactId, versionId);
+        Optional<Entity> cached = entitiesCache.getEntityIfPresent(groupId, artifactId, versionId, entityPath);
+        if (cached.isPresent())
+        {
+            return cached;
+        }
         return entities.getEntity(groupId, artifactId, versionId, entityPath);
     }
 
@@ -71,11 +122,26 @@ public class EntitiesServiceImpl implements EntitiesService
     public List<Entity> getEntitiesByPackage(String groupId, String artifactId, String versionId, String packageName, boolean versioned, Set<String> classifierPaths, boolean includeSubPackages)
     {
         this.projects.checkExists(groupId, artifactId, versionId);
+        Optional<List<Entity>> cached = entitiesCache.getIfPresent(groupId, artifactId, versionId, versioned);
+        if (cached.isPresent())
+        {
+            return cached.get().stream().filter(entity -> isInPackage(entity, packageName, includeSubPackages) && (classifierPaths == null || classifierPaths.isEmpty() || classifierPaths.contains(entity.getClassifierPath()))).collect(Collectors.toList());
+        }
         return entities.getEntitiesByPackage(groupId, artifactId, versionId, packageName, versioned, classifierPaths, includeSubPackages);
     }
 
+    private static boolean isInPackage(Entity entity, String packageName, boolean includeSubPackages)
+    {
+        Object entityPackage = entity.getContent() == null ? null : entity.getContent().get(PACKAGE);
+        if (!(entityPackage instanceof String))
+        {
+            return false;
+        }
+        return packageName.equals(entityPackage) || (includeSubPackages && ((String) entityPackage).startsWith(packageName + PACKAGE_SEPARATOR));
+    }
+
     @Override
-    public List<ProjectVersionEntities> getDependenciesEntities(List<ProjectVersion> projectDependencies, boolean versioned, boolean transitive, boolean includeOrigin)
+    public Set<ProjectVersion> getDependencies(List<ProjectVersion> projectDependencies, boolean transitive, boolean includeOrigin)
     {
         Set<ProjectVersion> dependencies = (Set<ProjectVersion>) executeWithTrace(CALCULATE_PROJECT_DEPENDENCIES, () ->
         {
@@ -88,18 +154,47 @@ public class EntitiesServiceImpl implements EntitiesService
         });
         TracerFactory.get().log(String.format("dependencies: [%s] ",dependencies.size()));
         LOGGER.info("finished calculating [{}] dependencies",dependencies.size());
+        return dependencies;
+    }
+
+    @Override
+    public Stream<ProjectVersionEntities> getDependenciesEntitiesAsStream(Set<ProjectVersion> dependencies, boolean versioned)
+    {
+        List<ProjectVersion> sortedDependencies = dependencies.stream().sorted(GAV_ORDER).collect(Collectors.toList());
+        List<List<ProjectVersion>> batches = new ArrayList<>();
+        for (int start = 0; start < sortedDependencies.size(); start += DEPENDENCIES_BATCH_SIZE)
+        {
+            batches.add(sortedDependencies.subList(start, Math.min(start + DEPENDENCIES_BATCH_SIZE, sortedDependencies.size())));
+        }
+        int windowSize = dependencyEntitiesExecutor.getMaxConcurrencyPerRequest();
+        List<List<List<ProjectVersion>>> windows = new ArrayList<>();
+        for (int start = 0; start < batches.size(); start += windowSize)
+        {
+            windows.add(batches.subList(start, Math.min(start + windowSize, batches.size())));
+        }
+        return windows.stream().flatMap(window -> dependencyEntitiesExecutor.map(window, batch -> entities.getStoredEntities(batch, versioned)).stream())
+                .flatMap(batch -> batch.entrySet().stream())
+                .map(dep ->
+                {
+                    ProjectVersion projectVersion = dep.getKey();
+                    List<EntityDefinition> deps = dep.getValue().stream().map(StoredEntity::getEntity).collect(Collectors.toList());
+                    TracerFactory.get().log(String.format("Total [%s-%s-%s]: [%s] entities",projectVersion.getGroupId(), projectVersion.getArtifactId(), projectVersion.getVersionId(),deps.size()));
+                    return new ProjectVersionEntities(projectVersion.getGroupId(), projectVersion.getArtifactId(), projectVersion.getVersionId(), versioned, deps);
+                });
+    }
+
+    @Override
+    public List<ProjectVersionEntities> getDependenciesEntities(List<ProjectVersion> projectDependencies, boolean versioned, boolean transitive, boolean includeOrigin)
+    {
+        Set<ProjectVersion> dependencies = getDependencies(projectDependencies, transitive, includeOrigin);
         return  (List<ProjectVersionEntities>) executeWithTrace(RETRIEVE_DEPENDENCY_ENTITIES, () ->
         {
-            MutableList<ProjectVersionEntities> depEntities = FastList.newList();
-            final AtomicInteger totalEntities = new AtomicInteger();
-            ParallelIterate.forEach(dependencies, dep ->
+            List<ProjectVersionEntities> depEntities;
+            try (Stream<ProjectVersionEntities> stream = getDependenciesEntitiesAsStream(dependencies, versioned))
             {
-                List<EntityDefinition> deps = entities.getStoredEntities(dep.getGroupId(), dep.getArtifactId(), dep.getVersionId(), versioned).stream().map(StoredEntity::getEntity).collect(Collectors.toList());
-                depEntities.add(new ProjectVersionEntities(dep.getGroupId(), dep.getArtifactId(), dep.getVersionId(), versioned, deps));
-                totalEntities.addAndGet(deps.size());
-                TracerFactory.get().log(String.format("Total [%s-%s-%s]: [%s] entities",dep.getGroupId(), dep.getArtifactId(), dep.getVersionId(),deps.size()));
-            });
-            TracerFactory.get().log(String.format("Total [%s]: [%s] entities",depEntities.size(),totalEntities));
+                depEntities = stream.collect(Collectors.toList());
+            }
+            TracerFactory.get().log(String.format("Total [%s]: [%s] entities",depEntities.size(),depEntities.stream().mapToInt(dep -> dep.getEntities().size()).sum()));
             return depEntities;
         });
     }
@@ -16,8 +16,10 @@
 package org.finos.legend.depot.services.entities;
 
 import org.eclipse.collections.impl.utility.ListIterate;
+import org.finos.legend.depot.domain.api.Page;
 import org.finos.legend.depot.domain.entity.StoredEntity;
 import org.finos.legend.depot.domain.project.ProjectVersion;
+import org.finos.legend.depot.domain.project.StoreProjectData;
 import org.finos.legend.depot.domain.version.Scope;
 import org.finos.legend.depot.services.api.entities.EntitiesService;
 import org.finos.legend.depot.services.api.entities.EntityClassifierService;
@@ -34,6 +36,7 @@ import java.util.stream.Collectors;
 public class EntityClassifierServiceImpl implements EntityClassifierService
 {
     private static final Logger LOGGER = org.slf4j.LoggerFactory.getLogger(EntityClassifierServiceImpl.class);
+    private static final int PAGE_SIZE = 100;
     private final EntitiesService entities;
     private final ProjectsService projects;
 
@@ -44,9 +47,9 @@ public class EntityClassifierServiceImpl implements EntityClassifierService
         this.entities = versions;
     }
 
-    private List<ProjectVersion> getProjectsInfo(int page, int pageSize)
+    private List<ProjectVersion> getProjectsInfo(List<StoreProjectData> projectsData)
     {
-        return ListIterate.collect(projects.getProjects(page, pageSize), projectData ->
+        return ListIterate.collect(projectsData, projectData ->
         {
             Optional<VersionId> latestVersion = projects.getLatestVersion(projectData.getGroupId(), projectData.getArtifactId());
             return new ProjectVersion(projectData.getGroupId(), projectData.getArtifactId(), latestVersion.isPresent() ? latestVersion.get().toVersionIdString() : null);
@@ -61,20 +64,18 @@ public class EntityClassifierServiceImpl implements EntityClassifierService
             return this.entities.findLatestEntitiesByClassifier(classifierPath, search, limit, summary, versioned);
         }
         List<StoredEntity> result = new ArrayList<>();
-        int PAGE_SIZE = 100;
-        int currentPage = 1;
-        List<ProjectVersion> projectVersions = this.getProjectsInfo(currentPage, PAGE_SIZE);
-        while (!projectVersions.isEmpty())
+        String continuationToken = null;
+        do
         {
-            List<StoredEntity> entities = this.entities.findReleasedEntitiesByClassifier(classifierPath, search, projectVersions, limit, summary, versioned);
-            result.addAll(entities);
-            if (limit != null && result.size() >= limit)
+            Page<StoreProjectData> page = this.projects.getProjects(continuationToken, PAGE_SIZE);
+            List<ProjectVersion> projectVersions = this.getProjectsInfo(page.getItems());
+            if (!projectVersions.isEmpty())
             {
-                break;
+                result.addAll(this.entities.findReleasedEntitiesByClassifier(classifierPath, search, projectVersions, limit, summary, versioned));
             }
-            currentPage++;
-            projectVersions = this.getProjectsInfo(currentPage, PAGE_SIZE);
+            continuationToken = page.getContinuationToken();
         }
+        while (continuationToken != null && (limit == null || result.size() < limit));
         if (limit != null)
         {
             result = result.stream().limit(limit).collect(Collectors.toList());
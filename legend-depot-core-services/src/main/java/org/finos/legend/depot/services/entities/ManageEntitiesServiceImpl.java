@@ -16,15 +16,19 @@
 package org.finos.legend.depot.services.entities;
 
 import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.tuple.Tuples;
 import org.finos.legend.depot.domain.api.MetadataEventResponse;
 import org.finos.legend.depot.domain.entity.StoredEntity;
+import org.finos.legend.depot.domain.project.ProjectVersion;
 import org.finos.legend.depot.services.api.entities.ManageEntitiesService;
 import org.finos.legend.depot.services.api.projects.ProjectsService;
 import org.finos.legend.depot.store.api.entities.UpdateEntities;
 import org.finos.legend.depot.tracing.services.TracerFactory;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -34,12 +38,17 @@ public class ManageEntitiesServiceImpl extends EntitiesServiceImpl implements Ma
     private final UpdateEntities entities;
 
     @Inject
-    public ManageEntitiesServiceImpl(UpdateEntities entities, ProjectsService projects)
+    public ManageEntitiesServiceImpl(UpdateEntities entities, ProjectsService projects, @Named("entitiesCache") EntitiesCache entitiesCache, @Named("dependencyEntitiesExecutor") DependencyEntitiesExecutor dependencyEntitiesExecutor)
     {
-        super(entities,projects);
+        super(entities, projects, entitiesCache, dependencyEntitiesExecutor);
         this.entities = entities;
     }
 
+    public ManageEntitiesServiceImpl(UpdateEntities entities, ProjectsService projects)
+    {
+        this(entities, projects, EntitiesCache.disabled(), DependencyEntitiesExecutor.callerRuns());
+    }
+
 
     @Override
     public List<StoredEntity> getStoredEntities(String groupId, String artifactId)
@@ -58,6 +67,7 @@ public class ManageEntitiesServiceImpl extends EntitiesServiceImpl implements Ma
     public MetadataEventResponse delete(String groupId, String artifactId, String versionId, boolean versioned)
     {
         this.projects.checkExists(groupId, artifactId);
+        entitiesCache.invalidate(groupId, artifactId, versionId);
         return new MetadataEventResponse().combine(entities.delete(groupId, artifactId, versionId, versioned));
     }
 
@@ -65,20 +75,38 @@ public class ManageEntitiesServiceImpl extends EntitiesServiceImpl implements Ma
     public MetadataEventResponse deleteAll(String groupId, String artifactId)
     {
         this.projects.checkExists(groupId, artifactId);
+        entitiesCache.invalidate(groupId, artifactId);
         return new MetadataEventResponse().combine(entities.deleteAll(groupId, artifactId));
     }
 
     @Override
     public MetadataEventResponse createOrUpdate(List<StoredEntity> versionedEntities)
     {
-        return new MetadataEventResponse().combine(entities.createOrUpdate(versionedEntities));
+        MetadataEventResponse response = new MetadataEventResponse().combine(entities.createOrUpdate(versionedEntities));
+        versionedEntities.stream().map(entity -> new ProjectVersion(entity.getGroupId(), entity.getArtifactId(), entity.getVersionId())).distinct()
+                .forEach(version -> entitiesCache.invalidate(version.getGroupId(), version.getArtifactId(), version.getVersionId()));
+        return response;
+    }
+
+    @Override
+    public MetadataEventResponse replace(String groupId, String artifactId, String versionId, boolean versioned, List<StoredEntity> versionedEntities)
+    {
+        MetadataEventResponse response = new MetadataEventResponse().combine(entities.replace(groupId, artifactId, versionId, versioned, versionedEntities));
+        entitiesCache.invalidate(groupId, artifactId, versionId);
+        return response;
+    }
+
+    @Override
+    public MetadataEventResponse createOrUpdateEntitiesBundle(String groupId, String artifactId, String versionId, boolean versioned)
+    {
+        return new MetadataEventResponse().combine(entities.createOrUpdateEntitiesBundle(groupId, artifactId, versionId, versioned));
     }
 
     @Override
     public List<Pair<String, String>> getOrphanedStoredEntities()
     {
-        List<Pair<String, String>> allArtifacts = entities.getStoredEntitiesCoordinates();
-        return allArtifacts.stream().filter(art -> !projects.findCoordinates(art.getOne(), art.getTwo()).isPresent()).collect(Collectors.toList());
+        Set<Pair<String, String>> projectCoordinates = projects.getAllProjectCoordinates().stream().map(project -> Tuples.pair(project.getGroupId(), project.getArtifactId())).collect(Collectors.toSet());
+        return entities.getStoredEntitiesCoordinates().stream().filter(coordinate -> !projectCoordinates.contains(coordinate)).collect(Collectors.toList());
     }
 
     private Object executeWithTrace(String label, Supplier<Object> functionToExecute)
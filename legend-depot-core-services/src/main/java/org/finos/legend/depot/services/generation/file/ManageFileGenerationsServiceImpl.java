@@ -16,6 +16,7 @@
 package org.finos.legend.depot.services.generation.file;
 
 import org.finos.legend.depot.domain.generation.file.StoredFileGeneration;
+import org.finos.legend.depot.domain.status.StoreOperationResult;
 import org.finos.legend.depot.services.api.generation.file.ManageFileGenerationsService;
 import org.finos.legend.depot.services.api.projects.ProjectsService;
 import org.finos.legend.depot.store.api.entities.Entities;
@@ -49,6 +50,12 @@ public class ManageFileGenerationsServiceImpl extends  FileGenerationsServiceImp
         fileGenerations.createOrUpdate(storedFileGeneration);
     }
 
+    @Override
+    public StoreOperationResult createOrUpdate(List<StoredFileGeneration> storedFileGenerations)
+    {
+        return fileGenerations.createOrUpdate(storedFileGenerations);
+    }
+
     @Override
     public List<StoredFileGeneration> getStoredFileGenerations(String groupId, String artifactId, String versionId)
     {
@@ -0,0 +1,121 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.services.projects;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable set of project version ids, kept either as a sorted id array or as a bitmap trimmed to the words in use,
+ * whichever is smaller.
+ */
+final class CompactIdSet
+{
+    static final CompactIdSet EMPTY = new CompactIdSet(new int[0], null, 0, 0);
+    private static final long OBJECT_BYTES = 40;
+    private static final long ARRAY_BYTES = 16;
+
+    private final int[] ids;
+    private final long[] words;
+    private final int firstWord;
+    private final int size;
+
+    private CompactIdSet(int[] ids, long[] words, int firstWord, int size)
+    {
+        this.ids = ids;
+        this.words = words;
+        this.firstWord = firstWord;
+        this.size = size;
+    }
+
+    static CompactIdSet of(BitSet bits)
+    {
+        int size = bits.cardinality();
+        if (size == 0)
+        {
+            return EMPTY;
+        }
+        int firstWord = bits.nextSetBit(0) >>> 6;
+        int lastWord = (bits.length() - 1) >>> 6;
+        if ((long) (lastWord - firstWord + 1) * Long.BYTES < (long) size * Integer.BYTES)
+        {
+            return new CompactIdSet(null, Arrays.copyOfRange(bits.toLongArray(), firstWord, lastWord + 1), firstWord, size);
+        }
+        return new CompactIdSet(bits.stream().toArray(), null, 0, size);
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    boolean contains(int id)
+    {
+        if (id < 0)
+        {
+            return false;
+        }
+        if (ids != null)
+        {
+            return Arrays.binarySearch(ids, id) >= 0;
+        }
+        int word = (id >>> 6) - firstWord;
+        return word >= 0 && word < words.length && (words[word] & (1L << id)) != 0;
+    }
+
+    void forEach(IntConsumer consumer)
+    {
+        if (ids != null)
+        {
+            for (int id : ids)
+            {
+                consumer.accept(id);
+            }
+            return;
+        }
+        for (int word = 0; word < words.length; word++)
+        {
+            long bits = words[word];
+            while (bits != 0)
+            {
+                consumer.accept(((firstWord + word) << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    PrimitiveIterator.OfInt iterator()
+    {
+        if (ids != null)
+        {
+            return Arrays.stream(ids).iterator();
+        }
+        int offset = firstWord << 6;
+        return BitSet.valueOf(words).stream().map(id -> id + offset).iterator();
+    }
+
+    void addTo(BitSet bits)
+    {
+        forEach(bits::set);
+    }
+
+    long estimatedBytes()
+    {
+        return OBJECT_BYTES + ARRAY_BYTES + (ids != null ? (long) Integer.BYTES * ids.length : (long) Long.BYTES * words.length);
+    }
+}
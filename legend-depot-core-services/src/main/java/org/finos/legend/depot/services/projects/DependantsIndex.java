@@ -0,0 +1,94 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+
+package org.finos.legend.depot.services.projects;
+
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+
+/**
+ * Direct dependencies of every project version known to the dependencies cache, with the reverse edges needed to find
+ * the closures a change invalidates.
+ */
+final class DependantsIndex
+{
+    private static final int[] NONE = new int[0];
+
+    private final IntObjectHashMap<int[]> dependencies = new IntObjectHashMap<>();
+    private final IntObjectHashMap<MutableIntSet> dependants = new IntObjectHashMap<>();
+
+    synchronized int[] update(int id, int[] directDependencies)
+    {
+        int[] normalised = IntHashSet.newSetWith(directDependencies).toSortedArray();
+        int[] previous = dependencies.put(id, normalised);
+        if (previous != null)
+        {
+            for (int dependency : previous)
+            {
+                MutableIntSet edges = dependants.get(dependency);
+                if (edges != null)
+                {
+                    edges.remove(id);
+                }
+            }
+        }
+        for (int dependency : normalised)
+        {
+            dependants.getIfAbsentPut(dependency, IntHashSet::new).add(id);
+        }
+        return normalised;
+    }
+
+    synchronized void remove(int id)
+    {
+        update(id, NONE);
+        dependencies.remove(id);
+    }
+
+    synchronized int[] getDependencies(int id)
+    {
+        return dependencies.get(id);
+    }
+
+    synchronized BitSet transitiveDependants(int id)
+    {
+        BitSet affected = new BitSet();
+        Deque<Integer> pending = new ArrayDeque<>();
+        pending.push(id);
+        while (!pending.isEmpty())
+        {
+            MutableIntSet edges = dependants.get(pending.pop());
+            if (edges != null)
+            {
+                edges.forEach(dependant ->
+                {
+                    if (!affected.get(dependant))
+                    {
+                        affected.set(dependant);
+                        pending.push(dependant);
+                    }
+                });
+            }
+        }
+        affected.clear(id);
+        return affected;
+    }
+}
@@ -20,20 +20,41 @@ import org.eclipse.collections.api.map.ConcurrentMutableMap;
 import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
 import org.finos.legend.depot.domain.project.ProjectVersion;
 import org.finos.legend.depot.domain.project.ProjectVersionData;
+import org.finos.legend.depot.domain.project.StoreDependencyClosure;
 import org.finos.legend.depot.domain.project.StoreProjectVersionData;
+import org.finos.legend.depot.store.api.projects.DependencyClosures;
 import org.finos.legend.depot.store.api.projects.ProjectsVersions;
+import org.finos.legend.depot.store.api.projects.UpdateDependencyClosures;
+import org.finos.legend.depot.tracing.api.PrometheusMetricsHandler;
+import org.finos.legend.depot.tracing.services.prometheus.PrometheusMetricsFactory;
 import org.slf4j.Logger;
 
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
 import java.util.Set;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static org.finos.legend.depot.domain.version.VersionValidator.MASTER_SNAPSHOT;
 
@@ -43,36 +64,119 @@ public final class DependenciesCache
     private static final String NOT_FOUND_IN_STORE = "%s-%s-%s not found in store";
     private static final String EXCLUSION_FOUND_IN_STORE = "%s-%s-%s not found in store, exclusion reason: %s";
     private static final String TRANSITIVE_DEPENDENCIES_FAILED_MGS = "getTransitiveDependencies failed for %s: %s";
+    public static final String DEPENDENCIES_CACHE_WARM_UP = "dependencies cache warm up";
+    private static final String PHASE = "phase";
+    public static final String DEPENDENCIES_CACHE_MEMORY = "dependencies cache memory";
+    private static final long ENTRY_BYTES = 64;
     final ConcurrentMutableMap<ProjectVersion, DependencyResult> transitiveDependencies = new ConcurrentHashMap<>();
     AtomicInteger absentKeys = new AtomicInteger(0);
     AtomicInteger resolutionErrors = new AtomicInteger(0);
     private AtomicBoolean initialised = new AtomicBoolean(false);
     private final ProjectsVersions projectsVersionsStore;
+    private final ProjectVersionIds ids = new ProjectVersionIds();
+    private final AtomicLong closureBytes = new AtomicLong();
+    private final DependantsIndex dependants = new DependantsIndex();
+    private final Executor refresher;
+    private final DependencyClosures persistedClosures;
+    private final UpdateDependencyClosures closuresWriter;
+    private final ReadWriteLock invalidation = new ReentrantReadWriteLock();
 
-    public DependenciesCache(ProjectsVersions projectsVersionsService,boolean preLoadFromStore)
+    public DependenciesCache(ProjectsVersions projectsVersionsService, DependencyClosures persistedClosures, UpdateDependencyClosures closuresWriter, boolean preLoadFromStore, Executor refresher)
     {
         this.projectsVersionsStore = projectsVersionsService;
+        this.persistedClosures = persistedClosures;
+        this.closuresWriter = closuresWriter;
+        this.refresher = refresher;
         if (preLoadFromStore)
         {
             initCache();
         }
     }
 
+    public DependenciesCache(ProjectsVersions projectsVersionsService, DependencyClosures persistedClosures, UpdateDependencyClosures closuresWriter, boolean preLoadFromStore)
+    {
+        this(projectsVersionsService, persistedClosures, closuresWriter, preLoadFromStore, Runnable::run);
+    }
+
+    public DependenciesCache(ProjectsVersions projectsVersionsService,boolean preLoadFromStore)
+    {
+        this(projectsVersionsService, null, null, preLoadFromStore, Runnable::run);
+    }
+
     public DependenciesCache(ProjectsVersions projectsVersionsService)
     {
         this(projectsVersionsService,true);
     }
 
+    public static void registerMetrics(PrometheusMetricsHandler metricsHandler)
+    {
+        metricsHandler.registerGauge(DEPENDENCIES_CACHE_WARM_UP, DEPENDENCIES_CACHE_WARM_UP, Arrays.asList(PHASE));
+        metricsHandler.registerGauge(DEPENDENCIES_CACHE_MEMORY, DEPENDENCIES_CACHE_MEMORY);
+    }
+
     private void initCache()
     {
         try
         {
-            List<StoreProjectVersionData> allProjectsVersions = projectsVersionsStore.getAll();
-            Stream<ProjectVersion> versionWithDependencies = allProjectsVersions.stream().filter(p -> !p.getVersionId().equals(MASTER_SNAPSHOT) && !p.getVersionData().getDependencies().isEmpty() && !p.getVersionData().isExcluded()).map(pv -> new ProjectVersion(pv.getGroupId(), pv.getArtifactId(), pv.getVersionId()));
             LOGGER.info("Initialising DependenciesCache");
-            Map<String, StoreProjectVersionData> projectDataMap = allProjectsVersions.stream().filter(p -> !p.getVersionData().isExcluded()).collect(Collectors.toMap(p -> p.getGroupId() + p.getArtifactId() + p.getVersionId(), Function.identity()));
-            versionWithDependencies.forEach(pv -> transitiveDependencies.put(pv, calculateTransitiveDependencies(pv, projectDataMap)));
-            LOGGER.info("Initialising DependenciesCache done: Total [{}] keys in cache, resolutionErrors [{}]",transitiveDependencies.keySet().size(),resolutionErrors.get());
+            long start = System.currentTimeMillis();
+            List<StoreProjectVersionData> allProjectsVersions = projectsVersionsStore.getAll().stream().filter(p -> !p.getVersionData().isExcluded()).collect(Collectors.toList());
+            List<StoreDependencyClosure> storedClosures = persistedClosures == null ? Collections.emptyList() : persistedClosures.getAll();
+            long loaded = recordPhase("load", start);
+
+            DependencyGraph graph = DependencyGraph.build(allProjectsVersions);
+            seedIds(graph, allProjectsVersions);
+            for (int id = 0; id < graph.size(); id++)
+            {
+                if (!graph.isMissing(id))
+                {
+                    dependants.update(id, graph.getDependencies(id));
+                }
+            }
+            boolean[] reached = graph.reachable();
+            List<int[]> levels = graph.levels(reached);
+            long indexed = recordPhase("graph", loaded);
+
+            CompactIdSet[] closures = new CompactIdSet[graph.size()];
+            BitSet reused = reuseStoredClosures(graph, allProjectsVersions, storedClosures, levels, closures);
+            String[] errors = new String[graph.size()];
+            boolean[] inherited = new boolean[graph.size()];
+            ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+            try
+            {
+                graph.closures(levels, reached, closures, errors, inherited, NOT_FOUND_IN_STORE, pool);
+            }
+            finally
+            {
+                pool.shutdown();
+            }
+            long resolved = recordPhase("closures", indexed);
+
+            for (int id = 0; id < graph.size(); id++)
+            {
+                if (reached[id] && !graph.isMissing(id))
+                {
+                    if (closures[id] == null)
+                    {
+                        store(graph.getVersion(id), inherited[id] ? new DependencyResult(errors[id]) : failed(graph.getVersion(id), errors[id]));
+                    }
+                    else
+                    {
+                        store(graph.getVersion(id), new DependencyResult(closures[id], ids));
+                        if (!reused.get(id))
+                        {
+                            BitSet closure = new BitSet();
+                            closures[id].addTo(closure);
+                            persist(allProjectsVersions.get(id), closure);
+                        }
+                    }
+                    closures[id] = null;
+                }
+            }
+            absentKeys.addAndGet(graph.countDependencyTargets(reached));
+            recordPhase("publish", resolved);
+            recordPhase("total", start);
+            LOGGER.info("Initialising DependenciesCache done: Total [{}] keys in cache, [{}] reused from store, [{}] levels, resolutionErrors [{}], estimated memory [{}] bytes in [{}] ms", transitiveDependencies.keySet().size(), reused.cardinality(), levels.size(), resolutionErrors.get(), getEstimatedMemory(), System.currentTimeMillis() - start);
         }
         catch (Exception e)
         {
@@ -82,6 +186,295 @@ public final class DependenciesCache
         initialised.getAndSet(true);
     }
 
+    private void seedIds(DependencyGraph graph, List<StoreProjectVersionData> projectVersions)
+    {
+        // closures, persisted records and the shared dictionary are all addressed by graph id
+        for (int id = 0; id < graph.size(); id++)
+        {
+            ProjectVersion version = graph.getVersion(id);
+            if (ids.intern(version) != id)
+            {
+                throw new IllegalStateException(String.format("dependency graph id %s of %s does not match its dictionary id", id, version.getGav()));
+            }
+            if (!graph.isMissing(id))
+            {
+                StoreProjectVersionData projectVersion = projectVersions.get(id);
+                if (!projectVersion.getGroupId().equals(version.getGroupId()) || !projectVersion.getArtifactId().equals(version.getArtifactId()) || !projectVersion.getVersionId().equals(version.getVersionId()))
+                {
+                    throw new IllegalStateException(String.format("dependency graph id %s of %s does not match its store record", id, version.getGav()));
+                }
+            }
+        }
+    }
+
+    private BitSet reuseStoredClosures(DependencyGraph graph, List<StoreProjectVersionData> projectVersions, List<StoreDependencyClosure> storedClosures, List<int[]> levels, CompactIdSet[] closures)
+    {
+        BitSet reused = new BitSet();
+        if (storedClosures.isEmpty())
+        {
+            return reused;
+        }
+        Map<ProjectVersion, StoreDependencyClosure> stored = storedClosures.stream().collect(Collectors.toMap(c -> new ProjectVersion(c.getGroupId(), c.getArtifactId(), c.getVersionId()), Function.identity(), (a, b) -> a));
+        for (int[] level : levels)
+        {
+            for (int id : level)
+            {
+                StoreDependencyClosure storedClosure = graph.isMissing(id) ? null : stored.get(graph.getVersion(id));
+                if (storedClosure != null && isUnchanged(graph, id, projectVersions.get(id), storedClosure))
+                {
+                    BitSet closure = new BitSet();
+                    for (ProjectVersion member : storedClosure.getClosure())
+                    {
+                        int memberId = graph.find(member);
+                        if (memberId < 0 || !reused.get(memberId))
+                        {
+                            closure = null;
+                            break;
+                        }
+                        closure.set(memberId);
+                    }
+                    if (closure != null)
+                    {
+                        closures[id] = CompactIdSet.of(closure);
+                        reused.set(id);
+                    }
+                }
+            }
+        }
+        return reused;
+    }
+
+    private static boolean isUnchanged(DependencyGraph graph, int id, StoreProjectVersionData projectVersion, StoreDependencyClosure storedClosure)
+    {
+        if (!Objects.equals(projectVersion.getLastUpdated(), storedClosure.getLastUpdated()))
+        {
+            return false;
+        }
+        int[] dependencies = Arrays.stream(graph.getDependencies(id)).distinct().sorted().toArray();
+        int[] storedDependencies = storedClosure.getDependencies().stream().mapToInt(graph::find).distinct().sorted().toArray();
+        return Arrays.equals(dependencies, storedDependencies);
+    }
+
+    private void persistLater(StoreProjectVersionData projectData, BitSet closure)
+    {
+        if (closuresWriter != null && !MASTER_SNAPSHOT.equals(projectData.getVersionId()))
+        {
+            refreshLater(() -> persist(projectData, closure));
+        }
+    }
+
+    private void persist(StoreProjectVersionData projectData, BitSet closure)
+    {
+        if (closuresWriter == null || MASTER_SNAPSHOT.equals(projectData.getVersionId()))
+        {
+            return;
+        }
+        try
+        {
+            List<ProjectVersion> members = closure.stream().mapToObj(ids::get).collect(Collectors.toList());
+            closuresWriter.createOrUpdate(new StoreDependencyClosure(projectData.getGroupId(), projectData.getArtifactId(), projectData.getVersionId(), projectData.getLastUpdated(), projectData.getVersionData().getDependencies(), members));
+        }
+        catch (Exception e)
+        {
+            LOGGER.error("could not store dependency closure for {}-{}-{}: {}", projectData.getGroupId(), projectData.getArtifactId(), projectData.getVersionId(), e.getMessage());
+        }
+    }
+
+    private void forgetStoredClosures(ProjectVersion pv)
+    {
+        Set<ProjectVersion> affected = new HashSet<>();
+        Deque<ProjectVersion> pending = new ArrayDeque<>();
+        affected.add(pv);
+        pending.push(pv);
+        while (!pending.isEmpty())
+        {
+            ProjectVersion next = pending.pop();
+            projectsVersionsStore.findDependants(next.getGroupId(), next.getArtifactId(), next.getVersionId()).forEach(dependant ->
+            {
+                ProjectVersion dependantVersion = new ProjectVersion(dependant.getGroupId(), dependant.getArtifactId(), dependant.getVersionId());
+                if (affected.add(dependantVersion))
+                {
+                    pending.push(dependantVersion);
+                }
+            });
+        }
+        LOGGER.info("forgot stored closures of {} and its dependants: {}", pv.getGav(), closuresWriter.delete(affected));
+    }
+
+    /**
+     * Stores the closure of every released version that has none, or whose stored closure predates its last update
+     */
+    public int backfillStoredClosures()
+    {
+        if (persistedClosures == null || closuresWriter == null)
+        {
+            return 0;
+        }
+        Map<ProjectVersion, Date> stored = new HashMap<>();
+        persistedClosures.getAll().forEach(closure -> stored.put(new ProjectVersion(closure.getGroupId(), closure.getArtifactId(), closure.getVersionId()), closure.getLastUpdated()));
+        int backfilled = 0;
+        for (StoreProjectVersionData projectData : projectsVersionsStore.getAll())
+        {
+            ProjectVersion pv = new ProjectVersion(projectData.getGroupId(), projectData.getArtifactId(), projectData.getVersionId());
+            if (projectData.getVersionData().isExcluded() || MASTER_SNAPSHOT.equals(pv.getVersionId()) || (stored.containsKey(pv) && Objects.equals(stored.get(pv), projectData.getLastUpdated())))
+            {
+                continue;
+            }
+            AtomicBoolean computed = new AtomicBoolean(false);
+            DependencyResult result;
+            invalidation.readLock().lock();
+            try
+            {
+                result = transitiveDependencies.getIfAbsentPut(pv, () ->
+                {
+                    computed.set(true);
+                    absentKeys.getAndIncrement();
+                    return added(calculateTransitiveDependencies(pv, getProjectVersionDataFromStore()));
+                });
+            }
+            finally
+            {
+                invalidation.readLock().unlock();
+            }
+            if (DependencyStatus.SUCCESS.equals(result.getStatus()))
+            {
+                if (!computed.get())
+                {
+                    BitSet closure = new BitSet();
+                    result.closure.addTo(closure);
+                    persist(projectData, closure);
+                }
+                backfilled++;
+            }
+        }
+        LOGGER.info("backfilled [{}] stored dependency closures", backfilled);
+        return backfilled;
+    }
+
+    private long recordPhase(String phase, long start)
+    {
+        long end = System.currentTimeMillis();
+        LOGGER.info("DependenciesCache warm up phase [{}] took [{}] ms", phase, end - start);
+        PrometheusMetricsFactory.getInstance().setGauge(DEPENDENCIES_CACHE_WARM_UP, end - start, Arrays.asList(phase));
+        return end;
+    }
+
+    private DependencyResult failed(ProjectVersion pv, String error)
+    {
+        resolutionErrors.getAndIncrement();
+        LOGGER.error(String.format(TRANSITIVE_DEPENDENCIES_FAILED_MGS, pv.getGav(), error));
+        return new DependencyResult(error);
+    }
+
+    private void store(ProjectVersion pv, DependencyResult result)
+    {
+        DependencyResult previous = transitiveDependencies.put(pv, result);
+        closureBytes.addAndGet(result.estimatedBytes() - (previous == null ? -ENTRY_BYTES : previous.estimatedBytes()));
+        PrometheusMetricsFactory.getInstance().setGauge(DEPENDENCIES_CACHE_MEMORY, getEstimatedMemory());
+    }
+
+    private DependencyResult added(DependencyResult result)
+    {
+        closureBytes.addAndGet(ENTRY_BYTES + result.estimatedBytes());
+        PrometheusMetricsFactory.getInstance().setGauge(DEPENDENCIES_CACHE_MEMORY, getEstimatedMemory());
+        return result;
+    }
+
+    private void evict(ProjectVersion pv)
+    {
+        DependencyResult previous = transitiveDependencies.remove(pv);
+        if (previous != null)
+        {
+            closureBytes.addAndGet(-ENTRY_BYTES - previous.estimatedBytes());
+            PrometheusMetricsFactory.getInstance().setGauge(DEPENDENCIES_CACHE_MEMORY, getEstimatedMemory());
+        }
+    }
+
+    private int[] index(ProjectVersion pv, List<ProjectVersion> directDependencies)
+    {
+        return dependants.update(ids.intern(pv), directDependencies.stream().mapToInt(ids::intern).toArray());
+    }
+
+    public void onChange(ProjectVersionEvents.Change change, StoreProjectVersionData projectData)
+    {
+        ProjectVersion pv = new ProjectVersion(projectData.getGroupId(), projectData.getArtifactId(), projectData.getVersionId());
+        boolean updated = ProjectVersionEvents.Change.UPDATED.equals(change);
+        int id = updated ? ids.intern(pv) : ids.find(pv);
+        if (updated)
+        {
+            DependencyResult cached = transitiveDependencies.get(pv);
+            int[] previous = dependants.getDependencies(id);
+            int[] current = index(pv, projectData.getVersionData().getDependencies());
+            if (cached != null && DependencyStatus.SUCCESS.equals(cached.getStatus()) && Arrays.equals(previous, current))
+            {
+                BitSet closure = new BitSet();
+                cached.closure.addTo(closure);
+                persistLater(projectData, closure);
+                return;
+            }
+        }
+        if (closuresWriter != null)
+        {
+            refreshLater(() -> forgetStoredClosures(pv));
+        }
+        if (id < 0)
+        {
+            return;
+        }
+        if (!updated)
+        {
+            dependants.remove(id);
+        }
+        BitSet affected;
+        invalidation.writeLock().lock();
+        try
+        {
+            affected = dependants.transitiveDependants(id);
+            evict(pv);
+            affected.stream().forEach(dependant -> evict(ids.get(dependant)));
+        }
+        finally
+        {
+            invalidation.writeLock().unlock();
+        }
+        LOGGER.info("{} {} invalidated [{}] dependant closures", change, pv.getGav(), affected.cardinality());
+        if (updated)
+        {
+            affected.set(id);
+            refreshLater(() -> affected.stream().forEach(refreshed -> refresh(ids.get(refreshed))));
+        }
+    }
+
+    private void refreshLater(Runnable task)
+    {
+        try
+        {
+            refresher.execute(task);
+        }
+        catch (RejectedExecutionException e)
+        {
+            LOGGER.warn("dependencies cache refresher stopped, refresh skipped");
+        }
+    }
+
+    private void refresh(ProjectVersion pv)
+    {
+        invalidation.readLock().lock();
+        try
+        {
+            this.transitiveDependencies.getIfAbsentPut(pv, () -> added(calculateTransitiveDependencies(pv, getProjectVersionDataFromStore())));
+        }
+        finally
+        {
+            invalidation.readLock().unlock();
+        }
+    }
+
+    public long getEstimatedMemory()
+    {
+        return closureBytes.get() + ids.estimatedBytes();
+    }
+
     private Function3<String,String,String,StoreProjectVersionData> getProjectVersionDataFromStore()
     {
         return (group, artifact, versionId) ->
@@ -100,39 +493,31 @@ public final class DependenciesCache
         };
     }
 
-    private Function3<String,String,String,StoreProjectVersionData> getProjectVersionDataFromProjectsMap(Map<String, StoreProjectVersionData> projectDataMap)
-    {
-        return (group, artifact, versionId) -> projectDataMap.get(group + artifact + versionId);
-    }
-
-    private DependencyResult calculateTransitiveDependencies(ProjectVersion projectVersion, Map<String, StoreProjectVersionData> projectDataMap)
-    {
-        return calculateTransitiveDependencies(projectVersion, getProjectVersionDataFromProjectsMap(projectDataMap));
-    }
-
     private DependencyResult calculateTransitiveDependencies(ProjectVersion pv, Function3<String,String,String,StoreProjectVersionData> projectDataProvider)
     {
-        Set<ProjectVersion> dependencies = new HashSet<>();
+        BitSet dependencies = new BitSet();
         try
         {
             StoreProjectVersionData projectData = projectDataProvider.value(pv.getGroupId(), pv.getArtifactId(), pv.getVersionId());
             if (projectData != null)
             {
                 List<ProjectVersion> projectVersionDependencies = projectData.getVersionData().getDependencies();
+                index(pv, projectVersionDependencies);
                 projectVersionDependencies.forEach(dep ->
                 {
                     DependencyResult deps = this.transitiveDependencies.getIfAbsentPut(dep,() ->
                     {
                         absentKeys.getAndIncrement();
-                        return calculateTransitiveDependencies(dep, projectDataProvider);
+                        return added(calculateTransitiveDependencies(dep, projectDataProvider));
                     });
                     if (DependencyStatus.FAIL.equals(deps.getStatus()))
                     {
                         throw new IllegalStateException(String.format(NOT_FOUND_IN_STORE, dep.getGroupId(), dep.getArtifactId(), dep.getVersionId()));
                     }
-                    dependencies.add(dep);
-                    dependencies.addAll(deps.getProjectVersion());
+                    dependencies.set(ids.intern(dep));
+                    deps.closure.addTo(dependencies);
                 });
+                persistLater(projectData, dependencies);
             }
             else
             {
@@ -145,10 +530,28 @@ public final class DependenciesCache
             LOGGER.error(String.format(TRANSITIVE_DEPENDENCIES_FAILED_MGS,pv.getGav(),e.getMessage()));
             return new DependencyResult(e.getMessage());
         }
-        return new DependencyResult(dependencies);
+        return new DependencyResult(CompactIdSet.of(dependencies), ids);
     }
 
     public Set<ProjectVersion> getTransitiveDependencies(ProjectVersion pv)
+    {
+        DependencyResult cached = MASTER_SNAPSHOT.equals(pv.getVersionId()) ? null : transitiveDependencies.get(pv);
+        if (cached != null && DependencyStatus.SUCCESS.equals(cached.getStatus()))
+        {
+            return cached.getProjectVersion();
+        }
+        invalidation.readLock().lock();
+        try
+        {
+            return resolveTransitiveDependencies(pv);
+        }
+        finally
+        {
+            invalidation.readLock().unlock();
+        }
+    }
+
+    private Set<ProjectVersion> resolveTransitiveDependencies(ProjectVersion pv)
     {
         if (MASTER_SNAPSHOT.equals(pv.getVersionId()))
         {
@@ -158,7 +561,7 @@ public final class DependenciesCache
             {
                 throw new IllegalStateException(String.format(TRANSITIVE_DEPENDENCIES_FAILED_MGS, pv.getGav(),depResult.errors));
             }
-            this.transitiveDependencies.put(pv, depResult);
+            store(pv, depResult);
             return depResult.getProjectVersion();
         }
         else
@@ -166,7 +569,7 @@ public final class DependenciesCache
             DependencyResult depResult = this.transitiveDependencies.getIfAbsentPut(pv, () ->
             {
                 absentKeys.getAndIncrement();
-                return calculateTransitiveDependencies(pv, getProjectVersionDataFromStore());
+                return added(calculateTransitiveDependencies(pv, getProjectVersionDataFromStore()));
             });
             if (DependencyStatus.FAIL.equals(depResult.getStatus()))
             {
@@ -175,7 +578,7 @@ public final class DependenciesCache
                 {
                     throw new IllegalStateException(String.format(TRANSITIVE_DEPENDENCIES_FAILED_MGS, pv.getGav(),depResult.errors));
                 }
-                this.transitiveDependencies.put(pv, depResult);
+                store(pv, depResult);
             }
             return depResult.getProjectVersion();
         }
@@ -183,12 +586,14 @@ public final class DependenciesCache
 
     public static class DependencyResult
     {
-        private Set<ProjectVersion> projectVersion;
+        private CompactIdSet closure;
+        private ProjectVersionIds ids;
         private String errors;
 
-        DependencyResult(Set<ProjectVersion> projectVersion)
+        DependencyResult(CompactIdSet closure, ProjectVersionIds ids)
         {
-            this.projectVersion = projectVersion;
+            this.closure = closure;
+            this.ids = ids;
         }
 
         public DependencyResult(String errorMessage)
@@ -203,13 +608,62 @@ public final class DependenciesCache
 
         public Set<ProjectVersion> getProjectVersion()
         {
-            return projectVersion;
+            return closure == null ? null : new ProjectVersionSet(closure, ids);
         }
 
         public String getErrors()
         {
             return errors;
         }
+
+        long estimatedBytes()
+        {
+            return closure == null ? 2L * errors.length() : closure.estimatedBytes();
+        }
+    }
+
+    private static final class ProjectVersionSet extends AbstractSet<ProjectVersion>
+    {
+        private final CompactIdSet closure;
+        private final ProjectVersionIds ids;
+
+        private ProjectVersionSet(CompactIdSet closure, ProjectVersionIds ids)
+        {
+            this.closure = closure;
+            this.ids = ids;
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+            return o instanceof ProjectVersion && closure.contains(ids.find((ProjectVersion) o));
+        }
+
+        @Override
+        public Iterator<ProjectVersion> iterator()
+        {
+            PrimitiveIterator.OfInt members = closure.iterator();
+            return new Iterator<ProjectVersion>()
+            {
+                @Override
+                public boolean hasNext()
+                {
+                    return members.hasNext();
+                }
+
+                @Override
+                public ProjectVersion next()
+                {
+                    return ids.get(members.nextInt());
+                }
+            };
+        }
+
+        @Override
+        public int size()
+        {
+            return closure.size();
+        }
     }
 
     public enum DependencyStatus
@@ -0,0 +1,276 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.services.projects;
+
+import org.finos.legend.depot.domain.project.ProjectVersion;
+import org.finos.legend.depot.domain.project.StoreProjectVersionData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.finos.legend.depot.domain.version.VersionValidator.MASTER_SNAPSHOT;
+
+/**
+ * Dependency graph of all stored project versions, interned to integer ids with primitive adjacency arrays.
+ * Ids below knownCount are stored versions; ids above it are dependencies missing from the store.
+ */
+final class DependencyGraph
+{
+    private static final String DUPLICATE_VERSION = "duplicate project version %s";
+    private static final String CYCLIC_DEPENDENCY = "%s has a cyclic dependency";
+
+    private final List<ProjectVersion> versions = new ArrayList<>();
+    private final Map<ProjectVersion, Integer> ids = new HashMap<>();
+    private final int knownCount;
+    private final int[][] dependencies;
+    private final boolean[] roots;
+
+    private DependencyGraph(List<StoreProjectVersionData> projectVersions)
+    {
+        for (StoreProjectVersionData projectVersion : projectVersions)
+        {
+            ProjectVersion version = new ProjectVersion(projectVersion.getGroupId(), projectVersion.getArtifactId(), projectVersion.getVersionId());
+            if (ids.putIfAbsent(version, versions.size()) != null)
+            {
+                throw new IllegalStateException(String.format(DUPLICATE_VERSION, version.getGav()));
+            }
+            versions.add(version);
+        }
+        this.knownCount = versions.size();
+        List<int[]> adjacency = new ArrayList<>(knownCount);
+        for (StoreProjectVersionData projectVersion : projectVersions)
+        {
+            List<ProjectVersion> versionDependencies = projectVersion.getVersionData().getDependencies();
+            int[] dependencyIds = new int[versionDependencies.size()];
+            for (int i = 0; i < dependencyIds.length; i++)
+            {
+                dependencyIds[i] = intern(versionDependencies.get(i));
+            }
+            adjacency.add(dependencyIds);
+        }
+        this.dependencies = new int[versions.size()][];
+        for (int id = 0; id < dependencies.length; id++)
+        {
+            dependencies[id] = id < knownCount ? adjacency.get(id) : new int[0];
+        }
+        this.roots = new boolean[versions.size()];
+        for (int id = 0; id < knownCount; id++)
+        {
+            roots[id] = !MASTER_SNAPSHOT.equals(versions.get(id).getVersionId()) && dependencies[id].length > 0;
+        }
+    }
+
+    static DependencyGraph build(List<StoreProjectVersionData> projectVersions)
+    {
+        return new DependencyGraph(projectVersions);
+    }
+
+    private int intern(ProjectVersion version)
+    {
+        return ids.computeIfAbsent(version, key ->
+        {
+            versions.add(key);
+            return versions.size() - 1;
+        });
+    }
+
+    int size()
+    {
+        return versions.size();
+    }
+
+    List<ProjectVersion> getVersions()
+    {
+        return Collections.unmodifiableList(versions);
+    }
+
+    ProjectVersion getVersion(int id)
+    {
+        return versions.get(id);
+    }
+
+    int find(ProjectVersion version)
+    {
+        Integer id = ids.get(version);
+        return id == null ? -1 : id;
+    }
+
+    boolean isMissing(int id)
+    {
+        return id >= knownCount;
+    }
+
+    int[] getDependencies(int id)
+    {
+        return dependencies[id];
+    }
+
+    /**
+     * Versions the cache is warmed with: every released version with dependencies plus everything they reach.
+     */
+    boolean[] reachable()
+    {
+        boolean[] reached = new boolean[size()];
+        int[] stack = new int[size()];
+        int top = 0;
+        for (int id = 0; id < knownCount; id++)
+        {
+            if (roots[id] && !reached[id])
+            {
+                reached[id] = true;
+                stack[top++] = id;
+            }
+        }
+        while (top > 0)
+        {
+            for (int dependency : dependencies[stack[--top]])
+            {
+                if (!reached[dependency])
+                {
+                    reached[dependency] = true;
+                    stack[top++] = dependency;
+                }
+            }
+        }
+        return reached;
+    }
+
+    int countDependencyTargets(boolean[] reached)
+    {
+        boolean[] targets = new boolean[size()];
+        for (int id = 0; id < size(); id++)
+        {
+            if (reached[id])
+            {
+                Arrays.stream(dependencies[id]).forEach(dependency -> targets[dependency] = true);
+            }
+        }
+        return (int) IntStream.range(0, knownCount).filter(id -> targets[id]).count();
+    }
+
+    /**
+     * Groups reachable versions into levels so that every version only depends on versions in earlier levels.
+     * Versions on or depending on a cycle are left out and reported as unresolved.
+     */
+    List<int[]> levels(boolean[] reached)
+    {
+        int[] remaining = new int[size()];
+        int[][] dependents = reverse(reached, remaining);
+        List<int[]> levels = new ArrayList<>();
+        int[] level = IntStream.range(0, size()).filter(id -> reached[id] && remaining[id] == 0).toArray();
+        while (level.length > 0)
+        {
+            levels.add(level);
+            IntStream.Builder next = IntStream.builder();
+            for (int id : level)
+            {
+                for (int dependent : dependents[id])
+                {
+                    if (--remaining[dependent] == 0)
+                    {
+                        next.add(dependent);
+                    }
+                }
+            }
+            level = next.build().toArray();
+        }
+        return levels;
+    }
+
+    private int[][] reverse(boolean[] reached, int[] remaining)
+    {
+        int[] counts = new int[size()];
+        for (int id = 0; id < size(); id++)
+        {
+            if (reached[id])
+            {
+                remaining[id] = dependencies[id].length;
+                Arrays.stream(dependencies[id]).forEach(dependency -> counts[dependency]++);
+            }
+        }
+        int[][] dependents = new int[size()][];
+        for (int id = 0; id < size(); id++)
+        {
+            dependents[id] = new int[counts[id]];
+            counts[id] = 0;
+        }
+        for (int id = 0; id < size(); id++)
+        {
+            if (reached[id])
+            {
+                for (int dependency : dependencies[id])
+                {
+                    dependents[dependency][counts[dependency]++] = id;
+                }
+            }
+        }
+        return dependents;
+    }
+
+    /**
+     * Computes the closure of every reachable stored version level by level, each level in parallel on the given pool.
+     * Closures already present in the given array are kept as they are; each one is compacted as soon as it is built
+     * so only the versions in flight hold a full-width bitmap.
+     * A null closure means the version could not be resolved and errors holds the reason. Versions that only fail
+     * because a dependency failed carry that dependency's reason and are flagged as inherited.
+     */
+    CompactIdSet[] closures(List<int[]> levels, boolean[] reached, CompactIdSet[] closures, String[] errors, boolean[] inherited, String notFoundMessage, ForkJoinPool pool) throws InterruptedException, ExecutionException
+    {
+        for (int[] level : levels)
+        {
+            pool.submit(() -> Arrays.stream(level).parallel().filter(id -> !isMissing(id) && closures[id] == null).forEach(id -> closures[id] = closure(id, closures, errors, inherited, notFoundMessage))).get();
+        }
+        for (int id = 0; id < knownCount; id++)
+        {
+            if (reached[id] && closures[id] == null && errors[id] == null)
+            {
+                errors[id] = String.format(CYCLIC_DEPENDENCY, versions.get(id).getGav());
+            }
+        }
+        return closures;
+    }
+
+    private CompactIdSet closure(int id, CompactIdSet[] closures, String[] errors, boolean[] inherited, String notFoundMessage)
+    {
+        BitSet closure = new BitSet();
+        for (int dependency : dependencies[id])
+        {
+            if (isMissing(dependency))
+            {
+                ProjectVersion version = versions.get(dependency);
+                errors[id] = String.format(notFoundMessage, version.getGroupId(), version.getArtifactId(), version.getVersionId());
+                return null;
+            }
+            if (closures[dependency] == null)
+            {
+                errors[id] = errors[dependency];
+                inherited[id] = true;
+                return null;
+            }
+            closure.set(dependency);
+            closures[dependency].addTo(closure);
+        }
+        return CompactIdSet.of(closure);
+    }
+}
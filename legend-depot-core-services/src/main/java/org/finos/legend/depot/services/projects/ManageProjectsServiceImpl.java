@@ -31,20 +31,26 @@ public class ManageProjectsServiceImpl extends ProjectsServiceImpl implements Ma
 
     private final UpdateProjectsVersions projectsVersions;
     private final UpdateProjects projects;
+    private final ProjectVersionEvents events;
 
     @Inject
-    public ManageProjectsServiceImpl(UpdateProjectsVersions projectsVersions, UpdateProjects projects, @Named("dependencyCache") DependenciesCache dependenciesCache)
+    public ManageProjectsServiceImpl(UpdateProjectsVersions projectsVersions, UpdateProjects projects, @Named("dependencyCache") DependenciesCache dependenciesCache, @Named("projectVersionEvents") ProjectVersionEvents events)
     {
         super(projectsVersions,projects,dependenciesCache);
         this.projects = projects;
         this.projectsVersions = projectsVersions;
+        this.events = events;
+    }
+
+    public ManageProjectsServiceImpl(UpdateProjectsVersions projectsVersions, UpdateProjects projects, DependenciesCache dependenciesCache)
+    {
+        this(projectsVersions, projects, dependenciesCache, new ProjectVersionEvents());
+        this.events.subscribe(dependenciesCache::onChange);
     }
 
     public ManageProjectsServiceImpl(UpdateProjectsVersions projectsVersions, UpdateProjects projects)
     {
-        super(projectsVersions, projects, new DependenciesCache(projectsVersions));
-        this.projects = projects;
-        this.projectsVersions = projectsVersions;
+        this(projectsVersions, projects, new DependenciesCache(projectsVersions));
     }
 
     @Override
@@ -56,7 +62,9 @@ public class ManageProjectsServiceImpl extends ProjectsServiceImpl implements Ma
     @Override
     public StoreProjectVersionData createOrUpdate(StoreProjectVersionData projectData)
     {
-        return projectsVersions.createOrUpdate(projectData);
+        StoreProjectVersionData result = projectsVersions.createOrUpdate(projectData);
+        events.publish(projectData.getVersionData().isExcluded() ? ProjectVersionEvents.Change.EXCLUDED : ProjectVersionEvents.Change.UPDATED, projectData);
+        return result;
     }
 
     @Override
@@ -68,14 +76,19 @@ public class ManageProjectsServiceImpl extends ProjectsServiceImpl implements Ma
     @Override
     public MetadataEventResponse delete(String groupId, String artifactId)
     {
+        List<StoreProjectVersionData> versions = projectsVersions.find(groupId, artifactId);
         projects.delete(groupId, artifactId);
-        return projectsVersions.delete(groupId, artifactId);
+        MetadataEventResponse response = projectsVersions.delete(groupId, artifactId);
+        versions.forEach(version -> events.publish(ProjectVersionEvents.Change.DELETED, version));
+        return response;
     }
 
     @Override
     public MetadataEventResponse delete(String groupId, String artifactId, String versionId)
     {
-        return projectsVersions.deleteByVersionId(groupId, artifactId, versionId);
+        MetadataEventResponse response = projectsVersions.deleteByVersionId(groupId, artifactId, versionId);
+        events.publish(ProjectVersionEvents.Change.DELETED, new StoreProjectVersionData(groupId, artifactId, versionId));
+        return response;
     }
 
     @Override
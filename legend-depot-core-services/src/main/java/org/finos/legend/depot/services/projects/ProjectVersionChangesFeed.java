@@ -0,0 +1,97 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.services.projects;
+
+import org.finos.legend.depot.domain.project.StoreProjectVersionChange;
+import org.finos.legend.depot.domain.project.StoreProjectVersionData;
+import org.finos.legend.depot.store.api.projects.ProjectVersionChanges;
+import org.finos.legend.depot.store.api.projects.ProjectsVersions;
+import org.finos.legend.depot.store.api.projects.UpdateProjectVersionChanges;
+import org.slf4j.Logger;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Shares project version changes between servers: the store server records them and read servers poll and republish them to their local caches.
+ */
+public final class ProjectVersionChangesFeed
+{
+    private static final Logger LOGGER = org.slf4j.LoggerFactory.getLogger(ProjectVersionChangesFeed.class);
+    static final long OVERLAP_IN_MILLIS = 60000L;
+
+    private final ProjectVersionChanges changes;
+    private final ProjectsVersions projectsVersions;
+    private final ProjectVersionEvents events;
+    private final Map<String, Long> seen = new HashMap<>();
+    private long since;
+
+    public ProjectVersionChangesFeed(ProjectVersionChanges changes, ProjectsVersions projectsVersions, ProjectVersionEvents events)
+    {
+        this.changes = changes;
+        this.projectsVersions = projectsVersions;
+        this.events = events;
+        this.since = System.currentTimeMillis();
+    }
+
+    public static ProjectVersionEvents.Listener publishTo(UpdateProjectVersionChanges changes)
+    {
+        return (change, projectVersion) -> changes.record(new StoreProjectVersionChange(projectVersion.getGroupId(), projectVersion.getArtifactId(), projectVersion.getVersionId(), change.name(), new Date()));
+    }
+
+    public synchronized int poll()
+    {
+        int published = 0;
+        for (StoreProjectVersionChange change : changes.findSince(new Date(since - OVERLAP_IN_MILLIS)))
+        {
+            long changedAt = change.getChangedAt().getTime();
+            since = Math.max(since, changedAt);
+            if (seen.put(change.getId(), changedAt) == null)
+            {
+                republish(change);
+                published++;
+            }
+        }
+        seen.values().removeIf(changedAt -> changedAt < since - OVERLAP_IN_MILLIS);
+        if (published > 0)
+        {
+            LOGGER.info("republished [{}] project version changes", published);
+        }
+        return published;
+    }
+
+    private void republish(StoreProjectVersionChange change)
+    {
+        ProjectVersionEvents.Change type = ProjectVersionEvents.Change.valueOf(change.getChange());
+        StoreProjectVersionData projectVersion = new StoreProjectVersionData(change.getGroupId(), change.getArtifactId(), change.getVersionId());
+        if (ProjectVersionEvents.Change.UPDATED.equals(type))
+        {
+            Optional<StoreProjectVersionData> current = projectsVersions.find(change.getGroupId(), change.getArtifactId(), change.getVersionId());
+            if (current.isPresent())
+            {
+                projectVersion = current.get();
+                type = projectVersion.getVersionData().isExcluded() ? ProjectVersionEvents.Change.EXCLUDED : type;
+            }
+            else
+            {
+                type = ProjectVersionEvents.Change.DELETED;
+            }
+        }
+        events.publish(type, projectVersion);
+    }
+}
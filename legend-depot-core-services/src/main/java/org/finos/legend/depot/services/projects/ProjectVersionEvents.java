@@ -0,0 +1,63 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+
+package org.finos.legend.depot.services.projects;
+
+import org.finos.legend.depot.domain.project.StoreProjectVersionData;
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Publishes project version changes made through the manage projects service to the caches derived from them.
+ */
+public final class ProjectVersionEvents
+{
+    private static final Logger LOGGER = org.slf4j.LoggerFactory.getLogger(ProjectVersionEvents.class);
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public void subscribe(Listener listener)
+    {
+        this.listeners.add(listener);
+    }
+
+    public void publish(Change change, StoreProjectVersionData projectVersion)
+    {
+        for (Listener listener : listeners)
+        {
+            try
+            {
+                listener.onChange(change, projectVersion);
+            }
+            catch (Exception e)
+            {
+                LOGGER.error("project version listener failed for {} {}-{}-{}: {}", change, projectVersion.getGroupId(), projectVersion.getArtifactId(), projectVersion.getVersionId(), e.getMessage());
+            }
+        }
+    }
+
+    public enum Change
+    {
+        UPDATED, DELETED, EXCLUDED
+    }
+
+    @FunctionalInterface
+    public interface Listener
+    {
+        void onChange(Change change, StoreProjectVersionData projectVersion);
+    }
+}
@@ -0,0 +1,70 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.services.projects;
+
+import org.finos.legend.depot.domain.project.ProjectVersion;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared dictionary of every project version held by the dependencies cache, so closures can refer to versions by id.
+ * Ids are handed out densely and never reused.
+ */
+final class ProjectVersionIds
+{
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long ENTRY_BYTES = 160;
+
+    private final Map<ProjectVersion, Integer> ids = new HashMap<>();
+    private volatile ProjectVersion[] versions = new ProjectVersion[INITIAL_CAPACITY];
+    private int size;
+    private long estimatedBytes;
+
+    synchronized int intern(ProjectVersion version)
+    {
+        Integer id = ids.get(version);
+        if (id != null)
+        {
+            return id;
+        }
+        if (size == versions.length)
+        {
+            versions = Arrays.copyOf(versions, size * 2);
+        }
+        versions[size] = version;
+        ids.put(version, size);
+        estimatedBytes += ENTRY_BYTES + 2L * (version.getGroupId().length() + version.getArtifactId().length() + version.getVersionId().length());
+        return size++;
+    }
+
+    synchronized int find(ProjectVersion version)
+    {
+        Integer id = ids.get(version);
+        return id == null ? -1 : id;
+    }
+
+    ProjectVersion get(int id)
+    {
+        return versions[id];
+    }
+
+    synchronized long estimatedBytes()
+    {
+        return estimatedBytes + 16L + 8L * versions.length;
+    }
+}
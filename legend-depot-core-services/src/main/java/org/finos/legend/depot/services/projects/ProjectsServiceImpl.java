@@ -16,6 +16,7 @@
 package org.finos.legend.depot.services.projects;
 
 import org.eclipse.collections.api.factory.Sets;
+import org.finos.legend.depot.domain.api.Page;
 import org.finos.legend.depot.domain.project.ProjectVersionData;
 import org.finos.legend.depot.domain.project.StoreProjectData;
 import org.finos.legend.depot.domain.project.StoreProjectVersionData;
@@ -82,6 +83,12 @@ public class ProjectsServiceImpl implements ProjectsService
         return projects.getProjects(page, pageSize);
     }
 
+    @Override
+    public Page<StoreProjectData> getProjects(String continuationToken, int pageSize)
+    {
+        return projects.getProjects(continuationToken, pageSize);
+    }
+
     @Override
     public List<String> getVersions(String groupId, String artifactId)
     {
@@ -119,6 +126,12 @@ public class ProjectsServiceImpl implements ProjectsService
         return projectsVersions.find(groupId, artifactId, versionId);
     }
 
+    @Override
+    public List<StoreProjectVersionData> find(List<ProjectVersion> projectVersions)
+    {
+        return projectsVersions.find(projectVersions);
+    }
+
     @Override
     public void checkExists(String groupId, String artifactId) throws IllegalArgumentException
     {
@@ -245,15 +258,9 @@ public class ProjectsServiceImpl implements ProjectsService
     @Override
     public List<ProjectDependencyWithPlatformVersions> getDependentProjects(String groupId, String artifactId, String versionId)
     {
-        if (versionId.equalsIgnoreCase("ALL"))
-        {
-            return projectsVersions.getAll().stream().map(projectData -> projectData.getVersionData().getDependencies().stream()
-                    .filter(dep -> dep.getGroupId().equals(groupId) && dep.getArtifactId().equals(artifactId))
-                    .map(dep -> new ProjectDependencyWithPlatformVersions(projectData.getGroupId(), projectData.getArtifactId(), projectData.getVersionId(), dep,projectData.getVersionData().getProperties()))
-                    .collect(Collectors.toList())).flatMap(Collection::stream).collect(Collectors.toList());
-        }
-        return projectsVersions.getAll().stream().map(projectData -> projectData.getVersionData().getDependencies().stream()
-                .filter(dep -> dep.getGroupId().equals(groupId) && dep.getArtifactId().equals(artifactId) && dep.getVersionId().equals(versionId))
+        String dependencyVersionId = versionId.equalsIgnoreCase("ALL") ? null : versionId;
+        return projectsVersions.findDependants(groupId, artifactId, dependencyVersionId).stream().map(projectData -> projectData.getVersionData().getDependencies().stream()
+                .filter(dep -> dep.getGroupId().equals(groupId) && dep.getArtifactId().equals(artifactId) && (dependencyVersionId == null || dep.getVersionId().equals(dependencyVersionId)))
                 .map(dep -> new ProjectDependencyWithPlatformVersions(projectData.getGroupId(), projectData.getArtifactId(), projectData.getVersionId(), dep,projectData.getVersionData().getProperties()))
                 .collect(Collectors.toList())).flatMap(Collection::stream).collect(Collectors.toList());
     }
@@ -24,6 +24,7 @@ import org.finos.legend.depot.domain.project.StoreProjectVersionData;
 import org.finos.legend.depot.domain.project.ProjectVersion;
 import org.finos.legend.depot.services.TestBaseServices;
 import org.finos.legend.depot.services.api.entities.ManageEntitiesService;
+import org.finos.legend.depot.services.projects.ProjectVersionEvents;
 import org.finos.legend.depot.services.projects.ProjectsServiceImpl;
 import org.finos.legend.sdlc.domain.model.entity.Entity;
 import org.junit.Assert;
@@ -32,7 +33,14 @@ import org.junit.Test;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import java.util.function.Predicate;
 
 public class TestEntitiesService extends TestBaseServices
@@ -144,4 +152,182 @@ public class TestEntitiesService extends TestBaseServices
         Assert.assertEquals(0, entitiesService.getEntitiesByPackage("examples.metadata","test1","1.0.0",pkgName,true, Collections.EMPTY_SET,true).size());
 
     }
+
+    @Test
+    public void canServeReleasedVersionEntitiesFromCache()
+    {
+        EntitiesCache cache = new EntitiesCache();
+        ManageEntitiesService cachedEntitiesService = new ManageEntitiesServiceImpl(entitiesStore, new ProjectsServiceImpl(projectsVersionsStore, projectsStore), cache, DependencyEntitiesExecutor.callerRuns());
+
+        List<Entity> entities = cachedEntitiesService.getEntities("examples.metadata", "test", "2.3.1", false);
+        Assert.assertEquals(7, entities.size());
+        Assert.assertEquals(1, cache.size());
+        Assert.assertTrue(cache.getWeight() > 0);
+        Assert.assertSame(entities, cachedEntitiesService.getEntities("examples.metadata", "test", "2.3.1", false));
+
+        String pkgName = "examples::metadata::test";
+        Assert.assertEquals(entitiesService.getEntitiesByPackage("examples.metadata", "test", "2.3.1", pkgName, false, null, true).size(),
+                cachedEntitiesService.getEntitiesByPackage("examples.metadata", "test", "2.3.1", pkgName, false, null, true).size());
+        Assert.assertEquals(entitiesService.getEntitiesByPackage("examples.metadata", "test", "2.3.1", pkgName, false, null, false).size(),
+                cachedEntitiesService.getEntitiesByPackage("examples.metadata", "test", "2.3.1", pkgName, false, null, false).size());
+        Assert.assertEquals(entities.get(0), cachedEntitiesService.getEntity("examples.metadata", "test", "2.3.1", entities.get(0).getPath()).get());
+
+        cachedEntitiesService.createOrUpdate(Collections.singletonList(new StoredEntity("examples.metadata", "test", "2.3.1", false, new EntityDefinition("examples::metadata::test::NewClass", "meta::pure::metamodel::type::Class", Collections.singletonMap("package", "examples::metadata::test")))));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(8, cachedEntitiesService.getEntities("examples.metadata", "test", "2.3.1", false).size());
+    }
+
+    @Test
+    public void streamedAndReadEntitiesGoThroughCache()
+    {
+        EntitiesCache cache = new EntitiesCache();
+        ManageEntitiesService cachedEntitiesService = new ManageEntitiesServiceImpl(entitiesStore, new ProjectsServiceImpl(projectsVersionsStore, projectsStore), cache, DependencyEntitiesExecutor.callerRuns());
+
+        try (Stream<Entity> streamed = cachedEntitiesService.getEntitiesAsStream("examples.metadata", "test", "2.3.1", false))
+        {
+            Assert.assertEquals(7, streamed.count());
+        }
+        Assert.assertEquals(1, cache.size());
+        List<Entity> cached = cache.getIfPresent("examples.metadata", "test", "2.3.1", false).get();
+        try (Stream<Entity> streamed = cachedEntitiesService.getEntitiesAsStream("examples.metadata", "test", "2.3.1", false))
+        {
+            Assert.assertEquals(cached, streamed.collect(Collectors.toList()));
+        }
+
+        Assert.assertFalse(entitiesStore.createOrUpdateEntitiesBundle("examples.metadata", "test", "2.3.1", false).hasErrors());
+        Assert.assertEquals(cached, cachedEntitiesService.readEntities("examples.metadata", "test", "2.3.1", false, bundle -> null, entities -> entities.get().collect(Collectors.toList())));
+
+        cache.invalidateAll();
+        Assert.assertNull(cachedEntitiesService.readEntities("examples.metadata", "test", "2.3.1", false, bundle -> null, entities -> entities.get().collect(Collectors.toList())));
+        Assert.assertEquals(0, cache.size());
+        List<Entity> read = cachedEntitiesService.readEntities("examples.metadata", "test", "2.3.1", true, bundle -> null, entities -> entities.get().collect(Collectors.toList()));
+        Assert.assertEquals(read, cache.getIfPresent("examples.metadata", "test", "2.3.1", true).get());
+    }
+
+    @Test
+    public void cachedEntitiesAreNotServedForExcludedOrChangedVersions()
+    {
+        EntitiesCache cache = new EntitiesCache();
+        ProjectVersionEvents events = new ProjectVersionEvents();
+        events.subscribe(cache::onChange);
+        ManageEntitiesService cachedEntitiesService = new ManageEntitiesServiceImpl(entitiesStore, new ProjectsServiceImpl(projectsVersionsStore, projectsStore), cache, DependencyEntitiesExecutor.callerRuns());
+        Assert.assertEquals(7, cachedEntitiesService.getEntities("examples.metadata", "test", "2.3.1", false).size());
+        Assert.assertFalse(cachedEntitiesService.getEntity("examples.metadata", "test", "2.3.1", "examples::metadata::test::Missing").isPresent());
+
+        StoreProjectVersionData excluded = projectsVersionsStore.find("examples.metadata", "test", "2.3.1").get();
+        excluded.getVersionData().setExcluded(true);
+        projectsVersionsStore.createOrUpdate(excluded);
+        Assert.assertEquals(1, cache.size());
+        try
+        {
+            cachedEntitiesService.getEntities("examples.metadata", "test", "2.3.1", false);
+            Assert.fail();
+        }
+        catch (IllegalArgumentException e)
+        {
+            Assert.assertTrue(e.getMessage().contains("exclusion"));
+        }
+        try
+        {
+            cachedEntitiesService.getEntitiesByPackage("examples.metadata", "test", "2.3.1", "examples::metadata::test", false, null, true);
+            Assert.fail();
+        }
+        catch (IllegalArgumentException e)
+        {
+            Assert.assertTrue(e.getMessage().contains("exclusion"));
+        }
+
+        events.publish(ProjectVersionEvents.Change.EXCLUDED, excluded);
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void cacheEvictsLeastRecentlyUsedVersions()
+    {
+        List<Entity> entities = entitiesService.getEntities("example.services.test", "test", "2.0.1", false);
+        EntitiesCache cache = new EntitiesCache(EntitiesCache.estimateWeight(entities), EntitiesCache.DEFAULT_EXPIRY_IN_MILLIS);
+        ManageEntitiesService cachedEntitiesService = new ManageEntitiesServiceImpl(entitiesStore, new ProjectsServiceImpl(projectsVersionsStore, projectsStore), cache, DependencyEntitiesExecutor.callerRuns());
+
+        cachedEntitiesService.getEntities("examples.metadata", "test", "2.3.1", false);
+        Assert.assertEquals(1, cache.size());
+        cachedEntitiesService.getEntities("example.services.test", "test", "2.0.1", false);
+        Assert.assertEquals(1, cache.size());
+        Assert.assertTrue(cache.getIfPresent("example.services.test", "test", "2.0.1", false).isPresent());
+        Assert.assertFalse(cache.getIfPresent("examples.metadata", "test", "2.3.1", false).isPresent());
+        Assert.assertTrue(cache.getWeight() <= EntitiesCache.estimateWeight(entities));
+        Assert.assertFalse(cache.isCacheable("master-SNAPSHOT"));
+    }
+
+    @Test
+    public void dependencyEntitiesAreFetchedOnBoundedExecutorInGavOrder()
+    {
+        ManageEntitiesService parallelEntitiesService = new ManageEntitiesServiceImpl(entitiesStore, new ProjectsServiceImpl(projectsVersionsStore, projectsStore), EntitiesCache.disabled(), new DependencyEntitiesExecutor(4, 2));
+
+        List<ProjectVersionEntities> dependencies = parallelEntitiesService.getDependenciesEntities("examples.metadata", "test", "2.3.1", false, true, true);
+        Assert.assertEquals(3, dependencies.size());
+        Assert.assertEquals(dependencies.stream().sorted(Comparator.comparing(ProjectVersionEntities::getGroupId).thenComparing(ProjectVersionEntities::getArtifactId).thenComparing(ProjectVersionEntities::getVersionId)).collect(Collectors.toList()), dependencies);
+        Assert.assertEquals(entitiesService.getDependenciesEntities("examples.metadata", "test", "2.3.1", false, true, true), dependencies);
+    }
+
+    @Test
+    public void streamedDependencyEntitiesAreFetchedInBatchesInGavOrder()
+    {
+        ManageEntitiesService parallelEntitiesService = new ManageEntitiesServiceImpl(entitiesStore, new ProjectsServiceImpl(projectsVersionsStore, projectsStore), EntitiesCache.disabled(), new DependencyEntitiesExecutor(4, 2));
+        Set<ProjectVersion> dependencies = parallelEntitiesService.getDependencies(Arrays.asList(new ProjectVersion("examples.metadata", "test", "2.3.1")), true, true);
+        try (Stream<ProjectVersionEntities> streamed = parallelEntitiesService.getDependenciesEntitiesAsStream(dependencies, false))
+        {
+            Assert.assertEquals(entitiesService.getDependenciesEntities("examples.metadata", "test", "2.3.1", false, true, true), streamed.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void dependencyEntitiesExecutorCapsConcurrencyPerRequest()
+    {
+        DependencyEntitiesExecutor executor = new DependencyEntitiesExecutor(8, 3);
+        List<Integer> items = IntStream.range(0, 50).boxed().collect(Collectors.toList());
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        List<Integer> results = executor.map(items, item ->
+        {
+            threads.add(Thread.currentThread().getName());
+            return item * 2;
+        });
+        Assert.assertEquals(items.stream().map(item -> item * 2).collect(Collectors.toList()), results);
+        Assert.assertTrue(threads.size() <= 3);
+        Assert.assertEquals(items, DependencyEntitiesExecutor.callerRuns().map(items, item -> item));
+    }
+
+    @Test
+    public void dependencyEntitiesExecutorStopsFetchingAfterFailure()
+    {
+        DependencyEntitiesExecutor executor = new DependencyEntitiesExecutor(new DependencyEntitiesConfiguration(4, 1));
+        List<Integer> items = IntStream.range(0, 50).boxed().collect(Collectors.toList());
+        AtomicInteger fetched = new AtomicInteger();
+        try
+        {
+            executor.map(items, item ->
+            {
+                fetched.incrementAndGet();
+                if (item == 5)
+                {
+                    throw new IllegalStateException("failed to fetch " + item);
+                }
+                return item;
+            });
+            Assert.fail("expected failure");
+        }
+        catch (IllegalStateException e)
+        {
+            Assert.assertEquals("failed to fetch 5", e.getMessage());
+        }
+        Assert.assertEquals(6, fetched.get());
+    }
+
+    @Test
+    public void dependencyEntitiesConfigurationDefaults()
+    {
+        DependencyEntitiesConfiguration configuration = new DependencyEntitiesConfiguration();
+        Assert.assertEquals(DependencyEntitiesExecutor.DEFAULT_THREADS, configuration.getThreads());
+        Assert.assertEquals(DependencyEntitiesExecutor.DEFAULT_MAX_CONCURRENCY_PER_REQUEST, configuration.getMaxConcurrencyPerRequest());
+    }
 }
@@ -19,8 +19,11 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.bson.Document;
 import org.finos.legend.depot.domain.project.ProjectVersion;
+import org.finos.legend.depot.domain.project.StoreDependencyClosure;
 import org.finos.legend.depot.domain.project.StoreProjectVersionData;
 import org.finos.legend.depot.services.TestBaseServices;
+import org.finos.legend.depot.store.mongo.projects.DependencyClosuresMongo;
+import org.finos.legend.depot.store.mongo.projects.ProjectVersionChangesMongo;
 import org.finos.legend.depot.store.mongo.projects.ProjectsVersionsMongo;
 import org.junit.After;
 import org.junit.Assert;
@@ -28,6 +31,10 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
 import java.util.Set;
 
 import static org.finos.legend.depot.domain.version.VersionValidator.MASTER_SNAPSHOT;
@@ -242,9 +249,95 @@ public class TestDependencyCache extends TestBaseServices
         projectsVersionsStore.createOrUpdate(projectB);
         DependenciesCache dependenciesCache = new DependenciesCache(projectsVersionsStore);
         Assert.assertEquals(dependenciesCache.transitiveDependencies.get(new ProjectVersion(TEST_GROUP,"artifacta","1.0.0")).getStatus(), DependenciesCache.DependencyStatus.FAIL);
-        Assert.assertEquals(dependenciesCache.transitiveDependencies.get(new ProjectVersion(TEST_GROUP,"artifactd","1.0.0")).getStatus(), DependenciesCache.DependencyStatus.FAIL);
+        Assert.assertFalse(dependenciesCache.transitiveDependencies.containsKey(new ProjectVersion(TEST_GROUP,"artifactd","1.0.0")));
         Assert.assertEquals(dependenciesCache.transitiveDependencies.get(new ProjectVersion(TEST_GROUP,"artifactb","1.0.0")).getStatus(), DependenciesCache.DependencyStatus.SUCCESS);
-        Assert.assertEquals(dependenciesCache.transitiveDependencies.values().size(), 5);
+        Assert.assertEquals(dependenciesCache.transitiveDependencies.values().size(), 4);
+    }
+
+    @Test
+    public void initialiseCacheResolvesSharedDependenciesAcrossLevels()
+    {
+        seedTestData();
+        StoreProjectVersionData projectD = new StoreProjectVersionData(TEST_GROUP, "artifactd", "1.0.0");
+        projectD.getVersionData().addDependency(new ProjectVersion(TEST_GROUP, "artifacta", "2.0.0"));
+        projectD.getVersionData().addDependency(new ProjectVersion(TEST_GROUP, "artifactc", "1.0.0"));
+        projectsVersionsStore.createOrUpdate(projectD);
+        StoreProjectVersionData projectE = new StoreProjectVersionData(TEST_GROUP, "artifacte", "1.0.0");
+        projectE.getVersionData().addDependency(new ProjectVersion(TEST_GROUP, "artifactd", "1.0.0"));
+        projectsVersionsStore.createOrUpdate(projectE);
+
+        DependenciesCache dependenciesCache = new DependenciesCache(projectsVersionsStore);
+        Assert.assertEquals(6, dependenciesCache.transitiveDependencies.size());
+        Set<ProjectVersion> closure = dependenciesCache.getTransitiveDependencies(new ProjectVersion(TEST_GROUP, "artifacte", "1.0.0"));
+        Assert.assertEquals(4, closure.size());
+        Assert.assertTrue(closure.contains(new ProjectVersion(TEST_GROUP, "artifactd", "1.0.0")));
+        Assert.assertTrue(closure.contains(new ProjectVersion(TEST_GROUP, "artifacta", "2.0.0")));
+        Assert.assertTrue(closure.contains(new ProjectVersion(TEST_GROUP, "artifactb", "1.0.0")));
+        Assert.assertTrue(closure.contains(new ProjectVersion(TEST_GROUP, "artifactc", "1.0.0")));
+        Assert.assertEquals(0, dependenciesCache.resolutionErrors.get());
+    }
+
+    @Test
+    public void initialiseCacheFailsCyclicDependencies()
+    {
+        seedTestData();
+        StoreProjectVersionData projectC = projectsVersionsStore.find(TEST_GROUP, "artifactc", "1.0.0").get();
+        projectC.getVersionData().addDependency(new ProjectVersion(TEST_GROUP, "artifactb", "1.0.0"));
+        projectsVersionsStore.createOrUpdate(projectC);
+
+        DependenciesCache dependenciesCache = new DependenciesCache(projectsVersionsStore);
+        Assert.assertEquals(DependenciesCache.DependencyStatus.FAIL, dependenciesCache.transitiveDependencies.get(new ProjectVersion(TEST_GROUP, "artifactb", "1.0.0")).getStatus());
+        Assert.assertEquals(DependenciesCache.DependencyStatus.FAIL, dependenciesCache.transitiveDependencies.get(new ProjectVersion(TEST_GROUP, "artifactc", "1.0.0")).getStatus());
+        Assert.assertEquals(DependenciesCache.DependencyStatus.FAIL, dependenciesCache.transitiveDependencies.get(new ProjectVersion(TEST_GROUP, "artifacta", "1.0.0")).getStatus());
+        Assert.assertEquals(4, dependenciesCache.resolutionErrors.get());
+    }
+
+    @Test
+    public void initialiseCacheReportsMissingDependencyOnceWithItsCause()
+    {
+        seedTestData();
+        StoreProjectVersionData projectC = projectsVersionsStore.find(TEST_GROUP, "artifactc", "1.0.0").get();
+        projectC.getVersionData().addDependency(new ProjectVersion(TEST_GROUP, "unknown", "1.0.0"));
+        projectsVersionsStore.createOrUpdate(projectC);
+
+        DependenciesCache dependenciesCache = new DependenciesCache(projectsVersionsStore);
+        String cause = TEST_GROUP + "-unknown-1.0.0 not found in store";
+        Assert.assertFalse(dependenciesCache.transitiveDependencies.containsKey(new ProjectVersion(TEST_GROUP, "unknown", "1.0.0")));
+        Assert.assertEquals(cause, dependenciesCache.transitiveDependencies.get(new ProjectVersion(TEST_GROUP, "artifactc", "1.0.0")).getErrors());
+        Assert.assertEquals(cause, dependenciesCache.transitiveDependencies.get(new ProjectVersion(TEST_GROUP, "artifactb", "1.0.0")).getErrors());
+        Assert.assertEquals(cause, dependenciesCache.transitiveDependencies.get(new ProjectVersion(TEST_GROUP, "artifacta", "2.0.0")).getErrors());
+        Assert.assertEquals(1, dependenciesCache.resolutionErrors.get());
+    }
+
+    @Test
+    public void closuresAreSharedThroughTheVersionDictionary()
+    {
+        int chainLength = 200;
+        for (int i = 0; i < chainLength; i++)
+        {
+            StoreProjectVersionData version = new StoreProjectVersionData(TEST_GROUP, "chain", i + ".0.0");
+            if (i > 0)
+            {
+                version.getVersionData().addDependency(new ProjectVersion(TEST_GROUP, "chain", (i - 1) + ".0.0"));
+            }
+            projectsVersionsStore.createOrUpdate(version);
+        }
+        DependenciesCache dependenciesCache = new DependenciesCache(projectsVersionsStore);
+        long warmedUp = dependenciesCache.getEstimatedMemory();
+        Assert.assertTrue(warmedUp > 0);
+
+        Set<ProjectVersion> closure = dependenciesCache.getTransitiveDependencies(new ProjectVersion(TEST_GROUP, "chain", (chainLength - 1) + ".0.0"));
+        Assert.assertEquals(chainLength - 1, closure.size());
+        Assert.assertTrue(closure.contains(new ProjectVersion(TEST_GROUP, "chain", "0.0.0")));
+        Assert.assertFalse(closure.contains(new ProjectVersion(TEST_GROUP, "chain", (chainLength - 1) + ".0.0")));
+        Assert.assertFalse(closure.contains(new ProjectVersion(TEST_GROUP, "unknown", "1.0.0")));
+        Assert.assertEquals(chainLength - 1, closure.stream().distinct().count());
+
+        StoreProjectVersionData head = new StoreProjectVersionData(TEST_GROUP, "chain", MASTER_SNAPSHOT);
+        head.getVersionData().addDependency(new ProjectVersion(TEST_GROUP, "chain", (chainLength - 1) + ".0.0"));
+        projectsVersionsStore.createOrUpdate(head);
+        Assert.assertEquals(chainLength, dependenciesCache.getTransitiveDependencies(new ProjectVersion(TEST_GROUP, "chain", MASTER_SNAPSHOT)).size());
+        Assert.assertTrue(dependenciesCache.getEstimatedMemory() > warmedUp);
     }
 
     @Test
@@ -280,6 +373,201 @@ public class TestDependencyCache extends TestBaseServices
 
     }
 
+    @Test
+    public void updatingDependencyRecomputesDependantClosures()
+    {
+        seedTestData();
+        DependenciesCache dependenciesCache = new DependenciesCache(projectsVersionsStore, null, null, true, Runnable::run);
+        ManageProjectsServiceImpl projectsService = new ManageProjectsServiceImpl(projectsVersionsStore, projectsStore, dependenciesCache);
+        ProjectVersion projectAv2 = new ProjectVersion(TEST_GROUP,"artifacta","2.0.0");
+        DependenciesCache.DependencyResult unchanged = dependenciesCache.transitiveDependencies.get(projectAv2);
+
+        projectsService.createOrUpdate(projectsVersionsStore.find(TEST_GROUP,"artifactc","1.0.0").get());
+        Assert.assertSame(unchanged, dependenciesCache.transitiveDependencies.get(projectAv2));
+
+        projectsService.createOrUpdate(new StoreProjectVersionData(TEST_GROUP, "artifactd", "1.0.0"));
+        StoreProjectVersionData projectC = projectsVersionsStore.find(TEST_GROUP,"artifactc","1.0.0").get();
+        projectC.getVersionData().addDependency(new ProjectVersion(TEST_GROUP, "artifactd", "1.0.0"));
+        projectsService.createOrUpdate(projectC);
+
+        Assert.assertNotSame(unchanged, dependenciesCache.transitiveDependencies.get(projectAv2));
+        Assert.assertEquals(3, dependenciesCache.transitiveDependencies.get(projectAv2).getProjectVersion().size());
+        Assert.assertEquals(3, dependenciesCache.transitiveDependencies.get(new ProjectVersion(TEST_GROUP,"artifacta","1.0.0")).getProjectVersion().size());
+        Assert.assertEquals(2, dependenciesCache.transitiveDependencies.get(new ProjectVersion(TEST_GROUP,"artifactb","1.0.0")).getProjectVersion().size());
+        Assert.assertTrue(dependenciesCache.getTransitiveDependencies(projectAv2).contains(new ProjectVersion(TEST_GROUP, "artifactd", "1.0.0")));
+    }
+
+    @Test
+    public void deletingOrExcludingDependencyInvalidatesDependants()
+    {
+        seedTestData();
+        DependenciesCache dependenciesCache = new DependenciesCache(projectsVersionsStore, null, null, true, Runnable::run);
+        ManageProjectsServiceImpl projectsService = new ManageProjectsServiceImpl(projectsVersionsStore, projectsStore, dependenciesCache);
+        ProjectVersion projectAv1 = new ProjectVersion(TEST_GROUP,"artifacta","1.0.0");
+        ProjectVersion projectB = new ProjectVersion(TEST_GROUP,"artifactb","1.0.0");
+        ProjectVersion projectC = new ProjectVersion(TEST_GROUP,"artifactc","1.0.0");
+
+        projectsService.excludeProjectVersion(TEST_GROUP, "artifactb", "1.0.0", "bad version");
+        Assert.assertEquals(1, dependenciesCache.transitiveDependencies.size());
+        Assert.assertTrue(dependenciesCache.transitiveDependencies.containsKey(projectC));
+        try
+        {
+            dependenciesCache.getTransitiveDependencies(projectAv1);
+            Assert.fail();
+        }
+        catch (IllegalStateException e)
+        {
+            Assert.assertTrue(e.getMessage().contains("artifactb"));
+        }
+
+        StoreProjectVersionData restoredB = new StoreProjectVersionData(TEST_GROUP,"artifactb","1.0.0");
+        restoredB.getVersionData().addDependency(projectC);
+        projectsService.createOrUpdate(restoredB);
+        Assert.assertEquals(2, dependenciesCache.getTransitiveDependencies(projectAv1).size());
+
+        projectsService.delete(TEST_GROUP, "artifactc", "1.0.0");
+        Assert.assertFalse(dependenciesCache.transitiveDependencies.containsKey(projectC));
+        Assert.assertFalse(dependenciesCache.transitiveDependencies.containsKey(projectB));
+        Assert.assertFalse(dependenciesCache.transitiveDependencies.containsKey(projectAv1));
+        try
+        {
+            dependenciesCache.getTransitiveDependencies(projectAv1);
+            Assert.fail();
+        }
+        catch (IllegalStateException e)
+        {
+            Assert.assertTrue(e.getMessage().contains("artifactb"));
+        }
+    }
+
+    @Test
+    public void readServerCachesAreInvalidatedThroughTheChangesFeed()
+    {
+        seedTestData();
+        ProjectVersionChangesMongo changes = new ProjectVersionChangesMongo(mongoProvider);
+        DependenciesCache storeCache = new DependenciesCache(projectsVersionsStore, null, null, true, Runnable::run);
+        ProjectVersionEvents storeEvents = new ProjectVersionEvents();
+        storeEvents.subscribe(storeCache::onChange);
+        storeEvents.subscribe(ProjectVersionChangesFeed.publishTo(changes));
+        ManageProjectsServiceImpl projectsService = new ManageProjectsServiceImpl(projectsVersionsStore, projectsStore, storeCache, storeEvents);
+
+        DependenciesCache readCache = new DependenciesCache(projectsVersionsStore, null, null, true, Runnable::run);
+        ProjectVersionEvents readEvents = new ProjectVersionEvents();
+        readEvents.subscribe(readCache::onChange);
+        ProjectVersionChangesFeed feed = new ProjectVersionChangesFeed(changes, projectsVersionsStore, readEvents);
+        ProjectVersion projectAv2 = new ProjectVersion(TEST_GROUP,"artifacta","2.0.0");
+        Assert.assertEquals(2, readCache.getTransitiveDependencies(projectAv2).size());
+
+        projectsService.createOrUpdate(new StoreProjectVersionData(TEST_GROUP, "artifactd", "1.0.0"));
+        StoreProjectVersionData projectC = projectsVersionsStore.find(TEST_GROUP,"artifactc","1.0.0").get();
+        projectC.getVersionData().addDependency(new ProjectVersion(TEST_GROUP, "artifactd", "1.0.0"));
+        projectsService.createOrUpdate(projectC);
+        Assert.assertEquals(3, storeCache.getTransitiveDependencies(projectAv2).size());
+        Assert.assertEquals(2, readCache.getTransitiveDependencies(projectAv2).size());
+
+        Assert.assertEquals(2, feed.poll());
+        Assert.assertEquals(3, readCache.getTransitiveDependencies(projectAv2).size());
+        Assert.assertEquals(0, feed.poll());
+
+        projectsService.delete(TEST_GROUP, "artifactd", "1.0.0");
+        Assert.assertEquals(1, feed.poll());
+        Assert.assertFalse(readCache.transitiveDependencies.containsKey(projectAv2));
+        try
+        {
+            readCache.getTransitiveDependencies(projectAv2);
+            Assert.fail();
+        }
+        catch (IllegalStateException e)
+        {
+            Assert.assertTrue(e.getMessage().contains("artifact"));
+        }
+    }
+
+    @Test
+    public void refreshedVersionsStoreTheirClosures()
+    {
+        seedTestData();
+        DependencyClosuresMongo dependencyClosures = new DependencyClosuresMongo(mongoProvider);
+        DependenciesCache dependenciesCache = new DependenciesCache(projectsVersionsStore, dependencyClosures, dependencyClosures, false, Runnable::run);
+        ManageProjectsServiceImpl projectsService = new ManageProjectsServiceImpl(projectsVersionsStore, projectsStore, dependenciesCache);
+
+        StoreProjectVersionData projectD = new StoreProjectVersionData(TEST_GROUP,"artifactd","1.0.0");
+        projectD.setLastUpdated(new Date());
+        projectD.getVersionData().addDependency(new ProjectVersion(TEST_GROUP, "artifactb", "1.0.0"));
+        projectsService.createOrUpdate(projectD);
+
+        Assert.assertEquals(3, dependencyClosures.getAll().size());
+        StoreDependencyClosure storedD = dependencyClosures.find(TEST_GROUP,"artifactd","1.0.0").get();
+        Assert.assertEquals(projectD.getLastUpdated(), storedD.getLastUpdated());
+        Assert.assertEquals(projectD.getVersionData().getDependencies(), storedD.getDependencies());
+        Assert.assertEquals(2, storedD.getClosure().size());
+
+        projectsService.delete(TEST_GROUP, "artifactc", "1.0.0");
+        Assert.assertTrue(dependencyClosures.getAll().isEmpty());
+    }
+
+    @Test
+    public void closuresAreStoredOffTheRequestPathAndNotForSnapshots()
+    {
+        seedTestData();
+        StoreProjectVersionData snapshot = new StoreProjectVersionData(TEST_GROUP,"artifactd",MASTER_SNAPSHOT);
+        snapshot.getVersionData().addDependency(new ProjectVersion(TEST_GROUP, "artifactc", "1.0.0"));
+        projectsVersionsStore.createOrUpdate(snapshot);
+        DependencyClosuresMongo dependencyClosures = new DependencyClosuresMongo(mongoProvider);
+        List<Runnable> writes = new ArrayList<>();
+        DependenciesCache dependenciesCache = new DependenciesCache(projectsVersionsStore, dependencyClosures, dependencyClosures, false, writes::add);
+
+        Assert.assertEquals(2, dependenciesCache.getTransitiveDependencies(new ProjectVersion(TEST_GROUP,"artifacta","2.0.0")).size());
+        Assert.assertEquals(1, dependenciesCache.getTransitiveDependencies(new ProjectVersion(TEST_GROUP,"artifactd",MASTER_SNAPSHOT)).size());
+        Assert.assertTrue(dependencyClosures.getAll().isEmpty());
+
+        writes.forEach(Runnable::run);
+        Assert.assertEquals(3, dependencyClosures.getAll().size());
+        Assert.assertFalse(dependencyClosures.find(TEST_GROUP,"artifactd",MASTER_SNAPSHOT).isPresent());
+    }
+
+    @Test
+    public void backfillStoresMissingAndOutdatedClosures()
+    {
+        seedTestData();
+        DependencyClosuresMongo dependencyClosures = new DependencyClosuresMongo(mongoProvider);
+        DependenciesCache dependenciesCache = new DependenciesCache(projectsVersionsStore, dependencyClosures, dependencyClosures, false, Runnable::run);
+        Assert.assertEquals(4, dependenciesCache.backfillStoredClosures());
+        Assert.assertEquals(4, dependencyClosures.getAll().size());
+        Assert.assertEquals(0, dependenciesCache.backfillStoredClosures());
+
+        StoreProjectVersionData projectC = projectsVersionsStore.find(TEST_GROUP,"artifactc","1.0.0").get();
+        projectC.setLastUpdated(new Date());
+        projectsVersionsStore.createOrUpdate(projectC);
+        Assert.assertEquals(1, dependenciesCache.backfillStoredClosures());
+        Assert.assertEquals(projectC.getLastUpdated(), dependencyClosures.find(TEST_GROUP,"artifactc","1.0.0").get().getLastUpdated());
+    }
+
+    @Test
+    public void initialiseCacheReusesStoredClosuresAndRecomputesChangedOnes()
+    {
+        seedTestData();
+        DependencyClosuresMongo dependencyClosures = new DependencyClosuresMongo(mongoProvider);
+        new DependenciesCache(projectsVersionsStore, dependencyClosures, dependencyClosures, true, Runnable::run);
+        Assert.assertEquals(4, dependencyClosures.getAll().size());
+
+        ProjectVersion projectAv2 = new ProjectVersion(TEST_GROUP,"artifacta","2.0.0");
+        StoreDependencyClosure storedAv2 = dependencyClosures.find(TEST_GROUP,"artifacta","2.0.0").get();
+        storedAv2.setClosure(Collections.singletonList(new ProjectVersion(TEST_GROUP, "artifactb", "1.0.0")));
+        dependencyClosures.createOrUpdate(storedAv2);
+        DependenciesCache reusingCache = new DependenciesCache(projectsVersionsStore, dependencyClosures, null, true, Runnable::run);
+        Assert.assertEquals(1, reusingCache.getTransitiveDependencies(projectAv2).size());
+
+        projectsVersionsStore.createOrUpdate(new StoreProjectVersionData(TEST_GROUP,"artifactd","1.0.0"));
+        StoreProjectVersionData projectC = projectsVersionsStore.find(TEST_GROUP,"artifactc","1.0.0").get();
+        projectC.setLastUpdated(new Date());
+        projectC.getVersionData().addDependency(new ProjectVersion(TEST_GROUP, "artifactd", "1.0.0"));
+        projectsVersionsStore.createOrUpdate(projectC);
+        DependenciesCache recomputingCache = new DependenciesCache(projectsVersionsStore, dependencyClosures, null, true, Runnable::run);
+        Assert.assertEquals(3, recomputingCache.getTransitiveDependencies(projectAv2).size());
+        Assert.assertEquals(2, recomputingCache.getTransitiveDependencies(new ProjectVersion(TEST_GROUP,"artifactb","1.0.0")).size());
+    }
+
     @Test
     public void errorInitialisingDupProjects()
     {
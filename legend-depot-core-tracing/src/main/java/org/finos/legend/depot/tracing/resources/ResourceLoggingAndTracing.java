@@ -18,6 +18,7 @@ package org.finos.legend.depot.tracing.resources;
 public class ResourceLoggingAndTracing
 {
     public static final String GET_ALL_PROJECTS = "get all projects";
+    public static final String GET_PROJECTS_PAGE = "get projects page";
     public static final String GET_PROJECT_CONFIG_BY_GA = "get project configuration by ga";
     public static final String GET_ALL_LEGACY_PROJECTS = "get all projects legacy";
     public static final String GET_PROJECT_BY_GA = "get project by ga";
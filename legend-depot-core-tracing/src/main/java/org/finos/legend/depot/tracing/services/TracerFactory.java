@@ -15,6 +15,7 @@
 
 package org.finos.legend.depot.tracing.services;
 
+import io.opentracing.Scope;
 import io.opentracing.Span;
 import io.opentracing.Tracer;
 import io.opentracing.log.Fields;
@@ -148,6 +149,39 @@ public final class TracerFactory
         }
     }
 
+    public Span activeSpan()
+    {
+        return GlobalTracer.get().activeSpan();
+    }
+
+    public <T> T executeWithTrace(Span parent, String label, Supplier<T> supplier)
+    {
+        if (parent == null)
+        {
+            return executeWithTrace(label, supplier);
+        }
+        try (Scope scope = GlobalTracer.get().activateSpan(parent))
+        {
+            return executeWithTrace(label, supplier);
+        }
+    }
+
+    public Runnable withActiveSpan(Runnable runnable)
+    {
+        Span activeSpan = GlobalTracer.get().activeSpan();
+        if (activeSpan == null)
+        {
+            return runnable;
+        }
+        return () ->
+        {
+            try (Scope scope = GlobalTracer.get().activateSpan(activeSpan))
+            {
+                runnable.run();
+            }
+        };
+    }
+
     public <T> T executeWithTrace(String label, Supplier<T> supplier)
     {
         Span child = INSTANCE.startSpan(label);
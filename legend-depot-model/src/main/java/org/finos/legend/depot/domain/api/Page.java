@@ -0,0 +1,73 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.domain.api;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A page of results read in sort key order; continuationToken is null once the last page has been read
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Page<T>
+{
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    @JsonProperty
+    private final List<T> items;
+    @JsonProperty
+    private final String continuationToken;
+
+    @JsonCreator
+    public Page(@JsonProperty("items") List<T> items, @JsonProperty("continuationToken") String continuationToken)
+    {
+        this.items = items != null ? items : Collections.emptyList();
+        this.continuationToken = continuationToken;
+    }
+
+    public List<T> getItems()
+    {
+        return items;
+    }
+
+    public String getContinuationToken()
+    {
+        return continuationToken;
+    }
+
+    public boolean hasMore()
+    {
+        return continuationToken != null;
+    }
+
+    public static boolean isValidPageSize(int pageSize)
+    {
+        return pageSize >= 1 && pageSize <= MAX_PAGE_SIZE;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Page{" +
+                "items=" + items.size() +
+                ", continuationToken=" + continuationToken +
+                '}';
+    }
+}
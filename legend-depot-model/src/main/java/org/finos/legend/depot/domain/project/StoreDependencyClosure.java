@@ -0,0 +1,102 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+
+package org.finos.legend.depot.domain.project;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
+import org.finos.legend.depot.domain.HasIdentifier;
+import org.finos.legend.depot.domain.VersionedData;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class StoreDependencyClosure extends VersionedData implements HasIdentifier
+{
+    @JsonProperty
+    private Date lastUpdated;
+    @JsonProperty
+    private List<ProjectVersion> dependencies = new ArrayList<>();
+    @JsonProperty
+    private List<ProjectVersion> closure = new ArrayList<>();
+
+    public StoreDependencyClosure()
+    {
+        super();
+    }
+
+    public StoreDependencyClosure(String groupId, String artifactId, String versionId, Date lastUpdated, List<ProjectVersion> dependencies, List<ProjectVersion> closure)
+    {
+        super(groupId, artifactId, versionId);
+        this.lastUpdated = lastUpdated;
+        this.dependencies = dependencies;
+        this.closure = closure;
+    }
+
+    public Date getLastUpdated()
+    {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(Date lastUpdated)
+    {
+        this.lastUpdated = lastUpdated;
+    }
+
+    public List<ProjectVersion> getDependencies()
+    {
+        return dependencies;
+    }
+
+    public void setDependencies(List<ProjectVersion> dependencies)
+    {
+        this.dependencies = dependencies;
+    }
+
+    public List<ProjectVersion> getClosure()
+    {
+        return closure;
+    }
+
+    public void setClosure(List<ProjectVersion> closure)
+    {
+        this.closure = closure;
+    }
+
+    @Override
+    @JsonIgnore
+    public String getId()
+    {
+        return "";
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        return EqualsBuilder.reflectionEquals(this, obj);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return HashCodeBuilder.reflectionHashCode(this);
+    }
+}
@@ -0,0 +1,75 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.domain.project;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.finos.legend.depot.domain.VersionedData;
+
+import java.util.Date;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class StoreProjectVersionChange extends VersionedData
+{
+    @JsonProperty
+    private String id;
+    @JsonProperty
+    private String change;
+    @JsonProperty
+    private Date changedAt;
+
+    public StoreProjectVersionChange()
+    {
+        super();
+    }
+
+    public StoreProjectVersionChange(String groupId, String artifactId, String versionId, String change, Date changedAt)
+    {
+        super(groupId, artifactId, versionId);
+        this.change = change;
+        this.changedAt = changedAt;
+    }
+
+    public String getId()
+    {
+        return id;
+    }
+
+    public void setId(String id)
+    {
+        this.id = id;
+    }
+
+    public String getChange()
+    {
+        return change;
+    }
+
+    public void setChange(String change)
+    {
+        this.change = change;
+    }
+
+    public Date getChangedAt()
+    {
+        return changedAt;
+    }
+
+    public void setChangedAt(Date changedAt)
+    {
+        this.changedAt = changedAt;
+    }
+}
@@ -32,7 +32,6 @@ public class StoreProjectVersionData extends VersionedData implements HasIdentif
     private boolean evicted = false;
     @JsonProperty
     private Date creationDate;
-    //TODO: understand how to populate last updated
     @JsonProperty
     private Date lastUpdated;
     @JsonProperty
@@ -53,6 +53,16 @@ public class StoreOperationResult
         this.insertedCount++;
     }
 
+    public void addModifiedCount(long count)
+    {
+        this.modifiedCount += count;
+    }
+
+    public void addInsertedCount(long count)
+    {
+        this.insertedCount += count;
+    }
+
     public void addDeletionCount()
     {
         this.deletionCount++;
@@ -22,6 +22,7 @@ import org.finos.legend.depot.domain.version.VersionValidator;
 import org.finos.legend.depot.server.pure.model.context.api.PureModelContextService;
 import org.finos.legend.depot.store.metrics.services.QueryMetricsContainer;
 import org.finos.legend.depot.tracing.resources.BaseResource;
+import org.finos.legend.depot.tracing.resources.VersionedResponse;
 import org.finos.legend.engine.protocol.pure.v1.model.context.PureModelContextData;
 
 import javax.inject.Inject;
@@ -51,6 +52,7 @@ public class PureModelContextResource extends BaseResource
     @GET
     @Path("projects/{groupId}/{artifactId}/versions/{versionId}/pureModelContextData")
     @ApiOperation(GET_VERSION_ENTITIES_AS_PMCD)
+    @VersionedResponse
     @Produces(MediaType.APPLICATION_JSON)
     public PureModelContextData getPureModelContextData(@PathParam("groupId") String groupId,
                                                         @PathParam("artifactId") String artifactId,
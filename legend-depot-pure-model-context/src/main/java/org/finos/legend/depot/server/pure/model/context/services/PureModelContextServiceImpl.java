@@ -19,6 +19,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.finos.legend.depot.domain.entity.ProjectVersionEntities;
+import org.finos.legend.depot.domain.project.ProjectVersion;
 import org.finos.legend.depot.server.pure.model.context.api.PureModelContextService;
 import org.finos.legend.depot.server.pure.model.context.api.PureModelContextServiceException;
 import org.finos.legend.depot.services.api.entities.EntitiesService;
@@ -34,6 +35,7 @@ import org.slf4j.Logger;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -78,24 +80,36 @@ public class PureModelContextServiceImpl implements PureModelContextService
             }
         }
 
-        List<Entity> entities = this.entitiesService.getEntities(groupId, artifactId, version, versioned);
-        PureModelContextData pureModelContextData = getPureModelContextData(entities, groupId, artifactId, version, clientVersion);
         if (!getDependencies)
         {
-            return pureModelContextData;
+            return getPureModelContextData(this.entitiesService.getEntities(groupId, artifactId, version, versioned), groupId, artifactId, version, clientVersion);
         }
         else
         {
-            List<ProjectVersionEntities> dependencyProjectVersionEntities = this.entitiesService.getDependenciesEntities(groupId, artifactId, version, versioned, true, false);      // always get transitive dependencies and include entities of project itself
+            ProjectVersion origin = new ProjectVersion(groupId, artifactId, version);
+            List<ProjectVersionEntities> projectVersionEntities = this.entitiesService.getDependenciesEntities(groupId, artifactId, version, versioned, true, true);      // always get transitive dependencies and include entities of project itself
 
+            PureModelContextData pureModelContextData = null;
             List<PureModelContextData> dependenciesPMCD = new ArrayList<>();
-            for (ProjectVersionEntities projectVersionEntities : dependencyProjectVersionEntities)
+            for (ProjectVersionEntities entities : projectVersionEntities)
             {
-                dependenciesPMCD.add(getPureModelContextData(projectVersionEntities.getEntities().stream().map(x -> (Entity) x).collect(Collectors.toList()),
-                        projectVersionEntities.getGroupId(),
-                        projectVersionEntities.getArtifactId(),
-                        projectVersionEntities.getVersionId(),
-                        clientVersion));
+                PureModelContextData data = getPureModelContextData(entities.getEntities().stream().map(x -> (Entity) x).collect(Collectors.toList()),
+                        entities.getGroupId(),
+                        entities.getArtifactId(),
+                        entities.getVersionId(),
+                        clientVersion);
+                if (origin.equals(new ProjectVersion(entities.getGroupId(), entities.getArtifactId(), entities.getVersionId())))
+                {
+                    pureModelContextData = data;
+                }
+                else
+                {
+                    dependenciesPMCD.add(data);
+                }
+            }
+            if (pureModelContextData == null)
+            {
+                pureModelContextData = getPureModelContextData(Collections.emptyList(), groupId, artifactId, version, clientVersion);
             }
             return combinePureModelContextData(pureModelContextData, dependenciesPMCD);
         }
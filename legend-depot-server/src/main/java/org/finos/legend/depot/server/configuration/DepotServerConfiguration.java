@@ -16,9 +16,27 @@
 package org.finos.legend.depot.server.configuration;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import org.finos.legend.depot.core.http.ServersConfiguration;
+import org.finos.legend.depot.server.resources.ResponseBytesCache;
+import org.finos.legend.depot.services.entities.DependencyEntitiesConfiguration;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class DepotServerConfiguration extends ServersConfiguration
 {
+    @JsonProperty("responseCacheSizeInMB")
+    private Integer responseCacheSizeInMB;
+
+    @JsonProperty("dependencyEntities")
+    private DependencyEntitiesConfiguration dependencyEntitiesConfiguration;
+
+    public int getResponseCacheSizeInMB()
+    {
+        return responseCacheSizeInMB != null ? responseCacheSizeInMB : ResponseBytesCache.DEFAULT_SIZE_IN_MB;
+    }
+
+    public DependencyEntitiesConfiguration getDependencyEntitiesConfiguration()
+    {
+        return dependencyEntitiesConfiguration != null ? dependencyEntitiesConfiguration : new DependencyEntitiesConfiguration();
+    }
 }
@@ -15,9 +15,51 @@
 
 package org.finos.legend.depot.server.guice;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.inject.Binder;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
 import org.finos.legend.depot.core.http.guice.BaseModule;
+import org.finos.legend.depot.schedules.services.SchedulesFactory;
 import org.finos.legend.depot.server.configuration.DepotServerConfiguration;
+import org.finos.legend.depot.server.resources.ResponseBytesCache;
+import org.finos.legend.depot.services.entities.DependencyEntitiesConfiguration;
+import org.finos.legend.depot.services.projects.ProjectVersionChangesFeed;
+
+import javax.inject.Named;
+import java.time.LocalDateTime;
 
 public class DepotServerModule extends BaseModule<DepotServerConfiguration>
 {
+    private static final long PROJECT_VERSION_CHANGES_INTERVAL = 10000L;
+
+    @Override
+    public void configure(Binder binder)
+    {
+        super.configure(binder);
+        binder.bind(DependencyEntitiesConfiguration.class).toProvider(() -> getConfiguration().getDependencyEntitiesConfiguration());
+    }
+
+    @Provides
+    @Singleton
+    public ObjectMapper getObjectMapper()
+    {
+        return getEnvironment().getObjectMapper();
+    }
+
+    @Provides
+    @Singleton
+    public ResponseBytesCache getResponseBytesCache()
+    {
+        return ResponseBytesCache.ofMegabytes(getConfiguration().getResponseCacheSizeInMB());
+    }
+
+    @Provides
+    @Singleton
+    @Named("project-version-changes")
+    boolean scheduleProjectVersionChangesPolling(SchedulesFactory schedulesFactory, @Named("projectVersionChangesFeed") ProjectVersionChangesFeed changesFeed)
+    {
+        schedulesFactory.register("poll-project-version-changes", LocalDateTime.now().plusSeconds(10), PROJECT_VERSION_CHANGES_INTERVAL, true, changesFeed::poll);
+        return true;
+    }
 }
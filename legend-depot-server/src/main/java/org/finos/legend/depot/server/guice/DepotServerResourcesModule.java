@@ -18,6 +18,8 @@ package org.finos.legend.depot.server.guice;
 import com.google.inject.PrivateModule;
 import org.finos.legend.depot.server.resources.ProjectsResource;
 import org.finos.legend.depot.server.resources.ProjectsVersionsResource;
+import org.finos.legend.depot.server.resources.VersionedResponseFilter;
+import org.finos.legend.depot.server.resources.VersionedResponseListener;
 import org.finos.legend.depot.server.resources.dependencies.DependenciesResource;
 import org.finos.legend.depot.server.resources.entities.EntitiesResource;
 import org.finos.legend.depot.server.resources.entities.EntityClassifierResource;
@@ -34,6 +36,8 @@ public class DepotServerResourcesModule extends PrivateModule
         bind(EntityClassifierResource.class);
         bind(DependenciesResource.class);
         bind(FileGenerationsResource.class);
+        bind(VersionedResponseFilter.class);
+        bind(VersionedResponseListener.class);
 
         expose(ProjectsResource.class);
         expose(ProjectsVersionsResource.class);
@@ -41,5 +45,7 @@ public class DepotServerResourcesModule extends PrivateModule
         expose(EntitiesResource.class);
         expose(DependenciesResource.class);
         expose(FileGenerationsResource.class);
+        expose(VersionedResponseFilter.class);
+        expose(VersionedResponseListener.class);
     }
 }
\ No newline at end of file
@@ -20,10 +20,12 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
 import org.apache.commons.lang.builder.EqualsBuilder;
 import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.finos.legend.depot.domain.CoordinateData;
 import org.finos.legend.depot.domain.VersionedData;
+import org.finos.legend.depot.domain.api.Page;
 import org.finos.legend.depot.domain.project.ProjectVersion;
 import org.finos.legend.depot.domain.project.StoreProjectData;
 import org.finos.legend.depot.domain.project.StoreProjectVersionData;
@@ -34,11 +36,15 @@ import org.finos.legend.depot.tracing.resources.ResourceLoggingAndTracing;
 import org.finos.legend.sdlc.domain.model.version.VersionId;
 
 import javax.inject.Inject;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -87,6 +93,20 @@ public class ProjectsResource extends BaseResource
         return handle(ResourceLoggingAndTracing.GET_ALL_PROJECTS, () -> projectApi.getAllProjectCoordinates());
     }
 
+    @GET
+    @Path("/project-configurations/page")
+    @ApiOperation(ResourceLoggingAndTracing.GET_PROJECTS_PAGE)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Page<StoreProjectData> getProjectsPage(@QueryParam("continuationToken") @ApiParam("Token returned by the previous page, omit for the first page") String continuationToken,
+                                                  @QueryParam("pageSize") @DefaultValue("100") @ApiParam("Maximum number of projects to return, between 1 and " + Page.MAX_PAGE_SIZE) int pageSize)
+    {
+        if (!Page.isValidPageSize(pageSize))
+        {
+            throw new WebApplicationException(String.format("pageSize must be between 1 and %s", Page.MAX_PAGE_SIZE), Response.Status.BAD_REQUEST);
+        }
+        return handle(ResourceLoggingAndTracing.GET_PROJECTS_PAGE, () -> projectApi.getProjects(continuationToken, pageSize));
+    }
+
     @GET
     @Path("/project-configurations/{groupId}/{artifactId}")
     @ApiOperation(ResourceLoggingAndTracing.GET_PROJECT_CONFIG_BY_GA)
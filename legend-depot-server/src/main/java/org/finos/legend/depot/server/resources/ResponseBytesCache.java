@@ -0,0 +1,335 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.server.resources;
+
+import org.finos.legend.depot.tracing.services.prometheus.PrometheusMetricsFactory;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * LRU cache of serialised response bytes held in pooled direct buffer chunks, so cached payloads live outside the java heap.
+ * Chunks are allocated up to the cache capacity and handed back to the pool on eviction once no response is writing them out.
+ * Keys are entity tags, which already capture the version revision, request path, query parameters and dependency revisions.
+ */
+public final class ResponseBytesCache
+{
+    public static final int DEFAULT_SIZE_IN_MB = 256;
+    public static final String RESPONSE_CACHE_HITS = "response cache hits";
+    public static final String RESPONSE_CACHE_EVICTIONS = "response cache evictions";
+    public static final String RESPONSE_CACHE_SIZE = "response cache bytes";
+    private static final long MB = 1024L * 1024;
+    private static final int MAX_ENTRY_FRACTION = 4;
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private final long capacityInBytes;
+    private final int chunkSize;
+    private final long maxChunks;
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Deque<ByteBuffer> freeChunks = new ArrayDeque<>();
+    private long allocatedChunks = 0;
+    private long sizeInBytes = 0;
+
+    public ResponseBytesCache(long capacityInBytes)
+    {
+        this.capacityInBytes = capacityInBytes;
+        this.chunkSize = (int) Math.max(1, Math.min(DEFAULT_CHUNK_SIZE, capacityInBytes / MAX_ENTRY_FRACTION));
+        this.maxChunks = Math.max(0, capacityInBytes / chunkSize);
+    }
+
+    public static ResponseBytesCache ofMegabytes(int sizeInMB)
+    {
+        return new ResponseBytesCache(sizeInMB * MB);
+    }
+
+    public boolean isEnabled()
+    {
+        return capacityInBytes > 0;
+    }
+
+    public int getMaxEntrySize()
+    {
+        return (int) Math.min(Integer.MAX_VALUE, capacityInBytes / MAX_ENTRY_FRACTION);
+    }
+
+    /**
+     * The returned response holds on to its chunks until it is released, which the caller must do once the request completes, written out or not
+     */
+    public Optional<CachedResponse> get(String key)
+    {
+        synchronized (entries)
+        {
+            CachedResponse cached = entries.get(key);
+            if (cached != null)
+            {
+                cached.references++;
+                PrometheusMetricsFactory.getInstance().incrementCount(RESPONSE_CACHE_HITS);
+            }
+            return Optional.ofNullable(cached);
+        }
+    }
+
+    public ResponseCopy copy(OutputStream delegate)
+    {
+        return new ResponseCopy(delegate);
+    }
+
+    public boolean put(String key, MediaType mediaType, byte[] content, int length)
+    {
+        ResponseCopy copy = new ResponseCopy(null);
+        copy.copy(content, 0, length);
+        return copy.cache(key, mediaType);
+    }
+
+    public long getSizeInBytes()
+    {
+        synchronized (entries)
+        {
+            return sizeInBytes;
+        }
+    }
+
+    public int getFreeChunkCount()
+    {
+        synchronized (entries)
+        {
+            return freeChunks.size();
+        }
+    }
+
+    public int size()
+    {
+        synchronized (entries)
+        {
+            return entries.size();
+        }
+    }
+
+    private ByteBuffer acquireChunk()
+    {
+        synchronized (entries)
+        {
+            while (true)
+            {
+                if (!freeChunks.isEmpty())
+                {
+                    ByteBuffer chunk = freeChunks.pop();
+                    chunk.clear();
+                    return chunk;
+                }
+                if (allocatedChunks < maxChunks)
+                {
+                    allocatedChunks++;
+                    return ByteBuffer.allocateDirect(chunkSize);
+                }
+                Iterator<CachedResponse> leastRecentlyUsed = entries.values().iterator();
+                if (!leastRecentlyUsed.hasNext())
+                {
+                    return null;
+                }
+                evict(leastRecentlyUsed);
+            }
+        }
+    }
+
+    private void evict(Iterator<CachedResponse> leastRecentlyUsed)
+    {
+        CachedResponse evicted = leastRecentlyUsed.next();
+        leastRecentlyUsed.remove();
+        sizeInBytes -= evicted.getLength();
+        release(evicted);
+        PrometheusMetricsFactory.getInstance().incrementCount(RESPONSE_CACHE_EVICTIONS);
+        PrometheusMetricsFactory.getInstance().setGauge(RESPONSE_CACHE_SIZE, sizeInBytes);
+    }
+
+    public void release(CachedResponse cached)
+    {
+        synchronized (entries)
+        {
+            if (--cached.references == 0)
+            {
+                freeChunks.addAll(cached.chunks);
+            }
+        }
+    }
+
+    private void release(List<ByteBuffer> chunks)
+    {
+        synchronized (entries)
+        {
+            freeChunks.addAll(chunks);
+        }
+    }
+
+    /**
+     * Writes through to the response while copying into pooled chunks; the copy is dropped as soon as it outgrows the entry limit
+     */
+    public final class ResponseCopy extends OutputStream
+    {
+        private final OutputStream delegate;
+        private List<ByteBuffer> chunks = new ArrayList<>();
+        private int length = 0;
+
+        private ResponseCopy(OutputStream delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            delegate.write(b);
+            copy(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException
+        {
+            delegate.write(bytes, offset, length);
+            copy(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException
+        {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            delegate.close();
+        }
+
+        private void copy(byte[] bytes, int offset, int count)
+        {
+            if (chunks == null)
+            {
+                return;
+            }
+            if (!isEnabled() || (long) length + count > getMaxEntrySize())
+            {
+                abort();
+                return;
+            }
+            int position = offset;
+            int remaining = count;
+            while (remaining > 0)
+            {
+                ByteBuffer current = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+                if (current == null || !current.hasRemaining())
+                {
+                    current = acquireChunk();
+                    if (current == null)
+                    {
+                        abort();
+                        return;
+                    }
+                    chunks.add(current);
+                }
+                int written = Math.min(remaining, current.remaining());
+                current.put(bytes, position, written);
+                position += written;
+                remaining -= written;
+            }
+            length += count;
+        }
+
+        public void abort()
+        {
+            if (chunks != null)
+            {
+                release(chunks);
+                chunks = null;
+            }
+        }
+
+        public boolean cache(String key, MediaType mediaType)
+        {
+            if (chunks == null)
+            {
+                return false;
+            }
+            chunks.forEach(ByteBuffer::flip);
+            CachedResponse cached = new CachedResponse(chunks, length, mediaType);
+            chunks = null;
+            synchronized (entries)
+            {
+                CachedResponse previous = entries.put(key, cached);
+                if (previous != null)
+                {
+                    sizeInBytes -= previous.getLength();
+                    release(previous);
+                }
+                sizeInBytes += cached.getLength();
+                PrometheusMetricsFactory.getInstance().setGauge(RESPONSE_CACHE_SIZE, sizeInBytes);
+            }
+            return true;
+        }
+    }
+
+    public final class CachedResponse implements StreamingOutput
+    {
+        private final List<ByteBuffer> chunks;
+        private final int length;
+        private final MediaType mediaType;
+        private int references = 1;
+
+        private CachedResponse(List<ByteBuffer> chunks, int length, MediaType mediaType)
+        {
+            this.chunks = chunks;
+            this.length = length;
+            this.mediaType = mediaType;
+        }
+
+        public MediaType getMediaType()
+        {
+            return mediaType;
+        }
+
+        public int getLength()
+        {
+            return length;
+        }
+
+        @Override
+        public void write(OutputStream output) throws IOException
+        {
+            WritableByteChannel channel = Channels.newChannel(output);
+            for (ByteBuffer chunk : chunks)
+            {
+                ByteBuffer view = chunk.duplicate();
+                while (view.hasRemaining())
+                {
+                    channel.write(view);
+                }
+            }
+            output.flush();
+        }
+    }
+}
@@ -0,0 +1,262 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.server.resources;
+
+import org.finos.legend.depot.domain.project.ProjectVersion;
+import org.finos.legend.depot.domain.project.StoreProjectVersionData;
+import org.finos.legend.depot.services.api.projects.ProjectsService;
+import org.finos.legend.depot.store.metrics.services.QueryMetricsContainer;
+import org.finos.legend.depot.tracing.resources.VersionedResponse;
+import org.slf4j.Logger;
+
+import javax.inject.Inject;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.finos.legend.depot.domain.version.VersionValidator.MASTER_SNAPSHOT;
+
+@Provider
+@VersionedResponse
+public class VersionedResponseFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor
+{
+    private static final Logger LOGGER = org.slf4j.LoggerFactory.getLogger(VersionedResponseFilter.class);
+    private static final String GROUP_ID = "groupId";
+    private static final String ARTIFACT_ID = "artifactId";
+    private static final String VERSION_ID = "versionId";
+    private static final String DEPENDENCIES_PATH = "/dependencies";
+    private static final String PROJECT_DEPENDENCIES_PATH = "/projectDependencies";
+    private static final String PURE_MODEL_CONTEXT_PATH = "/pureModelContextData";
+    private static final String GET_DEPENDENCIES = "getDependencies";
+    private static final String GZIP = "gzip";
+    private static final String ENTITY_TAG_PROPERTY = VersionedResponseFilter.class.getName() + ".entityTag";
+    private static final String HOT_VERSION_PROPERTY = VersionedResponseFilter.class.getName() + ".hotVersion";
+    private static final String CACHE_RESPONSE_PROPERTY = VersionedResponseFilter.class.getName() + ".cacheResponse";
+    private static final String CACHED_RESPONSE_PROPERTY = VersionedResponseFilter.class.getName() + ".cachedResponse";
+    private static final int MAX_AGE_IN_SECONDS = 3600;
+    static final int HOT_VERSION_QUERY_COUNT = 5;
+
+    private final ProjectsService projectsService;
+    private final ResponseBytesCache responseCache;
+
+    @Inject
+    public VersionedResponseFilter(ProjectsService projectsService, ResponseBytesCache responseCache)
+    {
+        this.projectsService = projectsService;
+        this.responseCache = responseCache;
+    }
+
+    static CacheControl getCacheControl()
+    {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(false);
+        cacheControl.setNoTransform(false);
+        cacheControl.setMaxAge(MAX_AGE_IN_SECONDS);
+        return cacheControl;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext)
+    {
+        MultivaluedMap<String, String> pathParameters = requestContext.getUriInfo().getPathParameters();
+        String groupId = pathParameters.getFirst(GROUP_ID);
+        String artifactId = pathParameters.getFirst(ARTIFACT_ID);
+        String versionId = pathParameters.getFirst(VERSION_ID);
+        if (groupId == null || artifactId == null || versionId == null || MASTER_SNAPSHOT.equals(versionId))
+        {
+            return;
+        }
+        Optional<EntityTag> entityTag = buildEntityTag(requestContext, groupId, artifactId, versionId);
+        if (!entityTag.isPresent())
+        {
+            return;
+        }
+        Response.ResponseBuilder notModified = requestContext.getRequest().evaluatePreconditions(entityTag.get());
+        EntityTag matchedTag = entityTag.get();
+        if (notModified == null && requestContext.getHeaderString(HttpHeaders.IF_NONE_MATCH) != null)
+        {
+            matchedTag = encodedTag(entityTag.get(), GZIP);
+            notModified = requestContext.getRequest().evaluatePreconditions(matchedTag);
+        }
+        if (notModified != null)
+        {
+            QueryMetricsContainer.record(groupId, artifactId, versionId);
+            requestContext.abortWith(notModified.tag(matchedTag).cacheControl(getCacheControl()).build());
+            return;
+        }
+        Optional<ResponseBytesCache.CachedResponse> cached = responseCache.get(entityTag.get().getValue());
+        if (cached.isPresent())
+        {
+            QueryMetricsContainer.record(groupId, artifactId, versionId);
+            requestContext.setProperty(CACHED_RESPONSE_PROPERTY, cached.get());
+            requestContext.abortWith(Response.ok(cached.get(), cached.get().getMediaType()).tag(entityTag.get()).cacheControl(getCacheControl()).build());
+            return;
+        }
+        requestContext.setProperty(ENTITY_TAG_PROPERTY, entityTag.get());
+        if (responseCache.isEnabled() && QueryMetricsContainer.getCount(groupId, artifactId, versionId) >= HOT_VERSION_QUERY_COUNT)
+        {
+            requestContext.setProperty(HOT_VERSION_PROPERTY, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+    {
+        Object entityTag = requestContext.getProperty(ENTITY_TAG_PROPERTY);
+        if (entityTag != null && responseContext.getStatus() == Response.Status.OK.getStatusCode())
+        {
+            String contentEncoding = responseContext.getHeaderString(HttpHeaders.CONTENT_ENCODING);
+            responseContext.getHeaders().putSingle(HttpHeaders.ETAG, contentEncoding == null ? entityTag : encodedTag((EntityTag) entityTag, contentEncoding));
+            responseContext.getHeaders().putSingle(HttpHeaders.CACHE_CONTROL, getCacheControl());
+            if (requestContext.getProperty(HOT_VERSION_PROPERTY) != null && responseContext.hasEntity() && contentEncoding == null)
+            {
+                requestContext.setProperty(CACHE_RESPONSE_PROPERTY, Boolean.TRUE);
+            }
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException
+    {
+        Object entityTag = context.getProperty(ENTITY_TAG_PROPERTY);
+        if (entityTag == null || context.getProperty(CACHE_RESPONSE_PROPERTY) == null)
+        {
+            context.proceed();
+            return;
+        }
+        ResponseBytesCache.ResponseCopy output = responseCache.copy(context.getOutputStream());
+        context.setOutputStream(output);
+        try
+        {
+            context.proceed();
+            output.cache(((EntityTag) entityTag).getValue(), context.getMediaType());
+        }
+        finally
+        {
+            output.abort();
+        }
+    }
+
+    /**
+     * Hands back the chunks of a response served from the cache, whether or not it was written out
+     */
+    public void onFinished(ContainerRequestContext requestContext)
+    {
+        Object cached = requestContext.getProperty(CACHED_RESPONSE_PROPERTY);
+        if (cached != null)
+        {
+            requestContext.removeProperty(CACHED_RESPONSE_PROPERTY);
+            responseCache.release((ResponseBytesCache.CachedResponse) cached);
+        }
+    }
+
+    private Optional<EntityTag> buildEntityTag(ContainerRequestContext requestContext, String groupId, String artifactId, String versionId)
+    {
+        Optional<StoreProjectVersionData> projectVersion = projectsService.find(groupId, artifactId, versionId);
+        if (!projectVersion.isPresent() || projectVersion.get().getVersionData().isExcluded())
+        {
+            return Optional.empty();
+        }
+        Date revision = getRevision(projectVersion.get());
+        if (revision == null)
+        {
+            return Optional.empty();
+        }
+        StringBuilder key = new StringBuilder(requestContext.getUriInfo().getPath()).append('@').append(revision.getTime());
+        new TreeMap<>(requestContext.getUriInfo().getQueryParameters()).forEach((name, values) -> key.append('&').append(name).append('=').append(values));
+        if (includesDependencies(requestContext))
+        {
+            try
+            {
+                List<ProjectVersion> dependencies = new ArrayList<>(projectsService.getDependencies(groupId, artifactId, versionId, true));
+                dependencies.sort(Comparator.comparing(ProjectVersion::getGav));
+                Map<ProjectVersion, Date> revisions = new HashMap<>();
+                projectsService.find(dependencies).forEach(dependency -> revisions.put(new ProjectVersion(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersionId()), getRevision(dependency)));
+                dependencies.forEach(dependency ->
+                {
+                    Date dependencyRevision = revisions.get(dependency);
+                    key.append('|').append(dependency.getGav()).append('@').append(dependencyRevision == null ? -1 : dependencyRevision.getTime());
+                });
+            }
+            catch (RuntimeException e)
+            {
+                LOGGER.debug("not tagging {}, dependencies could not be resolved: {}", requestContext.getUriInfo().getPath(), e.getMessage());
+                return Optional.empty();
+            }
+        }
+        return Optional.of(new EntityTag(hash(key.toString())));
+    }
+
+    private static EntityTag encodedTag(EntityTag entityTag, String contentEncoding)
+    {
+        return new EntityTag(hash(entityTag.getValue() + ';' + contentEncoding.toLowerCase()));
+    }
+
+    private static Date getRevision(StoreProjectVersionData projectVersion)
+    {
+        return projectVersion.getLastUpdated() != null ? projectVersion.getLastUpdated() : projectVersion.getCreationDate();
+    }
+
+    private static boolean includesDependencies(ContainerRequestContext requestContext)
+    {
+        String path = requestContext.getUriInfo().getPath();
+        if (path.endsWith(PURE_MODEL_CONTEXT_PATH))
+        {
+            return !Boolean.FALSE.toString().equals(requestContext.getUriInfo().getQueryParameters().getFirst(GET_DEPENDENCIES));
+        }
+        return path.endsWith(DEPENDENCIES_PATH) || path.endsWith(PROJECT_DEPENDENCIES_PATH);
+    }
+
+    static String hash(String key)
+    {
+        try
+        {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest)
+            {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            LOGGER.error("SHA-256 not available", e);
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.server.resources;
+
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+import javax.inject.Inject;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Tells the versioned response filter when a request has finished, including requests whose entity is never written
+ * such as HEAD requests or clients that went away.
+ */
+@Provider
+public class VersionedResponseListener implements ApplicationEventListener
+{
+    private final VersionedResponseFilter versionedResponseFilter;
+
+    @Inject
+    public VersionedResponseListener(VersionedResponseFilter versionedResponseFilter)
+    {
+        this.versionedResponseFilter = versionedResponseFilter;
+    }
+
+    @Override
+    public void onEvent(ApplicationEvent event)
+    {
+        // nothing to do on application events
+    }
+
+    @Override
+    public RequestEventListener onRequest(RequestEvent requestEvent)
+    {
+        return event ->
+        {
+            if (event.getType() == RequestEvent.Type.FINISHED)
+            {
+                versionedResponseFilter.onFinished(event.getContainerRequest());
+            }
+        };
+    }
+}
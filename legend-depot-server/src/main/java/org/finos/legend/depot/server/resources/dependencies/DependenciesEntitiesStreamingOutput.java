@@ -0,0 +1,63 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.server.resources.dependencies;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentracing.Span;
+import org.finos.legend.depot.domain.entity.ProjectVersionEntities;
+import org.finos.legend.depot.server.resources.entities.EntitiesStreamingOutput;
+import org.finos.legend.depot.tracing.services.TracerFactory;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+public class DependenciesEntitiesStreamingOutput implements StreamingOutput
+{
+    private final ObjectMapper objectMapper;
+    private final String label;
+    private final Span span;
+    private final Supplier<Stream<ProjectVersionEntities>> dependenciesEntities;
+
+    public DependenciesEntitiesStreamingOutput(ObjectMapper objectMapper, String label, Supplier<Stream<ProjectVersionEntities>> dependenciesEntities)
+    {
+        this.objectMapper = objectMapper;
+        this.label = label;
+        this.span = TracerFactory.get().activeSpan();
+        this.dependenciesEntities = dependenciesEntities;
+    }
+
+    @Override
+    public void write(OutputStream outputStream) throws IOException
+    {
+        EntitiesStreamingOutput.write(objectMapper, span, label, outputStream, generator ->
+        {
+            try (Stream<ProjectVersionEntities> dependencies = dependenciesEntities.get())
+            {
+                generator.writeStartArray();
+                Iterator<ProjectVersionEntities> iterator = dependencies.iterator();
+                while (iterator.hasNext())
+                {
+                    generator.writeObject(iterator.next());
+                }
+                generator.writeEndArray();
+            }
+        });
+    }
+}
@@ -17,6 +17,7 @@ package org.finos.legend.depot.server.resources.dependencies;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -33,6 +34,7 @@ import org.finos.legend.depot.services.api.entities.EntitiesService;
 import org.finos.legend.depot.services.api.projects.ProjectsService;
 import org.finos.legend.depot.store.metrics.services.QueryMetricsContainer;
 import org.finos.legend.depot.tracing.resources.BaseResource;
+import org.finos.legend.depot.tracing.resources.VersionedResponse;
 
 import javax.inject.Inject;
 import javax.ws.rs.Consumes;
@@ -44,6 +46,8 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -61,17 +65,20 @@ public class DependenciesResource extends BaseResource
 {
     private final EntitiesService entitiesService;
     private final ProjectsService projectApi;
+    private final ObjectMapper objectMapper;
 
     @Inject
-    public DependenciesResource(EntitiesService entitiesService, ProjectsService projectApi)
+    public DependenciesResource(EntitiesService entitiesService, ProjectsService projectApi, ObjectMapper objectMapper)
     {
         this.entitiesService = entitiesService;
         this.projectApi = projectApi;
+        this.objectMapper = objectMapper;
     }
 
     @GET
     @Path("/projects/{groupId}/{artifactId}/version/{versionId}/projectDependencies")
     @ApiOperation(GET_PROJECT_DEPENDENCIES)
+    @VersionedResponse
     @Produces(MediaType.APPLICATION_JSON)
     @Deprecated
     public Set<ProjectVersion> getDeprecatedProjectDependencies(@PathParam("groupId") String groupId,
@@ -85,6 +92,7 @@ public class DependenciesResource extends BaseResource
     @GET
     @Path("/projects/{groupId}/{artifactId}/versions/{versionId}/projectDependencies")
     @ApiOperation(GET_PROJECT_DEPENDENCIES)
+    @VersionedResponse
     @Produces(MediaType.APPLICATION_JSON)
     public Set<ProjectVersion> getProjectDependencies(@PathParam("groupId") String groupId,
                                                       @PathParam("artifactId") String artifactId,
@@ -118,21 +126,26 @@ public class DependenciesResource extends BaseResource
 
     @GET
     @Path("/projects/{groupId}/{artifactId}/versions/{versionId}/dependencies")
-    @ApiOperation(GET_VERSION_DEPENDENCY_ENTITIES)
+    @ApiOperation(value = GET_VERSION_DEPENDENCY_ENTITIES, response = ProjectVersionEntities.class, responseContainer = "List")
+    @VersionedResponse
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public List<ProjectVersionEntities> getEntitiesFromDependencies(@PathParam("groupId") String groupId,
-                                                                    @PathParam("artifactId") String artifactId,
-                                                                    @PathParam("versionId") String versionId,
-                                                                    @QueryParam("versioned") @DefaultValue("false")
-                                                                    @ApiParam("Whether to return ENTITIES with version in entity path") boolean versioned,
-                                                                    @QueryParam("transitive") @DefaultValue("false")
-                                                                    @ApiParam("Whether to return transitive dependencies") boolean transitive,
-                                                                    @QueryParam("includeOrigin") @DefaultValue("false")
-                                                                    @ApiParam("Whether to return start of dependency tree") boolean includeOrigin)
+    public StreamingOutput getEntitiesFromDependencies(@PathParam("groupId") String groupId,
+                                                       @PathParam("artifactId") String artifactId,
+                                                       @PathParam("versionId") String versionId,
+                                                       @QueryParam("versioned") @DefaultValue("false")
+                                                       @ApiParam("Whether to return ENTITIES with version in entity path") boolean versioned,
+                                                       @QueryParam("transitive") @DefaultValue("false")
+                                                       @ApiParam("Whether to return transitive dependencies") boolean transitive,
+                                                       @QueryParam("includeOrigin") @DefaultValue("false")
+                                                       @ApiParam("Whether to return start of dependency tree") boolean includeOrigin)
     {
         QueryMetricsContainer.record(groupId, artifactId, versionId);
-        return handle(GET_VERSION_DEPENDENCY_ENTITIES, () -> this.entitiesService.getDependenciesEntities(groupId, artifactId, versionId, versioned, transitive, includeOrigin));
+        return handle(GET_VERSION_DEPENDENCY_ENTITIES, () ->
+        {
+            Set<ProjectVersion> dependencies = this.entitiesService.getDependencies(Arrays.asList(new ProjectVersion(groupId, artifactId, versionId)), transitive, includeOrigin);
+            return new DependenciesEntitiesStreamingOutput(objectMapper, GET_VERSION_DEPENDENCY_ENTITIES, () -> this.entitiesService.getDependenciesEntitiesAsStream(dependencies, versioned));
+        });
     }
 
     @GET
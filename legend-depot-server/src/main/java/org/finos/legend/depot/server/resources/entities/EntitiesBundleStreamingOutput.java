@@ -0,0 +1,87 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.server.resources.entities;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+
+public class EntitiesBundleStreamingOutput implements StreamingOutput
+{
+    public static final String GZIP = "gzip";
+    private static final int BUFFER_SIZE = 8192;
+    private final byte[] bundle;
+    private final boolean compressed;
+
+    public EntitiesBundleStreamingOutput(byte[] bundle, boolean compressed)
+    {
+        this.bundle = bundle;
+        this.compressed = compressed;
+    }
+
+    public EntitiesBundleStreamingOutput(byte[] bundle)
+    {
+        this(bundle, false);
+    }
+
+    public static boolean acceptsGzip(String acceptEncoding)
+    {
+        if (acceptEncoding == null)
+        {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(","))
+        {
+            String[] parameters = coding.trim().split(";");
+            String name = parameters[0].trim();
+            if (GZIP.equalsIgnoreCase(name) || "*".equals(name))
+            {
+                for (int i = 1; i < parameters.length; i++)
+                {
+                    String parameter = parameters[i].replace(" ", "");
+                    if (parameter.matches("q=0(\\.0*)?"))
+                    {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void write(OutputStream outputStream) throws IOException
+    {
+        if (compressed)
+        {
+            outputStream.write(bundle);
+            return;
+        }
+        try (InputStream entities = new GZIPInputStream(new ByteArrayInputStream(bundle), BUFFER_SIZE))
+        {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = entities.read(buffer)) != -1)
+            {
+                outputStream.write(buffer, 0, read);
+            }
+        }
+    }
+}
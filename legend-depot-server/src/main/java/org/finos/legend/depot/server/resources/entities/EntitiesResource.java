@@ -15,22 +15,27 @@
 
 package org.finos.legend.depot.server.resources.entities;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import org.finos.legend.depot.services.api.entities.EntitiesService;
 import org.finos.legend.depot.store.metrics.services.QueryMetricsContainer;
 import org.finos.legend.depot.tracing.resources.BaseResource;
+import org.finos.legend.depot.tracing.resources.VersionedResponse;
 import org.finos.legend.sdlc.domain.model.entity.Entity;
 
 import javax.inject.Inject;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -48,32 +53,41 @@ import static org.finos.legend.depot.tracing.resources.ResourceLoggingAndTracing
 public class EntitiesResource extends BaseResource
 {
     private final EntitiesService entitiesService;
+    private final ObjectMapper objectMapper;
 
     @Inject
-    public EntitiesResource(EntitiesService entitiesService)
+    public EntitiesResource(EntitiesService entitiesService, ObjectMapper objectMapper)
     {
         this.entitiesService = entitiesService;
+        this.objectMapper = objectMapper;
     }
 
     @GET
     @Path("/projects/{groupId}/{artifactId}/versions/{versionId}")
-    @ApiOperation(GET_VERSION_ENTITIES)
+    @ApiOperation(value = GET_VERSION_ENTITIES, response = Entity.class, responseContainer = "List")
+    @VersionedResponse
     @Produces(MediaType.APPLICATION_JSON)
-    public List<Entity> getEntities(@PathParam("groupId") String groupId,
-                                    @PathParam("artifactId") String artifactId,
-                                    @PathParam("versionId") String versionId,
-                                    @QueryParam("versioned")
-                                    @DefaultValue("false")
-                                    @ApiParam("Whether to return ENTITIES with version in entity path") boolean versioned)
+    public Response getEntities(@PathParam("groupId") String groupId,
+                                @PathParam("artifactId") String artifactId,
+                                @PathParam("versionId") String versionId,
+                                @QueryParam("versioned")
+                                @DefaultValue("false")
+                                @ApiParam("Whether to return ENTITIES with version in entity path") boolean versioned,
+                                @HeaderParam(HttpHeaders.ACCEPT_ENCODING) @ApiParam(hidden = true) String acceptEncoding)
     {
         QueryMetricsContainer.record(groupId, artifactId, versionId);
-        return handle(GET_VERSION_ENTITIES, () -> this.entitiesService.getEntities(groupId, artifactId, versionId, versioned));
+        return handle(GET_VERSION_ENTITIES, () -> this.entitiesService.readEntities(groupId, artifactId, versionId, versioned,
+                bundle -> EntitiesBundleStreamingOutput.acceptsGzip(acceptEncoding)
+                        ? Response.ok(new EntitiesBundleStreamingOutput(bundle, true)).header(HttpHeaders.CONTENT_ENCODING, EntitiesBundleStreamingOutput.GZIP).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build()
+                        : Response.ok(new EntitiesBundleStreamingOutput(bundle)).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build(),
+                entities -> Response.ok(new EntitiesStreamingOutput(objectMapper, GET_VERSION_ENTITIES, entities)).build()));
     }
 
 
     @GET
     @Path("/projects/{groupId}/{artifactId}/versions/{versionId}/entities/{path}")
     @ApiOperation(GET_VERSION_ENTITY)
+    @VersionedResponse
     @Produces(MediaType.APPLICATION_JSON)
     public Optional<Entity> getEntity(@PathParam("groupId") String groupId,
                                       @PathParam("artifactId") String artifactId,
@@ -87,6 +101,7 @@ public class EntitiesResource extends BaseResource
     @GET
     @Path("/projects/{groupId}/{artifactId}/versions/{versionId}/entities")
     @ApiOperation(GET_VERSION_ENTITIES_BY_PACKAGE)
+    @VersionedResponse
     @Produces(MediaType.APPLICATION_JSON)
     public List<Entity> getEntities(@PathParam("groupId") String groupId,
                                     @PathParam("artifactId") String artifactId,
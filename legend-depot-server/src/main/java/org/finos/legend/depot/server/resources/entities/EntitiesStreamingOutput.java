@@ -0,0 +1,102 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.server.resources.entities;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentracing.Span;
+import org.finos.legend.depot.tracing.TracingException;
+import org.finos.legend.depot.tracing.services.TracerFactory;
+import org.finos.legend.sdlc.domain.model.entity.Entity;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+public class EntitiesStreamingOutput implements StreamingOutput
+{
+    private final ObjectMapper objectMapper;
+    private final String label;
+    private final Span span;
+    private final Supplier<Stream<Entity>> entities;
+
+    public EntitiesStreamingOutput(ObjectMapper objectMapper, String label, Supplier<Stream<Entity>> entities)
+    {
+        this.objectMapper = objectMapper;
+        this.label = label;
+        this.span = TracerFactory.get().activeSpan();
+        this.entities = entities;
+    }
+
+    @Override
+    public void write(OutputStream outputStream) throws IOException
+    {
+        write(objectMapper, span, label, outputStream, generator -> writeEntities(generator, entities.get()));
+    }
+
+    /**
+     * Writes to a generator over the response stream inside a span under the request's one, leaving the stream open
+     */
+    public static void write(ObjectMapper objectMapper, Span span, String label, OutputStream outputStream, GeneratorWriter writer) throws IOException
+    {
+        try
+        {
+            TracerFactory.get().executeWithTrace(span, label, () ->
+            {
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET))
+                {
+                    writer.write(generator);
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            });
+        }
+        catch (TracingException e)
+        {
+            if (e.getCause() instanceof UncheckedIOException)
+            {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    public static void writeEntities(JsonGenerator generator, Stream<Entity> entities) throws IOException
+    {
+        try (Stream<Entity> stream = entities)
+        {
+            generator.writeStartArray();
+            Iterator<Entity> iterator = stream.iterator();
+            while (iterator.hasNext())
+            {
+                generator.writeObject(iterator.next());
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    public interface GeneratorWriter
+    {
+        void write(JsonGenerator generator) throws IOException;
+    }
+}
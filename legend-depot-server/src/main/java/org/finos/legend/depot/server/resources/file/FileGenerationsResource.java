@@ -22,6 +22,7 @@ import org.finos.legend.depot.domain.version.VersionValidator;
 import org.finos.legend.depot.services.api.generation.file.FileGenerationsService;
 import org.finos.legend.depot.store.metrics.services.QueryMetricsContainer;
 import org.finos.legend.depot.tracing.resources.BaseResource;
+import org.finos.legend.depot.tracing.resources.VersionedResponse;
 import org.finos.legend.sdlc.domain.model.entity.Entity;
 
 import javax.inject.Inject;
@@ -69,6 +70,7 @@ public class FileGenerationsResource extends BaseResource
     @GET
     @Path("/projects/{groupId}/{artifactId}/{versionId}/generations")
     @ApiOperation(GET_VERSION_FILE_GENERATION_ENTITIES)
+    @VersionedResponse
     @Produces(MediaType.APPLICATION_JSON)
     public List<Entity> getVersionGenerationsEntities(@PathParam("groupId") String groupId,
                                                      @PathParam("artifactId") String artifactId,
@@ -116,6 +118,7 @@ public class FileGenerationsResource extends BaseResource
     @GET
     @Path("/generations/{groupId}/{artifactId}/versions/{versionId}")
     @ApiOperation(GET_VERSION_FILE_GENERATION)
+    @VersionedResponse
     @Produces(MediaType.APPLICATION_JSON)
     public List<FileGeneration> getFileGenerations(@PathParam("groupId") String groupId,
                                                    @PathParam("artifactId") String artifactId,
@@ -128,6 +131,7 @@ public class FileGenerationsResource extends BaseResource
     @GET
     @Path("/generations/{groupId}/{artifactId}/versions/{versionId}/{elementPath}")
     @ApiOperation(GET_VERSION_FILE_GENERATION_BY_ELEMENT_PATH)
+    @VersionedResponse
     @Produces(MediaType.APPLICATION_JSON)
     public List<FileGeneration> getFileGenerationsByElementPath(@PathParam("groupId") String groupId,
                                                          @PathParam("artifactId") String artifactId,
@@ -140,6 +144,7 @@ public class FileGenerationsResource extends BaseResource
     @GET
     @Path("/generations/{groupId}/{artifactId}/versions/{versionId}/file/{filePath}")
     @ApiOperation(GET_VERSION_FILE_GENERATION_BY_FILEPATH)
+    @VersionedResponse
     @Produces(MediaType.APPLICATION_JSON)
     public Optional<FileGeneration> getFileGenerationsByFilePath(@PathParam("groupId") String groupId,
                                                              @PathParam("artifactId") String artifactId,
@@ -152,6 +157,7 @@ public class FileGenerationsResource extends BaseResource
     @GET
     @Path("/generationFileContent/{groupId}/{artifactId}/versions/{versionId}/file/{filePath}")
     @ApiOperation(GET_VERSION_FILE_GENERATION_BY_FILEPATH)
+    @VersionedResponse
     @Produces(MediaType.TEXT_PLAIN)
     public Optional<String> getFileGenerationContentByFilePath(@PathParam("groupId") String groupId,
                                                            @PathParam("artifactId") String artifactId,
@@ -15,12 +15,15 @@
 
 package org.finos.legend.depot.server;
 
+import org.finos.legend.depot.domain.api.Page;
 import org.finos.legend.depot.server.resources.ProjectsResource;
 import org.finos.legend.depot.services.TestBaseServices;
 import org.finos.legend.depot.services.projects.ProjectsServiceImpl;
 import org.junit.Assert;
 import org.junit.Test;
 
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
 import java.util.List;
 
 public class TestProjectsResource extends TestBaseServices
@@ -43,4 +46,22 @@ public class TestProjectsResource extends TestBaseServices
         Assert.assertNotNull(versionSet);
         Assert.assertEquals(2, versionSet.size());
     }
+
+    @Test
+    public void pageSizeOutOfRangeIsABadRequest()
+    {
+        for (int pageSize : new int[]{0, -1, Page.MAX_PAGE_SIZE + 1})
+        {
+            try
+            {
+                projectsVersionsResource.getProjectsPage(null, pageSize);
+                Assert.fail("expected page size " + pageSize + " to be rejected");
+            }
+            catch (WebApplicationException e)
+            {
+                Assert.assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), e.getResponse().getStatus());
+            }
+        }
+        Assert.assertEquals(1, projectsVersionsResource.getProjectsPage(null, 1).getItems().size());
+    }
 }
\ No newline at end of file
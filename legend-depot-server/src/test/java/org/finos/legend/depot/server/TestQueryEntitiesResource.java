@@ -15,7 +15,10 @@
 
 package org.finos.legend.depot.server;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.squarespace.jersey2.guice.JerseyGuiceUtils;
+import org.finos.legend.depot.domain.entity.EntityDefinition;
 import org.finos.legend.depot.domain.project.StoreProjectData;
 import org.finos.legend.depot.domain.project.StoreProjectVersionData;
 import org.finos.legend.depot.server.resources.entities.EntitiesResource;
@@ -33,10 +36,17 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 import static org.finos.legend.depot.domain.version.VersionValidator.MASTER_SNAPSHOT;
 import static org.mockito.Mockito.mock;
@@ -46,7 +56,7 @@ public class TestQueryEntitiesResource extends TestBaseServices
 {
     private UpdateProjects projects = mock(UpdateProjects.class);
     private UpdateProjectsVersions projectsVersions = mock(UpdateProjectsVersions.class);
-    private EntitiesResource entitiesResource = new EntitiesResource(new EntitiesServiceImpl(entitiesStore,new ProjectsServiceImpl(projectsVersions, projects)));
+    private EntitiesResource entitiesResource = new EntitiesResource(new EntitiesServiceImpl(entitiesStore,new ProjectsServiceImpl(projectsVersions, projects)), new ObjectMapper());
     private QueryMetricsMongo metricsStore = new QueryMetricsMongo(mongoProvider);
     private QueryMetricsHandler metricsHandler = new QueryMetricsHandler(metricsStore);
 
@@ -77,11 +87,54 @@ public class TestQueryEntitiesResource extends TestBaseServices
     }
 
     @Test
-    public void canGetEntitiesForProjectAndVersion()
+    public void canGetEntitiesForProjectAndVersion() throws IOException
     {
-        List<Entity> entityList = entitiesResource.getEntities("examples.metadata", "test", "2.3.0", false);
-        Assert.assertNotNull(entityList);
-        Assert.assertEquals(7, entityList.size());
+        try (ByteArrayOutputStream output = new ByteArrayOutputStream())
+        {
+            ((StreamingOutput) entitiesResource.getEntities("examples.metadata", "test", "2.3.0", false, null).getEntity()).write(output);
+            List<EntityDefinition> entityList = new ObjectMapper().readValue(output.toByteArray(), new TypeReference<List<EntityDefinition>>() {});
+            Assert.assertNotNull(entityList);
+            Assert.assertEquals(7, entityList.size());
+        }
+    }
+
+    @Test
+    public void canGetEntitiesFromVersionBundle() throws IOException
+    {
+        try (ByteArrayOutputStream queried = new ByteArrayOutputStream(); ByteArrayOutputStream bundled = new ByteArrayOutputStream())
+        {
+            ((StreamingOutput) entitiesResource.getEntities("examples.metadata", "test", "2.3.0", false, null).getEntity()).write(queried);
+
+            Assert.assertFalse(entitiesStore.createOrUpdateEntitiesBundle("examples.metadata", "test", "2.3.0", false).hasErrors());
+            Assert.assertTrue(entitiesStore.getEntitiesBundle("examples.metadata", "test", "2.3.0", false).isPresent());
+            Response response = entitiesResource.getEntities("examples.metadata", "test", "2.3.0", false, "deflate, gzip;q=0");
+            Assert.assertNull(response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+            ((StreamingOutput) response.getEntity()).write(bundled);
+
+            List<EntityDefinition> entityList = new ObjectMapper().readValue(bundled.toByteArray(), new TypeReference<List<EntityDefinition>>() {});
+            Assert.assertEquals(7, entityList.size());
+            Assert.assertEquals(queried.toString("UTF-8"), bundled.toString("UTF-8"));
+        }
+    }
+
+    @Test
+    public void versionBundleIsStreamedCompressedWhenClientAcceptsGzip() throws IOException
+    {
+        Assert.assertFalse(entitiesStore.createOrUpdateEntitiesBundle("examples.metadata", "test", "2.3.0", false).hasErrors());
+        Response response = entitiesResource.getEntities("examples.metadata", "test", "2.3.0", false, "gzip, deflate, br");
+        Assert.assertEquals("gzip", response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeaderString(HttpHeaders.VARY));
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(compressed);
+        Assert.assertArrayEquals(entitiesStore.getEntitiesBundle("examples.metadata", "test", "2.3.0", false).get(), compressed.toByteArray());
+
+        try (GZIPInputStream entities = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray())))
+        {
+            List<EntityDefinition> entityList = new ObjectMapper().readValue(entities, new TypeReference<List<EntityDefinition>>() {});
+            Assert.assertEquals(7, entityList.size());
+        }
+        when(projectsVersions.find("examples.metadata","test", MASTER_SNAPSHOT)).thenReturn(Optional.of(new StoreProjectVersionData("examples.metadata","test", MASTER_SNAPSHOT)));
+        Assert.assertNull(entitiesResource.getEntities("examples.metadata", "test", MASTER_SNAPSHOT, false, "gzip").getHeaderString(HttpHeaders.CONTENT_ENCODING));
     }
 
     @Test
@@ -116,7 +169,7 @@ public class TestQueryEntitiesResource extends TestBaseServices
         Assert.assertNotNull(lastQueryTime);
         TimeUnit.SECONDS.sleep(30);
 
-        entitiesResource.getEntities("example.services.test", "test", "1.0.1", false);
+        entitiesResource.getEntities("example.services.test", "test", "1.0.1", false, null);
 
         QueryMetricsContainer.getMetrics("examples.metadata", "test", "2.3.0").get(0).getLastQueryTime();
 
@@ -0,0 +1,376 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.server;
+
+import org.finos.legend.depot.domain.project.ProjectVersion;
+import org.finos.legend.depot.domain.project.StoreProjectVersionData;
+import org.finos.legend.depot.server.resources.ResponseBytesCache;
+import org.finos.legend.depot.server.resources.VersionedResponseFilter;
+import org.finos.legend.depot.services.api.projects.ProjectsService;
+import org.finos.legend.depot.store.metrics.services.QueryMetricsContainer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.finos.legend.depot.domain.version.VersionValidator.MASTER_SNAPSHOT;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestVersionedResponseFilter
+{
+    private final ProjectsService projectsService = mock(ProjectsService.class);
+    private final VersionedResponseFilter filter = new VersionedResponseFilter(projectsService, new ResponseBytesCache(0));
+    private final StoreProjectVersionData versionData = new StoreProjectVersionData("examples.metadata", "test", "2.3.0");
+
+    @Before
+    public void setUp()
+    {
+        versionData.setLastUpdated(new Date(1000L));
+        when(projectsService.find("examples.metadata", "test", "2.3.0")).thenReturn(Optional.of(versionData));
+    }
+
+    private ContainerRequestContext buildRequest(String versionId, Response.ResponseBuilder preconditionsResult)
+    {
+        return buildRequest(versionId, preconditionsResult, "projects/examples.metadata/test/versions/" + versionId);
+    }
+
+    private ContainerRequestContext buildRequest(String versionId, Response.ResponseBuilder preconditionsResult, String path)
+    {
+        MultivaluedMap<String, String> pathParameters = new MultivaluedHashMap<>();
+        pathParameters.putSingle("groupId", "examples.metadata");
+        pathParameters.putSingle("artifactId", "test");
+        pathParameters.putSingle("versionId", versionId);
+        MultivaluedMap<String, String> queryParameters = new MultivaluedHashMap<>();
+        queryParameters.putSingle("versioned", "false");
+
+        UriInfo uriInfo = mock(UriInfo.class);
+        when(uriInfo.getPathParameters()).thenReturn(pathParameters);
+        when(uriInfo.getQueryParameters()).thenReturn(queryParameters);
+        when(uriInfo.getPath()).thenReturn(path);
+        Request request = mock(Request.class);
+        when(request.evaluatePreconditions(any(EntityTag.class))).thenReturn(preconditionsResult);
+
+        ContainerRequestContext requestContext = mock(ContainerRequestContext.class);
+        when(requestContext.getUriInfo()).thenReturn(uriInfo);
+        when(requestContext.getRequest()).thenReturn(request);
+        return requestContext;
+    }
+
+    private EntityTag captureEntityTag(ContainerRequestContext requestContext)
+    {
+        ArgumentCaptor<Object> entityTag = ArgumentCaptor.forClass(Object.class);
+        verify(requestContext).setProperty(anyString(), entityTag.capture());
+        return (EntityTag) entityTag.getValue();
+    }
+
+    @Test
+    public void releasedVersionResponsesCarryEntityTag()
+    {
+        ContainerRequestContext requestContext = buildRequest("2.3.0", null);
+        filter.filter(requestContext);
+        EntityTag entityTag = captureEntityTag(requestContext);
+        Assert.assertFalse(entityTag.isWeak());
+
+        when(requestContext.getProperty(anyString())).thenReturn(entityTag);
+        ContainerResponseContext responseContext = mock(ContainerResponseContext.class);
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        when(responseContext.getStatus()).thenReturn(200);
+        when(responseContext.getHeaders()).thenReturn(headers);
+        filter.filter(requestContext, responseContext);
+        Assert.assertEquals(entityTag, headers.getFirst(HttpHeaders.ETAG));
+        Assert.assertNotNull(headers.getFirst(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    public void matchingEntityTagIsNotModified()
+    {
+        ContainerRequestContext requestContext = buildRequest("2.3.0", Response.notModified());
+        filter.filter(requestContext);
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(requestContext).abortWith(response.capture());
+        Assert.assertEquals(304, response.getValue().getStatus());
+        verify(requestContext, never()).setProperty(anyString(), any());
+    }
+
+    @Test
+    public void encodedResponsesCarryTheirOwnEntityTag()
+    {
+        ContainerRequestContext requestContext = buildRequest("2.3.0", null);
+        filter.filter(requestContext);
+        EntityTag entityTag = captureEntityTag(requestContext);
+
+        when(requestContext.getProperty(anyString())).thenReturn(entityTag);
+        ContainerResponseContext responseContext = mock(ContainerResponseContext.class);
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        when(responseContext.getStatus()).thenReturn(200);
+        when(responseContext.getHeaders()).thenReturn(headers);
+        when(responseContext.getHeaderString(HttpHeaders.CONTENT_ENCODING)).thenReturn("gzip");
+        filter.filter(requestContext, responseContext);
+        EntityTag encodedTag = (EntityTag) headers.getFirst(HttpHeaders.ETAG);
+        Assert.assertNotEquals(entityTag, encodedTag);
+
+        ContainerRequestContext conditionalRequestContext = buildRequest("2.3.0", null);
+        when(conditionalRequestContext.getHeaderString(HttpHeaders.IF_NONE_MATCH)).thenReturn(encodedTag.toString());
+        when(conditionalRequestContext.getRequest().evaluatePreconditions(encodedTag)).thenReturn(Response.notModified());
+        filter.filter(conditionalRequestContext);
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(conditionalRequestContext).abortWith(response.capture());
+        Assert.assertEquals(304, response.getValue().getStatus());
+        Assert.assertEquals(encodedTag, response.getValue().getEntityTag());
+    }
+
+    @Test
+    public void entityTagChangesWhenVersionIsRefreshed()
+    {
+        ContainerRequestContext requestContext = buildRequest("2.3.0", null);
+        filter.filter(requestContext);
+        EntityTag before = captureEntityTag(requestContext);
+
+        versionData.setLastUpdated(new Date(2000L));
+        ContainerRequestContext refreshedRequestContext = buildRequest("2.3.0", null);
+        filter.filter(refreshedRequestContext);
+        Assert.assertNotEquals(before, captureEntityTag(refreshedRequestContext));
+    }
+
+    @Test
+    public void notModifiedResponsesAreRecordedInQueryMetrics()
+    {
+        QueryMetricsContainer.flush();
+        filter.filter(buildRequest("2.3.0", Response.notModified()));
+        Assert.assertEquals(1, QueryMetricsContainer.getCount("examples.metadata", "test", "2.3.0"));
+        QueryMetricsContainer.flush();
+    }
+
+    @Test
+    public void dependencyResponsesChangeTagWhenDependencyIsRefreshed()
+    {
+        StoreProjectVersionData dependency = new StoreProjectVersionData("examples.metadata", "dependency", "1.0.0");
+        dependency.setLastUpdated(new Date(1000L));
+        when(projectsService.find(Collections.singletonList(new ProjectVersion("examples.metadata", "dependency", "1.0.0")))).thenReturn(Collections.singletonList(dependency));
+        when(projectsService.getDependencies("examples.metadata", "test", "2.3.0", true)).thenReturn(Collections.singleton(new ProjectVersion("examples.metadata", "dependency", "1.0.0")));
+        String dependenciesPath = "projects/examples.metadata/test/versions/2.3.0/dependencies";
+
+        ContainerRequestContext requestContext = buildRequest("2.3.0", null, dependenciesPath);
+        filter.filter(requestContext);
+        EntityTag before = captureEntityTag(requestContext);
+
+        ContainerRequestContext entitiesRequestContext = buildRequest("2.3.0", null);
+        filter.filter(entitiesRequestContext);
+        EntityTag entitiesBefore = captureEntityTag(entitiesRequestContext);
+
+        dependency.setLastUpdated(new Date(2000L));
+        ContainerRequestContext refreshedRequestContext = buildRequest("2.3.0", null, dependenciesPath);
+        filter.filter(refreshedRequestContext);
+        Assert.assertNotEquals(before, captureEntityTag(refreshedRequestContext));
+
+        ContainerRequestContext entitiesRefreshedRequestContext = buildRequest("2.3.0", null);
+        filter.filter(entitiesRefreshedRequestContext);
+        Assert.assertEquals(entitiesBefore, captureEntityTag(entitiesRefreshedRequestContext));
+        verify(projectsService, never()).find(eq("examples.metadata"), eq("dependency"), anyString());
+    }
+
+    @Test
+    public void snapshotResponsesAreNotTagged()
+    {
+        ContainerRequestContext requestContext = buildRequest(MASTER_SNAPSHOT, null);
+        filter.filter(requestContext);
+        verify(requestContext, never()).setProperty(anyString(), any());
+        verify(requestContext, never()).abortWith(any());
+        verify(projectsService, never()).find(eq("examples.metadata"), eq("test"), anyString());
+    }
+
+    @Test
+    public void hotVersionResponsesAreServedFromResponseCache() throws IOException
+    {
+        QueryMetricsContainer.flush();
+        for (int i = 0; i < 5; i++)
+        {
+            QueryMetricsContainer.record("examples.metadata", "test", "2.3.0");
+        }
+        ResponseBytesCache responseCache = new ResponseBytesCache(1024 * 1024);
+        VersionedResponseFilter cachingFilter = new VersionedResponseFilter(projectsService, responseCache);
+        byte[] payload = "[{\"path\":\"examples::metadata::test::TestProfile\"}]".getBytes(StandardCharsets.UTF_8);
+
+        Map<String, Object> properties = new HashMap<>();
+        ContainerRequestContext requestContext = buildRequest("2.3.0", null);
+        doAnswer(invocation -> properties.put(invocation.getArgument(0), invocation.getArgument(1))).when(requestContext).setProperty(anyString(), any());
+        when(requestContext.getProperty(anyString())).thenAnswer(invocation -> properties.get(invocation.getArgument(0)));
+        cachingFilter.filter(requestContext);
+
+        ContainerResponseContext responseContext = mock(ContainerResponseContext.class);
+        when(responseContext.getStatus()).thenReturn(200);
+        when(responseContext.hasEntity()).thenReturn(true);
+        when(responseContext.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+        cachingFilter.filter(requestContext, responseContext);
+
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        WriterInterceptorContext writerContext = mock(WriterInterceptorContext.class);
+        Map<String, OutputStream> output = new HashMap<>();
+        when(writerContext.getProperty(anyString())).thenAnswer(invocation -> properties.get(invocation.getArgument(0)));
+        when(writerContext.getOutputStream()).thenReturn(written);
+        when(writerContext.getMediaType()).thenReturn(MediaType.APPLICATION_JSON_TYPE);
+        doAnswer(invocation -> output.put("stream", invocation.getArgument(0))).when(writerContext).setOutputStream(any());
+        doAnswer(invocation ->
+        {
+            output.get("stream").write(payload);
+            return null;
+        }).when(writerContext).proceed();
+        cachingFilter.aroundWriteTo(writerContext);
+        Assert.assertArrayEquals(payload, written.toByteArray());
+        Assert.assertEquals(1, responseCache.size());
+        Assert.assertEquals(payload.length, responseCache.getSizeInBytes());
+
+        Map<String, Object> cachedProperties = new HashMap<>();
+        ContainerRequestContext cachedRequestContext = buildRequest("2.3.0", null);
+        doAnswer(invocation -> cachedProperties.put(invocation.getArgument(0), invocation.getArgument(1))).when(cachedRequestContext).setProperty(anyString(), any());
+        when(cachedRequestContext.getProperty(anyString())).thenAnswer(invocation -> cachedProperties.get(invocation.getArgument(0)));
+        cachingFilter.filter(cachedRequestContext);
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(cachedRequestContext).abortWith(response.capture());
+        Assert.assertEquals(200, response.getValue().getStatus());
+        ByteArrayOutputStream cached = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getValue().getEntity()).write(cached);
+        Assert.assertArrayEquals(payload, cached.toByteArray());
+        cachingFilter.onFinished(cachedRequestContext);
+        verify(cachedRequestContext).removeProperty(anyString());
+        Assert.assertEquals(6, QueryMetricsContainer.getCount("examples.metadata", "test", "2.3.0"));
+        QueryMetricsContainer.flush();
+    }
+
+    @Test
+    public void responseCacheEvictsLeastRecentlyUsedResponses()
+    {
+        ResponseBytesCache responseCache = new ResponseBytesCache(40);
+        byte[] content = new byte[10];
+        Assert.assertTrue(responseCache.put("a", MediaType.APPLICATION_JSON_TYPE, content, content.length));
+        Assert.assertTrue(responseCache.put("b", MediaType.APPLICATION_JSON_TYPE, content, content.length));
+        Assert.assertFalse(responseCache.put("too-large", MediaType.APPLICATION_JSON_TYPE, new byte[11], 11));
+        Assert.assertTrue(isCached(responseCache, "a"));
+        Assert.assertTrue(responseCache.put("c", MediaType.APPLICATION_JSON_TYPE, content, content.length));
+        Assert.assertTrue(responseCache.put("d", MediaType.APPLICATION_JSON_TYPE, content, content.length));
+        Assert.assertTrue(responseCache.put("e", MediaType.APPLICATION_JSON_TYPE, content, content.length));
+        Assert.assertEquals(4, responseCache.size());
+        Assert.assertTrue(isCached(responseCache, "a"));
+        Assert.assertFalse(isCached(responseCache, "b"));
+    }
+
+    private static boolean isCached(ResponseBytesCache responseCache, String key)
+    {
+        Optional<ResponseBytesCache.CachedResponse> cached = responseCache.get(key);
+        cached.ifPresent(responseCache::release);
+        return cached.isPresent();
+    }
+
+    @Test
+    public void responsesBeyondTheEntryLimitAreNotCopied() throws IOException
+    {
+        ResponseBytesCache responseCache = new ResponseBytesCache(40);
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        ResponseBytesCache.ResponseCopy copy = responseCache.copy(written);
+        copy.write(new byte[6]);
+        copy.write(new byte[6]);
+        Assert.assertFalse(copy.cache("too-large", MediaType.APPLICATION_JSON_TYPE));
+        Assert.assertEquals(12, written.size());
+        Assert.assertEquals(0, responseCache.size());
+
+        byte[] content = new byte[10];
+        for (String key : new String[]{"a", "b", "c", "d"})
+        {
+            Assert.assertTrue(responseCache.put(key, MediaType.APPLICATION_JSON_TYPE, content, content.length));
+        }
+        Assert.assertEquals(4, responseCache.size());
+    }
+
+    @Test
+    public void evictedResponsesKeepTheirContentWhileBeingWritten() throws IOException
+    {
+        ResponseBytesCache responseCache = new ResponseBytesCache(40);
+        byte[] content = "0123456789".getBytes(StandardCharsets.UTF_8);
+        Assert.assertTrue(responseCache.put("a", MediaType.APPLICATION_JSON_TYPE, content, content.length));
+        ResponseBytesCache.CachedResponse reading = responseCache.get("a").get();
+        for (String key : new String[]{"b", "c", "d", "e", "f"})
+        {
+            Assert.assertTrue(responseCache.put(key, MediaType.APPLICATION_JSON_TYPE, new byte[10], 10));
+        }
+        Assert.assertFalse(isCached(responseCache, "a"));
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        reading.write(written);
+        Assert.assertArrayEquals(content, written.toByteArray());
+        Assert.assertEquals(0, responseCache.getFreeChunkCount());
+        responseCache.release(reading);
+        Assert.assertEquals(1, responseCache.getFreeChunkCount());
+    }
+
+    @Test
+    public void cachedResponsesThatAreNeverWrittenHandBackTheirChunks()
+    {
+        QueryMetricsContainer.flush();
+        ResponseBytesCache responseCache = new ResponseBytesCache(40);
+        VersionedResponseFilter cachingFilter = new VersionedResponseFilter(projectsService, responseCache);
+        ContainerRequestContext requestContext = buildRequest("2.3.0", null);
+        cachingFilter.filter(requestContext);
+        EntityTag entityTag = captureEntityTag(requestContext);
+        Assert.assertTrue(responseCache.put(entityTag.getValue(), MediaType.APPLICATION_JSON_TYPE, new byte[10], 10));
+
+        Map<String, Object> properties = new HashMap<>();
+        ContainerRequestContext headRequestContext = buildRequest("2.3.0", null);
+        doAnswer(invocation -> properties.put(invocation.getArgument(0), invocation.getArgument(1))).when(headRequestContext).setProperty(anyString(), any());
+        doAnswer(invocation -> properties.remove(invocation.getArgument(0))).when(headRequestContext).removeProperty(anyString());
+        when(headRequestContext.getProperty(anyString())).thenAnswer(invocation -> properties.get(invocation.getArgument(0)));
+        cachingFilter.filter(headRequestContext);
+        verify(headRequestContext).abortWith(any());
+        cachingFilter.onFinished(headRequestContext);
+        cachingFilter.onFinished(headRequestContext);
+        Assert.assertTrue(properties.isEmpty());
+
+        for (String key : new String[]{"b", "c", "d", "e"})
+        {
+            Assert.assertTrue(responseCache.put(key, MediaType.APPLICATION_JSON_TYPE, new byte[10], 10));
+        }
+        Assert.assertFalse(isCached(responseCache, entityTag.getValue()));
+        Assert.assertTrue(isCached(responseCache, "b"));
+        QueryMetricsContainer.flush();
+    }
+}
@@ -20,8 +20,10 @@ import org.finos.legend.depot.domain.project.ProjectVersion;
 import org.finos.legend.sdlc.domain.model.entity.Entity;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.finos.legend.depot.domain.version.VersionValidator.MASTER_SNAPSHOT;
 
@@ -41,6 +43,10 @@ public interface Entities
         return getEntities(groupId, artifactId, MASTER_SNAPSHOT, versionedEntities);
     }
 
+    Stream<Entity> getEntitiesAsStream(String groupId, String artifactId, String versionId, boolean versionedEntities);
+
+    Optional<byte[]> getEntitiesBundle(String groupId, String artifactId, String versionId, boolean versionedEntities);
+
     Optional<Entity> getEntity(String groupId, String artifactId, String versionId, String path);
 
     default Optional<Entity> getLatestEntity(String groupId, String artifactId, String entityPath)
@@ -82,4 +88,6 @@ public interface Entities
 
     List<StoredEntity> getStoredEntities(String groupId, String artifactId, String versionId, boolean versioned);
 
+    Map<ProjectVersion, List<StoredEntity>> getStoredEntities(List<ProjectVersion> projectVersions, boolean versioned);
+
 }
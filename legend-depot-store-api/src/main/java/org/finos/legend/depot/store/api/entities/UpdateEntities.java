@@ -27,10 +27,18 @@ public interface UpdateEntities extends Entities
 
     StoreOperationResult createOrUpdate(List<StoredEntity> versionedEntities);
 
+    StoreOperationResult replace(String groupId, String artifactId, String versionId, boolean versioned, List<StoredEntity> versionedEntities);
+
+    StoreOperationResult createOrUpdateEntitiesBundle(String groupId, String artifactId, String versionId, boolean versioned);
+
     StoreOperationResult deleteAll(String groupId, String artifactId);
 
     StoreOperationResult delete(String groupId, String artifactId, String versionId,boolean versioned);
 
+    StoreOperationResult deleteOrphanedGenerations(long olderThanMillis);
+
+    StoreOperationResult backfillEntityCounts();
+
     default void deleteLatest(String groupId, String artifactId,boolean versioned)
     {
         delete(groupId, artifactId, VersionValidator.MASTER_SNAPSHOT,versioned);
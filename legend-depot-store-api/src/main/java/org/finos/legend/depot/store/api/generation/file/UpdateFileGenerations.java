@@ -16,12 +16,17 @@
 package org.finos.legend.depot.store.api.generation.file;
 
 import org.finos.legend.depot.domain.generation.file.StoredFileGeneration;
+import org.finos.legend.depot.domain.status.StoreOperationResult;
+
+import java.util.List;
 
 public interface UpdateFileGenerations extends FileGenerations
 {
 
     StoredFileGeneration createOrUpdate(StoredFileGeneration detail);
 
+    StoreOperationResult createOrUpdate(List<StoredFileGeneration> generations);
+
     boolean delete(String groupId, String artifactId, String versionId);
 
 }
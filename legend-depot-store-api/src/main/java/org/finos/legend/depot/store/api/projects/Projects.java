@@ -15,6 +15,7 @@
 
 package org.finos.legend.depot.store.api.projects;
 
+import org.finos.legend.depot.domain.api.Page;
 import org.finos.legend.depot.domain.project.StoreProjectData;
 
 import java.util.List;
@@ -29,6 +30,11 @@ public interface Projects
      */
     List<StoreProjectData> getProjects(int page, int pageSize);
 
+    /**
+     * NOTE: pass a null continuationToken to read the first page
+     */
+    Page<StoreProjectData> getProjects(String continuationToken, int pageSize);
+
     Optional<StoreProjectData> find(String groupId, String artifactId);
 
     @Deprecated
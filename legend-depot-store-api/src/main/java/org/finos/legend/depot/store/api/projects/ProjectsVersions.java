@@ -15,6 +15,7 @@
 
 package org.finos.legend.depot.store.api.projects;
 
+import org.finos.legend.depot.domain.project.ProjectVersion;
 import org.finos.legend.depot.domain.project.StoreProjectVersionData;
 
 import java.util.List;
@@ -28,7 +29,11 @@ public interface ProjectsVersions
 
     Optional<StoreProjectVersionData> find(String groupId, String artifactId, String versionId);
 
+    List<StoreProjectVersionData> find(List<ProjectVersion> projectVersions);
+
     long getVersionCount(String groupId, String artifactId);
 
     List<StoreProjectVersionData> findVersion(Boolean excluded);
+
+    List<StoreProjectVersionData> findDependants(String groupId, String artifactId, String versionId);
 }
\ No newline at end of file
@@ -16,10 +16,14 @@
 package org.finos.legend.depot.store.metrics.services;
 
 import org.finos.legend.depot.store.admin.domain.metrics.VersionQueryCounter;
+import org.finos.legend.depot.store.metrics.domain.MetricKey;
 
 import javax.inject.Singleton;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Singleton
@@ -28,6 +32,7 @@ public class QueryMetricsContainer
 
     private static final QueryMetricsContainer instance = new QueryMetricsContainer();
     List<VersionQueryCounter> metrics = new ArrayList<>();
+    Map<MetricKey, AtomicInteger> counts = new ConcurrentHashMap<>();
 
     private QueryMetricsContainer()
     {
@@ -48,13 +53,21 @@ public class QueryMetricsContainer
         return getInstance().metrics.stream().filter(m -> m.getGroupId().equals(groupId) && m.getArtifactId().equals(artifactId) && m.getVersionId().equals(versionId)).collect(Collectors.toList());
     }
 
+    public static int getCount(String groupId, String artifactId, String versionId)
+    {
+        AtomicInteger count = getInstance().counts.get(new MetricKey(groupId, artifactId, versionId));
+        return count != null ? count.get() : 0;
+    }
+
     public static void record(String groupId, String artifactid, String versionId)
     {
         getInstance().metrics.add(new VersionQueryCounter(groupId, artifactid, versionId));
+        getInstance().counts.computeIfAbsent(new MetricKey(groupId, artifactid, versionId), key -> new AtomicInteger()).incrementAndGet();
     }
 
     public static void flush()
     {
         getInstance().metrics = new ArrayList<>();
+        getInstance().counts = new ConcurrentHashMap<>();
     }
 }
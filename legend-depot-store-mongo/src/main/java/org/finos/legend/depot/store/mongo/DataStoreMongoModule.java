@@ -15,16 +15,26 @@
 
 package org.finos.legend.depot.store.mongo;
 
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
 import org.finos.legend.depot.store.api.entities.Entities;
 import org.finos.legend.depot.store.api.generation.file.FileGenerations;
+import org.finos.legend.depot.store.api.projects.DependencyClosures;
+import org.finos.legend.depot.store.api.projects.ProjectVersionChanges;
 import org.finos.legend.depot.store.api.projects.Projects;
 import org.finos.legend.depot.store.api.projects.ProjectsVersions;
+import org.finos.legend.depot.store.mongo.core.ManagedExecutor;
 import org.finos.legend.depot.store.mongo.core.MongoStoreConnectionModule;
 import org.finos.legend.depot.store.mongo.entities.EntitiesMongo;
 import org.finos.legend.depot.store.mongo.generation.file.FileGenerationsMongo;
+import org.finos.legend.depot.store.mongo.projects.DependencyClosuresMongo;
+import org.finos.legend.depot.store.mongo.projects.ProjectVersionChangesMongo;
 import org.finos.legend.depot.store.mongo.projects.ProjectsMongo;
 import org.finos.legend.depot.store.mongo.projects.ProjectsVersionsMongo;
 
+import javax.inject.Named;
+import java.util.concurrent.Executor;
+
 public class DataStoreMongoModule extends MongoStoreConnectionModule
 {
     @Override
@@ -35,10 +45,22 @@ public class DataStoreMongoModule extends MongoStoreConnectionModule
         bind(ProjectsVersions.class).to(ProjectsVersionsMongo.class);
         bind(Entities.class).to(EntitiesMongo.class);
         bind(FileGenerations.class).to(FileGenerationsMongo.class);
+        bind(DependencyClosures.class).to(DependencyClosuresMongo.class);
+        bind(ProjectVersionChanges.class).to(ProjectVersionChangesMongo.class);
 
         expose(Entities.class);
         expose(ProjectsVersions.class);
         expose(FileGenerations.class);
         expose(Projects.class);
+        expose(DependencyClosures.class);
+        expose(ProjectVersionChanges.class);
+    }
+
+    @Provides
+    @Singleton
+    @Named("entitiesGenerationsCollector")
+    Executor getEntitiesGenerationsCollector()
+    {
+        return new ManagedExecutor("entities-generations-collector");
     }
 }
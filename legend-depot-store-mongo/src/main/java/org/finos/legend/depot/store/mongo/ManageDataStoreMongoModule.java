@@ -17,10 +17,14 @@ package org.finos.legend.depot.store.mongo;
 
 import org.finos.legend.depot.store.api.entities.UpdateEntities;
 import org.finos.legend.depot.store.api.generation.file.UpdateFileGenerations;
+import org.finos.legend.depot.store.api.projects.UpdateDependencyClosures;
+import org.finos.legend.depot.store.api.projects.UpdateProjectVersionChanges;
 import org.finos.legend.depot.store.api.projects.UpdateProjects;
 import org.finos.legend.depot.store.api.projects.UpdateProjectsVersions;
 import org.finos.legend.depot.store.mongo.entities.EntitiesMongo;
 import org.finos.legend.depot.store.mongo.generation.file.FileGenerationsMongo;
+import org.finos.legend.depot.store.mongo.projects.DependencyClosuresMongo;
+import org.finos.legend.depot.store.mongo.projects.ProjectVersionChangesMongo;
 import org.finos.legend.depot.store.mongo.projects.ProjectsMongo;
 import org.finos.legend.depot.store.mongo.projects.ProjectsVersionsMongo;
 
@@ -34,10 +38,14 @@ public class ManageDataStoreMongoModule extends DataStoreMongoModule
         bind(UpdateProjects.class).to(ProjectsMongo.class);
         bind(UpdateProjectsVersions.class).to(ProjectsVersionsMongo.class);
         bind(UpdateFileGenerations.class).to(FileGenerationsMongo.class);
+        bind(UpdateDependencyClosures.class).to(DependencyClosuresMongo.class);
+        bind(UpdateProjectVersionChanges.class).to(ProjectVersionChangesMongo.class);
 
         expose(UpdateEntities.class);
         expose(UpdateProjectsVersions.class);
         expose(UpdateFileGenerations.class);
         expose(UpdateProjects.class);
+        expose(UpdateDependencyClosures.class);
+        expose(UpdateProjectVersionChanges.class);
     }
 }
@@ -18,6 +18,7 @@ package org.finos.legend.depot.store.mongo.admin;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import org.bson.Document;
 import org.finos.legend.depot.store.mongo.admin.artifacts.ArtifactsFilesMongo;
@@ -25,7 +26,12 @@ import org.finos.legend.depot.store.mongo.admin.artifacts.ArtifactsRefreshStatus
 import org.finos.legend.depot.store.mongo.admin.migrations.ProjectToProjectVersionMigration;
 import org.finos.legend.depot.store.mongo.admin.schedules.SchedulesMongo;
 import org.finos.legend.depot.store.mongo.entities.EntitiesMongo;
+import org.finos.legend.depot.store.mongo.entities.EntityBundlesMongo;
+import org.finos.legend.depot.store.mongo.entities.EntityGenerationsMongo;
+import org.finos.legend.depot.store.mongo.entities.EntityPathNGrams;
 import org.finos.legend.depot.store.mongo.generation.file.FileGenerationsMongo;
+import org.finos.legend.depot.store.mongo.projects.DependencyClosuresMongo;
+import org.finos.legend.depot.store.mongo.projects.ProjectVersionChangesMongo;
 import org.finos.legend.depot.store.mongo.projects.ProjectsMongo;
 import org.finos.legend.depot.store.mongo.admin.metrics.QueryMetricsMongo;
 import org.finos.legend.depot.store.mongo.projects.ProjectsVersionsMongo;
@@ -80,13 +86,33 @@ public class MongoAdminStore
         mongoDatabase.getCollection(collectionId).dropIndex(indexName);
     }
 
+    private void dropIndexIfPresent(String collectionId, String indexName)
+    {
+        MongoCollection<Document> collection = mongoDatabase.getCollection(collectionId);
+        List<Document> keys = new ArrayList<>();
+        collection.listIndexes().forEach((Consumer<Document>) index ->
+        {
+            if (indexName.equals(index.getString("name")))
+            {
+                keys.add(index.get("key", Document.class));
+            }
+        });
+        keys.forEach(collection::dropIndex);
+    }
 
     public List<String> createIndexes()
     {
         List<String> results = new ArrayList<>();
         results.addAll(createIndexesIfAbsent(mongoDatabase,ProjectsMongo.COLLECTION,ProjectsMongo.buildIndexes()));
         results.addAll(createIndexesIfAbsent(mongoDatabase, ProjectsVersionsMongo.COLLECTION, ProjectsVersionsMongo.buildIndexes()));
+        results.addAll(createIndexesIfAbsent(mongoDatabase, DependencyClosuresMongo.COLLECTION, DependencyClosuresMongo.buildIndexes()));
+        results.addAll(createIndexesIfAbsent(mongoDatabase, ProjectVersionChangesMongo.COLLECTION, ProjectVersionChangesMongo.buildIndexes()));
+        dropIndexIfPresent(EntitiesMongo.COLLECTION, EntitiesMongo.SUPERSEDED_ENTITY_PATH_INDEX);
+        EntitiesMongo.SUPERSEDED_CLASSIFIER_INDEXES.forEach(index -> dropIndexIfPresent(EntitiesMongo.COLLECTION, index));
+        EntityPathNGrams.backfill(mongoDatabase);
         results.addAll(createIndexesIfAbsent(mongoDatabase,EntitiesMongo.COLLECTION,EntitiesMongo.buildIndexes()));
+        results.addAll(createIndexesIfAbsent(mongoDatabase,EntityBundlesMongo.COLLECTION,EntityBundlesMongo.buildIndexes()));
+        results.addAll(createIndexesIfAbsent(mongoDatabase,EntityGenerationsMongo.COLLECTION,EntityGenerationsMongo.buildIndexes()));
         results.addAll(createIndexesIfAbsent(mongoDatabase,FileGenerationsMongo.COLLECTION,FileGenerationsMongo.buildIndexes()));
         results.addAll(createIndexesIfAbsent(mongoDatabase,ArtifactsFilesMongo.COLLECTION,ArtifactsFilesMongo.buildIndexes()));
         results.addAll(createIndexesIfAbsent(mongoDatabase,ArtifactsRefreshStatusMongo.COLLECTION,ArtifactsRefreshStatusMongo.buildIndexes()));
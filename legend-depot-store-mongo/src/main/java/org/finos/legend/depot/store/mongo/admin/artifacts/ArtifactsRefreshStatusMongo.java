@@ -17,6 +17,7 @@ package org.finos.legend.depot.store.mongo.admin.artifacts;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.ReadPreference;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.IndexModel;
@@ -64,7 +65,7 @@ public class ArtifactsRefreshStatusMongo extends BaseMongo<RefreshStatus> implem
 
     public MongoCollection getCollection()
     {
-        return getMongoCollection(COLLECTION);
+        return getMongoCollection(COLLECTION).withReadPreference(ReadPreference.primary());
     }
 
 
@@ -26,6 +26,8 @@ public abstract class AbstractMongoConnectionFactory implements ConnectionFactor
     private final String mongoURI;
     private final String applicationName;
     private final String databaseName;
+    private final MongoConfiguration mongoConfiguration;
+    private final PrometheusConnectionPoolListener connectionPoolListener = new PrometheusConnectionPoolListener();
     protected MongoClient client;
 
     public AbstractMongoConnectionFactory(String applicationName, MongoConfiguration mongoConfiguration)
@@ -38,6 +40,7 @@ public abstract class AbstractMongoConnectionFactory implements ConnectionFactor
         this.applicationName = applicationName;
         this.databaseName = mongoConfiguration.database;
         this.mongoURI = mongoConfiguration.url;
+        this.mongoConfiguration = mongoConfiguration;
     }
 
     private boolean isNullOrEmpty(String string)
@@ -47,8 +50,9 @@ public abstract class AbstractMongoConnectionFactory implements ConnectionFactor
 
     protected MongoClientURI buildMongoURI()
     {
-        MongoClientOptions.Builder optionsBuilder = MongoClientOptions.builder().applicationName(applicationName);
+        MongoClientOptions.Builder optionsBuilder = mongoConfiguration.configure(MongoClientOptions.builder().applicationName(applicationName));
         optionsBuilder.addConnectionPoolListener(new JMXConnectionPoolListener());
+        optionsBuilder.addConnectionPoolListener(connectionPoolListener);
         return new MongoClientURI(mongoURI, optionsBuilder);
     }
 
@@ -62,6 +66,11 @@ public abstract class AbstractMongoConnectionFactory implements ConnectionFactor
         return applicationName;
     }
 
+    public PrometheusConnectionPoolListener getConnectionPoolListener()
+    {
+        return connectionPoolListener;
+    }
+
     @Override
     public MongoDatabase getDatabase()
     {
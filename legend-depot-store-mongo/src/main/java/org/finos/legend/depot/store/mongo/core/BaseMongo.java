@@ -17,35 +17,64 @@ package org.finos.legend.depot.store.mongo.core;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoClient;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.DistinctIterable;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.CountOptions;
 import com.mongodb.client.model.FindOneAndReplaceOptions;
 import com.mongodb.client.model.IndexModel;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
 import com.mongodb.client.model.ReturnDocument;
 import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.DeleteResult;
 import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 import org.finos.legend.depot.domain.HasIdentifier;
+import org.finos.legend.depot.domain.api.Page;
+import org.finos.legend.depot.domain.status.StoreOperationResult;
 import org.finos.legend.depot.store.StoreException;
+import org.finos.legend.depot.store.mongo.core.codecs.DepotCodecProvider;
+import org.finos.legend.depot.store.mongo.core.codecs.JacksonDocumentCodec;
 import org.slf4j.Logger;
 
+import javax.inject.Named;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Collections;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gt;
 import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Sorts.ascending;
 
 public abstract class BaseMongo<T extends HasIdentifier>
 {
@@ -58,24 +87,47 @@ public abstract class BaseMongo<T extends HasIdentifier>
     public static final String ID = "id";
     public static final UpdateOptions INSERT_IF_ABSENT = new UpdateOptions().upsert(true);
     public static final FindOneAndReplaceOptions FIND_ONE_AND_REPLACE_OPTIONS = new FindOneAndReplaceOptions().upsert(true).returnDocument(ReturnDocument.AFTER);
+    public static final ReplaceOptions REPLACE_OR_INSERT = new ReplaceOptions().upsert(true);
+    public static final BulkWriteOptions UNORDERED_BULK_WRITE = new BulkWriteOptions().ordered(false);
+    public static final int DEFAULT_BULK_WRITE_BATCH_SIZE = 1000;
     protected static final Logger LOGGER = org.slf4j.LoggerFactory.getLogger(BaseMongo.class);
     private final ObjectMapper objectMapper;
     private final MongoDatabase mongoDatabase;
     private final Class<T> documentClass;
-
+    private final CodecRegistry codecRegistry;
+    private final MongoReadPreferences readPreferences;
+    private long maxTimeInMillis;
 
     public BaseMongo(MongoDatabase databaseProvider, Class<T> documentClass)
     {
-        this.mongoDatabase = databaseProvider;
-        this.documentClass = documentClass;
-        objectMapper = new ObjectMapper();
+        this(databaseProvider, documentClass, new ObjectMapper());
     }
 
     public BaseMongo(MongoDatabase databaseProvider, Class<T> documentClass, ObjectMapper mapper)
+    {
+        this(databaseProvider, documentClass, mapper, MongoReadPreferences.DEFAULT);
+    }
+
+    public BaseMongo(MongoDatabase databaseProvider, Class<T> documentClass, ObjectMapper mapper, MongoReadPreferences readPreferences)
+    {
+        this(databaseProvider, documentClass, mapper, readPreferences, CodecRegistries.fromProviders(new DepotCodecProvider()));
+    }
+
+    public BaseMongo(MongoDatabase databaseProvider, Class<T> documentClass, ObjectMapper mapper, MongoReadPreferences readPreferences, Codec<T> documentCodec)
+    {
+        this(databaseProvider, documentClass, mapper, readPreferences, CodecRegistries.fromCodecs(documentCodec));
+    }
+
+    private BaseMongo(MongoDatabase databaseProvider, Class<T> documentClass, ObjectMapper mapper, MongoReadPreferences readPreferences, CodecRegistry domainCodecs)
     {
         this.mongoDatabase = databaseProvider;
+        this.readPreferences = readPreferences;
         this.documentClass = documentClass;
         objectMapper = mapper;
+        codecRegistry = CodecRegistries.fromRegistries(
+                domainCodecs,
+                CodecRegistries.fromCodecs(new JacksonDocumentCodec<>(documentClass, mapper)),
+                MongoClient.getDefaultCodecRegistry());
     }
 
     public static <T extends HasIdentifier> Document buildDocument(T object)
@@ -99,9 +151,60 @@ public abstract class BaseMongo<T extends HasIdentifier>
         return mongoDatabase;
     }
 
+    @com.google.inject.Inject(optional = true)
+    public final void setMaxTimeInMillis(@Named("maxTimeInMillis") Long maxTimeInMillis)
+    {
+        this.maxTimeInMillis = maxTimeInMillis;
+    }
+
+    public long getMaxTimeInMillis()
+    {
+        return maxTimeInMillis;
+    }
+
+    public static <D> FindIterable<D> withMaxTime(FindIterable<D> iterable, long maxTimeInMillis)
+    {
+        return maxTimeInMillis > 0 ? iterable.maxTime(maxTimeInMillis, TimeUnit.MILLISECONDS) : iterable;
+    }
+
+    public static <D> AggregateIterable<D> withMaxTime(AggregateIterable<D> iterable, long maxTimeInMillis)
+    {
+        return maxTimeInMillis > 0 ? iterable.maxTime(maxTimeInMillis, TimeUnit.MILLISECONDS) : iterable;
+    }
+
+    public static <D> DistinctIterable<D> withMaxTime(DistinctIterable<D> iterable, long maxTimeInMillis)
+    {
+        return maxTimeInMillis > 0 ? iterable.maxTime(maxTimeInMillis, TimeUnit.MILLISECONDS) : iterable;
+    }
+
+    public static CountOptions countOptions(long maxTimeInMillis)
+    {
+        return maxTimeInMillis > 0 ? new CountOptions().maxTime(maxTimeInMillis, TimeUnit.MILLISECONDS) : new CountOptions();
+    }
+
+    protected <D> FindIterable<D> withMaxTime(FindIterable<D> iterable)
+    {
+        return withMaxTime(iterable, maxTimeInMillis);
+    }
+
+    protected <D> AggregateIterable<D> withMaxTime(AggregateIterable<D> iterable)
+    {
+        return withMaxTime(iterable, maxTimeInMillis);
+    }
+
+    protected <D> DistinctIterable<D> withMaxTime(DistinctIterable<D> iterable)
+    {
+        return withMaxTime(iterable, maxTimeInMillis);
+    }
+
+    protected CountOptions countOptions()
+    {
+        return countOptions(maxTimeInMillis);
+    }
+
     protected MongoCollection getMongoCollection(String col)
     {
-        return getDatabase().getCollection(col);
+        return readPreferences.apply(col, getDatabase().getCollection(col));
     }
 
     private static List<String> getIndexes(MongoCollection collection)
@@ -133,6 +236,11 @@ public abstract class BaseMongo<T extends HasIdentifier>
 
     protected abstract MongoCollection getCollection();
 
+    protected MongoCollection<T> getTypedCollection()
+    {
+        return getCollection().withCodecRegistry(codecRegistry).withDocumentClass(documentClass);
+    }
+
 
     protected Bson getArtifactAndVersionFilter(String groupId, String artifactId, String versionId)
     {
@@ -150,22 +258,91 @@ public abstract class BaseMongo<T extends HasIdentifier>
     {
         validateNewData(data);
         Bson keyFilter = getKeyFilter(data);
-        Document result = (Document)getCollection().findOneAndReplace(keyFilter, buildDocument(data), FIND_ONE_AND_REPLACE_OPTIONS);
-        return convert(result, documentClass);
+        return getTypedCollection().findOneAndReplace(keyFilter, data, FIND_ONE_AND_REPLACE_OPTIONS);
+    }
+
+    protected StoreOperationResult createOrUpdate(List<T> data, int batchSize)
+    {
+        List<WriteModel<T>> models = new ArrayList<>();
+        for (T item : data)
+        {
+            validateNewData(item);
+            models.add(new ReplaceOneModel<>(getKeyFilter(item), item, REPLACE_OR_INSERT));
+        }
+        return bulkWrite(getTypedCollection(), null, models, batchSize);
+    }
+
+    protected <D> StoreOperationResult bulkWrite(MongoCollection<D> collection, ClientSession clientSession, List<? extends WriteModel<D>> models, int batchSize)
+    {
+        StoreOperationResult report = new StoreOperationResult();
+        int size = Math.max(batchSize, 1);
+        for (int start = 0; start < models.size(); start += size)
+        {
+            List<? extends WriteModel<D>> batch = models.subList(start, Math.min(start + size, models.size()));
+            report.combine(bulkWriteBatch(collection, clientSession, batch));
+        }
+        return report;
+    }
+
+    private <D> StoreOperationResult bulkWriteBatch(MongoCollection<D> collection, ClientSession clientSession, List<? extends WriteModel<D>> batch)
+    {
+        StoreOperationResult report = new StoreOperationResult();
+        BulkWriteResult result;
+        try
+        {
+            result = clientSession != null ? collection.bulkWrite(clientSession, batch, UNORDERED_BULK_WRITE) : collection.bulkWrite(batch, UNORDERED_BULK_WRITE);
+        }
+        catch (MongoBulkWriteException e)
+        {
+            result = e.getWriteResult();
+            e.getWriteErrors().forEach(error -> report.logError(error.getMessage()));
+        }
+        report.addInsertedCount(result.getInsertedCount() + result.getUpserts().size());
+        report.addModifiedCount(result.isModifiedCountAvailable() ? result.getModifiedCount() : result.getMatchedCount());
+        LOGGER.debug("bulk write {}: batch of [{}] {}", collection.getNamespace().getCollectionName(), batch.size(), report);
+        return report;
     }
 
     public List<T> getAllStoredEntities()
     {
-        List<T> result = new ArrayList<>();
-        getCollection().find().forEach((Consumer<Document>)doc -> result.add(convert(doc, documentClass)));
-        return result;
+        return withMaxTime(getTypedCollection().find()).into(new ArrayList<>());
     }
 
     public List<T> getStoredEntitiesByPage(int page, int pageSize)
     {
-        List<T> result = new ArrayList<>();
-        getCollection().find().skip(Math.max(page - 1, 0) * pageSize).limit(pageSize).forEach((Consumer<Document>)doc -> result.add(convert(doc, documentClass)));
-        return result;
+        return withMaxTime(getTypedCollection().find()).skip(Math.max(page - 1, 0) * pageSize).limit(pageSize).into(new ArrayList<>());
+    }
+
+    public Page<T> getStoredEntitiesPage(String continuationToken, int pageSize)
+    {
+        if (!Page.isValidPageSize(pageSize))
+        {
+            throw new IllegalArgumentException(String.format("page size must be between 1 and %s, got %s", Page.MAX_PAGE_SIZE, pageSize));
+        }
+        Bson filter = continuationToken != null ? gt(ID_FIELD, decodeContinuationToken(continuationToken)) : new Document();
+        MongoCollection<RawBsonDocument> collection = getCollection().withDocumentClass(RawBsonDocument.class);
+        List<RawBsonDocument> documents = withMaxTime(collection.find(filter)).sort(ascending(ID_FIELD)).limit(pageSize).into(new ArrayList<>());
+        Codec<T> codec = codecRegistry.get(documentClass);
+        List<T> items = documents.stream().map(document -> document.decode(codec)).collect(Collectors.toList());
+        String nextToken = !documents.isEmpty() && documents.size() == pageSize ? encodeContinuationToken(documents.get(documents.size() - 1).getObjectId(ID_FIELD).getValue()) : null;
+        return new Page<>(items, nextToken);
+    }
+
+    static String encodeContinuationToken(ObjectId id)
+    {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toByteArray());
+    }
+
+    static ObjectId decodeContinuationToken(String continuationToken)
+    {
+        try
+        {
+            return new ObjectId(Base64.getUrlDecoder().decode(continuationToken));
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException("invalid continuation token " + continuationToken);
+        }
     }
 
     public <T> T convert(Document document, Class<T> clazz)
@@ -217,19 +394,34 @@ public abstract class BaseMongo<T extends HasIdentifier>
 
     protected abstract void validateNewData(T data);
 
+    protected static <D> FindIterable<D> find(MongoCollection<D> collection, ClientSession clientSession, Bson filter)
+    {
+        return clientSession != null ? collection.find(clientSession, filter) : collection.find(filter);
+    }
+
     protected List<T> find(Bson filter)
     {
-        return convert(getCollection().find(filter));
+        return find(null, filter);
+    }
+
+    protected List<T> find(ClientSession clientSession, Bson filter)
+    {
+        return withMaxTime(find(getTypedCollection(), clientSession, filter)).into(new ArrayList<>());
     }
 
     protected long count(Bson condition)
     {
-        return getCollection().countDocuments(condition);
+        return getCollection().countDocuments(condition, countOptions());
     }
 
     protected FindIterable executeFind(Bson filter)
     {
-        return getCollection().find(filter);
+        return executeFind(null, filter);
+    }
+
+    protected FindIterable executeFind(ClientSession clientSession, Bson filter)
+    {
+        return withMaxTime(find(getCollection(), clientSession, filter));
     }
 
 
@@ -240,9 +432,25 @@ public abstract class BaseMongo<T extends HasIdentifier>
         return result;
     }
 
+    protected Stream<T> stream(Bson filter)
+    {
+        return stream(null, filter);
+    }
+
+    protected Stream<T> stream(ClientSession clientSession, Bson filter)
+    {
+        MongoCursor<T> cursor = withMaxTime(find(getTypedCollection(), clientSession, filter)).iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false).onClose(cursor::close);
+    }
+
     protected Optional<T> findOne(Bson filter)
     {
-        List<T> result = convert(getCollection().find(filter));
+        return findOne(null, filter);
+    }
+
+    protected Optional<T> findOne(ClientSession clientSession, Bson filter)
+    {
+        List<T> result = find(clientSession, filter);
         if (!result.isEmpty() && result.size() > 1)
         {
             throw new IllegalStateException(String.format(" Found more than one match %s in collection %s",filter,getCollection().getNamespace().getCollectionName()));
@@ -0,0 +1,71 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+
+package org.finos.legend.depot.store.mongo.core;
+
+import io.dropwizard.lifecycle.Managed;
+import org.slf4j.Logger;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single named background thread for store housekeeping. Provided through Guice it is registered with the application
+ * lifecycle, so pending tasks get to finish when the application stops.
+ */
+public class ManagedExecutor implements Executor, Managed
+{
+    private static final Logger LOGGER = org.slf4j.LoggerFactory.getLogger(ManagedExecutor.class);
+    private static final long STOP_TIMEOUT_IN_SECONDS = 30;
+
+    private final String name;
+    private final ExecutorService executor;
+
+    public ManagedExecutor(String name)
+    {
+        this.name = name;
+        this.executor = Executors.newSingleThreadExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void execute(Runnable task)
+    {
+        executor.execute(task);
+    }
+
+    @Override
+    public void start()
+    {
+    }
+
+    @Override
+    public void stop() throws InterruptedException
+    {
+        executor.shutdown();
+        if (!executor.awaitTermination(STOP_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS))
+        {
+            LOGGER.warn("{} did not finish its pending tasks in {}s, interrupting them", name, STOP_TIMEOUT_IN_SECONDS);
+            executor.shutdownNow();
+        }
+    }
+}
@@ -17,11 +17,19 @@ package org.finos.legend.depot.store.mongo.core;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.mongodb.MongoClientOptions;
 
 import javax.validation.constraints.NotNull;
+import java.util.Collections;
+import java.util.Map;
 
 public class MongoConfiguration
 {
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 100;
+    public static final int DEFAULT_MAX_WAIT_TIME_IN_MILLIS = 10000;
+    public static final int DEFAULT_CONNECT_TIMEOUT_IN_MILLIS = 10000;
+    public static final long DEFAULT_MAX_TIME_IN_MILLIS = 120000;
+
     @NotNull
     @JsonProperty
     public String database;
@@ -34,6 +42,33 @@ public class MongoConfiguration
     @JsonProperty
     public boolean tracing;
 
+    @JsonProperty
+    public Integer bulkWriteBatchSize;
+
+    @JsonProperty
+    public Map<String, MongoReadConfiguration> readPreferences;
+
+    @JsonProperty
+    public Integer maxConnectionsPerHost;
+
+    @JsonProperty
+    public Integer minConnectionsPerHost;
+
+    @JsonProperty
+    public Integer maxWaitTimeInMillis;
+
+    @JsonProperty
+    public Integer connectTimeoutInMillis;
+
+    @JsonProperty
+    public Integer socketTimeoutInMillis;
+
+    /**
+     * Bounds the server side execution time of every store read, 0 leaves reads unbounded.
+     */
+    @JsonProperty
+    public Long maxTimeInMillis;
+
     @JsonCreator
     public MongoConfiguration(@JsonProperty("database") String database, @JsonProperty("url") String url,@JsonProperty("tracing") boolean tracing)
     {
@@ -56,4 +91,35 @@ public class MongoConfiguration
     {
         return tracing;
     }
+
+    public int getBulkWriteBatchSize()
+    {
+        return bulkWriteBatchSize != null && bulkWriteBatchSize > 0 ? bulkWriteBatchSize : BaseMongo.DEFAULT_BULK_WRITE_BATCH_SIZE;
+    }
+
+    public Map<String, MongoReadConfiguration> getReadPreferences()
+    {
+        return readPreferences != null ? readPreferences : Collections.emptyMap();
+    }
+
+    public long getMaxTimeInMillis()
+    {
+        return maxTimeInMillis != null ? maxTimeInMillis : DEFAULT_MAX_TIME_IN_MILLIS;
+    }
+
+    public MongoClientOptions.Builder configure(MongoClientOptions.Builder builder)
+    {
+        builder.connectionsPerHost(maxConnectionsPerHost != null ? maxConnectionsPerHost : DEFAULT_MAX_CONNECTIONS_PER_HOST)
+                .maxWaitTime(maxWaitTimeInMillis != null ? maxWaitTimeInMillis : DEFAULT_MAX_WAIT_TIME_IN_MILLIS)
+                .connectTimeout(connectTimeoutInMillis != null ? connectTimeoutInMillis : DEFAULT_CONNECT_TIMEOUT_IN_MILLIS);
+        if (minConnectionsPerHost != null)
+        {
+            builder.minConnectionsPerHost(minConnectionsPerHost);
+        }
+        if (socketTimeoutInMillis != null)
+        {
+            builder.socketTimeout(socketTimeoutInMillis);
+        }
+        return builder;
+    }
 }
@@ -0,0 +1,65 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+
+package org.finos.legend.depot.store.mongo.core;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadConcernLevel;
+import com.mongodb.ReadPreference;
+import com.mongodb.TagSet;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+public class MongoReadConfiguration
+{
+    @JsonProperty
+    public String readPreference;
+
+    @JsonProperty
+    public Long maxStalenessSeconds;
+
+    @JsonProperty
+    public String readConcern;
+
+    @JsonCreator
+    public MongoReadConfiguration(@JsonProperty("readPreference") String readPreference, @JsonProperty("maxStalenessSeconds") Long maxStalenessSeconds, @JsonProperty("readConcern") String readConcern)
+    {
+        this.readPreference = readPreference;
+        this.maxStalenessSeconds = maxStalenessSeconds;
+        this.readConcern = readConcern;
+    }
+
+    public ReadPreference getReadPreference()
+    {
+        if (readPreference == null)
+        {
+            return null;
+        }
+        if (maxStalenessSeconds == null)
+        {
+            return ReadPreference.valueOf(readPreference);
+        }
+        return ReadPreference.valueOf(readPreference, Collections.<TagSet>emptyList(), maxStalenessSeconds, TimeUnit.SECONDS);
+    }
+
+    public ReadConcern getReadConcern()
+    {
+        return readConcern == null ? null : new ReadConcern(ReadConcernLevel.fromString(readConcern));
+    }
+}
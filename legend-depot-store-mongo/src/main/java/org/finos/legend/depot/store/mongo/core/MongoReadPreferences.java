@@ -0,0 +1,69 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+
+package org.finos.legend.depot.store.mongo.core;
+
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoCollection;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read preference and read concern per collection; collections without an entry keep the defaults of the connection url.
+ */
+public final class MongoReadPreferences
+{
+    public static final MongoReadPreferences DEFAULT = new MongoReadPreferences(Collections.emptyMap());
+
+    private final Map<String, ReadPreference> readPreferences = new HashMap<>();
+    private final Map<String, ReadConcern> readConcerns = new HashMap<>();
+
+    public MongoReadPreferences(Map<String, MongoReadConfiguration> collections)
+    {
+        collections.forEach((collection, configuration) ->
+        {
+            ReadPreference readPreference = configuration.getReadPreference();
+            if (readPreference != null)
+            {
+                readPreferences.put(collection, readPreference);
+            }
+            ReadConcern readConcern = configuration.getReadConcern();
+            if (readConcern != null)
+            {
+                readConcerns.put(collection, readConcern);
+            }
+        });
+    }
+
+    public <T> MongoCollection<T> apply(String collection, MongoCollection<T> mongoCollection)
+    {
+        MongoCollection<T> result = mongoCollection;
+        ReadPreference readPreference = readPreferences.get(collection);
+        if (readPreference != null)
+        {
+            result = result.withReadPreference(readPreference);
+        }
+        ReadConcern readConcern = readConcerns.get(collection);
+        if (readConcern != null)
+        {
+            result = result.withReadConcern(readConcern);
+        }
+        return result;
+    }
+}
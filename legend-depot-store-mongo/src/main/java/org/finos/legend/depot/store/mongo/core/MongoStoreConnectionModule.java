@@ -21,6 +21,7 @@ import com.google.inject.Singleton;
 import com.google.inject.name.Names;
 import com.mongodb.MongoClient;
 import com.mongodb.client.MongoDatabase;
+import org.finos.legend.depot.tracing.api.PrometheusMetricsHandler;
 import org.finos.legend.depot.tracing.configuration.OpenTracingConfiguration;
 import org.finos.legend.depot.tracing.services.TracerFactory;
 
@@ -34,13 +35,17 @@ public class MongoStoreConnectionModule extends PrivateModule
         expose(ConnectionFactory.class);
         expose(MongoDatabase.class).annotatedWith(Names.named("mongoDatabase"));
         expose(Boolean.class).annotatedWith(Names.named("transactionMode"));
+        expose(Integer.class).annotatedWith(Names.named("bulkWriteBatchSize"));
+        expose(MongoReadPreferences.class);
+        expose(Long.class).annotatedWith(Names.named("maxTimeInMillis"));
         expose(MongoClient.class);
     }
 
     @Provides
     @Singleton
-    ConnectionFactory getConnectionFactory(@Named("applicationName") String applicationName, MongoConfiguration mongoConfiguration, OpenTracingConfiguration openTracingConfiguration, TracerFactory tracerFactory)
+    ConnectionFactory getConnectionFactory(@Named("applicationName") String applicationName, MongoConfiguration mongoConfiguration, OpenTracingConfiguration openTracingConfiguration, TracerFactory tracerFactory, PrometheusMetricsHandler metricsHandler)
     {
+        PrometheusConnectionPoolListener.registerMetrics(metricsHandler);
         if (openTracingConfiguration.isEnabled() && mongoConfiguration.isTracingEnabled())
         {
             return new MongoTracingConnectionFactory(applicationName, mongoConfiguration, tracerFactory.getTracer());
@@ -72,4 +77,27 @@ public class MongoStoreConnectionModule extends PrivateModule
     {
         return false;
     }
+
+    @Provides
+    @Singleton
+    @Named("bulkWriteBatchSize")
+    Integer getBulkWriteBatchSize(MongoConfiguration mongoConfiguration)
+    {
+        return mongoConfiguration.getBulkWriteBatchSize();
+    }
+
+    @Provides
+    @Singleton
+    MongoReadPreferences getReadPreferences(MongoConfiguration mongoConfiguration)
+    {
+        return new MongoReadPreferences(mongoConfiguration.getReadPreferences());
+    }
+
+    @Provides
+    @Singleton
+    @Named("maxTimeInMillis")
+    Long getMaxTimeInMillis(MongoConfiguration mongoConfiguration)
+    {
+        return mongoConfiguration.getMaxTimeInMillis();
+    }
 }
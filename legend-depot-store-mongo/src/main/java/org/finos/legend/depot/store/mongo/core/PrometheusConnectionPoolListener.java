@@ -0,0 +1,111 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+
+package org.finos.legend.depot.store.mongo.core;
+
+import com.mongodb.event.ConnectionAddedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListenerAdapter;
+import com.mongodb.event.ConnectionPoolWaitQueueEnteredEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueExitedEvent;
+import com.mongodb.event.ConnectionRemovedEvent;
+import org.finos.legend.depot.tracing.api.PrometheusMetricsHandler;
+import org.finos.legend.depot.tracing.services.prometheus.PrometheusMetricsFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PrometheusConnectionPoolListener extends ConnectionPoolListenerAdapter
+{
+    public static final String MONGO_CONNECTIONS_CHECKED_OUT = "mongo connections checked out";
+    public static final String MONGO_CONNECTIONS_WAITING = "mongo connections waiting";
+    public static final String MONGO_CONNECTIONS_OPEN = "mongo connections open";
+    public static final String MONGO_CONNECTIONS_CREATED = "mongo connections created";
+    public static final String MONGO_CONNECTION_CHECKOUT = "mongo connection checkout";
+
+    private final AtomicInteger checkedOut = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger open = new AtomicInteger();
+    private final ThreadLocal<Long> checkoutStart = new ThreadLocal<>();
+
+    public static void registerMetrics(PrometheusMetricsHandler metricsHandler)
+    {
+        metricsHandler.registerGauge(MONGO_CONNECTIONS_CHECKED_OUT, MONGO_CONNECTIONS_CHECKED_OUT);
+        metricsHandler.registerGauge(MONGO_CONNECTIONS_WAITING, MONGO_CONNECTIONS_WAITING);
+        metricsHandler.registerGauge(MONGO_CONNECTIONS_OPEN, MONGO_CONNECTIONS_OPEN);
+        metricsHandler.registerCounter(MONGO_CONNECTIONS_CREATED, MONGO_CONNECTIONS_CREATED);
+        metricsHandler.registerHistogram(MONGO_CONNECTION_CHECKOUT, MONGO_CONNECTION_CHECKOUT);
+    }
+
+    @Override
+    public void waitQueueEntered(ConnectionPoolWaitQueueEnteredEvent event)
+    {
+        checkoutStart.set(System.currentTimeMillis());
+        PrometheusMetricsFactory.getInstance().setGauge(MONGO_CONNECTIONS_WAITING, waiting.incrementAndGet());
+    }
+
+    @Override
+    public void waitQueueExited(ConnectionPoolWaitQueueExitedEvent event)
+    {
+        Long start = checkoutStart.get();
+        checkoutStart.remove();
+        if (start != null)
+        {
+            PrometheusMetricsFactory.getInstance().observeHistogram(MONGO_CONNECTION_CHECKOUT, start, System.currentTimeMillis());
+        }
+        PrometheusMetricsFactory.getInstance().setGauge(MONGO_CONNECTIONS_WAITING, waiting.decrementAndGet());
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event)
+    {
+        PrometheusMetricsFactory.getInstance().setGauge(MONGO_CONNECTIONS_CHECKED_OUT, checkedOut.incrementAndGet());
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event)
+    {
+        PrometheusMetricsFactory.getInstance().setGauge(MONGO_CONNECTIONS_CHECKED_OUT, checkedOut.decrementAndGet());
+    }
+
+    @Override
+    public void connectionAdded(ConnectionAddedEvent event)
+    {
+        PrometheusMetricsFactory.getInstance().incrementCount(MONGO_CONNECTIONS_CREATED);
+        PrometheusMetricsFactory.getInstance().setGauge(MONGO_CONNECTIONS_OPEN, open.incrementAndGet());
+    }
+
+    @Override
+    public void connectionRemoved(ConnectionRemovedEvent event)
+    {
+        PrometheusMetricsFactory.getInstance().setGauge(MONGO_CONNECTIONS_OPEN, open.decrementAndGet());
+    }
+
+    public int getCheckedOut()
+    {
+        return checkedOut.get();
+    }
+
+    public int getWaiting()
+    {
+        return waiting.get();
+    }
+
+    public int getOpen()
+    {
+        return open.get();
+    }
+}
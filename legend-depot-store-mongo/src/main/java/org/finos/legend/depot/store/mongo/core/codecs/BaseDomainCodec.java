@@ -0,0 +1,227 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.store.mongo.core.codecs;
+
+import com.fasterxml.jackson.databind.util.StdDateFormat;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.finos.legend.depot.domain.HasIdentifier;
+import org.finos.legend.depot.store.StoreException;
+import org.finos.legend.depot.store.mongo.core.BaseMongo;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public abstract class BaseDomainCodec<T extends HasIdentifier> implements Codec<T>
+{
+    private static final DocumentCodec DOCUMENT_CODEC = new DocumentCodec();
+    private final Class<T> encoderClass;
+
+    protected BaseDomainCodec(Class<T> encoderClass)
+    {
+        this.encoderClass = encoderClass;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, T value, EncoderContext encoderContext)
+    {
+        DOCUMENT_CODEC.encode(writer, BaseMongo.buildDocument(value), encoderContext);
+    }
+
+    @Override
+    public Class<T> getEncoderClass()
+    {
+        return encoderClass;
+    }
+
+    protected static boolean isNull(BsonReader reader)
+    {
+        if (reader.getCurrentBsonType() == BsonType.NULL)
+        {
+            reader.readNull();
+            return true;
+        }
+        if (reader.getCurrentBsonType() == BsonType.UNDEFINED)
+        {
+            reader.readUndefined();
+            return true;
+        }
+        return false;
+    }
+
+    protected static String readString(BsonReader reader)
+    {
+        if (isNull(reader))
+        {
+            return null;
+        }
+        switch (reader.getCurrentBsonType())
+        {
+            case STRING:
+                return reader.readString();
+            case SYMBOL:
+                return reader.readSymbol();
+            case OBJECT_ID:
+                return reader.readObjectId().toHexString();
+            default:
+                Object value = readValue(reader);
+                return value == null ? null : value.toString();
+        }
+    }
+
+    protected static Boolean readBoolean(BsonReader reader)
+    {
+        if (isNull(reader))
+        {
+            return null;
+        }
+        if (reader.getCurrentBsonType() == BsonType.BOOLEAN)
+        {
+            return reader.readBoolean();
+        }
+        Object value = readValue(reader);
+        return value instanceof Number ? ((Number) value).intValue() != 0 : Boolean.valueOf(String.valueOf(value));
+    }
+
+    protected static Integer readInteger(BsonReader reader)
+    {
+        if (isNull(reader))
+        {
+            return null;
+        }
+        Object value = readValue(reader);
+        return value instanceof Number ? Integer.valueOf(((Number) value).intValue()) : Integer.valueOf(String.valueOf(value));
+    }
+
+    protected static Date readDate(BsonReader reader)
+    {
+        if (isNull(reader))
+        {
+            return null;
+        }
+        switch (reader.getCurrentBsonType())
+        {
+            case DATE_TIME:
+                return new Date(reader.readDateTime());
+            case INT64:
+                return new Date(reader.readInt64());
+            case INT32:
+                return new Date(reader.readInt32());
+            case DOUBLE:
+                return new Date((long) reader.readDouble());
+            case STRING:
+                String date = reader.readString();
+                try
+                {
+                    return new StdDateFormat().parse(date);
+                }
+                catch (ParseException e)
+                {
+                    throw new StoreException("invalid date " + date);
+                }
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    protected static <V> List<V> readList(BsonReader reader, Function<BsonReader, V> elementReader)
+    {
+        if (isNull(reader))
+        {
+            return null;
+        }
+        List<V> result = new ArrayList<>();
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT)
+        {
+            result.add(elementReader.apply(reader));
+        }
+        reader.readEndArray();
+        return result;
+    }
+
+    protected static Map<String, Object> readMap(BsonReader reader)
+    {
+        if (isNull(reader))
+        {
+            return null;
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT)
+        {
+            String name = reader.readName();
+            result.put(name, readValue(reader));
+        }
+        reader.readEndDocument();
+        return result;
+    }
+
+    protected static Object readValue(BsonReader reader)
+    {
+        switch (reader.getCurrentBsonType())
+        {
+            case DOCUMENT:
+                return readMap(reader);
+            case ARRAY:
+                return readList(reader, BaseDomainCodec::readValue);
+            case STRING:
+                return reader.readString();
+            case SYMBOL:
+                return reader.readSymbol();
+            case INT32:
+                return reader.readInt32();
+            case INT64:
+                return reader.readInt64();
+            case DOUBLE:
+                return reader.readDouble();
+            case DECIMAL128:
+                return reader.readDecimal128().bigDecimalValue();
+            case BOOLEAN:
+                return reader.readBoolean();
+            case DATE_TIME:
+                return reader.readDateTime();
+            case OBJECT_ID:
+                return reader.readObjectId().toHexString();
+            case NULL:
+                reader.readNull();
+                return null;
+            case UNDEFINED:
+                reader.readUndefined();
+                return null;
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    protected static Document readDocument(BsonReader reader, DecoderContext decoderContext)
+    {
+        return DOCUMENT_CODEC.decode(reader, decoderContext);
+    }
+}
@@ -0,0 +1,44 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.store.mongo.core.codecs;
+
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecProvider;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class DepotCodecProvider implements CodecProvider
+{
+    private static final List<Codec<?>> CODECS = Arrays.asList(
+            new StoredFileGenerationCodec(),
+            new StoreProjectVersionDataCodec(),
+            new MetadataNotificationCodec());
+
+    @Override
+    public <T> Codec<T> get(Class<T> clazz, CodecRegistry registry)
+    {
+        for (Codec<?> codec : CODECS)
+        {
+            if (codec.getEncoderClass().equals(clazz))
+            {
+                return (Codec<T>) codec;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,39 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.store.mongo.core.codecs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.BsonReader;
+import org.bson.codecs.DecoderContext;
+import org.finos.legend.depot.domain.HasIdentifier;
+import org.finos.legend.depot.store.mongo.core.BaseMongo;
+
+public class JacksonDocumentCodec<T extends HasIdentifier> extends BaseDomainCodec<T>
+{
+    private final ObjectMapper objectMapper;
+
+    public JacksonDocumentCodec(Class<T> documentClass, ObjectMapper objectMapper)
+    {
+        super(documentClass);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public T decode(BsonReader reader, DecoderContext decoderContext)
+    {
+        return BaseMongo.convert(objectMapper, readDocument(reader, decoderContext), getEncoderClass());
+    }
+}
@@ -0,0 +1,186 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.store.mongo.core.codecs;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.codecs.DecoderContext;
+import org.finos.legend.depot.domain.api.MetadataEventResponse;
+import org.finos.legend.depot.domain.notifications.EventPriority;
+import org.finos.legend.depot.domain.notifications.MetadataNotification;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MetadataNotificationCodec extends BaseDomainCodec<MetadataNotification>
+{
+    public MetadataNotificationCodec()
+    {
+        super(MetadataNotification.class);
+    }
+
+    @Override
+    public MetadataNotification decode(BsonReader reader, DecoderContext decoderContext)
+    {
+        String id = null;
+        String projectId = null;
+        String groupId = null;
+        String artifactId = null;
+        String versionId = null;
+        String version = null;
+        String eventId = null;
+        String parentEventId = null;
+        String parentEvent = null;
+        Boolean fullUpdate = null;
+        Boolean transitive = null;
+        Integer attempt = null;
+        Integer maxAttempts = null;
+        Map<Integer, MetadataEventResponse> responses = null;
+        Date created = null;
+        Date createdAt = null;
+        Date lastUpdated = null;
+        EventPriority eventPriority = null;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT)
+        {
+            switch (reader.readName())
+            {
+                case "_id":
+                    id = readString(reader);
+                    break;
+                case "id":
+                    String storedId = readString(reader);
+                    id = id == null ? storedId : id;
+                    break;
+                case "projectId":
+                    projectId = readString(reader);
+                    break;
+                case "groupId":
+                    groupId = readString(reader);
+                    break;
+                case "artifactId":
+                    artifactId = readString(reader);
+                    break;
+                case "versionId":
+                    versionId = readString(reader);
+                    break;
+                case "version":
+                    version = readString(reader);
+                    break;
+                case "eventId":
+                    eventId = readString(reader);
+                    break;
+                case "parentEventId":
+                    parentEventId = readString(reader);
+                    break;
+                case "parentEvent":
+                    parentEvent = readString(reader);
+                    break;
+                case "fullUpdate":
+                    fullUpdate = readBoolean(reader);
+                    break;
+                case "transitive":
+                    transitive = readBoolean(reader);
+                    break;
+                case "attempt":
+                    attempt = readInteger(reader);
+                    break;
+                case "maxAttempts":
+                    maxAttempts = readInteger(reader);
+                    break;
+                case "responses":
+                    responses = readResponses(reader);
+                    break;
+                case "created":
+                    created = readDate(reader);
+                    break;
+                case "createdAt":
+                    createdAt = readDate(reader);
+                    break;
+                case "lastUpdated":
+                    lastUpdated = readDate(reader);
+                    break;
+                case "eventPriority":
+                    String priority = readString(reader);
+                    eventPriority = priority == null ? null : EventPriority.valueOf(priority);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        MetadataNotification notification = new MetadataNotification(projectId, groupId, artifactId, versionId != null ? versionId : version, eventId,
+                parentEventId != null ? parentEventId : parentEvent, fullUpdate, transitive, attempt, maxAttempts, responses,
+                created != null ? created : createdAt, lastUpdated, eventPriority);
+        notification.setId(id);
+        return notification;
+    }
+
+    private Map<Integer, MetadataEventResponse> readResponses(BsonReader reader)
+    {
+        if (isNull(reader))
+        {
+            return null;
+        }
+        Map<Integer, MetadataEventResponse> responses = new HashMap<>();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT)
+        {
+            Integer attempt = Integer.valueOf(reader.readName());
+            responses.put(attempt, readResponse(reader));
+        }
+        reader.readEndDocument();
+        return responses;
+    }
+
+    private MetadataEventResponse readResponse(BsonReader reader)
+    {
+        if (isNull(reader))
+        {
+            return null;
+        }
+        MetadataEventResponse response = new MetadataEventResponse();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT)
+        {
+            switch (reader.readName())
+            {
+                case "messages":
+                    List<String> messages = readList(reader, BaseDomainCodec::readString);
+                    if (messages != null)
+                    {
+                        response.addMessages(messages);
+                    }
+                    break;
+                case "errors":
+                    List<String> errors = readList(reader, BaseDomainCodec::readString);
+                    if (errors != null)
+                    {
+                        errors.forEach(response::addError);
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return response;
+    }
+}
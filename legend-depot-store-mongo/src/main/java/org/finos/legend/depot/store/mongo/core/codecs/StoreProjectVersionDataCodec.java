@@ -0,0 +1,179 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.store.mongo.core.codecs;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.codecs.DecoderContext;
+import org.finos.legend.depot.domain.project.ProjectVersion;
+import org.finos.legend.depot.domain.project.ProjectVersionData;
+import org.finos.legend.depot.domain.project.Property;
+import org.finos.legend.depot.domain.project.StoreProjectVersionData;
+
+import java.util.Date;
+
+public class StoreProjectVersionDataCodec extends BaseDomainCodec<StoreProjectVersionData>
+{
+    public StoreProjectVersionDataCodec()
+    {
+        super(StoreProjectVersionData.class);
+    }
+
+    @Override
+    public StoreProjectVersionData decode(BsonReader reader, DecoderContext decoderContext)
+    {
+        String groupId = null;
+        String artifactId = null;
+        String versionId = null;
+        Boolean evicted = null;
+        Date creationDate = null;
+        Date lastUpdated = null;
+        ProjectVersionData versionData = new ProjectVersionData();
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT)
+        {
+            switch (reader.readName())
+            {
+                case "groupId":
+                    groupId = readString(reader);
+                    break;
+                case "artifactId":
+                    artifactId = readString(reader);
+                    break;
+                case "versionId":
+                    versionId = readString(reader);
+                    break;
+                case "evicted":
+                    evicted = readBoolean(reader);
+                    break;
+                case "creationDate":
+                    creationDate = readDate(reader);
+                    break;
+                case "lastUpdated":
+                    lastUpdated = readDate(reader);
+                    break;
+                case "versionData":
+                    versionData = readVersionData(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        StoreProjectVersionData result = new StoreProjectVersionData(groupId, artifactId, versionId, evicted != null && evicted, versionData);
+        result.setCreationDate(creationDate);
+        result.setLastUpdated(lastUpdated);
+        return result;
+    }
+
+    private ProjectVersionData readVersionData(BsonReader reader)
+    {
+        if (isNull(reader))
+        {
+            return null;
+        }
+        ProjectVersionData versionData = new ProjectVersionData();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT)
+        {
+            switch (reader.readName())
+            {
+                case "dependencies":
+                    versionData.setDependencies(readList(reader, this::readProjectVersion));
+                    break;
+                case "properties":
+                    versionData.setProperties(readList(reader, this::readProperty));
+                    break;
+                case "deprecated":
+                    Boolean deprecated = readBoolean(reader);
+                    versionData.setDeprecated(deprecated != null && deprecated);
+                    break;
+                case "excluded":
+                    Boolean excluded = readBoolean(reader);
+                    versionData.setExcluded(excluded != null && excluded);
+                    break;
+                case "exclusionReason":
+                    versionData.setExclusionReason(readString(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return versionData;
+    }
+
+    private ProjectVersion readProjectVersion(BsonReader reader)
+    {
+        if (isNull(reader))
+        {
+            return null;
+        }
+        String groupId = null;
+        String artifactId = null;
+        String versionId = null;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT)
+        {
+            switch (reader.readName())
+            {
+                case "groupId":
+                    groupId = readString(reader);
+                    break;
+                case "artifactId":
+                    artifactId = readString(reader);
+                    break;
+                case "versionId":
+                    versionId = readString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return new ProjectVersion(groupId, artifactId, versionId);
+    }
+
+    private Property readProperty(BsonReader reader)
+    {
+        if (isNull(reader))
+        {
+            return null;
+        }
+        String propertyName = null;
+        String value = null;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT)
+        {
+            switch (reader.readName())
+            {
+                case "propertyName":
+                    propertyName = readString(reader);
+                    break;
+                case "value":
+                    value = readString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return new Property(propertyName, value);
+    }
+}
@@ -0,0 +1,100 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.store.mongo.core.codecs;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.codecs.DecoderContext;
+import org.finos.legend.depot.domain.generation.file.FileGeneration;
+import org.finos.legend.depot.domain.generation.file.StoredFileGeneration;
+
+public class StoredFileGenerationCodec extends BaseDomainCodec<StoredFileGeneration>
+{
+    public StoredFileGenerationCodec()
+    {
+        super(StoredFileGeneration.class);
+    }
+
+    @Override
+    public StoredFileGeneration decode(BsonReader reader, DecoderContext decoderContext)
+    {
+        String groupId = null;
+        String artifactId = null;
+        String versionId = null;
+        String path = null;
+        String type = null;
+        FileGeneration file = null;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT)
+        {
+            switch (reader.readName())
+            {
+                case "groupId":
+                    groupId = readString(reader);
+                    break;
+                case "artifactId":
+                    artifactId = readString(reader);
+                    break;
+                case "versionId":
+                    versionId = readString(reader);
+                    break;
+                case "path":
+                    path = readString(reader);
+                    break;
+                case "type":
+                    type = readString(reader);
+                    break;
+                case "file":
+                case "fileGeneration":
+                    file = readFile(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return new StoredFileGeneration(groupId, artifactId, versionId, path, type, file);
+    }
+
+    private FileGeneration readFile(BsonReader reader)
+    {
+        if (isNull(reader))
+        {
+            return null;
+        }
+        String path = null;
+        String content = null;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT)
+        {
+            switch (reader.readName())
+            {
+                case "path":
+                    path = readString(reader);
+                    break;
+                case "content":
+                    content = readString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return new FileGeneration(path, content);
+    }
+}
@@ -15,29 +15,28 @@
 
 package org.finos.legend.depot.store.mongo.entities;
 
-import com.mongodb.BasicDBList;
-import com.mongodb.BasicDBObject;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mongodb.MongoClient;
-import com.mongodb.ReadConcern;
-import com.mongodb.ReadPreference;
-import com.mongodb.TransactionOptions;
-import com.mongodb.WriteConcern;
 import com.mongodb.client.ClientSession;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Accumulators;
 import com.mongodb.client.model.Aggregates;
-import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.IndexModel;
 import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.bson.conversions.Bson;
 import org.eclipse.collections.api.tuple.Pair;
 import org.eclipse.collections.impl.tuple.Tuples;
 import org.eclipse.collections.impl.utility.ListIterate;
 import org.finos.legend.depot.domain.CoordinateValidator;
+import org.finos.legend.depot.domain.api.Page;
 import org.finos.legend.depot.domain.entity.StoredEntity;
 import org.finos.legend.depot.domain.entity.StoredEntityOverview;
 import org.finos.legend.depot.domain.project.ProjectVersion;
@@ -46,6 +45,7 @@ import org.finos.legend.depot.domain.version.VersionValidator;
 import org.finos.legend.depot.store.api.entities.Entities;
 import org.finos.legend.depot.store.api.entities.UpdateEntities;
 import org.finos.legend.depot.store.mongo.core.BaseMongo;
+import org.finos.legend.depot.store.mongo.core.MongoReadPreferences;
 import org.finos.legend.depot.domain.entity.EntityValidationErrors;
 import org.finos.legend.sdlc.domain.model.entity.Entity;
 import org.finos.legend.sdlc.tools.entity.EntityPaths;
@@ -55,27 +55,42 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.StringTokenizer;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.mongodb.client.model.Aggregates.group;
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.exists;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Filters.lt;
 import static com.mongodb.client.model.Filters.ne;
 import static com.mongodb.client.model.Filters.or;
 import static com.mongodb.client.model.Filters.regex;
 import static com.mongodb.client.model.Updates.combine;
 import static com.mongodb.client.model.Updates.currentDate;
 import static com.mongodb.client.model.Updates.set;
+import static com.mongodb.client.model.Updates.unset;
 import static org.finos.legend.depot.domain.version.VersionValidator.MASTER_SNAPSHOT;
 
 public class EntitiesMongo extends BaseMongo<StoredEntity> implements Entities, UpdateEntities
@@ -90,24 +105,68 @@ public class EntitiesMongo extends BaseMongo<StoredEntity> implements Entities,
     public static final String ENTITY_PATH = "entity.path";
     public static final String PATH = "path";
     public static final String ENTITY_PACKAGE = "entity.content.package";
+    public static final String ENTITY_CONTENT_HASH = "entity.contentHash";
+    public static final String ENTITY_PACKAGE_ANCESTORS = "entity.packageAncestors";
+    private static final String PACKAGE_SEPARATOR = "::";
+    public static final String ENTITY_PATH_NGRAMS = "entity.pathNGrams";
+    private static final String PACKAGE = "package";
+    private static final int CONTENT_LOOKUP_BATCH_SIZE = 1000;
+    private static final long CONTENT_DELETION_GRACE_IN_MILLIS = 3600000L;
+    private static final int PROJECT_VERSIONS_LOOKUP_BATCH_SIZE = 50;
     public static final String VERSIONED_ENTITY = "versionedEntity";
-    private static final TransactionOptions TRANSACTION_OPTIONS = TransactionOptions.builder()
-            .readConcern(ReadConcern.MAJORITY)
-            .writeConcern(WriteConcern.ACKNOWLEDGED)
-            .readPreference(ReadPreference.primary()).build();
+    public static final String ENTITY_GENERATION = "generation";
+    public static final String PENDING_GENERATION = "pendingGeneration";
+    public static final String SUPERSEDED_ENTITY_PATH_INDEX = "groupId-artifactId-versionId-entityPath";
+    public static final List<String> SUPERSEDED_CLASSIFIER_INDEXES = Arrays.asList("versioned-entity-classifier", "versioned-entity-classifier-summary", "versioned-entity-classifier-pathNGrams",
+            "versioned-entity-classifier-summary-pending", "versioned-entity-classifier-pathNGrams-pending");
+    private static final Bson SUMMARY_PROJECTION = Projections.fields(Projections.excludeId(), Projections.include(GROUP_ID, ARTIFACT_ID, VERSION_ID, VERSIONED_ENTITY, ENTITY_PATH, ENTITY_CLASSIFIER_PATH));
 
 
     public final boolean transactionMode;
 
-    private final MongoClient mongoClient;
+    private final int bulkWriteBatchSize;
 
+    private final EntitySessions sessions;
+
+    private final EntityGenerationsMongo generations;
+
+    private final EntityBundlesMongo bundles;
+
+    private final EntityContentsMongo contents;
+
+    private final EntityCountsMongo counts;
+
+    private final Executor generationsCollector;
 
     @Inject
-    public EntitiesMongo(@Named("mongoDatabase") MongoDatabase databaseProvider, MongoClient mongoClient, @Named("transactionMode") boolean transactionMode)
+    public EntitiesMongo(@Named("mongoDatabase") MongoDatabase databaseProvider, MongoClient mongoClient, @Named("transactionMode") boolean transactionMode, @Named("bulkWriteBatchSize") int bulkWriteBatchSize, MongoReadPreferences readPreferences,
+                         @Named("entitiesGenerationsCollector") Executor generationsCollector)
     {
-        super(databaseProvider, StoredEntity.class);
-        this.mongoClient = mongoClient;
+        super(databaseProvider, StoredEntity.class, new ObjectMapper(), readPreferences, new StoredEntityCodec());
         this.transactionMode = transactionMode;
+        this.bulkWriteBatchSize = bulkWriteBatchSize;
+        this.generations = new EntityGenerationsMongo(databaseProvider, readPreferences, this::getMaxTimeInMillis);
+        this.bundles = new EntityBundlesMongo(databaseProvider, readPreferences, this::getMaxTimeInMillis);
+        this.contents = new EntityContentsMongo(databaseProvider, readPreferences, this::getMaxTimeInMillis);
+        this.counts = new EntityCountsMongo(databaseProvider, readPreferences, this::getMaxTimeInMillis);
+        this.generationsCollector = generationsCollector;
+        this.sessions = new EntitySessions(mongoClient, Stream.<MongoCollection<?>>of(getCollection(), generations.getCollection(), getMongoCollection(EntityContentsMongo.COLLECTION))
+                .anyMatch(collection -> collection.getReadPreference().isSlaveOk()));
+    }
+
+    public EntitiesMongo(MongoDatabase databaseProvider, MongoClient mongoClient, boolean transactionMode, int bulkWriteBatchSize, MongoReadPreferences readPreferences)
+    {
+        this(databaseProvider, mongoClient, transactionMode, bulkWriteBatchSize, readPreferences, Runnable::run);
+    }
+
+    public EntitiesMongo(@Named("mongoDatabase") MongoDatabase databaseProvider, MongoClient mongoClient, @Named("transactionMode") boolean transactionMode, @Named("bulkWriteBatchSize") int bulkWriteBatchSize)
+    {
+        this(databaseProvider, mongoClient, transactionMode, bulkWriteBatchSize, MongoReadPreferences.DEFAULT);
+    }
+
+    public EntitiesMongo(@Named("mongoDatabase") MongoDatabase databaseProvider, MongoClient mongoClient, @Named("transactionMode") boolean transactionMode)
+    {
+        this(databaseProvider, mongoClient, transactionMode, DEFAULT_BULK_WRITE_BATCH_SIZE);
     }
 
     public EntitiesMongo(@Named("mongoDatabase") MongoDatabase mongoProvider, MongoClient mongoClient)
@@ -120,14 +179,15 @@ public class EntitiesMongo extends BaseMongo<StoredEntity> implements Entities,
         this(mongoProvider, null, false);
     }
 
-
-
     public static List<IndexModel> buildIndexes()
     {
         return Arrays.asList(buildIndex("versioned-groupId-artifactId-versionId-versioned", VERSIONED_ENTITY,GROUP_ID, ARTIFACT_ID, VERSION_ID),
-        buildIndex("groupId-artifactId-versionId-entityPath", true, GROUP_ID, ARTIFACT_ID, VERSION_ID, ENTITY_PATH),
+        buildIndex("groupId-artifactId-versionId-entityPath-generation", true, GROUP_ID, ARTIFACT_ID, VERSION_ID, ENTITY_PATH, ENTITY_GENERATION),
         buildIndex("groupId-artifactId-versionId-package", GROUP_ID, ARTIFACT_ID, VERSION_ID, ENTITY_PACKAGE),
-        buildIndex("versioned-entity-classifier", VERSIONED_ENTITY,ENTITY_CLASSIFIER_PATH)
+        buildIndex("versioned-entity-classifier-summary-generation", VERSIONED_ENTITY, ENTITY_CLASSIFIER_PATH, VERSION_ID, GROUP_ID, ARTIFACT_ID, ENTITY_PATH, ENTITY_GENERATION),
+        buildIndex("groupId-artifactId-versionId-packageAncestors", GROUP_ID, ARTIFACT_ID, VERSION_ID, ENTITY_PACKAGE_ANCESTORS),
+        buildIndex("versioned-entity-classifier-pathNGrams-generation", VERSIONED_ENTITY, ENTITY_CLASSIFIER_PATH, ENTITY_PATH_NGRAMS, ENTITY_GENERATION),
+        buildIndex("entity-contentHash", ENTITY_CONTENT_HASH)
         );
     }
 
@@ -151,14 +211,14 @@ public class EntitiesMongo extends BaseMongo<StoredEntity> implements Entities,
                 eq(ENTITY_PATH, entity.getEntity().getPath()));
     }
 
-    private Bson getEntityPathFilter(String groupId, String artifactId, String versionId, String path)
+    protected Bson getArtifactWithVersionsFilter(String groupId, String artifactId, String versionId, boolean versioned)
     {
-        return and(getArtifactAndVersionFilter(groupId, artifactId, versionId), eq(ENTITY_PATH, path));
+        return and(getArtifactAndVersionFilter(groupId, artifactId, versionId), eq(VERSIONED_ENTITY, versioned));
     }
 
-    protected Bson getArtifactWithVersionsFilter(String groupId, String artifactId, String versionId, boolean versioned)
+    public boolean isCausallyConsistentReads()
     {
-        return and(getArtifactAndVersionFilter(groupId, artifactId, versionId), eq(VERSIONED_ENTITY, versioned));
+        return sessions.isCausallyConsistentReads();
     }
 
     @Override
@@ -172,17 +232,163 @@ public class EntitiesMongo extends BaseMongo<StoredEntity> implements Entities,
     }
 
 
-    protected Bson combineDocument(StoredEntity entity)
+    protected Bson combineDocument(StoredEntity entity, String contentHash)
+    {
+        return combineDocument(entity, contentHash, null, false);
+    }
+
+    private Bson combineDocument(StoredEntity entity, String contentHash, String generation, boolean pending)
     {
-        return combine(
+        Bson document = combine(
                 set(GROUP_ID, entity.getGroupId()),
                 set(ARTIFACT_ID, entity.getArtifactId()),
                 set(VERSION_ID, entity.getVersionId()),
                 set(VERSIONED_ENTITY, entity.isVersionedEntity()),
                 set(ENTITY_PATH, entity.getEntity().getPath()),
                 set(ENTITY_CLASSIFIER_PATH, entity.getEntity().getClassifierPath()),
-                set(ENTITY_CONTENT, entity.getEntity().getContent()),
+                set(ENTITY_CONTENT, contentHash != null ? getReferenceContent(entity.getEntity().getContent()) : entity.getEntity().getContent()),
+                set(ENTITY_CONTENT_HASH, contentHash),
+                set(ENTITY_PACKAGE_ANCESTORS, getPackageAncestors(entity.getEntity().getContent())),
+                set(ENTITY_PATH_NGRAMS, EntityPathNGrams.getPathNGrams(entity.getEntity().getPath())),
                 currentDate(LAST_MODIFIED));
+        if (!EntityGenerationsMongo.isGenerational(entity.getVersionId()))
+        {
+            return document;
+        }
+        return combine(document, set(ENTITY_GENERATION, generation), pending ? set(PENDING_GENERATION, true) : unset(PENDING_GENERATION));
+    }
+
+    private Bson getEntityPathFilter(StoredEntity entity, String generation)
+    {
+        Bson filter = getEntityPathFilter(entity);
+        return EntityGenerationsMongo.isGenerational(entity.getVersionId()) ? and(filter, eq(ENTITY_GENERATION, generation)) : filter;
+    }
+
+    private Function<StoredEntity, String> currentGenerations()
+    {
+        Map<String, String> current = new HashMap<>();
+        return entity -> EntityGenerationsMongo.isGenerational(entity.getVersionId()) ? current.computeIfAbsent(entity.getGroupId() + ":" + entity.getArtifactId() + ":" + entity.isVersionedEntity(),
+                key -> generations.getCurrentGeneration(null, entity.getGroupId(), entity.getArtifactId(), entity.getVersionId(), entity.isVersionedEntity())) : null;
+    }
+
+    static List<String> getPackageAncestors(Map<String, ?> content)
+    {
+        List<String> ancestors = new ArrayList<>();
+        Object packageName = content != null ? content.get(PACKAGE) : null;
+        if (packageName instanceof String && !((String) packageName).isEmpty())
+        {
+            StringBuilder ancestor = new StringBuilder();
+            for (String segment : ((String) packageName).split(PACKAGE_SEPARATOR))
+            {
+                if (ancestor.length() > 0)
+                {
+                    ancestor.append(PACKAGE_SEPARATOR);
+                }
+                ancestors.add(ancestor.append(segment).toString());
+            }
+        }
+        return ancestors;
+    }
+
+    private Map<String, ?> getReferenceContent(Map<String, ?> content)
+    {
+        return content.containsKey(PACKAGE) ? Collections.singletonMap(PACKAGE, content.get(PACKAGE)) : Collections.emptyMap();
+    }
+
+    private List<StoredEntity> resolveContents(List<StoredEntity> entities)
+    {
+        return contents.resolve(null, entities);
+    }
+
+    private Set<String> getContentHashes(Bson filter)
+    {
+        Set<String> hashes = new HashSet<>();
+        withMaxTime(getCollection().aggregate(Arrays.asList(
+                Aggregates.match(and(filter, ne(ENTITY_CONTENT_HASH, null))),
+                group("$" + ENTITY_CONTENT_HASH))).allowDiskUse(true).batchSize(CONTENT_LOOKUP_BATCH_SIZE)).forEach((Consumer<Document>) hash -> hashes.add(hash.getString(ID_FIELD)));
+        return hashes;
+    }
+
+    private long deleteUnreferencedContents(Set<String> hashes)
+    {
+        List<String> candidates = new ArrayList<>(hashes);
+        long deleted = 0;
+        for (int start = 0; start < candidates.size(); start += CONTENT_LOOKUP_BATCH_SIZE)
+        {
+            List<String> batch = candidates.subList(start, Math.min(start + CONTENT_LOOKUP_BATCH_SIZE, candidates.size()));
+            Set<String> unreferenced = new HashSet<>(batch);
+            unreferenced.removeAll(getContentHashes(in(ENTITY_CONTENT_HASH, batch)));
+            deleted += contents.delete(unreferenced, CONTENT_DELETION_GRACE_IN_MILLIS);
+        }
+        return deleted;
+    }
+
+    private DeleteResult deleteEntities(Bson filter)
+    {
+        Set<String> hashes = getContentHashes(filter);
+        DeleteResult result = getCollection().deleteMany(filter);
+        if (result.getDeletedCount() > 0 && !hashes.isEmpty())
+        {
+            LOGGER.info("deleted [{}] unreferenced entity contents", deleteUnreferencedContents(hashes));
+        }
+        return result;
+    }
+
+    @Override
+    protected List<StoredEntity> find(ClientSession clientSession, Bson filter)
+    {
+        return contents.resolve(clientSession, super.find(clientSession, filter));
+    }
+
+    @Override
+    protected Stream<StoredEntity> stream(ClientSession clientSession, Bson filter)
+    {
+        Stream<StoredEntity> entities = super.stream(clientSession, filter);
+        Iterator<StoredEntity> source = entities.iterator();
+        Iterator<List<StoredEntity>> batches = new Iterator<List<StoredEntity>>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return source.hasNext();
+            }
+
+            @Override
+            public List<StoredEntity> next()
+            {
+                List<StoredEntity> batch = new ArrayList<>();
+                while (source.hasNext() && batch.size() < CONTENT_LOOKUP_BATCH_SIZE)
+                {
+                    batch.add(source.next());
+                }
+                return contents.resolve(clientSession, batch);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED), false).flatMap(Collection::stream).onClose(entities::close);
+    }
+
+    private long count(ClientSession clientSession, Bson filter)
+    {
+        return clientSession != null ? getCollection().countDocuments(clientSession, filter, countOptions()) : getCollection().countDocuments(filter, countOptions());
+    }
+
+    @Override
+    public List<StoredEntity> getAllStoredEntities()
+    {
+        return resolveContents(super.getAllStoredEntities());
+    }
+
+    @Override
+    public List<StoredEntity> getStoredEntitiesByPage(int page, int pageSize)
+    {
+        return resolveContents(super.getStoredEntitiesByPage(page, pageSize));
+    }
+
+    @Override
+    public Page<StoredEntity> getStoredEntitiesPage(String continuationToken, int pageSize)
+    {
+        Page<StoredEntity> page = super.getStoredEntitiesPage(continuationToken, pageSize);
+        return new Page<>(resolveContents(page.getItems()), page.getContinuationToken());
     }
 
     private StoreOperationResult validateEntity(StoredEntity entity)
@@ -215,14 +421,16 @@ public class EntitiesMongo extends BaseMongo<StoredEntity> implements Entities,
             return report;
         }
 
+        String contentHash = contents.store(clientSession, Collections.singletonList(entity), bulkWriteBatchSize).get(0);
+        String generation = currentGenerations().apply(entity);
         UpdateResult result;
         if (clientSession != null)
         {
-            result = getCollection().updateOne(clientSession, getEntityPathFilter(entity), combineDocument(entity), INSERT_IF_ABSENT);
+            result = getCollection().updateOne(clientSession, getEntityPathFilter(entity, generation), combineDocument(entity, contentHash, generation, false), INSERT_IF_ABSENT);
         }
         else
         {
-            result = getCollection().updateOne(getEntityPathFilter(entity), combineDocument(entity), INSERT_IF_ABSENT);
+            result = getCollection().updateOne(getEntityPathFilter(entity, generation), combineDocument(entity, contentHash, generation, false), INSERT_IF_ABSENT);
         }
         return combineResult(result);
     }
@@ -252,12 +460,34 @@ public class EntitiesMongo extends BaseMongo<StoredEntity> implements Entities,
     }
 
     private StoreOperationResult newOrUpdate(ClientSession clientSession, List<StoredEntity> versionedEntities)
+    {
+        return newOrUpdate(clientSession, versionedEntities, currentGenerations(), false);
+    }
+
+    private StoreOperationResult newOrUpdate(ClientSession clientSession, List<StoredEntity> versionedEntities, Function<StoredEntity, String> generationOf, boolean pending)
     {
         StoreOperationResult report = new StoreOperationResult();
+        List<StoredEntity> validEntities = new ArrayList<>();
         for (StoredEntity versionedEntity : versionedEntities)
         {
-            report.combine(newOrUpdate(clientSession, versionedEntity));
+            StoreOperationResult validation = validateEntity(versionedEntity);
+            if (validation.hasErrors())
+            {
+                report.combine(validation);
+            }
+            else
+            {
+                validEntities.add(versionedEntity);
+            }
+        }
+        List<String> contentHashes = contents.store(clientSession, validEntities, bulkWriteBatchSize);
+        List<UpdateOneModel<Document>> updates = new ArrayList<>();
+        for (int i = 0; i < validEntities.size(); i++)
+        {
+            String generation = generationOf.apply(validEntities.get(i));
+            updates.add(new UpdateOneModel<>(getEntityPathFilter(validEntities.get(i), generation), combineDocument(validEntities.get(i), contentHashes.get(i), generation, pending), INSERT_IF_ABSENT));
         }
+        report.combine(bulkWrite(getCollection(), clientSession, updates, bulkWriteBatchSize));
         if (report.getInsertedCount() + report.getModifiedCount() != versionedEntities.size())
         {
             report.logError("error creating/updating entities,did not get acknowledgment for all");
@@ -265,108 +495,216 @@ public class EntitiesMongo extends BaseMongo<StoredEntity> implements Entities,
         return report;
     }
 
-    private StoreOperationResult executeWithinTransaction(Function<ClientSession,StoreOperationResult> atomicTransaction)
+    @Override
+    public StoreOperationResult createOrUpdate(List<StoredEntity> versionedEntities)
+    {
+        deleteBundles(versionedEntities);
+        StoreOperationResult report = transactionMode ? sessions.executeWithinTransaction((clientSession) -> newOrUpdate(clientSession,versionedEntities)) : newOrUpdate(versionedEntities);
+        updateCounts(versionedEntities);
+        return report;
+    }
+
+    private void updateCounts(List<StoredEntity> versionedEntities)
     {
+        Set<Pair<ProjectVersion, Boolean>> versions = new LinkedHashSet<>();
+        versionedEntities.forEach(entity -> versions.add(Tuples.pair(new ProjectVersion(entity.getGroupId(), entity.getArtifactId(), entity.getVersionId()), entity.isVersionedEntity())));
+        versions.forEach(version -> counts.set(version.getOne().getGroupId(), version.getOne().getArtifactId(), version.getOne().getVersionId(), version.getTwo(),
+                getCollection().countDocuments(generations.getCurrentVersionFilter(null, version.getOne().getGroupId(), version.getOne().getArtifactId(), version.getOne().getVersionId(), version.getTwo()), countOptions())));
+    }
+
+    @Override
+    public StoreOperationResult replace(String groupId, String artifactId, String versionId, boolean versioned, List<StoredEntity> versionedEntities)
+    {
+        if (!EntityGenerationsMongo.isGenerational(versionId))
+        {
+            StoreOperationResult report = delete(groupId, artifactId, versionId, versioned);
+            report.combine(createOrUpdate(versionedEntities));
+            return report;
+        }
+        Bson filter = getArtifactWithVersionsFilter(groupId, artifactId, versionId, versioned);
+        String generation = new ObjectId().toHexString();
         StoreOperationResult report = new StoreOperationResult();
-        ClientSession clientSession = mongoClient.startSession();
+        versionedEntities.stream().filter(entity -> !(groupId.equals(entity.getGroupId()) && artifactId.equals(entity.getArtifactId()) && versionId.equals(entity.getVersionId()) && versioned == entity.isVersionedEntity()))
+                .forEach(entity -> report.logError(String.format("entity %s does not belong to %s-%s-%s", entity.getEntity().getPath(), groupId, artifactId, versionId)));
+        if (!report.hasErrors())
+        {
+            report.combine(newOrUpdate(null, versionedEntities, entity -> generation, true));
+        }
+        if (report.hasErrors())
+        {
+            deleteEntities(and(filter, eq(ENTITY_GENERATION, generation)));
+            report.logError(String.format("discarded generation %s, current entities for %s-%s-%s kept", generation, groupId, artifactId, versionId));
+            return report;
+        }
+        bundles.delete(filter);
+        generations.setCurrentGeneration(groupId, artifactId, versionId, versioned, generation);
+        counts.set(groupId, artifactId, versionId, versioned, versionedEntities.size());
         try
         {
-            clientSession.startTransaction(TRANSACTION_OPTIONS);
-            report.combine(atomicTransaction.apply(clientSession));
+            generationsCollector.execute(() -> collectGenerations(groupId, artifactId, versionId, versioned));
         }
-        catch (RuntimeException e)
+        catch (RejectedExecutionException e)
         {
-            report.logError(e.getMessage());
-            LOGGER.error("error executing atomic new/update",e);
+            LOGGER.warn("generations collector stopped, superseded generations of {}-{}-{} {} kept until the next replace", groupId, artifactId, versionId, versioned);
         }
-        finally
+        return report;
+    }
+
+    void collectGenerations(String groupId, String artifactId, String versionId, boolean versioned)
+    {
+        try
         {
-            if (report.hasErrors())
-            {
-                clientSession.abortTransaction();
-                report.logError("transaction aborted");
-            }
-            else
+            Bson filter = getArtifactWithVersionsFilter(groupId, artifactId, versionId, versioned);
+            String generation = generations.getCurrentGeneration(null, groupId, artifactId, versionId, versioned);
+            if (generation == null)
             {
-                clientSession.commitTransaction();
+                return;
             }
-            clientSession.close();
+            getCollection().updateMany(and(filter, eq(ENTITY_GENERATION, generation)), unset(PENDING_GENERATION));
+            DeleteResult result = deleteEntities(and(filter, ne(ENTITY_GENERATION, generation), or(ne(PENDING_GENERATION, true), lt(ENTITY_GENERATION, generation))));
+            generations.markCollected(groupId, artifactId, versionId, versioned, generation);
+            LOGGER.info("collected generations {}-{}-{} {}, current {} :{}", groupId, artifactId, versionId, versioned, generation, result);
+        }
+        catch (RuntimeException e)
+        {
+            LOGGER.error("error collecting generations {}-{}-{} {}", groupId, artifactId, versionId, versioned, e);
         }
-        return report;
     }
 
     @Override
-    public StoreOperationResult createOrUpdate(List<StoredEntity> versionedEntities)
+    public StoreOperationResult deleteOrphanedGenerations(long olderThanMillis)
+    {
+        String threshold = new ObjectId(new Date(System.currentTimeMillis() - olderThanMillis)).toHexString();
+        Set<String> candidates = new HashSet<>();
+        withMaxTime(getCollection().distinct(ENTITY_GENERATION, and(eq(PENDING_GENERATION, true), lt(ENTITY_GENERATION, threshold)), String.class)).forEach((Consumer<String>) candidates::add);
+        Set<String> current = generations.findCurrent(candidates);
+        candidates.removeAll(current);
+        if (!current.isEmpty())
+        {
+            getCollection().updateMany(in(ENTITY_GENERATION, current), unset(PENDING_GENERATION));
+        }
+        long deleted = candidates.isEmpty() ? 0 : deleteEntities(and(in(ENTITY_GENERATION, candidates), eq(PENDING_GENERATION, true))).getDeletedCount();
+        LOGGER.info("deleted {} entities from {} orphaned generations older than {}", deleted, candidates.size(), threshold);
+        return new StoreOperationResult(0, 0, deleted, Collections.emptyList());
+    }
+
+    private void deleteBundles(List<StoredEntity> versionedEntities)
+    {
+        Set<Bson> bundleFilters = new LinkedHashSet<>();
+        versionedEntities.forEach(entity -> bundleFilters.add(getArtifactWithVersionsFilter(entity.getGroupId(), entity.getArtifactId(), entity.getVersionId(), entity.isVersionedEntity())));
+        bundleFilters.forEach(bundles::delete);
+    }
+
+    @Override
+    public StoreOperationResult createOrUpdateEntitiesBundle(String groupId, String artifactId, String versionId, boolean versioned)
+    {
+        return bundles.store(groupId, artifactId, versionId, versioned, getEntitiesAsStream(groupId, artifactId, versionId, versioned));
+    }
+
+    @Override
+    public Optional<byte[]> getEntitiesBundle(String groupId, String artifactId, String versionId, boolean versioned)
     {
-        return transactionMode ? executeWithinTransaction((clientSession) -> newOrUpdate(clientSession,versionedEntities)) : newOrUpdate(versionedEntities);
+        return bundles.get(groupId, artifactId, versionId, versioned);
     }
 
     @Override
     public Optional<Entity> getEntity(String groupId, String artifactId, String versionId, String path)
     {
-        Bson filterByKey = getEntityPathFilter(groupId, artifactId, versionId, path);
-        Optional<StoredEntity> found = findOne(filterByKey);
-        return found.map(StoredEntity::getEntity);
+        return sessions.read(clientSession ->
+        {
+            Bson filterByKey = and(generations.getCurrentVersionFilter(clientSession, groupId, artifactId, versionId), eq(ENTITY_PATH, path));
+            Optional<StoredEntity> found = findOne(clientSession, filterByKey);
+            return found.map(StoredEntity::getEntity);
+        });
     }
 
     @Override
     public List<StoredEntity> getStoredEntities(String groupId, String artifactId)
     {
-        return find(getArtifactFilter(groupId, artifactId));
+        return sessions.read(clientSession -> find(clientSession, generations.getCurrentArtifactFilter(clientSession, groupId, artifactId)));
     }
 
     @Override
     public List<StoredEntity> getStoredEntities(String groupId, String artifactId, String versionId)
     {
-        return find(getArtifactAndVersionFilter(groupId, artifactId, versionId));
+        return sessions.read(clientSession -> find(clientSession, generations.getCurrentVersionFilter(clientSession, groupId, artifactId, versionId)));
     }
 
     @Override
     public List<StoredEntity> getStoredEntities(String groupId, String artifactId, String versionId, boolean versioned)
     {
-        return find(and(getArtifactAndVersionFilter(groupId, artifactId, versionId), eq(VERSIONED_ENTITY, versioned)));
+        return sessions.read(clientSession -> find(clientSession, generations.getCurrentVersionFilter(clientSession, groupId, artifactId, versionId, versioned)));
+    }
+
+    @Override
+    public Map<ProjectVersion, List<StoredEntity>> getStoredEntities(List<ProjectVersion> projectVersions, boolean versioned)
+    {
+        Map<ProjectVersion, List<StoredEntity>> result = new LinkedHashMap<>();
+        projectVersions.forEach(projectVersion -> result.put(projectVersion, new ArrayList<>()));
+        List<ProjectVersion> distinctVersions = new ArrayList<>(result.keySet());
+        return sessions.read(clientSession ->
+        {
+            for (int start = 0; start < distinctVersions.size(); start += PROJECT_VERSIONS_LOOKUP_BATCH_SIZE)
+            {
+                List<ProjectVersion> batch = distinctVersions.subList(start, Math.min(start + PROJECT_VERSIONS_LOOKUP_BATCH_SIZE, distinctVersions.size()));
+                Bson filter = or(ListIterate.collect(batch, projectVersion -> generations.getCurrentVersionFilter(clientSession, projectVersion.getGroupId(), projectVersion.getArtifactId(), projectVersion.getVersionId(), versioned)));
+                try (Stream<StoredEntity> entities = stream(clientSession, filter))
+                {
+                    entities.forEach(entity -> result.computeIfAbsent(new ProjectVersion(entity.getGroupId(), entity.getArtifactId(), entity.getVersionId()), projectVersion -> new ArrayList<>()).add(entity));
+                }
+            }
+            return result;
+        });
     }
 
     @Override
     public List<Entity> getAllEntities(String groupId, String artifactId, String versionId)
     {
-        return find(getArtifactAndVersionFilter(groupId, artifactId, versionId)).stream().map(StoredEntity::getEntity).collect(Collectors.toList());
+        return sessions.read(clientSession -> find(clientSession, generations.getCurrentVersionFilter(clientSession, groupId, artifactId, versionId))).stream().map(StoredEntity::getEntity).collect(Collectors.toList());
     }
 
 
     private List<Entity> getAllEntities(String groupId, String artifactId, String versionId, boolean versioned)
     {
-        return find(getArtifactWithVersionsFilter(groupId, artifactId, versionId, versioned)).stream().map(StoredEntity::getEntity).collect(Collectors.toList());
+        return sessions.read(clientSession -> find(clientSession, generations.getCurrentVersionFilter(clientSession, groupId, artifactId, versionId, versioned))).stream().map(StoredEntity::getEntity).collect(Collectors.toList());
     }
 
     @Override
     public List<Entity> getEntitiesByPackage(String groupId, String artifactId, String versionId, String packageName, boolean versioned, Set<String> classifierPaths, boolean includeSubPackages)
     {
-        Bson filter = getArtifactWithVersionsFilter(groupId, artifactId, versionId, versioned);
+        Bson packageFilter;
         if (includeSubPackages)
         {
-            filter = and(filter, regex(ENTITY_PACKAGE, "^" + packageName + "*"));
+            packageFilter = or(eq(ENTITY_PACKAGE_ANCESTORS, packageName),
+                    and(exists(ENTITY_PACKAGE_ANCESTORS, false), regex(ENTITY_PACKAGE, "^" + Pattern.quote(packageName) + "(" + PACKAGE_SEPARATOR + "|$)")));
         }
         else
         {
-            filter = and(filter, eq(ENTITY_PACKAGE, packageName));
+            packageFilter = eq(ENTITY_PACKAGE, packageName);
         }
-        Stream<Entity> entities = find(filter).stream().map(StoredEntity::getEntity);
-        if (classifierPaths != null && !classifierPaths.isEmpty())
+        Bson classifierFilter = classifierPaths != null && !classifierPaths.isEmpty() ? in(ENTITY_CLASSIFIER_PATH, classifierPaths) : null;
+        return sessions.read(clientSession ->
         {
-            entities = entities.filter(entity -> classifierPaths.contains(entity.getClassifierPath()));
-        }
-        return entities.collect(Collectors.toList());
+            Bson filter = and(generations.getCurrentVersionFilter(clientSession, groupId, artifactId, versionId, versioned), packageFilter);
+            return find(clientSession, classifierFilter != null ? and(filter, classifierFilter) : filter);
+        }).stream().map(StoredEntity::getEntity).collect(Collectors.toList());
+    }
+
+    protected List<StoredEntity> transform(boolean summary, Bson filter, Integer limit)
+    {
+        return sessions.read(clientSession -> transform(clientSession, summary, filter, limit));
     }
 
-    protected List<StoredEntity> transform(boolean summary, FindIterable query)
+    private List<StoredEntity> transform(ClientSession clientSession, boolean summary, Bson filter, Integer limit)
     {
         if (!summary)
         {
-            return convert(query);
+            FindIterable<StoredEntity> query = withMaxTime(find(getTypedCollection(), clientSession, filter));
+            return contents.resolve(clientSession, (limit != null ? query.limit(limit) : query).into(new ArrayList<>()));
         }
+        FindIterable<Document> query = executeFind(clientSession, filter).projection(SUMMARY_PROJECTION);
         List<StoredEntity> result = new ArrayList<>();
-        query.forEach((Consumer<Document>) doc ->
+        (limit != null ? query.limit(limit) : query).forEach((Consumer<Document>) doc ->
         {
             Map<String, Object> entity = (Map<String, Object>) doc.get(ENTITY);
             result.add(new StoredEntityOverview(doc.getString(GROUP_ID), doc.getString(ARTIFACT_ID), doc.getString(VERSION_ID), doc.getBoolean(VERSIONED_ENTITY), (String) entity.get(PATH), (String) entity.get(CLASSIFIER_PATH)));
@@ -380,19 +718,20 @@ public class EntitiesMongo extends BaseMongo<StoredEntity> implements Entities,
         List<Bson> filters = new ArrayList<>();
         filters.add(eq(ENTITY_CLASSIFIER_PATH, classifier));
         filters.add(eq(VERSIONED_ENTITY, versioned));
-        if (projectVersions != null && !projectVersions.isEmpty())
-        {
-            filters.add(or(ListIterate.collect(projectVersions, projectVersion -> getArtifactAndVersionFilter(projectVersion.getGroupId(), projectVersion.getArtifactId(), projectVersion.getVersionId()))));
-        }
         if (search != null)
         {
-            filters.add(Filters.regex(ENTITY_PATH, Pattern.quote(search), "i"));
+            filters.add(EntityPathNGrams.getPathSearchFilter(search));
         }
-        if (limit != null)
+        if (projectVersions == null || projectVersions.isEmpty())
         {
-            return transform(summary, executeFind(and(filters)).limit(limit));
+            return transform(summary, and(filters), limit);
         }
-        return transform(summary, executeFind(and(filters)));
+        return sessions.read(clientSession ->
+        {
+            List<Bson> versionFilters = new ArrayList<>(filters);
+            versionFilters.add(or(ListIterate.collect(projectVersions, projectVersion -> generations.getCurrentVersionFilter(clientSession, projectVersion.getGroupId(), projectVersion.getArtifactId(), projectVersion.getVersionId(), versioned))));
+            return transform(clientSession, summary, and(versionFilters), limit);
+        });
     }
 
     @Override
@@ -404,30 +743,33 @@ public class EntitiesMongo extends BaseMongo<StoredEntity> implements Entities,
         filters.add(eq(VERSION_ID, MASTER_SNAPSHOT));
         if (search != null)
         {
-            filters.add(Filters.regex(ENTITY_PATH, Pattern.quote(search), "i"));
+            filters.add(EntityPathNGrams.getPathSearchFilter(search));
         }
-        if (limit != null)
+        return sessions.read(clientSession ->
         {
-            return transform(summary, executeFind(and(filters)).limit(limit));
-        }
-        return transform(summary, executeFind(and(filters)));
+            List<Bson> generationFilters = new ArrayList<>(filters);
+            generationFilters.add(generations.getCurrentGenerationsFilter(clientSession, eq(VERSIONED_ENTITY, versioned)));
+            return transform(clientSession, summary, and(generationFilters), limit);
+        });
     }
 
     @Override
     public List<StoredEntity> findReleasedEntitiesByClassifier(String classifier, boolean summary, boolean versionedEntities)
     {
-        return transform(summary, executeFind(and(and(eq(ENTITY_CLASSIFIER_PATH, classifier), eq(VERSIONED_ENTITY, versionedEntities)), ne(VERSION_ID, MASTER_SNAPSHOT))));
+        return transform(summary, and(and(eq(ENTITY_CLASSIFIER_PATH, classifier), eq(VERSIONED_ENTITY, versionedEntities)), ne(VERSION_ID, MASTER_SNAPSHOT)), null);
     }
 
     @Override
     public List<StoredEntity> findLatestEntitiesByClassifier(String classifier, boolean summary, boolean versioned)
     {
-        return transform(summary, executeFind(and(and(eq(ENTITY_CLASSIFIER_PATH, classifier), eq(VERSION_ID, MASTER_SNAPSHOT)), eq(VERSIONED_ENTITY, versioned))));
+        return sessions.read(clientSession -> transform(clientSession, summary, and(and(eq(ENTITY_CLASSIFIER_PATH, classifier), eq(VERSION_ID, MASTER_SNAPSHOT)), eq(VERSIONED_ENTITY, versioned),
+                generations.getCurrentGenerationsFilter(clientSession, eq(VERSIONED_ENTITY, versioned))), null));
     }
 
     public List<StoredEntity> findEntitiesByClassifier(String classifier, boolean summary, boolean versioned)
     {
-        return transform(summary, executeFind(and(eq(ENTITY_CLASSIFIER_PATH, classifier), eq(VERSIONED_ENTITY, versioned))));
+        return sessions.read(clientSession -> transform(clientSession, summary, and(eq(ENTITY_CLASSIFIER_PATH, classifier), eq(VERSIONED_ENTITY, versioned),
+                generations.getCurrentGenerationsFilter(clientSession, eq(VERSIONED_ENTITY, versioned))), null));
     }
 
     @Override
@@ -438,12 +780,12 @@ public class EntitiesMongo extends BaseMongo<StoredEntity> implements Entities,
 
     private List<StoredEntity> findByClassifier(String groupId, String artifactId, String versionId, String classifier, boolean summary, boolean versionedEntities)
     {
-        return transform(summary, executeFind(and(and(getArtifactAndVersionFilter(groupId, artifactId, versionId), eq(ENTITY_CLASSIFIER_PATH, classifier)), eq(VERSIONED_ENTITY, versionedEntities))));
+        return sessions.read(clientSession -> transform(clientSession, summary, and(generations.getCurrentVersionFilter(clientSession, groupId, artifactId, versionId, versionedEntities), eq(ENTITY_CLASSIFIER_PATH, classifier)), null));
     }
 
     protected List<StoredEntity> getEntitiesByClassifier(String groupId, String artifactId, String versionId, String classifier, boolean versionedEntities)
     {
-        return find(and(getArtifactWithVersionsFilter(groupId, artifactId, versionId, versionedEntities), eq(ENTITY_CLASSIFIER_PATH, classifier)));
+        return sessions.read(clientSession -> find(clientSession, and(generations.getCurrentVersionFilter(clientSession, groupId, artifactId, versionId, versionedEntities), eq(ENTITY_CLASSIFIER_PATH, classifier))));
     }
 
 
@@ -453,12 +795,21 @@ public class EntitiesMongo extends BaseMongo<StoredEntity> implements Entities,
         return getAllEntities(groupId, artifactId, version, versioned);
     }
 
+    @Override
+    public Stream<Entity> getEntitiesAsStream(String groupId, String artifactId, String versionId, boolean versioned)
+    {
+        return sessions.stream(clientSession -> stream(clientSession, generations.getCurrentVersionFilter(clientSession, groupId, artifactId, versionId, versioned))).map(StoredEntity::getEntity);
+    }
+
 
     @Override
     public StoreOperationResult delete(String groupId, String artifactId, String versionId, boolean versioned)
     {
         Bson filter = and(eq(VERSIONED_ENTITY, versioned), getArtifactAndVersionFilter(groupId, artifactId, versionId));
-        DeleteResult result = getCollection().deleteMany(filter);
+        bundles.delete(filter);
+        generations.delete(filter);
+        counts.delete(groupId, artifactId, versionId, versioned);
+        DeleteResult result = deleteEntities(filter);
         LOGGER.info("delete result {}-{}-{} {} :{}",groupId,artifactId,versionId,versioned,result);
         return new StoreOperationResult(0, 0, result.getDeletedCount(), Collections.emptyList());
     }
@@ -467,55 +818,88 @@ public class EntitiesMongo extends BaseMongo<StoredEntity> implements Entities,
     public StoreOperationResult deleteAll(String groupId, String artifactId)
     {
         Bson filter = getArtifactFilter(groupId, artifactId);
-        DeleteResult result = getCollection().deleteMany(filter);
+        bundles.delete(filter);
+        generations.delete(filter);
+        counts.deleteAll(groupId, artifactId);
+        DeleteResult result = deleteEntities(filter);
         LOGGER.info("deleteAll result {}-{} :{}",groupId,artifactId,result);
         return new StoreOperationResult(0, 0, result.getDeletedCount(), Collections.emptyList());
     }
 
+    @Override
+    public StoreOperationResult backfillEntityCounts()
+    {
+        Set<String> recorded = counts.getRecordedKeys();
+        List<Document> missing = new ArrayList<>();
+        withMaxTime(getCollection().aggregate(Arrays.asList(
+                Aggregates.match(generations.getCurrentGenerationsFilter(null, new Document())),
+                group(new Document(GROUP_ID, "$" + GROUP_ID).append(ARTIFACT_ID, "$" + ARTIFACT_ID).append(VERSION_ID, "$" + VERSION_ID).append(VERSIONED_ENTITY, "$" + VERSIONED_ENTITY))))).forEach((Consumer<Document>) document ->
+                {
+                    Document version = document.get(ID_FIELD, Document.class);
+                    if (!recorded.contains(EntityCountsMongo.key(version.getString(GROUP_ID), version.getString(ARTIFACT_ID), version.getString(VERSION_ID), version.getBoolean(VERSIONED_ENTITY, false))))
+                    {
+                        missing.add(version);
+                    }
+                });
+        missing.forEach(version ->
+        {
+            boolean versioned = version.getBoolean(VERSIONED_ENTITY, false);
+            counts.set(version.getString(GROUP_ID), version.getString(ARTIFACT_ID), version.getString(VERSION_ID), versioned,
+                    getCollection().countDocuments(generations.getCurrentVersionFilter(null, version.getString(GROUP_ID), version.getString(ARTIFACT_ID), version.getString(VERSION_ID), versioned), countOptions()));
+        });
+        LOGGER.info("backfilled entity counts for {} versions", missing.size());
+        return new StoreOperationResult(0, missing.size(), 0, Collections.emptyList());
+    }
+
     public long getRevisionEntityCount()
     {
-        return getCollection().countDocuments(eq(VERSION_ID, MASTER_SNAPSHOT));
+        if (counts.isEmpty())
+        {
+            return sessions.read(clientSession -> count(clientSession, and(eq(VERSION_ID, MASTER_SNAPSHOT), generations.getCurrentGenerationsFilter(clientSession, eq(VERSION_ID, MASTER_SNAPSHOT)))));
+        }
+        return counts.sum(eq(VERSION_ID, MASTER_SNAPSHOT));
     }
 
 
     public long getVersionEntityCount()
     {
-        return getCollection().countDocuments(ne(VERSION_ID, MASTER_SNAPSHOT));
+        if (counts.isEmpty())
+        {
+            return Math.max(0, getCollection().estimatedDocumentCount() - getRevisionEntityCount());
+        }
+        return counts.sum(ne(VERSION_ID, MASTER_SNAPSHOT));
     }
 
 
     @Override
     public long getVersionEntityCount(String groupId, String artifactId, String versionId)
     {
-        return getCollection().countDocuments(getArtifactAndVersionFilter(groupId, artifactId, versionId));
+        return getEntityCount(groupId, artifactId, versionId, false) + getEntityCount(groupId, artifactId, versionId, true);
+    }
+
+    private long getEntityCount(String groupId, String artifactId, String versionId, boolean versioned)
+    {
+        return counts.get(groupId, artifactId, versionId, versioned).orElseGet(() -> sessions.read(clientSession -> count(clientSession, generations.getCurrentVersionFilter(clientSession, groupId, artifactId, versionId, versioned))));
     }
 
 
     @Override
     public long getEntityCount(String groupId, String artifactId)
     {
-        return getCollection().countDocuments(getArtifactFilter(groupId, artifactId));
+        return sessions.read(clientSession -> count(clientSession, generations.getCurrentArtifactFilter(clientSession, groupId, artifactId)));
     }
 
     @Override
     public List<Pair<String, String>> getStoredEntitiesCoordinates()
     {
         List<Pair<String, String>> result = new ArrayList<>();
-        BasicDBList concat = new BasicDBList();
-        concat.add("$groupId");
-        concat.add(":");
-        concat.add("$artifactId");
-        Bson allCoordinates = Aggregates.project(Projections.fields(
-                Projections.excludeId(),
-                Projections.include(GROUP_ID, ARTIFACT_ID),
-                Projections.computed("coordinate", new BasicDBObject("$concat", concat))));
-
-        getCollection().aggregate(Arrays.asList(allCoordinates, group("$coordinate"))).forEach((Consumer<Document>) document ->
-                {
-                    StringTokenizer tokenizer = new StringTokenizer(document.getString("_id"), ":");
-                    result.add(Tuples.pair(tokenizer.nextToken(), tokenizer.nextToken()));
-                }
-        );
+        Document coordinates = new Document(GROUP_ID, "$" + GROUP_ID).append(ARTIFACT_ID, "$" + ARTIFACT_ID);
+        // sorting on the coordinates prefix and keeping $first lets the server answer the group with a distinct scan of the coordinates index
+        withMaxTime(getCollection().aggregate(Arrays.asList(
+                Aggregates.sort(Sorts.ascending(GROUP_ID, ARTIFACT_ID)),
+                group(coordinates, Accumulators.first(GROUP_ID, "$" + GROUP_ID), Accumulators.first(ARTIFACT_ID, "$" + ARTIFACT_ID)),
+                Aggregates.sort(Sorts.ascending(GROUP_ID, ARTIFACT_ID))))).forEach((Consumer<Document>) coordinate ->
+                result.add(Tuples.pair(coordinate.getString(GROUP_ID), coordinate.getString(ARTIFACT_ID))));
         return result;
     }
 }
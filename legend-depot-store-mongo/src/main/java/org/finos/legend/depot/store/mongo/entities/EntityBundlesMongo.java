@@ -0,0 +1,152 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+
+package org.finos.legend.depot.store.mongo.entities;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.finos.legend.depot.domain.status.StoreOperationResult;
+import org.finos.legend.depot.store.StoreException;
+import org.finos.legend.depot.store.mongo.core.MongoReadPreferences;
+import org.finos.legend.sdlc.domain.model.entity.Entity;
+import org.slf4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.ARTIFACT_ID;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.GROUP_ID;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.REPLACE_OR_INSERT;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.VERSION_ID;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.withMaxTime;
+import static org.finos.legend.depot.store.mongo.entities.EntitiesMongo.VERSIONED_ENTITY;
+
+public class EntityBundlesMongo
+{
+    private static final Logger LOGGER = org.slf4j.LoggerFactory.getLogger(EntityBundlesMongo.class);
+    public static final String COLLECTION = "entities-bundles";
+    public static final String CONTENT = "content";
+    public static final String ENTITY_COUNT = "entityCount";
+    private static final int MAX_BUNDLE_SIZE = 15 * 1024 * 1024;
+    private static final ObjectMapper BUNDLE_MAPPER = new ObjectMapper().configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+    private final MongoDatabase mongoDatabase;
+    private final MongoReadPreferences readPreferences;
+    private final LongSupplier maxTimeInMillis;
+
+    public EntityBundlesMongo(MongoDatabase mongoDatabase, MongoReadPreferences readPreferences, LongSupplier maxTimeInMillis)
+    {
+        this.mongoDatabase = mongoDatabase;
+        this.readPreferences = readPreferences;
+        this.maxTimeInMillis = maxTimeInMillis;
+    }
+
+    public EntityBundlesMongo(MongoDatabase mongoDatabase)
+    {
+        this(mongoDatabase, MongoReadPreferences.DEFAULT, () -> 0);
+    }
+
+    public static List<IndexModel> buildIndexes()
+    {
+        return Arrays.asList(new IndexModel(Indexes.ascending(GROUP_ID, ARTIFACT_ID, VERSION_ID, VERSIONED_ENTITY), new IndexOptions().unique(true).name("groupId-artifactId-versionId-versioned")));
+    }
+
+    private MongoCollection<Document> getCollection()
+    {
+        return readPreferences.apply(COLLECTION, mongoDatabase.getCollection(COLLECTION));
+    }
+
+    private static Bson getVersionFilter(String groupId, String artifactId, String versionId, boolean versioned)
+    {
+        return and(eq(GROUP_ID, groupId), eq(ARTIFACT_ID, artifactId), eq(VERSION_ID, versionId), eq(VERSIONED_ENTITY, versioned));
+    }
+
+    public StoreOperationResult store(String groupId, String artifactId, String versionId, boolean versioned, Stream<Entity> entities)
+    {
+        StoreOperationResult report = new StoreOperationResult();
+        Bson filter = getVersionFilter(groupId, artifactId, versionId, versioned);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        long entityCount = 0;
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes);
+             JsonGenerator generator = BUNDLE_MAPPER.getFactory().createGenerator(gzip);
+             Stream<Entity> bundled = entities)
+        {
+            generator.writeStartArray();
+            Iterator<Entity> iterator = bundled.iterator();
+            while (iterator.hasNext())
+            {
+                generator.writeObject(iterator.next());
+                entityCount++;
+            }
+            generator.writeEndArray();
+        }
+        catch (IOException e)
+        {
+            throw new StoreException("Error serializing entities bundle: " + e.getMessage());
+        }
+        if (bytes.size() > MAX_BUNDLE_SIZE)
+        {
+            getCollection().deleteOne(filter);
+            LOGGER.info("skipping entities bundle {}-{}-{} {}, compressed size {} exceeds limit", groupId, artifactId, versionId, versioned, bytes.size());
+            return report;
+        }
+        Document bundle = new Document(GROUP_ID, groupId)
+                .append(ARTIFACT_ID, artifactId)
+                .append(VERSION_ID, versionId)
+                .append(VERSIONED_ENTITY, versioned)
+                .append(ENTITY_COUNT, entityCount)
+                .append(CONTENT, new Binary(bytes.toByteArray()));
+        UpdateResult result = getCollection().replaceOne(filter, bundle, REPLACE_OR_INSERT);
+        if (result.getUpsertedId() != null)
+        {
+            report.addInsertedCount();
+        }
+        else
+        {
+            report.addModifiedCount();
+        }
+        return report;
+    }
+
+    public Optional<byte[]> get(String groupId, String artifactId, String versionId, boolean versioned)
+    {
+        Document bundle = withMaxTime(getCollection().find(getVersionFilter(groupId, artifactId, versionId, versioned)), maxTimeInMillis.getAsLong()).first();
+        return bundle == null ? Optional.empty() : Optional.of(bundle.get(CONTENT, Binary.class).getData());
+    }
+
+    public void delete(Bson filter)
+    {
+        getCollection().deleteMany(filter);
+    }
+}
@@ -0,0 +1,214 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.store.mongo.entities;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.finos.legend.depot.domain.entity.StoredEntity;
+import org.finos.legend.depot.store.StoreException;
+import org.finos.legend.depot.store.mongo.core.MongoReadPreferences;
+import org.slf4j.Logger;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.exists;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Filters.lt;
+import static com.mongodb.client.model.Filters.or;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.currentDate;
+import static com.mongodb.client.model.Updates.setOnInsert;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.withMaxTime;
+
+public class EntityContentsMongo
+{
+    private static final Logger LOGGER = org.slf4j.LoggerFactory.getLogger(EntityContentsMongo.class);
+    public static final String COLLECTION = "entities-content";
+    public static final String CONTENT = "content";
+    public static final String STORED_AT = "storedAt";
+    private static final String ID_FIELD = "_id";
+    private static final String SHA_256 = "SHA-256";
+    private static final UpdateOptions INSERT_IF_ABSENT = new UpdateOptions().upsert(true);
+    private static final BulkWriteOptions UNORDERED_BULK_WRITE = new BulkWriteOptions().ordered(false);
+    private static final ObjectMapper CANONICAL_MAPPER = new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final MongoDatabase mongoDatabase;
+    private final MongoReadPreferences readPreferences;
+    private final LongSupplier maxTimeInMillis;
+
+    public EntityContentsMongo(MongoDatabase mongoDatabase, MongoReadPreferences readPreferences, LongSupplier maxTimeInMillis)
+    {
+        this.mongoDatabase = mongoDatabase;
+        this.readPreferences = readPreferences;
+        this.maxTimeInMillis = maxTimeInMillis;
+    }
+
+    public EntityContentsMongo(MongoDatabase mongoDatabase)
+    {
+        this(mongoDatabase, MongoReadPreferences.DEFAULT, () -> 0);
+    }
+
+    private MongoCollection<Document> getCollection()
+    {
+        return readPreferences.apply(COLLECTION, mongoDatabase.getCollection(COLLECTION));
+    }
+
+    public static String hash(Map<String, ?> content)
+    {
+        try
+        {
+            byte[] digest = MessageDigest.getInstance(SHA_256).digest(CANONICAL_MAPPER.writeValueAsBytes(content));
+            return String.format("%064x", new BigInteger(1, digest));
+        }
+        catch (NoSuchAlgorithmException | JsonProcessingException e)
+        {
+            throw new StoreException("Error hashing entity content: " + e.getMessage());
+        }
+    }
+
+    public void store(ClientSession clientSession, Map<String, Map<String, ?>> contents, int batchSize)
+    {
+        List<UpdateOneModel<Document>> inserts = new ArrayList<>();
+        contents.forEach((hash, content) -> inserts.add(new UpdateOneModel<>(eq(ID_FIELD, hash), combine(setOnInsert(CONTENT, content), currentDate(STORED_AT)), INSERT_IF_ABSENT)));
+        int size = Math.max(batchSize, 1);
+        for (int start = 0; start < inserts.size(); start += size)
+        {
+            List<UpdateOneModel<Document>> batch = inserts.subList(start, Math.min(start + size, inserts.size()));
+            if (clientSession != null)
+            {
+                getCollection().bulkWrite(clientSession, batch, UNORDERED_BULK_WRITE);
+            }
+            else
+            {
+                getCollection().bulkWrite(batch, UNORDERED_BULK_WRITE);
+            }
+        }
+    }
+
+    /**
+     * Stores the distinct contents of the entities, returning each entity's content hash in order
+     */
+    public List<String> store(ClientSession clientSession, List<StoredEntity> entities, int batchSize)
+    {
+        List<String> hashes = new ArrayList<>();
+        Map<String, Map<String, ?>> uniqueContents = new LinkedHashMap<>();
+        for (StoredEntity entity : entities)
+        {
+            Map<String, ?> content = entity.getEntity().getContent();
+            String contentHash = content != null ? hash(content) : null;
+            if (contentHash != null)
+            {
+                uniqueContents.putIfAbsent(contentHash, content);
+            }
+            hashes.add(contentHash);
+        }
+        store(clientSession, uniqueContents, batchSize);
+        return hashes;
+    }
+
+    public List<StoredEntity> resolve(ClientSession clientSession, List<StoredEntity> entities)
+    {
+        Set<String> hashes = new LinkedHashSet<>();
+        entities.stream().filter(entity -> entity instanceof StoredEntityReference).forEach(entity -> hashes.add(((StoredEntityReference) entity).getContentHash()));
+        if (hashes.isEmpty())
+        {
+            return entities;
+        }
+        Map<String, Map<String, ?>> resolved = find(clientSession, hashes);
+        List<StoredEntity> resolvedEntities = new ArrayList<>(entities.size());
+        for (StoredEntity entity : entities)
+        {
+            if (!(entity instanceof StoredEntityReference))
+            {
+                resolvedEntities.add(entity);
+                continue;
+            }
+            StoredEntityReference reference = (StoredEntityReference) entity;
+            Map<String, ?> content = resolved.get(reference.getContentHash());
+            if (content == null)
+            {
+                LOGGER.error("content {} of entity {} in {}-{}-{} not found, entity dropped", reference.getContentHash(), reference.getEntity().getPath(), reference.getGroupId(), reference.getArtifactId(), reference.getVersionId());
+                continue;
+            }
+            resolvedEntities.add(reference.resolve(content));
+        }
+        return resolvedEntities;
+    }
+
+    public Map<String, Map<String, ?>> find(Collection<String> hashes)
+    {
+        return find(null, hashes);
+    }
+
+    public Map<String, Map<String, ?>> find(ClientSession clientSession, Collection<String> hashes)
+    {
+        Map<String, Map<String, ?>> contents = new HashMap<>();
+        Bson filter = in(ID_FIELD, hashes);
+        withMaxTime(clientSession != null ? getCollection().find(clientSession, filter) : getCollection().find(filter), maxTimeInMillis.getAsLong()).forEach((Consumer<Document>) doc -> contents.put(doc.getString(ID_FIELD), (Map<String, ?>) copy(doc.get(CONTENT))));
+        return contents;
+    }
+
+    public long delete(Collection<String> hashes, long storedBeforeMillis)
+    {
+        if (hashes.isEmpty())
+        {
+            return 0;
+        }
+        Date storedBefore = new Date(System.currentTimeMillis() - storedBeforeMillis);
+        return getCollection().deleteMany(and(in(ID_FIELD, hashes), or(lt(STORED_AT, storedBefore), exists(STORED_AT, false)))).getDeletedCount();
+    }
+
+    private static Object copy(Object value)
+    {
+        if (value instanceof Map)
+        {
+            Map<String, Object> map = new LinkedHashMap<>();
+            ((Map<String, ?>) value).forEach((key, item) -> map.put(key, copy(item)));
+            return map;
+        }
+        if (value instanceof List)
+        {
+            List<Object> list = new ArrayList<>();
+            ((List<?>) value).forEach(item -> list.add(copy(item)));
+            return list;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,122 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.store.mongo.entities;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOptions;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.finos.legend.depot.store.mongo.core.MongoReadPreferences;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import static com.mongodb.client.model.Aggregates.group;
+import static com.mongodb.client.model.Aggregates.match;
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.ARTIFACT_ID;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.GROUP_ID;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.VERSION_ID;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.withMaxTime;
+
+public class EntityCountsMongo
+{
+    public static final String COLLECTION = "entities-counts";
+    public static final String ENTITY_COUNT = "entityCount";
+    private static final String ID_FIELD = "_id";
+    private static final String TOTAL = "total";
+    private static final ReplaceOptions REPLACE_OR_INSERT = new ReplaceOptions().upsert(true);
+
+    private final MongoDatabase mongoDatabase;
+    private final MongoReadPreferences readPreferences;
+    private final LongSupplier maxTimeInMillis;
+
+    public EntityCountsMongo(MongoDatabase mongoDatabase, MongoReadPreferences readPreferences, LongSupplier maxTimeInMillis)
+    {
+        this.mongoDatabase = mongoDatabase;
+        this.readPreferences = readPreferences;
+        this.maxTimeInMillis = maxTimeInMillis;
+    }
+
+    public EntityCountsMongo(MongoDatabase mongoDatabase)
+    {
+        this(mongoDatabase, MongoReadPreferences.DEFAULT, () -> 0);
+    }
+
+    private MongoCollection<Document> getCollection()
+    {
+        return readPreferences.apply(COLLECTION, mongoDatabase.getCollection(COLLECTION));
+    }
+
+    static String key(String groupId, String artifactId, String versionId, boolean versioned)
+    {
+        return String.join(":", groupId, artifactId, versionId, String.valueOf(versioned));
+    }
+
+    public void set(String groupId, String artifactId, String versionId, boolean versioned, long count)
+    {
+        String key = key(groupId, artifactId, versionId, versioned);
+        Document counts = new Document(ID_FIELD, key)
+                .append(GROUP_ID, groupId)
+                .append(ARTIFACT_ID, artifactId)
+                .append(VERSION_ID, versionId)
+                .append(EntitiesMongo.VERSIONED_ENTITY, versioned)
+                .append(ENTITY_COUNT, count);
+        getCollection().replaceOne(eq(ID_FIELD, key), counts, REPLACE_OR_INSERT);
+    }
+
+    public Optional<Long> get(String groupId, String artifactId, String versionId, boolean versioned)
+    {
+        Document counts = withMaxTime(getCollection().find(eq(ID_FIELD, key(groupId, artifactId, versionId, versioned))), maxTimeInMillis.getAsLong()).first();
+        return counts == null ? Optional.empty() : Optional.of(((Number) counts.get(ENTITY_COUNT)).longValue());
+    }
+
+    public void delete(String groupId, String artifactId, String versionId, boolean versioned)
+    {
+        getCollection().deleteOne(eq(ID_FIELD, key(groupId, artifactId, versionId, versioned)));
+    }
+
+    public void deleteAll(String groupId, String artifactId)
+    {
+        getCollection().deleteMany(and(eq(GROUP_ID, groupId), eq(ARTIFACT_ID, artifactId)));
+    }
+
+    public Set<String> getRecordedKeys()
+    {
+        Set<String> keys = new HashSet<>();
+        withMaxTime(getCollection().find().projection(Projections.include(ID_FIELD)), maxTimeInMillis.getAsLong()).forEach((Consumer<Document>) counts -> keys.add(counts.getString(ID_FIELD)));
+        return keys;
+    }
+
+    public boolean isEmpty()
+    {
+        return getCollection().estimatedDocumentCount() == 0;
+    }
+
+    public long sum(Bson filter)
+    {
+        Document total = withMaxTime(getCollection().aggregate(Arrays.asList(match(filter), group(null, Accumulators.sum(TOTAL, "$" + ENTITY_COUNT)))), maxTimeInMillis.getAsLong()).first();
+        return total == null ? 0 : ((Number) total.get(TOTAL)).longValue();
+    }
+}
@@ -0,0 +1,204 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+
+package org.finos.legend.depot.store.mongo.entities;
+
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.finos.legend.depot.store.mongo.core.MongoReadPreferences;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Filters.ne;
+import static com.mongodb.client.model.Filters.nor;
+import static com.mongodb.client.model.Filters.or;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.currentDate;
+import static com.mongodb.client.model.Updates.set;
+import static com.mongodb.client.model.Updates.unset;
+import static org.finos.legend.depot.domain.version.VersionValidator.MASTER_SNAPSHOT;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.ARTIFACT_ID;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.GROUP_ID;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.INSERT_IF_ABSENT;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.LAST_MODIFIED;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.VERSION_ID;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.withMaxTime;
+import static org.finos.legend.depot.store.mongo.entities.EntitiesMongo.ENTITY_GENERATION;
+import static org.finos.legend.depot.store.mongo.entities.EntitiesMongo.VERSIONED_ENTITY;
+
+/**
+ * Pointers to the current generation of master-SNAPSHOT entities, and the entity filters resolved from them
+ */
+public class EntityGenerationsMongo
+{
+    public static final String COLLECTION = "entities-generations";
+    public static final String UNGENERATED_ENTITIES = "ungeneratedEntities";
+
+    private final MongoDatabase mongoDatabase;
+    private final MongoReadPreferences readPreferences;
+    private final LongSupplier maxTimeInMillis;
+
+    public EntityGenerationsMongo(MongoDatabase mongoDatabase, MongoReadPreferences readPreferences, LongSupplier maxTimeInMillis)
+    {
+        this.mongoDatabase = mongoDatabase;
+        this.readPreferences = readPreferences;
+        this.maxTimeInMillis = maxTimeInMillis;
+    }
+
+    public EntityGenerationsMongo(MongoDatabase mongoDatabase)
+    {
+        this(mongoDatabase, MongoReadPreferences.DEFAULT, () -> 0);
+    }
+
+    public static List<IndexModel> buildIndexes()
+    {
+        return Arrays.asList(new IndexModel(Indexes.ascending(GROUP_ID, ARTIFACT_ID, VERSION_ID, VERSIONED_ENTITY), new IndexOptions().unique(true).name("groupId-artifactId-versionId-versioned")));
+    }
+
+    MongoCollection<Document> getCollection()
+    {
+        return readPreferences.apply(COLLECTION, mongoDatabase.getCollection(COLLECTION));
+    }
+
+    private FindIterable<Document> find(ClientSession clientSession, Bson filter)
+    {
+        return withMaxTime(clientSession != null ? getCollection().find(clientSession, filter) : getCollection().find(filter), maxTimeInMillis.getAsLong());
+    }
+
+    static boolean isGenerational(String versionId)
+    {
+        return MASTER_SNAPSHOT.equals(versionId);
+    }
+
+    private static Bson getVersionFilter(String groupId, String artifactId, String versionId)
+    {
+        return and(eq(VERSION_ID, versionId), and(eq(GROUP_ID, groupId), eq(ARTIFACT_ID, artifactId)));
+    }
+
+    static Bson getVersionFilter(String groupId, String artifactId, String versionId, boolean versioned)
+    {
+        return and(getVersionFilter(groupId, artifactId, versionId), eq(VERSIONED_ENTITY, versioned));
+    }
+
+    public String getCurrentGeneration(ClientSession clientSession, String groupId, String artifactId, String versionId, boolean versioned)
+    {
+        Document pointer = find(clientSession, getVersionFilter(groupId, artifactId, versionId, versioned)).first();
+        return pointer == null ? null : pointer.getString(ENTITY_GENERATION);
+    }
+
+    private Map<Boolean, String> getCurrentGenerations(ClientSession clientSession, String groupId, String artifactId, String versionId)
+    {
+        Map<Boolean, String> generations = new HashMap<>();
+        find(clientSession, getVersionFilter(groupId, artifactId, versionId)).forEach((Consumer<Document>) pointer -> generations.put(pointer.getBoolean(VERSIONED_ENTITY), pointer.getString(ENTITY_GENERATION)));
+        return generations;
+    }
+
+    public Bson getCurrentVersionFilter(ClientSession clientSession, String groupId, String artifactId, String versionId)
+    {
+        Bson filter = getVersionFilter(groupId, artifactId, versionId);
+        if (!isGenerational(versionId))
+        {
+            return filter;
+        }
+        Map<Boolean, String> generations = getCurrentGenerations(clientSession, groupId, artifactId, versionId);
+        return and(filter, or(and(eq(VERSIONED_ENTITY, false), eq(ENTITY_GENERATION, generations.get(false))),
+                and(eq(VERSIONED_ENTITY, true), eq(ENTITY_GENERATION, generations.get(true)))));
+    }
+
+    public Bson getCurrentVersionFilter(ClientSession clientSession, String groupId, String artifactId, String versionId, boolean versioned)
+    {
+        Bson filter = getVersionFilter(groupId, artifactId, versionId, versioned);
+        return isGenerational(versionId) ? and(filter, eq(ENTITY_GENERATION, getCurrentGeneration(clientSession, groupId, artifactId, versionId, versioned))) : filter;
+    }
+
+    public Bson getCurrentArtifactFilter(ClientSession clientSession, String groupId, String artifactId)
+    {
+        return and(eq(GROUP_ID, groupId), eq(ARTIFACT_ID, artifactId), or(ne(VERSION_ID, MASTER_SNAPSHOT), getCurrentVersionFilter(clientSession, groupId, artifactId, MASTER_SNAPSHOT)));
+    }
+
+    /**
+     * Entity filter keeping the current generation of every version matched by the pointers filter, plus entities
+     * stored before generations were recorded for their version
+     */
+    public Bson getCurrentGenerationsFilter(ClientSession clientSession, Bson pointersFilter)
+    {
+        Set<String> generations = new HashSet<>();
+        List<Bson> superseded = new ArrayList<>();
+        find(clientSession, pointersFilter).forEach((Consumer<Document>) pointer ->
+        {
+            generations.add(pointer.getString(ENTITY_GENERATION));
+            if (pointer.getBoolean(UNGENERATED_ENTITIES, false))
+            {
+                superseded.add(getVersionFilter(pointer.getString(GROUP_ID), pointer.getString(ARTIFACT_ID), pointer.getString(VERSION_ID), pointer.getBoolean(VERSIONED_ENTITY)));
+            }
+        });
+        Bson ungenerated = superseded.isEmpty() ? eq(ENTITY_GENERATION, null) : and(eq(ENTITY_GENERATION, null), nor(superseded));
+        return generations.isEmpty() ? ungenerated : or(in(ENTITY_GENERATION, generations), ungenerated);
+    }
+
+    public void setCurrentGeneration(String groupId, String artifactId, String versionId, boolean versioned, String generation)
+    {
+        List<Bson> pointer = new ArrayList<>(Arrays.asList(
+                set(GROUP_ID, groupId),
+                set(ARTIFACT_ID, artifactId),
+                set(VERSION_ID, versionId),
+                set(VERSIONED_ENTITY, versioned),
+                set(ENTITY_GENERATION, generation),
+                currentDate(LAST_MODIFIED)));
+        if (getCurrentGeneration(null, groupId, artifactId, versionId, versioned) == null)
+        {
+            pointer.add(set(UNGENERATED_ENTITIES, true));
+        }
+        getCollection().updateOne(getVersionFilter(groupId, artifactId, versionId, versioned), combine(pointer), INSERT_IF_ABSENT);
+    }
+
+    public void markCollected(String groupId, String artifactId, String versionId, boolean versioned, String generation)
+    {
+        getCollection().updateOne(and(getVersionFilter(groupId, artifactId, versionId, versioned), eq(ENTITY_GENERATION, generation)), unset(UNGENERATED_ENTITIES));
+    }
+
+    public Set<String> findCurrent(Collection<String> generations)
+    {
+        Set<String> current = new HashSet<>();
+        find(null, in(ENTITY_GENERATION, generations)).projection(Projections.include(ENTITY_GENERATION)).forEach((Consumer<Document>) pointer -> current.add(pointer.getString(ENTITY_GENERATION)));
+        return current;
+    }
+
+    public void delete(Bson filter)
+    {
+        getCollection().deleteMany(filter);
+    }
+}
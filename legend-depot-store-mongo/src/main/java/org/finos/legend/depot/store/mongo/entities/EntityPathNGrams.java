@@ -0,0 +1,102 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+
+package org.finos.legend.depot.store.mongo.entities;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static com.mongodb.client.model.Filters.all;
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.exists;
+import static com.mongodb.client.model.Filters.regex;
+import static com.mongodb.client.model.Updates.set;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.ID_FIELD;
+import static org.finos.legend.depot.store.mongo.entities.EntitiesMongo.ENTITY;
+import static org.finos.legend.depot.store.mongo.entities.EntitiesMongo.ENTITY_PATH;
+import static org.finos.legend.depot.store.mongo.entities.EntitiesMongo.ENTITY_PATH_NGRAMS;
+import static org.finos.legend.depot.store.mongo.entities.EntitiesMongo.PATH;
+
+public final class EntityPathNGrams
+{
+    private static final Logger LOGGER = org.slf4j.LoggerFactory.getLogger(EntityPathNGrams.class);
+    private static final int PATH_NGRAM_SIZE = 3;
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    private EntityPathNGrams()
+    {
+    }
+
+    static List<String> getPathNGrams(String path)
+    {
+        Set<String> ngrams = new LinkedHashSet<>();
+        String lowerCasePath = path.toLowerCase(Locale.ROOT);
+        for (int i = 0; i + PATH_NGRAM_SIZE <= lowerCasePath.length(); i++)
+        {
+            ngrams.add(lowerCasePath.substring(i, i + PATH_NGRAM_SIZE));
+        }
+        return new ArrayList<>(ngrams);
+    }
+
+    static Bson getPathSearchFilter(String search)
+    {
+        Bson pathFilter = regex(ENTITY_PATH, Pattern.quote(search), "i");
+        List<String> ngrams = getPathNGrams(search);
+        if (ngrams.isEmpty())
+        {
+            return pathFilter;
+        }
+        return and(all(ENTITY_PATH_NGRAMS, ngrams), pathFilter);
+    }
+
+    /**
+     * Sets the path trigrams on entities stored before they were recorded, so path searches can rely on them alone
+     */
+    public static long backfill(MongoDatabase mongoDatabase)
+    {
+        MongoCollection<Document> entities = mongoDatabase.getCollection(EntitiesMongo.COLLECTION);
+        List<UpdateOneModel<Document>> updates = new ArrayList<>();
+        long backfilled = 0;
+        for (Document entity : entities.find(exists(ENTITY_PATH_NGRAMS, false)).projection(Projections.include(ENTITY_PATH)))
+        {
+            updates.add(new UpdateOneModel<>(eq(ID_FIELD, entity.get(ID_FIELD)), set(ENTITY_PATH_NGRAMS, getPathNGrams(entity.get(ENTITY, Document.class).getString(PATH)))));
+            if (updates.size() == BACKFILL_BATCH_SIZE)
+            {
+                backfilled += entities.bulkWrite(updates).getModifiedCount();
+                updates.clear();
+            }
+        }
+        if (!updates.isEmpty())
+        {
+            backfilled += entities.bulkWrite(updates).getModifiedCount();
+        }
+        LOGGER.info("backfilled path ngrams for {} entities", backfilled);
+        return backfilled;
+    }
+}
@@ -0,0 +1,129 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+
+package org.finos.legend.depot.store.mongo.entities;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientException;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.TransactionOptions;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.ClientSession;
+import org.finos.legend.depot.domain.status.StoreOperationResult;
+import org.slf4j.Logger;
+
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public class EntitySessions
+{
+    private static final Logger LOGGER = org.slf4j.LoggerFactory.getLogger(EntitySessions.class);
+    private static final TransactionOptions TRANSACTION_OPTIONS = TransactionOptions.builder()
+            .readConcern(ReadConcern.MAJORITY)
+            .writeConcern(WriteConcern.ACKNOWLEDGED)
+            .readPreference(ReadPreference.primary()).build();
+    private static final ClientSessionOptions CAUSALLY_CONSISTENT_READS = ClientSessionOptions.builder().causallyConsistent(true).build();
+
+    private final MongoClient mongoClient;
+    private volatile boolean causallyConsistentReads;
+
+    public EntitySessions(MongoClient mongoClient, boolean causallyConsistentReads)
+    {
+        this.mongoClient = mongoClient;
+        this.causallyConsistentReads = mongoClient != null && causallyConsistentReads;
+    }
+
+    public boolean isCausallyConsistentReads()
+    {
+        return causallyConsistentReads;
+    }
+
+    private ClientSession startReadSession()
+    {
+        if (!causallyConsistentReads)
+        {
+            return null;
+        }
+        try
+        {
+            return mongoClient.startSession(CAUSALLY_CONSISTENT_READS);
+        }
+        catch (MongoClientException e)
+        {
+            causallyConsistentReads = false;
+            LOGGER.warn("sessions not supported, entity reads will not be causally consistent: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public <R> R read(Function<ClientSession, R> reads)
+    {
+        try (ClientSession clientSession = startReadSession())
+        {
+            return reads.apply(clientSession);
+        }
+    }
+
+    public <R> Stream<R> stream(Function<ClientSession, Stream<R>> reads)
+    {
+        ClientSession clientSession = startReadSession();
+        if (clientSession == null)
+        {
+            return reads.apply(null);
+        }
+        try
+        {
+            return reads.apply(clientSession).onClose(clientSession::close);
+        }
+        catch (RuntimeException e)
+        {
+            clientSession.close();
+            throw e;
+        }
+    }
+
+    public StoreOperationResult executeWithinTransaction(Function<ClientSession, StoreOperationResult> atomicTransaction)
+    {
+        StoreOperationResult report = new StoreOperationResult();
+        ClientSession clientSession = mongoClient.startSession();
+        try
+        {
+            clientSession.startTransaction(TRANSACTION_OPTIONS);
+            report.combine(atomicTransaction.apply(clientSession));
+        }
+        catch (RuntimeException e)
+        {
+            report.logError(e.getMessage());
+            LOGGER.error("error executing atomic new/update",e);
+        }
+        finally
+        {
+            if (report.hasErrors())
+            {
+                clientSession.abortTransaction();
+                report.logError("transaction aborted");
+            }
+            else
+            {
+                clientSession.commitTransaction();
+            }
+            clientSession.close();
+        }
+        return report;
+    }
+}
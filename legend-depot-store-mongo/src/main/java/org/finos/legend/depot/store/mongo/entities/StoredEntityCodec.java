@@ -0,0 +1,106 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.store.mongo.entities;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.codecs.DecoderContext;
+import org.finos.legend.depot.domain.entity.EntityDefinition;
+import org.finos.legend.depot.domain.entity.StoredEntity;
+import org.finos.legend.depot.store.mongo.core.codecs.BaseDomainCodec;
+
+import java.util.Map;
+
+public class StoredEntityCodec extends BaseDomainCodec<StoredEntity>
+{
+    public StoredEntityCodec()
+    {
+        super(StoredEntity.class);
+    }
+
+    @Override
+    public StoredEntity decode(BsonReader reader, DecoderContext decoderContext)
+    {
+        String groupId = null;
+        String artifactId = null;
+        String versionId = null;
+        Boolean versionedEntity = null;
+        String path = null;
+        String classifierPath = null;
+        Map<String, ?> content = null;
+        String contentHash = null;
+        boolean hasEntity = false;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT)
+        {
+            switch (reader.readName())
+            {
+                case "groupId":
+                    groupId = readString(reader);
+                    break;
+                case "artifactId":
+                    artifactId = readString(reader);
+                    break;
+                case "versionId":
+                    versionId = readString(reader);
+                    break;
+                case "versionedEntity":
+                    versionedEntity = readBoolean(reader);
+                    break;
+                case "entity":
+                    if (isNull(reader))
+                    {
+                        break;
+                    }
+                    hasEntity = true;
+                    reader.readStartDocument();
+                    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT)
+                    {
+                        switch (reader.readName())
+                        {
+                            case "path":
+                                path = readString(reader);
+                                break;
+                            case "classifierPath":
+                                classifierPath = readString(reader);
+                                break;
+                            case "content":
+                                content = readMap(reader);
+                                break;
+                            case "contentHash":
+                                contentHash = readString(reader);
+                                break;
+                            default:
+                                reader.skipValue();
+                        }
+                    }
+                    reader.readEndDocument();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        boolean versioned = versionedEntity != null && versionedEntity;
+        EntityDefinition entity = hasEntity ? new EntityDefinition(path, classifierPath, content) : null;
+        if (contentHash != null)
+        {
+            return new StoredEntityReference(groupId, artifactId, versionId, versioned, entity, contentHash);
+        }
+        return new StoredEntity(groupId, artifactId, versionId, versioned, entity);
+    }
+}
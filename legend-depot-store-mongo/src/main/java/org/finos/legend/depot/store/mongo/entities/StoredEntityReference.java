@@ -0,0 +1,42 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.store.mongo.entities;
+
+import org.finos.legend.depot.domain.entity.EntityDefinition;
+import org.finos.legend.depot.domain.entity.StoredEntity;
+
+import java.util.Map;
+
+public class StoredEntityReference extends StoredEntity
+{
+    private final String contentHash;
+
+    public StoredEntityReference(String groupId, String artifactId, String versionId, boolean versionedEntity, EntityDefinition entity, String contentHash)
+    {
+        super(groupId, artifactId, versionId, versionedEntity, entity);
+        this.contentHash = contentHash;
+    }
+
+    public String getContentHash()
+    {
+        return contentHash;
+    }
+
+    public StoredEntity resolve(Map<String, ?> content)
+    {
+        return new StoredEntity(getGroupId(), getArtifactId(), getVersionId(), isVersionedEntity(), new EntityDefinition(getEntity().getPath(), getEntity().getClassifierPath(), content));
+    }
+}
@@ -15,14 +15,17 @@
 
 package org.finos.legend.depot.store.mongo.generation.file;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.IndexModel;
 import org.bson.conversions.Bson;
 import org.finos.legend.depot.domain.generation.file.StoredFileGeneration;
+import org.finos.legend.depot.domain.status.StoreOperationResult;
 import org.finos.legend.depot.store.api.generation.file.FileGenerations;
 import org.finos.legend.depot.store.api.generation.file.UpdateFileGenerations;
 import org.finos.legend.depot.store.mongo.core.BaseMongo;
+import org.finos.legend.depot.store.mongo.core.MongoReadPreferences;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -41,10 +44,23 @@ public class FileGenerationsMongo extends BaseMongo<StoredFileGeneration> implem
     private static final String GENERATION_PATH = "path";
     private static final String GENERATION_TYPE = "type";
 
+    private final int bulkWriteBatchSize;
+
     @Inject
+    public FileGenerationsMongo(@Named("mongoDatabase") MongoDatabase databaseProvider, @Named("bulkWriteBatchSize") int bulkWriteBatchSize, MongoReadPreferences readPreferences)
+    {
+        super(databaseProvider, StoredFileGeneration.class, new ObjectMapper(), readPreferences);
+        this.bulkWriteBatchSize = bulkWriteBatchSize;
+    }
+
+    public FileGenerationsMongo(@Named("mongoDatabase") MongoDatabase databaseProvider, @Named("bulkWriteBatchSize") int bulkWriteBatchSize)
+    {
+        this(databaseProvider, bulkWriteBatchSize, MongoReadPreferences.DEFAULT);
+    }
+
     public FileGenerationsMongo(@Named("mongoDatabase") MongoDatabase databaseProvider)
     {
-        super(databaseProvider, StoredFileGeneration.class);
+        this(databaseProvider, DEFAULT_BULK_WRITE_BATCH_SIZE);
     }
 
     @Override
@@ -110,6 +126,12 @@ public class FileGenerationsMongo extends BaseMongo<StoredFileGeneration> implem
         return findOne(and(getArtifactAndVersionFilter(groupId, artifactId, versionId), eq(FILE_PATH, generationFilePath)));
     }
 
+    @Override
+    public StoreOperationResult createOrUpdate(List<StoredFileGeneration> generations)
+    {
+        return createOrUpdate(generations, bulkWriteBatchSize);
+    }
+
     @Override
     public boolean delete(String groupId, String artifactId, String versionId)
     {
@@ -0,0 +1,120 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+
+package org.finos.legend.depot.store.mongo.projects;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.conversions.Bson;
+import org.finos.legend.depot.domain.api.MetadataEventResponse;
+import org.finos.legend.depot.domain.project.ProjectVersion;
+import org.finos.legend.depot.domain.project.StoreDependencyClosure;
+import org.finos.legend.depot.domain.status.StoreOperationResult;
+import org.finos.legend.depot.store.api.projects.DependencyClosures;
+import org.finos.legend.depot.store.api.projects.UpdateDependencyClosures;
+import org.finos.legend.depot.store.mongo.core.BaseMongo;
+import org.finos.legend.depot.store.mongo.core.MongoReadPreferences;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static com.mongodb.client.model.Filters.or;
+
+public class DependencyClosuresMongo extends BaseMongo<StoreDependencyClosure> implements DependencyClosures, UpdateDependencyClosures
+{
+    public static final String COLLECTION = "versions-dependency-closures";
+    private static final int DELETE_BATCH_SIZE = 500;
+
+    @Inject
+    public DependencyClosuresMongo(@Named("mongoDatabase") MongoDatabase databaseProvider, MongoReadPreferences readPreferences)
+    {
+        super(databaseProvider, StoreDependencyClosure.class, new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_EMPTY), readPreferences);
+    }
+
+    public DependencyClosuresMongo(@Named("mongoDatabase") MongoDatabase databaseProvider)
+    {
+        this(databaseProvider, MongoReadPreferences.DEFAULT);
+    }
+
+    public static List<IndexModel> buildIndexes()
+    {
+        return Arrays.asList(buildIndex("groupId-artifactId-versionId", true, GROUP_ID, ARTIFACT_ID, VERSION_ID));
+    }
+
+    @Override
+    public List<StoreDependencyClosure> getAll()
+    {
+        return getAllStoredEntities();
+    }
+
+    @Override
+    public Optional<StoreDependencyClosure> find(String groupId, String artifactId, String versionId)
+    {
+        return findOne(getArtifactAndVersionFilter(groupId, artifactId, versionId));
+    }
+
+    @Override
+    public MetadataEventResponse delete(String groupId, String artifactId, String versionId)
+    {
+        MetadataEventResponse response = new MetadataEventResponse();
+        DeleteResult result = getCollection().deleteOne(getArtifactAndVersionFilter(groupId, artifactId, versionId));
+        return response.combine(new StoreOperationResult(0, 0, result.getDeletedCount(), Collections.emptyList()));
+    }
+
+    @Override
+    public StoreOperationResult delete(Collection<ProjectVersion> projectVersions)
+    {
+        StoreOperationResult report = new StoreOperationResult();
+        List<Bson> filters = projectVersions.stream().map(pv -> getArtifactAndVersionFilter(pv.getGroupId(), pv.getArtifactId(), pv.getVersionId())).collect(Collectors.toList());
+        for (int start = 0; start < filters.size(); start += DELETE_BATCH_SIZE)
+        {
+            DeleteResult result = getCollection().deleteMany(or(filters.subList(start, Math.min(filters.size(), start + DELETE_BATCH_SIZE))));
+            report.combine(new StoreOperationResult(0, 0, result.getDeletedCount(), Collections.emptyList()));
+        }
+        return report;
+    }
+
+    @Override
+    protected MongoCollection getCollection()
+    {
+        return getMongoCollection(COLLECTION);
+    }
+
+    @Override
+    protected Bson getKeyFilter(StoreDependencyClosure data)
+    {
+        return getArtifactAndVersionFilter(data.getGroupId(), data.getArtifactId(), data.getVersionId());
+    }
+
+    @Override
+    protected void validateNewData(StoreDependencyClosure data)
+    {
+        if (data.getVersionId() == null)
+        {
+            throw new IllegalArgumentException("cannot store dependency closure, versionId cannot be null");
+        }
+    }
+}
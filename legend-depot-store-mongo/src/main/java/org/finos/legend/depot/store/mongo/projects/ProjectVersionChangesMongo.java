@@ -0,0 +1,99 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.store.mongo.projects;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.finos.legend.depot.domain.project.StoreProjectVersionChange;
+import org.finos.legend.depot.store.api.projects.UpdateProjectVersionChanges;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static com.mongodb.client.model.Filters.gte;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.ARTIFACT_ID;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.GROUP_ID;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.ID_FIELD;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.VERSION_ID;
+import static org.finos.legend.depot.store.mongo.core.BaseMongo.withMaxTime;
+
+public class ProjectVersionChangesMongo implements UpdateProjectVersionChanges
+{
+    public static final String COLLECTION = "versions-changes";
+    public static final String CHANGE = "change";
+    public static final String CHANGED_AT = "changedAt";
+    private static final long EXPIRY_IN_HOURS = 24;
+
+    private final MongoDatabase mongoDatabase;
+    private long maxTimeInMillis;
+
+    @Inject
+    public ProjectVersionChangesMongo(@Named("mongoDatabase") MongoDatabase mongoDatabase)
+    {
+        this.mongoDatabase = mongoDatabase;
+    }
+
+    @com.google.inject.Inject(optional = true)
+    public void setMaxTimeInMillis(@Named("maxTimeInMillis") Long maxTimeInMillis)
+    {
+        this.maxTimeInMillis = maxTimeInMillis;
+    }
+
+    public static List<IndexModel> buildIndexes()
+    {
+        return Collections.singletonList(new IndexModel(Indexes.ascending(CHANGED_AT), new IndexOptions().name("changedAt").expireAfter(EXPIRY_IN_HOURS, TimeUnit.HOURS)));
+    }
+
+    private MongoCollection<Document> getCollection()
+    {
+        return mongoDatabase.getCollection(COLLECTION).withReadPreference(ReadPreference.primary());
+    }
+
+    @Override
+    public void record(StoreProjectVersionChange change)
+    {
+        getCollection().insertOne(new Document(GROUP_ID, change.getGroupId())
+                .append(ARTIFACT_ID, change.getArtifactId())
+                .append(VERSION_ID, change.getVersionId())
+                .append(CHANGE, change.getChange())
+                .append(CHANGED_AT, change.getChangedAt()));
+    }
+
+    @Override
+    public List<StoreProjectVersionChange> findSince(Date since)
+    {
+        List<StoreProjectVersionChange> changes = new ArrayList<>();
+        withMaxTime(getCollection().find(gte(CHANGED_AT, since)).sort(Sorts.ascending(CHANGED_AT, ID_FIELD)), maxTimeInMillis).forEach((Consumer<Document>) document ->
+        {
+            StoreProjectVersionChange change = new StoreProjectVersionChange(document.getString(GROUP_ID), document.getString(ARTIFACT_ID), document.getString(VERSION_ID), document.getString(CHANGE), document.getDate(CHANGED_AT));
+            change.setId(document.getObjectId(ID_FIELD).toHexString());
+            changes.add(change);
+        });
+        return changes;
+    }
+}
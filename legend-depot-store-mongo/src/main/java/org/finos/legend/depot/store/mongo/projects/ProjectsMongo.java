@@ -22,6 +22,7 @@ import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.IndexModel;
 import org.bson.conversions.Bson;
 import org.finos.legend.depot.domain.api.MetadataEventResponse;
+import org.finos.legend.depot.domain.api.Page;
 import org.finos.legend.depot.domain.project.ProjectValidator;
 import org.finos.legend.depot.domain.project.StoreProjectData;
 import org.finos.legend.depot.store.StoreException;
@@ -95,6 +96,12 @@ public class ProjectsMongo extends BaseMongo<StoreProjectData> implements Projec
         return getStoredEntitiesByPage(page, pageSize);
     }
 
+    @Override
+    public Page<StoreProjectData> getProjects(String continuationToken, int pageSize)
+    {
+        return getStoredEntitiesPage(continuationToken, pageSize);
+    }
+
     @Override
     public List<StoreProjectData> findByProjectId(String projectId)
     {
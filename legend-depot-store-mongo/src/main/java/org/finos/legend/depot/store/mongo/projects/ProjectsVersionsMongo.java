@@ -21,17 +21,21 @@ import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.IndexModel;
 import org.bson.conversions.Bson;
+import org.eclipse.collections.impl.utility.ListIterate;
 import org.finos.legend.depot.domain.CoordinateValidator;
 import org.finos.legend.depot.domain.api.MetadataEventResponse;
+import org.finos.legend.depot.domain.project.ProjectVersion;
 import org.finos.legend.depot.domain.project.StoreProjectVersionData;
 import org.finos.legend.depot.domain.version.VersionValidator;
 import org.finos.legend.depot.store.api.projects.ProjectsVersions;
 import org.finos.legend.depot.store.api.projects.UpdateProjectsVersions;
 import org.finos.legend.depot.store.mongo.core.BaseMongo;
+import org.finos.legend.depot.store.mongo.core.MongoReadPreferences;
 import org.finos.legend.sdlc.domain.model.version.VersionId;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -39,23 +43,33 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.elemMatch;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.or;
 import static org.finos.legend.depot.domain.version.VersionValidator.MASTER_SNAPSHOT;
 
 public class ProjectsVersionsMongo extends BaseMongo<StoreProjectVersionData> implements ProjectsVersions, UpdateProjectsVersions
 {
     public static final String COLLECTION = "versions";
+    private static final int PROJECT_VERSIONS_LOOKUP_BATCH_SIZE = 50;
     private static final String VERSION_DATA_EXCLUDED = "versionData.excluded";
+    private static final String VERSION_DATA_DEPENDENCIES = "versionData.dependencies";
 
     @Inject
+    public ProjectsVersionsMongo(@Named("mongoDatabase") MongoDatabase databaseProvider, MongoReadPreferences readPreferences)
+    {
+        super(databaseProvider, StoreProjectVersionData.class, new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_EMPTY), readPreferences);
+    }
+
     public ProjectsVersionsMongo(@Named("mongoDatabase") MongoDatabase databaseProvider)
     {
-        super(databaseProvider, StoreProjectVersionData.class, new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_EMPTY));
+        this(databaseProvider, MongoReadPreferences.DEFAULT);
     }
 
     public static List<IndexModel> buildIndexes()
     {
-        return Arrays.asList(buildIndex("groupId-artifactId-versionId", true, GROUP_ID, ARTIFACT_ID, VERSION_ID));
+        return Arrays.asList(buildIndex("groupId-artifactId-versionId", true, GROUP_ID, ARTIFACT_ID, VERSION_ID),
+                buildIndex("dependencies-groupId-artifactId-versionId", VERSION_DATA_DEPENDENCIES + "." + GROUP_ID, VERSION_DATA_DEPENDENCIES + "." + ARTIFACT_ID, VERSION_DATA_DEPENDENCIES + "." + VERSION_ID));
     }
 
     @Override
@@ -80,12 +94,31 @@ public class ProjectsVersionsMongo extends BaseMongo<StoreProjectVersionData> im
         return findOne(and(getArtifactAndVersionFilter(groupId, artifactId, versionId)));
     }
 
+    @Override
+    public List<StoreProjectVersionData> find(List<ProjectVersion> projectVersions)
+    {
+        List<StoreProjectVersionData> result = new ArrayList<>();
+        for (int start = 0; start < projectVersions.size(); start += PROJECT_VERSIONS_LOOKUP_BATCH_SIZE)
+        {
+            List<ProjectVersion> batch = projectVersions.subList(start, Math.min(start + PROJECT_VERSIONS_LOOKUP_BATCH_SIZE, projectVersions.size()));
+            result.addAll(find(or(ListIterate.collect(batch, projectVersion -> getArtifactAndVersionFilter(projectVersion.getGroupId(), projectVersion.getArtifactId(), projectVersion.getVersionId())))));
+        }
+        return result;
+    }
+
     @Override
     public List<StoreProjectVersionData> findVersion(Boolean excluded)
     {
         return find(and(eq(VERSION_DATA_EXCLUDED, excluded)));
     }
 
+    @Override
+    public List<StoreProjectVersionData> findDependants(String groupId, String artifactId, String versionId)
+    {
+        Bson dependency = versionId == null ? and(eq(GROUP_ID, groupId), eq(ARTIFACT_ID, artifactId)) : and(eq(GROUP_ID, groupId), eq(ARTIFACT_ID, artifactId), eq(VERSION_ID, versionId));
+        return find(elemMatch(VERSION_DATA_DEPENDENCIES, dependency));
+    }
+
     @Override
     public long getVersionCount(String groupId, String artifactId)
     {
@@ -16,6 +16,9 @@
 package org.finos.legend.depot.store.mongo.admin;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
 import org.bson.Document;
 import org.finos.legend.depot.store.mongo.TestStoreMongo;
 import org.finos.legend.depot.store.mongo.core.BaseMongo;
@@ -44,7 +47,19 @@ public class TestMongoAdminStore extends TestStoreMongo
         List indexes1 = new ArrayList();
         this.mongoProvider.getCollection(EntitiesMongo.COLLECTION).listIndexes().forEach((Consumer<Document>) indexes1::add);
         Assert.assertFalse(indexes1.isEmpty());
-        Assert.assertEquals(5, indexes1.size());
+        Assert.assertEquals(8, indexes1.size());
+    }
+
+    @Test
+    public void createIndexesDropsSupersededClassifierIndexes()
+    {
+        BaseMongo.createIndexesIfAbsent(mongoProvider, EntitiesMongo.COLLECTION, Arrays.asList(new IndexModel(Indexes.ascending(EntitiesMongo.VERSIONED_ENTITY, EntitiesMongo.ENTITY_CLASSIFIER_PATH), new IndexOptions().name("versioned-entity-classifier"))));
+        mongoAdminStore.createIndexes();
+
+        List<String> indexes = new ArrayList<>();
+        this.mongoProvider.getCollection(EntitiesMongo.COLLECTION).listIndexes().forEach((Consumer<Document>) index -> indexes.add(index.getString("name")));
+        Assert.assertEquals(8, indexes.size());
+        EntitiesMongo.SUPERSEDED_CLASSIFIER_INDEXES.forEach(index -> Assert.assertFalse(indexes.contains(index)));
     }
 
 
@@ -0,0 +1,118 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.store.mongo.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoClient;
+import org.bson.BsonDocumentReader;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.types.ObjectId;
+import org.finos.legend.depot.domain.api.MetadataEventResponse;
+import org.finos.legend.depot.domain.entity.StoredEntity;
+import org.finos.legend.depot.domain.generation.file.FileGeneration;
+import org.finos.legend.depot.domain.generation.file.StoredFileGeneration;
+import org.finos.legend.depot.domain.notifications.EventPriority;
+import org.finos.legend.depot.domain.notifications.MetadataNotification;
+import org.finos.legend.depot.domain.project.ProjectVersion;
+import org.finos.legend.depot.domain.project.ProjectVersionData;
+import org.finos.legend.depot.domain.project.Property;
+import org.finos.legend.depot.domain.project.StoreProjectVersionData;
+import org.finos.legend.depot.store.mongo.TestStoreMongo;
+import org.finos.legend.depot.store.mongo.core.codecs.MetadataNotificationCodec;
+import org.finos.legend.depot.store.mongo.core.codecs.StoreProjectVersionDataCodec;
+import org.finos.legend.depot.store.mongo.core.codecs.StoredFileGenerationCodec;
+import org.finos.legend.depot.store.mongo.entities.EntitiesMongo;
+import org.finos.legend.depot.store.mongo.entities.StoredEntityCodec;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class TestDomainCodecs extends TestStoreMongo
+{
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static <T> T decode(Codec<T> codec, Document document)
+    {
+        return codec.decode(new BsonDocumentReader(document.toBsonDocument(Document.class, MongoClient.getDefaultCodecRegistry())), DecoderContext.builder().build());
+    }
+
+    @Test
+    public void storedEntityCodecMatchesJacksonConversion()
+    {
+        setUpEntitiesDataFromFile(this.getClass().getClassLoader().getResource("data/versioned-entities.json"));
+        List<Document> documents = new ArrayList<>();
+        getMongoDatabase().getCollection(EntitiesMongo.COLLECTION).find().forEach((Consumer<Document>) documents::add);
+        Assert.assertFalse(documents.isEmpty());
+
+        for (Document document : documents)
+        {
+            StoredEntity decoded = decode(new StoredEntityCodec(), document);
+            Assert.assertEquals(BaseMongo.convert(OBJECT_MAPPER, document, StoredEntity.class), decoded);
+        }
+    }
+
+    @Test
+    public void storeProjectVersionDataCodecMatchesJacksonConversion() throws JsonProcessingException
+    {
+        ProjectVersionData versionData = new ProjectVersionData(Arrays.asList(new ProjectVersion("examples.metadata", "test-dependencies", "1.0.0")),
+                Arrays.asList(new Property("[platform]org.finos.legend", "1.0.0")), true, true);
+        versionData.setExclusionReason("bad version");
+        StoreProjectVersionData projectVersion = new StoreProjectVersionData("examples.metadata", "test", "2.0.0", false, versionData);
+        projectVersion.setLastUpdated(new Date());
+
+        Document document = BaseMongo.buildDocument(projectVersion);
+        StoreProjectVersionData decoded = decode(new StoreProjectVersionDataCodec(), document);
+        Assert.assertEquals(OBJECT_MAPPER.writeValueAsString(projectVersion), OBJECT_MAPPER.writeValueAsString(decoded));
+        Assert.assertEquals(OBJECT_MAPPER.writeValueAsString(BaseMongo.convert(OBJECT_MAPPER, document, StoreProjectVersionData.class)), OBJECT_MAPPER.writeValueAsString(decoded));
+    }
+
+    @Test
+    public void storedFileGenerationCodecMatchesJacksonConversion()
+    {
+        StoredFileGeneration generation = new StoredFileGeneration("examples.metadata", "test", "2.0.0", "examples::metadata::test::Generation", "java", new FileGeneration("/examples/metadata/test/Generation.java", "class Generation {}"));
+
+        Document document = BaseMongo.buildDocument(generation);
+        StoredFileGeneration decoded = decode(new StoredFileGenerationCodec(), document);
+        Assert.assertEquals(generation, decoded);
+        Assert.assertEquals(BaseMongo.convert(OBJECT_MAPPER, document, StoredFileGeneration.class), decoded);
+    }
+
+    @Test
+    public void metadataNotificationCodecMatchesJacksonConversion() throws JsonProcessingException
+    {
+        MetadataNotification notification = new MetadataNotification("PROD-A", "examples.metadata", "test", "2.0.0", true, false, "parent", EventPriority.HIGH);
+        notification.setCreated(new Date());
+        notification.setLastUpdated(new Date());
+        notification.setResponse(new MetadataEventResponse().addMessage("done"));
+        notification.increaseAttempts().addError("failed");
+
+        Document document = BaseMongo.buildDocument(notification);
+        document.put(BaseMongo.ID_FIELD, new ObjectId());
+        MetadataNotification decoded = decode(new MetadataNotificationCodec(), document);
+        MetadataNotification converted = BaseMongo.convert(OBJECT_MAPPER, document, MetadataNotification.class);
+
+        Assert.assertEquals(converted.getId(), decoded.getId());
+        Assert.assertEquals(OBJECT_MAPPER.writeValueAsString(converted), OBJECT_MAPPER.writeValueAsString(decoded));
+    }
+}
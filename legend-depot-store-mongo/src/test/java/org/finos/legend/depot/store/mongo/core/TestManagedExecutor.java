@@ -0,0 +1,58 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+
+package org.finos.legend.depot.store.mongo.core;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestManagedExecutor
+{
+    @Test
+    public void stoppingFinishesPendingTasksAndRejectsNewOnes() throws Exception
+    {
+        ManagedExecutor executor = new ManagedExecutor("test-executor");
+        executor.start();
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicReference<String> threadName = new AtomicReference<>();
+        AtomicBoolean finished = new AtomicBoolean();
+        executor.execute(() ->
+        {
+            threadName.set(Thread.currentThread().getName());
+            started.countDown();
+        });
+        executor.execute(() -> finished.set(true));
+        started.await();
+
+        executor.stop();
+        Assert.assertEquals("test-executor", threadName.get());
+        Assert.assertTrue(finished.get());
+        try
+        {
+            executor.execute(() -> finished.set(false));
+            Assert.fail();
+        }
+        catch (RejectedExecutionException e)
+        {
+            Assert.assertTrue(finished.get());
+        }
+    }
+}
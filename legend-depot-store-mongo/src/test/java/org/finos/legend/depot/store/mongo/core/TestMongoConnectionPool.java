@@ -0,0 +1,77 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+
+package org.finos.legend.depot.store.mongo.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoClientOptions;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+public class TestMongoConnectionPool
+{
+    private final MongoServer server = new MongoServer(new MemoryBackend());
+    private final InetSocketAddress address = server.bind();
+
+    @After
+    public void tearDown()
+    {
+        server.shutdownNow();
+    }
+
+    @Test
+    public void canConfigureConnectionPool() throws IOException
+    {
+        MongoConfiguration configuration = new ObjectMapper().readValue("{\"database\": \"test-db\", \"url\": \"mongodb://localhost\", \"tracing\": false, " +
+                "\"maxConnectionsPerHost\": 5, \"minConnectionsPerHost\": 1, \"socketTimeoutInMillis\": 30000, \"maxTimeInMillis\": 1000}", MongoConfiguration.class);
+        MongoClientOptions options = configuration.configure(MongoClientOptions.builder()).build();
+        Assert.assertEquals(5, options.getConnectionsPerHost());
+        Assert.assertEquals(1, options.getMinConnectionsPerHost());
+        Assert.assertEquals(30000, options.getSocketTimeout());
+        Assert.assertEquals(MongoConfiguration.DEFAULT_MAX_WAIT_TIME_IN_MILLIS, options.getMaxWaitTime());
+        Assert.assertEquals(MongoConfiguration.DEFAULT_CONNECT_TIMEOUT_IN_MILLIS, options.getConnectTimeout());
+        Assert.assertEquals(1000, configuration.getMaxTimeInMillis());
+        Assert.assertEquals(MongoConfiguration.DEFAULT_MAX_TIME_IN_MILLIS, new MongoConfiguration("test-db", "mongodb://localhost", false).getMaxTimeInMillis());
+    }
+
+    @Test
+    public void connectionPoolListenerTracksConnections()
+    {
+        MongoConfiguration configuration = new MongoConfiguration("test-db", String.format("mongodb://%s:%d", address.getHostString(), address.getPort()), false);
+        MongoNonTracingConnectionFactory connectionFactory = new MongoNonTracingConnectionFactory("test", configuration);
+        try
+        {
+            connectionFactory.getDatabase().getCollection("pool").insertOne(new Document("name", "pool"));
+            Assert.assertEquals(1, connectionFactory.getDatabase().getCollection("pool").countDocuments());
+
+            PrometheusConnectionPoolListener listener = connectionFactory.getConnectionPoolListener();
+            Assert.assertTrue(listener.getOpen() > 0);
+            Assert.assertEquals(0, listener.getCheckedOut());
+            Assert.assertEquals(0, listener.getWaiting());
+        }
+        finally
+        {
+            connectionFactory.getClient().close();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+
+package org.finos.legend.depot.store.mongo.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoCollection;
+import org.finos.legend.depot.store.mongo.TestStoreMongo;
+import org.finos.legend.depot.store.mongo.admin.artifacts.ArtifactsRefreshStatusMongo;
+import org.finos.legend.depot.store.mongo.entities.EntitiesMongo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+public class TestMongoReadPreferences extends TestStoreMongo
+{
+    private static final String CONFIGURATION = "{\"database\": \"test-db\", \"url\": \"mongodb://localhost\", \"tracing\": false, " +
+            "\"readPreferences\": {\"entities\": {\"readPreference\": \"secondaryPreferred\", \"maxStalenessSeconds\": 120, \"readConcern\": \"local\"}, " +
+            "\"versions\": {\"readPreference\": \"secondaryPreferred\"}}}";
+
+    @Test
+    public void canConfigureReadPreferencePerCollection() throws IOException
+    {
+        MongoConfiguration configuration = new ObjectMapper().readValue(CONFIGURATION, MongoConfiguration.class);
+        MongoReadPreferences readPreferences = new MongoReadPreferences(configuration.getReadPreferences());
+        Assert.assertEquals(MongoConfiguration.DEFAULT_MAX_TIME_IN_MILLIS, configuration.getMaxTimeInMillis());
+
+        MongoCollection entities = readPreferences.apply(EntitiesMongo.COLLECTION, mongoProvider.getCollection(EntitiesMongo.COLLECTION));
+        Assert.assertEquals(ReadPreference.secondaryPreferred(120, TimeUnit.SECONDS), entities.getReadPreference());
+        Assert.assertEquals(ReadConcern.LOCAL, entities.getReadConcern());
+
+        MongoCollection versions = readPreferences.apply("versions", mongoProvider.getCollection("versions"));
+        Assert.assertEquals(ReadPreference.secondaryPreferred(), versions.getReadPreference());
+        Assert.assertEquals(mongoProvider.getReadConcern(), versions.getReadConcern());
+
+        MongoCollection others = readPreferences.apply("file-generations", mongoProvider.getCollection("file-generations"));
+        Assert.assertEquals(mongoProvider.getReadPreference(), others.getReadPreference());
+        Assert.assertTrue(new MongoConfiguration("test-db", "mongodb://localhost", false).getReadPreferences().isEmpty());
+    }
+
+    @Test
+    public void storesReadWithConfiguredPreference()
+    {
+        setUpEntitiesDataFromFile(this.getClass().getClassLoader().getResource("data/versioned-entities.json"));
+        MongoReadPreferences readPreferences = new MongoReadPreferences(Collections.singletonMap(EntitiesMongo.COLLECTION, new MongoReadConfiguration("secondaryPreferred", null, null)));
+        EntitiesMongo entities = new EntitiesMongo(mongoProvider, getMongoClient(), false, BaseMongo.DEFAULT_BULK_WRITE_BATCH_SIZE, readPreferences);
+        entities.setMaxTimeInMillis(5000L);
+        Assert.assertTrue(entities.isCausallyConsistentReads());
+        Assert.assertFalse(new EntitiesMongo(mongoProvider, getMongoClient()).isCausallyConsistentReads());
+
+        Assert.assertEquals(new EntitiesMongo(mongoProvider).getEntities("examples.metadata", "test", "2.2.0", false).size(), entities.getEntities("examples.metadata", "test", "2.2.0", false).size());
+        Assert.assertEquals(ReadPreference.primary(), new ArtifactsRefreshStatusMongo(mongoProvider).getCollection().getReadPreference());
+    }
+}
@@ -22,6 +22,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.net.URL;
+import java.util.Arrays;
 
 public class TestQueryClassifierPath extends TestStoreMongo
 {
@@ -34,6 +35,7 @@ public class TestQueryClassifierPath extends TestStoreMongo
     {
         String CPATH = "meta::pure::metamodel::extension::Profile";
         setUpEntitiesDataFromFile(ENTITIES_FILE);
+        Assert.assertTrue(EntityPathNGrams.backfill(mongoProvider) > 0);
         Assert.assertEquals(2, mongo.getRevisionEntityCount("examples.metadata", "test"));
         Assert.assertEquals(1, mongo.getRevisionEntityCount("examples.metadata", "test2"));
         Assert.assertEquals(3, mongo.findLatestEntitiesByClassifier(CPATH, null, null, false, false).size());
@@ -46,6 +48,7 @@ public class TestQueryClassifierPath extends TestStoreMongo
     {
         String CPATH = "meta::pure::metamodel::extension::Profile";
         setUpEntitiesDataFromFile(ENTITIES_FILE);
+        Assert.assertTrue(EntityPathNGrams.backfill(mongoProvider) > 0);
         Assert.assertEquals(2, mongo.getRevisionEntityCount("examples.metadata", "test"));
         Assert.assertEquals(1, mongo.getRevisionEntityCount("examples.metadata", "test2"));
         Assert.assertEquals(8, mongo.findReleasedEntitiesByClassifier(CPATH, null, null, null, false, false).size());
@@ -61,4 +64,26 @@ public class TestQueryClassifierPath extends TestStoreMongo
         Assert.assertEquals(1, mongo.findReleasedEntitiesByClassifier(CPATH, "TestProfileTwo", Lists.fixedSize.of(new ProjectVersion("examples.metadata", "test2", "2.3.0")), null, false, false).size());
         Assert.assertEquals(2, mongo.findReleasedEntitiesByClassifier(CPATH, "TestProfileTwo", Lists.fixedSize.of(new ProjectVersion("examples.metadata", "test", "2.3.0"), new ProjectVersion("examples.metadata", "test2", "2.3.0")), null, false, false).size());
     }
+
+    @Test
+    public void canSearchIngestedEntitiesByClassifier()
+    {
+        String CPATH = "meta::pure::metamodel::extension::Profile";
+        Assert.assertFalse(mongo.createOrUpdate(readEntitiesFile(ENTITIES_FILE)).hasErrors());
+        Assert.assertEquals(8, mongo.findReleasedEntitiesByClassifier(CPATH, null, null, null, false, false).size());
+        Assert.assertEquals(4, mongo.findReleasedEntitiesByClassifier(CPATH, "TestProfileTwo", null, null, false, false).size());
+        Assert.assertEquals(4, mongo.findReleasedEntitiesByClassifier(CPATH, "testprofiletwo", null, null, false, false).size());
+        Assert.assertEquals(8, mongo.findReleasedEntitiesByClassifier(CPATH, "TestProfile", null, null, false, false).size());
+        Assert.assertEquals(8, mongo.findReleasedEntitiesByClassifier(CPATH, "Te", null, null, false, false).size());
+        Assert.assertEquals(0, mongo.findReleasedEntitiesByClassifier(CPATH, "ProfileTwoTest", null, null, false, false).size());
+        Assert.assertEquals(1, mongo.findLatestEntitiesByClassifier(CPATH, "PROFILETWO", 2, false, false).size());
+        Assert.assertEquals(1, mongo.findReleasedEntitiesByClassifier(CPATH, "TestProfileTwo", Lists.fixedSize.of(new ProjectVersion("examples.metadata", "test", "2.3.0")), null, false, false).size());
+    }
+
+    @Test
+    public void canBuildPathNGrams()
+    {
+        Assert.assertEquals(Arrays.asList("a::", "::b", ":bc"), EntityPathNGrams.getPathNGrams("A::Bc"));
+        Assert.assertTrue(EntityPathNGrams.getPathNGrams("ab").isEmpty());
+    }
 }
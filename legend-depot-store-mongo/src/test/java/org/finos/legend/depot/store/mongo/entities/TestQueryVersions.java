@@ -15,7 +15,10 @@
 
 package org.finos.legend.depot.store.mongo.entities;
 
+import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.tuple.Tuples;
 import org.finos.legend.depot.domain.entity.StoredEntity;
+import org.finos.legend.depot.domain.project.ProjectVersion;
 import org.finos.legend.depot.store.mongo.TestStoreMongo;
 import org.finos.legend.sdlc.domain.model.entity.Entity;
 import org.junit.Assert;
@@ -23,10 +26,13 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.finos.legend.depot.domain.version.VersionValidator.MASTER_SNAPSHOT;
 
@@ -58,6 +64,26 @@ public class TestQueryVersions extends TestStoreMongo
 
     }
 
+    @Test
+    public void canGetDistinctStoredEntitiesCoordinates()
+    {
+        List<Pair<String, String>> coordinates = versionsMongo.getStoredEntitiesCoordinates();
+        Assert.assertEquals(1, coordinates.size());
+        Assert.assertEquals(Tuples.pair("examples.metadata", "test"), coordinates.get(0));
+    }
+
+    @Test
+    public void canQueryWithMaxTime()
+    {
+        versionsMongo.setMaxTimeInMillis(1000L);
+        Assert.assertEquals(1000, versionsMongo.getMaxTimeInMillis());
+        Assert.assertEquals(3, versionsMongo.getAllEntities("examples.metadata", "test", "2.2.0").size());
+        Assert.assertEquals(1, versionsMongo.getStoredEntitiesCoordinates().size());
+        Assert.assertTrue(versionsMongo.getEntity("examples.metadata", "test", "2.2.0", "examples::metadata::test::TestProfile").isPresent());
+        Assert.assertEquals(3, versionsMongo.getVersionEntityCount("examples.metadata", "test", "2.2.0"));
+        Assert.assertTrue(versionsMongo.getRevisionEntityCount() > 0);
+    }
+
     @Test
     public void canQueryEntityMetadataByProjectVersionPath()
     {
@@ -140,5 +166,32 @@ public class TestQueryVersions extends TestStoreMongo
         Assert.assertTrue(allPaths.stream().noneMatch(ent -> ent.contains("v2_2_0")));
     }
 
+    @Test
+    public void canStreamEntitiesByProjectVersion()
+    {
+        List<Entity> entityList = versionsMongo.getEntities("examples.metadata", "test", "2.2.0", false);
+        try (Stream<Entity> entityStream = versionsMongo.getEntitiesAsStream("examples.metadata", "test", "2.2.0", false))
+        {
+            List<Entity> streamedEntities = entityStream.collect(Collectors.toList());
+            Assert.assertEquals(entityList.size(), streamedEntities.size());
+            Assert.assertEquals(entityList.stream().map(Entity::getPath).collect(Collectors.toSet()), streamedEntities.stream().map(Entity::getPath).collect(Collectors.toSet()));
+        }
+        Assert.assertEquals(0, versionsMongo.getEntitiesAsStream("examples.metadata", "test", "0.0.0", false).count());
+    }
+
+
+    @Test
+    public void canGetStoredEntitiesForSeveralProjectVersions()
+    {
+        ProjectVersion released = new ProjectVersion("examples.metadata", "test", "2.2.0");
+        ProjectVersion snapshot = new ProjectVersion("examples.metadata", "test", MASTER_SNAPSHOT);
+        ProjectVersion missing = new ProjectVersion("examples.metadata", "test", "0.0.0");
+        Map<ProjectVersion, List<StoredEntity>> entities = versionsMongo.getStoredEntities(Arrays.asList(released, snapshot, missing, released), false);
+        Assert.assertEquals(Arrays.asList(released, snapshot, missing), new ArrayList<>(entities.keySet()));
+        Assert.assertEquals(versionsMongo.getStoredEntities("examples.metadata", "test", "2.2.0", false).size(), entities.get(released).size());
+        Assert.assertEquals(versionsMongo.getStoredEntities("examples.metadata", "test", MASTER_SNAPSHOT, false).size(), entities.get(snapshot).size());
+        Assert.assertTrue(entities.get(missing).isEmpty());
+        Assert.assertTrue(entities.get(released).stream().allMatch(entity -> "2.2.0".equals(entity.getVersionId()) && entity.getEntity().getContent() != null));
+    }
 
 }
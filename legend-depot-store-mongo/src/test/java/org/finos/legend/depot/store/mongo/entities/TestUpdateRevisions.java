@@ -17,19 +17,24 @@ package org.finos.legend.depot.store.mongo.entities;
 
 import com.mongodb.client.MongoCollection;
 import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.finos.legend.depot.domain.entity.EntityDefinition;
 import org.finos.legend.depot.domain.entity.StoredEntity;
 import org.finos.legend.depot.domain.entity.StoredEntityOverview;
 import org.finos.legend.depot.domain.status.StoreOperationResult;
 import org.finos.legend.depot.domain.version.VersionValidator;
 import org.finos.legend.depot.store.mongo.TestStoreMongo;
+import org.finos.legend.depot.store.mongo.core.MongoReadPreferences;
 import org.finos.legend.sdlc.domain.model.entity.Entity;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 public class TestUpdateRevisions extends TestStoreMongo
 {
@@ -123,6 +128,10 @@ public class TestUpdateRevisions extends TestStoreMongo
         for (StoredEntity entity : entities)
         {
             Assert.assertEquals("meta::pure::metamodel::type::Class", ((StoredEntityOverview)entity).getClassifierPath());
+            Assert.assertNotNull(((StoredEntityOverview)entity).getPath());
+            Assert.assertEquals("examples.metadata", entity.getGroupId());
+            Assert.assertEquals("test", entity.getArtifactId());
+            Assert.assertNotNull(entity.getVersionId());
         }
     }
 
@@ -137,4 +146,84 @@ public class TestUpdateRevisions extends TestStoreMongo
         revisionsMongo.deleteLatest("examples.metadata","test",true);
         Assert.assertEquals(0, revisionsMongo.getRevisionEntityCount("examples.metadata","test"));
     }
+
+    @Test
+    public void replacingRevisionSwapsGenerationForReaders()
+    {
+        setUpEntitiesDataFromFile(ENTITIES_FILE);
+        List<Runnable> collections = new ArrayList<>();
+        EntitiesMongo generationsMongo = new EntitiesMongo(mongoProvider, null, false, EntitiesMongo.DEFAULT_BULK_WRITE_BATCH_SIZE, MongoReadPreferences.DEFAULT, collections::add);
+        List<StoredEntity> current = generationsMongo.getStoredEntities("examples.metadata", "test", VersionValidator.MASTER_SNAPSHOT, false);
+        Assert.assertEquals(4, current.size());
+
+        List<StoredEntity> replacement = current.subList(0, 2);
+        StoreOperationResult result = generationsMongo.replace("examples.metadata", "test", VersionValidator.MASTER_SNAPSHOT, false, replacement);
+        Assert.assertFalse(result.hasErrors());
+        Assert.assertEquals(1, collections.size());
+
+        List<String> paths = generationsMongo.getEntities("examples.metadata", "test", VersionValidator.MASTER_SNAPSHOT, false).stream().map(Entity::getPath).sorted().collect(Collectors.toList());
+        Assert.assertEquals(replacement.stream().map(entity -> entity.getEntity().getPath()).sorted().collect(Collectors.toList()), paths);
+        Assert.assertEquals(6, generationsMongo.getRevisionEntityCount("examples.metadata", "test"));
+        Assert.assertEquals(4, generationsMongo.getEntities("examples.metadata", "test", VersionValidator.MASTER_SNAPSHOT, true).size());
+        Assert.assertEquals(10, getMongoDatabase().getCollection(EntitiesMongo.COLLECTION).countDocuments());
+        String classifier = replacement.get(0).getEntity().getClassifierPath();
+        List<String> expected = replacement.stream().filter(entity -> classifier.equals(entity.getEntity().getClassifierPath())).map(entity -> entity.getEntity().getPath()).sorted().collect(Collectors.toList());
+        Assert.assertEquals(expected, latestPaths(generationsMongo.findLatestEntitiesByClassifier(classifier, false, false)));
+        Assert.assertEquals(expected, latestPaths(generationsMongo.findLatestEntitiesByClassifier(classifier, null, null, false, false)));
+
+        collections.forEach(Runnable::run);
+        Assert.assertEquals(6, getMongoDatabase().getCollection(EntitiesMongo.COLLECTION).countDocuments());
+        Assert.assertEquals(2, generationsMongo.getEntities("examples.metadata", "test", VersionValidator.MASTER_SNAPSHOT, false).size());
+        Assert.assertEquals(6, generationsMongo.getRevisionEntityCount("examples.metadata", "test"));
+    }
+
+    private static List<String> latestPaths(List<StoredEntity> entities)
+    {
+        return entities.stream().filter(entity -> "examples.metadata".equals(entity.getGroupId()) && "test".equals(entity.getArtifactId())).map(entity -> entity.getEntity().getPath()).sorted().collect(Collectors.toList());
+    }
+
+    @Test
+    public void failedReplaceKeepsCurrentGeneration()
+    {
+        setUpEntitiesDataFromFile(ENTITIES_FILE);
+        EntitiesMongo generationsMongo = new EntitiesMongo(mongoProvider, null, false, EntitiesMongo.DEFAULT_BULK_WRITE_BATCH_SIZE, MongoReadPreferences.DEFAULT, Runnable::run);
+        List<StoredEntity> replacement = new ArrayList<>(generationsMongo.getStoredEntities("examples.metadata", "test", VersionValidator.MASTER_SNAPSHOT, false));
+        replacement.add(new StoredEntity("examples.metadata", "test", VersionValidator.MASTER_SNAPSHOT, false, new EntityDefinition("not a valid path", "meta::pure::metamodel::type::Class", null)));
+
+        StoreOperationResult result = generationsMongo.replace("examples.metadata", "test", VersionValidator.MASTER_SNAPSHOT, false, replacement);
+        Assert.assertTrue(result.hasErrors());
+        Assert.assertEquals(4, generationsMongo.getEntities("examples.metadata", "test", VersionValidator.MASTER_SNAPSHOT, false).size());
+        Assert.assertEquals(8, getMongoDatabase().getCollection(EntitiesMongo.COLLECTION).countDocuments());
+    }
+    @Test
+    public void supersededAndOrphanedPendingGenerationsAreCollected()
+    {
+        setUpEntitiesDataFromFile(ENTITIES_FILE);
+        List<Runnable> collections = new ArrayList<>();
+        EntitiesMongo generationsMongo = new EntitiesMongo(mongoProvider, null, false, EntitiesMongo.DEFAULT_BULK_WRITE_BATCH_SIZE, MongoReadPreferences.DEFAULT, collections::add);
+        List<StoredEntity> current = generationsMongo.getStoredEntities("examples.metadata", "test", VersionValidator.MASTER_SNAPSHOT, false);
+        MongoCollection<Document> entities = getMongoDatabase().getCollection(EntitiesMongo.COLLECTION);
+
+        Assert.assertFalse(generationsMongo.replace("examples.metadata", "test", VersionValidator.MASTER_SNAPSHOT, false, current.subList(0, 3)).hasErrors());
+        Assert.assertFalse(generationsMongo.replace("examples.metadata", "test", VersionValidator.MASTER_SNAPSHOT, false, current.subList(0, 2)).hasErrors());
+        Assert.assertEquals(13, entities.countDocuments());
+
+        collections.get(1).run();
+        Assert.assertEquals(6, entities.countDocuments());
+        Assert.assertEquals(0, entities.countDocuments(new Document(EntitiesMongo.PENDING_GENERATION, true)));
+        Assert.assertEquals(2, generationsMongo.getEntities("examples.metadata", "test", VersionValidator.MASTER_SNAPSHOT, false).size());
+
+        String orphaned = new ObjectId(new Date(System.currentTimeMillis() - 7200000L)).toHexString();
+        String inFlight = new ObjectId().toHexString();
+        entities.insertOne(new Document(EntitiesMongo.GROUP_ID, "examples.metadata").append(EntitiesMongo.ARTIFACT_ID, "test").append(EntitiesMongo.VERSION_ID, VersionValidator.MASTER_SNAPSHOT)
+                .append(EntitiesMongo.VERSIONED_ENTITY, false).append(EntitiesMongo.ENTITY_GENERATION, orphaned).append(EntitiesMongo.PENDING_GENERATION, true));
+        entities.insertOne(new Document(EntitiesMongo.GROUP_ID, "examples.metadata").append(EntitiesMongo.ARTIFACT_ID, "test").append(EntitiesMongo.VERSION_ID, VersionValidator.MASTER_SNAPSHOT)
+                .append(EntitiesMongo.VERSIONED_ENTITY, false).append(EntitiesMongo.ENTITY_GENERATION, inFlight).append(EntitiesMongo.PENDING_GENERATION, true));
+
+        StoreOperationResult result = generationsMongo.deleteOrphanedGenerations(3600000L);
+        Assert.assertEquals(1, result.getDeletionCount());
+        Assert.assertEquals(0, entities.countDocuments(new Document(EntitiesMongo.ENTITY_GENERATION, orphaned)));
+        Assert.assertEquals(1, entities.countDocuments(new Document(EntitiesMongo.ENTITY_GENERATION, inFlight)));
+        Assert.assertEquals(2, generationsMongo.getEntities("examples.metadata", "test", VersionValidator.MASTER_SNAPSHOT, false).size());
+    }
 }
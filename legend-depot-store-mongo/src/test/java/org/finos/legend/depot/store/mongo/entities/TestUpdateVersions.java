@@ -15,8 +15,13 @@
 
 package org.finos.legend.depot.store.mongo.entities;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
 import org.bson.Document;
+import org.finos.legend.depot.domain.entity.EntityDefinition;
 import org.finos.legend.depot.domain.entity.StoredEntity;
 import org.finos.legend.depot.domain.status.StoreOperationResult;
 import org.finos.legend.depot.store.mongo.TestStoreMongo;
@@ -24,9 +29,17 @@ import org.finos.legend.sdlc.domain.model.entity.Entity;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 public class TestUpdateVersions extends TestStoreMongo
 {
@@ -108,6 +121,187 @@ public class TestUpdateVersions extends TestStoreMongo
 
     }
 
+    @Test
+    public void canStoreVersionInBatches()
+    {
+        List<StoredEntity> entitiesList = readEntitiesFile(ENTITIES_FILE);
+        Assert.assertEquals(3, entitiesList.size());
+        EntitiesMongo batchedEntitiesMongo = new EntitiesMongo(mongoProvider, getMongoClient(), false, 2);
+
+        StoreOperationResult result = batchedEntitiesMongo.createOrUpdate(entitiesList);
+        Assert.assertFalse(result.hasErrors());
+        Assert.assertEquals(3, result.getInsertedCount());
+        Assert.assertEquals(0, result.getModifiedCount());
+
+        StoreOperationResult result1 = batchedEntitiesMongo.createOrUpdate(entitiesList);
+        Assert.assertFalse(result1.hasErrors());
+        Assert.assertEquals(0, result1.getInsertedCount());
+        Assert.assertEquals(3, result1.getModifiedCount());
+        Assert.assertEquals(3, batchedEntitiesMongo.getVersionEntityCount("examples.metadata", "test", "2.2.0"));
+    }
+
+    @Test
+    public void canStoreVersionBundle() throws IOException
+    {
+        setUpEntitiesDataFromFile(ENTITIES_FILE);
+        Assert.assertFalse(entitiesMongo.getEntitiesBundle("examples.metadata", "test", "2.2.0", false).isPresent());
+
+        StoreOperationResult result = entitiesMongo.createOrUpdateEntitiesBundle("examples.metadata", "test", "2.2.0", false);
+        Assert.assertEquals(1, result.getInsertedCount());
+        byte[] bundle = entitiesMongo.getEntitiesBundle("examples.metadata", "test", "2.2.0", false).get();
+        List<EntityDefinition> entities = new ObjectMapper().readValue(new GZIPInputStream(new ByteArrayInputStream(bundle)), new TypeReference<List<EntityDefinition>>() {});
+        Assert.assertEquals(3, entities.size());
+        Assert.assertFalse(entitiesMongo.getEntitiesBundle("examples.metadata", "test", "2.2.0", true).isPresent());
+
+        Assert.assertEquals(1, entitiesMongo.createOrUpdateEntitiesBundle("examples.metadata", "test", "2.2.0", false).getModifiedCount());
+        entitiesMongo.delete("examples.metadata", "test", "2.2.0", false);
+        Assert.assertFalse(entitiesMongo.getEntitiesBundle("examples.metadata", "test", "2.2.0", false).isPresent());
+    }
+
+    @Test
+    public void updatingEntitiesInvalidatesVersionBundle()
+    {
+        List<StoredEntity> entitiesList = readEntitiesFile(ENTITIES_FILE);
+        entitiesMongo.createOrUpdate(entitiesList);
+        entitiesMongo.createOrUpdateEntitiesBundle("examples.metadata", "test", "2.2.0", false);
+        Assert.assertTrue(entitiesMongo.getEntitiesBundle("examples.metadata", "test", "2.2.0", false).isPresent());
+
+        entitiesMongo.createOrUpdate(entitiesList.subList(0, 1));
+        Assert.assertFalse(entitiesMongo.getEntitiesBundle("examples.metadata", "test", "2.2.0", false).isPresent());
+    }
+
+    @Test
+    public void identicalContentIsStoredOnceAcrossVersions()
+    {
+        List<StoredEntity> entitiesList = readEntitiesFile(ENTITIES_FILE);
+        List<StoredEntity> nextVersion = new ArrayList<>();
+        entitiesList.forEach(entity -> nextVersion.add(new StoredEntity(entity.getGroupId(), entity.getArtifactId(), "2.3.0", entity.isVersionedEntity(), entity.getEntity())));
+        Assert.assertFalse(entitiesMongo.createOrUpdate(entitiesList).hasErrors());
+        Assert.assertFalse(entitiesMongo.createOrUpdate(nextVersion).hasErrors());
+
+        Assert.assertEquals(6, getMongoDatabase().getCollection(EntitiesMongo.COLLECTION).countDocuments());
+        Assert.assertEquals(3, getMongoDatabase().getCollection(EntityContentsMongo.COLLECTION).countDocuments());
+
+        Document doc = (Document) getMongoDatabase().getCollection(EntitiesMongo.COLLECTION).find().first();
+        Assert.assertNotNull(((Map) doc.get(EntitiesMongo.ENTITY)).get("contentHash"));
+
+        for (StoredEntity entity : entitiesList)
+        {
+            Entity stored = entitiesMongo.getEntity(entity.getGroupId(), entity.getArtifactId(), "2.3.0", entity.getEntity().getPath()).get();
+            Assert.assertEquals(entity.getEntity().getContent(), stored.getContent());
+        }
+        Assert.assertEquals(entitiesList.size(), entitiesMongo.getEntitiesAsStream("examples.metadata", "test", "2.2.0", false).filter(entity -> entity.getContent().size() > 1).count());
+    }
+
+    @Test
+    public void unreferencedContentsAreDeletedWithTheirVersions()
+    {
+        List<StoredEntity> entitiesList = readEntitiesFile(ENTITIES_FILE);
+        List<StoredEntity> nextVersion = new ArrayList<>();
+        entitiesList.forEach(entity -> nextVersion.add(new StoredEntity(entity.getGroupId(), entity.getArtifactId(), "2.3.0", entity.isVersionedEntity(), entity.getEntity())));
+        Map<String, Object> changedContent = new HashMap<>(nextVersion.get(0).getEntity().getContent());
+        changedContent.put("changed", true);
+        nextVersion.set(0, new StoredEntity("examples.metadata", "test", "2.3.0", false, new EntityDefinition(nextVersion.get(0).getEntity().getPath(), nextVersion.get(0).getEntity().getClassifierPath(), changedContent)));
+        Assert.assertFalse(entitiesMongo.createOrUpdate(entitiesList).hasErrors());
+        Assert.assertFalse(entitiesMongo.createOrUpdate(nextVersion).hasErrors());
+        MongoCollection<Document> contents = getMongoDatabase().getCollection(EntityContentsMongo.COLLECTION);
+        Assert.assertEquals(4, contents.countDocuments());
+
+        entitiesMongo.delete("examples.metadata", "test", "2.3.0", false);
+        Assert.assertEquals(4, contents.countDocuments());
+
+        Assert.assertFalse(entitiesMongo.createOrUpdate(nextVersion).hasErrors());
+        contents.updateMany(new Document(), Updates.set(EntityContentsMongo.STORED_AT, new Date(0)));
+        entitiesMongo.delete("examples.metadata", "test", "2.3.0", false);
+        Assert.assertEquals(3, contents.countDocuments());
+        Assert.assertEquals(3, entitiesMongo.getEntities("examples.metadata", "test", "2.2.0", false).size());
+    }
+
+    @Test
+    public void entitiesWithMissingContentAreDropped()
+    {
+        List<StoredEntity> entitiesList = readEntitiesFile(ENTITIES_FILE);
+        Assert.assertFalse(entitiesMongo.createOrUpdate(entitiesList).hasErrors());
+        getMongoDatabase().getCollection(EntityContentsMongo.COLLECTION).deleteOne(new Document());
+
+        List<Entity> entities = entitiesMongo.getEntities("examples.metadata", "test", "2.2.0", false);
+        Assert.assertEquals(entitiesList.size() - 1, entities.size());
+        entities.forEach(entity -> Assert.assertNotNull(entity.getContent()));
+    }
+
+    @Test
+    public void entityCountsAreMaintainedOnWrites()
+    {
+        List<StoredEntity> entitiesList = readEntitiesFile(ENTITIES_FILE);
+        List<StoredEntity> nextVersion = new ArrayList<>();
+        entitiesList.subList(0, 2).forEach(entity -> nextVersion.add(new StoredEntity(entity.getGroupId(), entity.getArtifactId(), "2.3.0", entity.isVersionedEntity(), entity.getEntity())));
+        entitiesMongo.createOrUpdate(entitiesList);
+        entitiesMongo.createOrUpdate(nextVersion);
+
+        Assert.assertEquals(2, getMongoDatabase().getCollection(EntityCountsMongo.COLLECTION).countDocuments());
+        Assert.assertEquals(3, entitiesMongo.getVersionEntityCount("examples.metadata", "test", "2.2.0"));
+        Assert.assertEquals(2, entitiesMongo.getVersionEntityCount("examples.metadata", "test", "2.3.0"));
+        Assert.assertEquals(5, entitiesMongo.getVersionEntityCount());
+        Assert.assertEquals(0, entitiesMongo.getRevisionEntityCount());
+
+        entitiesMongo.delete("examples.metadata", "test", "2.2.0", false);
+        Assert.assertEquals(1, getMongoDatabase().getCollection(EntityCountsMongo.COLLECTION).countDocuments());
+        Assert.assertEquals(0, entitiesMongo.getVersionEntityCount("examples.metadata", "test", "2.2.0"));
+        Assert.assertEquals(2, entitiesMongo.getVersionEntityCount());
+    }
+
+    @Test
+    public void entityCountsFallBackToCollectionWhenNotRecorded()
+    {
+        setUpEntitiesDataFromFile(ENTITIES_FILE);
+        Assert.assertEquals(0, getMongoDatabase().getCollection(EntityCountsMongo.COLLECTION).countDocuments());
+        Assert.assertEquals(3, entitiesMongo.getVersionEntityCount("examples.metadata", "test", "2.2.0"));
+        Assert.assertEquals(3, entitiesMongo.getVersionEntityCount());
+    }
+
+    @Test
+    public void entityCountsAreBackfilledForUnrecordedVersions()
+    {
+        setUpEntitiesDataFromFile(ENTITIES_FILE);
+        List<StoredEntity> nextVersion = new ArrayList<>();
+        readEntitiesFile(ENTITIES_FILE).subList(0, 2).forEach(entity -> nextVersion.add(new StoredEntity(entity.getGroupId(), entity.getArtifactId(), "2.3.0", entity.isVersionedEntity(), entity.getEntity())));
+        entitiesMongo.createOrUpdate(nextVersion);
+        Assert.assertEquals(2, entitiesMongo.getVersionEntityCount());
+
+        Assert.assertEquals(1, entitiesMongo.backfillEntityCounts().getInsertedCount());
+        Assert.assertEquals(2, getMongoDatabase().getCollection(EntityCountsMongo.COLLECTION).countDocuments());
+        Assert.assertEquals(5, entitiesMongo.getVersionEntityCount());
+        Assert.assertEquals(0, entitiesMongo.backfillEntityCounts().getInsertedCount());
+    }
+
+    @Test
+    public void canQuerySubPackagesOnPackageBoundaries()
+    {
+        List<StoredEntity> entitiesList = Arrays.asList(
+                newEntity("examples::metadata::test::ClassA", "examples::metadata::test"),
+                newEntity("examples::metadata::test::sub::ClassB", "examples::metadata::test::sub"),
+                newEntity("examples::metadata::testing::ClassC", "examples::metadata::testing"));
+        Assert.assertFalse(entitiesMongo.createOrUpdate(entitiesList).hasErrors());
+
+        Document doc = (Document) getMongoDatabase().getCollection(EntitiesMongo.COLLECTION).find(Filters.eq(EntitiesMongo.ENTITY_PATH, "examples::metadata::test::sub::ClassB")).first();
+        Assert.assertEquals(Arrays.asList("examples", "examples::metadata", "examples::metadata::test", "examples::metadata::test::sub"), ((Map) doc.get(EntitiesMongo.ENTITY)).get("packageAncestors"));
+
+        Assert.assertEquals(2, entitiesMongo.getEntitiesByPackage("examples.metadata", "test", "3.0.0", "examples::metadata::test", false, null, true).size());
+        Assert.assertEquals(1, entitiesMongo.getEntitiesByPackage("examples.metadata", "test", "3.0.0", "examples::metadata::test", false, null, false).size());
+        Assert.assertEquals(3, entitiesMongo.getEntitiesByPackage("examples.metadata", "test", "3.0.0", "examples::metadata", false, null, true).size());
+        Assert.assertEquals(0, entitiesMongo.getEntitiesByPackage("examples.metadata", "test", "3.0.0", "examples::metadata::tes", false, null, true).size());
+        Assert.assertEquals(2, entitiesMongo.getEntitiesByPackage("examples.metadata", "test", "3.0.0", "examples::metadata", false, Collections.singleton("meta::pure::metamodel::type::Class"), true).size());
+    }
+
+    private StoredEntity newEntity(String path, String packageName)
+    {
+        Map<String, Object> content = new HashMap<>();
+        content.put("package", packageName);
+        content.put("name", path.substring(path.lastIndexOf(':') + 1));
+        String classifierPath = path.endsWith("ClassB") ? "meta::pure::metamodel::extension::Profile" : "meta::pure::metamodel::type::Class";
+        return new StoredEntity("examples.metadata", "test", "3.0.0", false, new EntityDefinition(path, classifierPath, content));
+    }
+
     @Test
     public void canDeleteVersion()
     {
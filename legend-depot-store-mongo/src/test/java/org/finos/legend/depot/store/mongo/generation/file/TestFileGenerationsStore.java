@@ -15,13 +15,16 @@
 
 package org.finos.legend.depot.store.mongo.generation.file;
 
+import org.finos.legend.depot.domain.generation.file.FileGeneration;
 import org.finos.legend.depot.domain.generation.file.StoredFileGeneration;
+import org.finos.legend.depot.domain.status.StoreOperationResult;
 import org.finos.legend.depot.store.api.generation.file.UpdateFileGenerations;
 import org.finos.legend.depot.store.mongo.TestStoreMongo;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.finos.legend.depot.domain.version.VersionValidator.MASTER_SNAPSHOT;
@@ -88,4 +91,37 @@ public class TestFileGenerationsStore extends TestStoreMongo
         Assert.assertFalse(generations.get(TEST_GROUP_ID, TEST_ARTIFACT_ID, MASTER_SNAPSHOT, "com/finos/sdgashdf").isPresent());
     }
 
+    @Test
+    public void canStoreGenerationsInBatches()
+    {
+        UpdateFileGenerations batchedGenerations = new FileGenerationsMongo(mongoProvider, 2);
+        List<StoredFileGeneration> newGenerations = Arrays.asList(
+                new StoredFileGeneration(TEST_GROUP_ID, TEST_ARTIFACT_ID, "2.3.3", "com::avrogen", "avro", new FileGeneration("/examples/metadata/test/ClientBasic.avro", "updated")),
+                new StoredFileGeneration(TEST_GROUP_ID, TEST_ARTIFACT_ID, "2.3.4", "com::avrogen", "avro", new FileGeneration("/examples/metadata/test/ClientBasic.avro", "new")),
+                new StoredFileGeneration(TEST_GROUP_ID, TEST_ARTIFACT_ID, "2.3.4", "com::avrogen", "avro", new FileGeneration("/examples/metadata/test/Other.avro", "new")));
+
+        StoreOperationResult result = batchedGenerations.createOrUpdate(newGenerations);
+        Assert.assertFalse(result.hasErrors());
+        Assert.assertEquals(2, result.getInsertedCount());
+        Assert.assertEquals(1, result.getModifiedCount());
+        Assert.assertEquals(13, generations.getAll().size());
+        Assert.assertEquals("updated", generations.get(TEST_GROUP_ID, TEST_ARTIFACT_ID, "2.3.3", "/examples/metadata/test/ClientBasic.avro").get().getFile().getContent());
+        Assert.assertEquals(2, generations.find(TEST_GROUP_ID, TEST_ARTIFACT_ID, "2.3.4").size());
+    }
+
+    @Test
+    public void unchangedGenerationsAreNotReportedAsModified()
+    {
+        UpdateFileGenerations batchedGenerations = new FileGenerationsMongo(mongoProvider, 2);
+        List<StoredFileGeneration> newGenerations = Arrays.asList(
+                new StoredFileGeneration(TEST_GROUP_ID, TEST_ARTIFACT_ID, "2.3.4", "com::avrogen", "avro", new FileGeneration("/examples/metadata/test/ClientBasic.avro", "new")),
+                new StoredFileGeneration(TEST_GROUP_ID, TEST_ARTIFACT_ID, "2.3.4", "com::avrogen", "avro", new FileGeneration("/examples/metadata/test/Other.avro", "new")));
+        Assert.assertEquals(2, batchedGenerations.createOrUpdate(newGenerations).getInsertedCount());
+
+        StoreOperationResult result = batchedGenerations.createOrUpdate(newGenerations);
+        Assert.assertFalse(result.hasErrors());
+        Assert.assertEquals(0, result.getInsertedCount());
+        Assert.assertEquals(0, result.getModifiedCount());
+    }
+
 }
@@ -0,0 +1,76 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+
+package org.finos.legend.depot.store.mongo.projects;
+
+import org.finos.legend.depot.domain.project.ProjectVersion;
+import org.finos.legend.depot.domain.project.StoreDependencyClosure;
+import org.finos.legend.depot.store.mongo.TestStoreMongo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Optional;
+
+public class TestDependencyClosuresMongo extends TestStoreMongo
+{
+    private final DependencyClosuresMongo dependencyClosures = new DependencyClosuresMongo(mongoProvider);
+
+    @Test
+    public void canStoreAndReplaceDependencyClosure()
+    {
+        Date lastUpdated = new Date();
+        ProjectVersion dependency = new ProjectVersion("examples.metadata", "test-dependencies", "1.0.0");
+        ProjectVersion transitiveDependency = new ProjectVersion("examples.metadata", "test-transitive", "1.0.0");
+        dependencyClosures.createOrUpdate(new StoreDependencyClosure("examples.metadata", "test", "2.3.1", lastUpdated, Collections.singletonList(dependency), Arrays.asList(dependency, transitiveDependency)));
+
+        Optional<StoreDependencyClosure> stored = dependencyClosures.find("examples.metadata", "test", "2.3.1");
+        Assert.assertTrue(stored.isPresent());
+        Assert.assertEquals(lastUpdated, stored.get().getLastUpdated());
+        Assert.assertEquals(Collections.singletonList(dependency), stored.get().getDependencies());
+        Assert.assertEquals(Arrays.asList(dependency, transitiveDependency), stored.get().getClosure());
+
+        dependencyClosures.createOrUpdate(new StoreDependencyClosure("examples.metadata", "test", "2.3.1", null, Collections.emptyList(), Collections.emptyList()));
+        Assert.assertEquals(1, dependencyClosures.getAll().size());
+        Assert.assertTrue(dependencyClosures.find("examples.metadata", "test", "2.3.1").get().getClosure().isEmpty());
+        Assert.assertNull(dependencyClosures.find("examples.metadata", "test", "2.3.1").get().getLastUpdated());
+    }
+
+    @Test
+    public void canDeleteDependencyClosure()
+    {
+        dependencyClosures.createOrUpdate(new StoreDependencyClosure("examples.metadata", "test", "2.3.1", null, Collections.emptyList(), Collections.emptyList()));
+        dependencyClosures.createOrUpdate(new StoreDependencyClosure("examples.metadata", "test", "2.2.0", null, Collections.emptyList(), Collections.emptyList()));
+
+        Assert.assertTrue(dependencyClosures.delete("examples.metadata", "test", "2.3.1").getMessages().get(0).contains("deleted:[1]"));
+        Assert.assertFalse(dependencyClosures.find("examples.metadata", "test", "2.3.1").isPresent());
+        Assert.assertTrue(dependencyClosures.find("examples.metadata", "test", "2.2.0").isPresent());
+    }
+
+    @Test
+    public void canDeleteDependencyClosuresInOneGo()
+    {
+        dependencyClosures.createOrUpdate(new StoreDependencyClosure("examples.metadata", "test", "2.3.1", null, Collections.emptyList(), Collections.emptyList()));
+        dependencyClosures.createOrUpdate(new StoreDependencyClosure("examples.metadata", "test", "2.2.0", null, Collections.emptyList(), Collections.emptyList()));
+        dependencyClosures.createOrUpdate(new StoreDependencyClosure("examples.metadata", "other", "1.0.0", null, Collections.emptyList(), Collections.emptyList()));
+
+        Assert.assertEquals(2, dependencyClosures.delete(Arrays.asList(new ProjectVersion("examples.metadata", "test", "2.3.1"), new ProjectVersion("examples.metadata", "other", "1.0.0"), new ProjectVersion("examples.metadata", "missing", "1.0.0"))).getDeletionCount());
+        Assert.assertEquals(1, dependencyClosures.getAll().size());
+        Assert.assertEquals(0, dependencyClosures.delete(Collections.emptyList()).getDeletionCount());
+    }
+}
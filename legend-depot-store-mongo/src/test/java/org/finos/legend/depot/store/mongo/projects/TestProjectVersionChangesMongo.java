@@ -0,0 +1,52 @@
+//  Copyright 2021 Goldman Sachs
+//
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+//
+
+package org.finos.legend.depot.store.mongo.projects;
+
+import org.finos.legend.depot.domain.project.StoreProjectVersionChange;
+import org.finos.legend.depot.store.mongo.TestStoreMongo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.List;
+
+public class TestProjectVersionChangesMongo extends TestStoreMongo
+{
+    private final ProjectVersionChangesMongo changes = new ProjectVersionChangesMongo(mongoProvider);
+
+    @Test
+    public void canRecordAndFindChangesInOrder()
+    {
+        long now = System.currentTimeMillis();
+        changes.record(new StoreProjectVersionChange("examples.metadata", "test", "2.3.1", "UPDATED", new Date(now - 20000)));
+        changes.record(new StoreProjectVersionChange("examples.metadata", "test", "2.2.0", "DELETED", new Date(now)));
+        changes.record(new StoreProjectVersionChange("examples.metadata", "test", "2.3.0", "EXCLUDED", new Date(now - 10000)));
+
+        List<StoreProjectVersionChange> all = changes.findSince(new Date(now - 60000));
+        Assert.assertEquals(3, all.size());
+        Assert.assertEquals("2.3.1", all.get(0).getVersionId());
+        Assert.assertEquals("UPDATED", all.get(0).getChange());
+        Assert.assertEquals("2.3.0", all.get(1).getVersionId());
+        Assert.assertEquals("2.2.0", all.get(2).getVersionId());
+        Assert.assertEquals(new Date(now), all.get(2).getChangedAt());
+        Assert.assertNotNull(all.get(0).getId());
+        Assert.assertNotEquals(all.get(0).getId(), all.get(1).getId());
+
+        List<StoreProjectVersionChange> recent = changes.findSince(new Date(now - 10000));
+        Assert.assertEquals(2, recent.size());
+        Assert.assertEquals("EXCLUDED", recent.get(0).getChange());
+    }
+}
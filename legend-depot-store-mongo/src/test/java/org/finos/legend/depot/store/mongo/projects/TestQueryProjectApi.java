@@ -15,6 +15,7 @@
 
 package org.finos.legend.depot.store.mongo.projects;
 
+import org.finos.legend.depot.domain.api.Page;
 import org.finos.legend.depot.domain.project.StoreProjectData;
 import org.finos.legend.depot.store.api.projects.Projects;
 import org.finos.legend.depot.store.mongo.TestStoreMongo;
@@ -22,6 +23,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -44,6 +46,46 @@ public class TestQueryProjectApi extends TestStoreMongo
         Assert.assertEquals(3, allConfigs.size());
     }
 
+    @Test
+    public void canPageThroughProjectsWithContinuationToken()
+    {
+        List<StoreProjectData> pagedConfigs = new ArrayList<>();
+        Page<StoreProjectData> page = projectsAPI.getProjects(null, 2);
+        Assert.assertEquals(2, page.getItems().size());
+        Assert.assertNotNull(page.getContinuationToken());
+        pagedConfigs.addAll(page.getItems());
+
+        page = projectsAPI.getProjects(page.getContinuationToken(), 2);
+        Assert.assertEquals(1, page.getItems().size());
+        Assert.assertNull(page.getContinuationToken());
+        pagedConfigs.addAll(page.getItems());
+
+        Assert.assertEquals(projectsAPI.getAll(), pagedConfigs);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cannotPageWithInvalidContinuationToken()
+    {
+        projectsAPI.getProjects("not-a-token", 2);
+    }
+
+    @Test
+    public void cannotPageWithPageSizeOutOfRange()
+    {
+        for (int pageSize : new int[]{0, -1, Page.MAX_PAGE_SIZE + 1})
+        {
+            try
+            {
+                projectsAPI.getProjects(null, pageSize);
+                Assert.fail("expected page size " + pageSize + " to be rejected");
+            }
+            catch (IllegalArgumentException e)
+            {
+                Assert.assertTrue(e.getMessage().contains("page size"));
+            }
+        }
+    }
+
     @Test
     public void canFindByMavenCoordinates()
     {
@@ -15,6 +15,7 @@
 
 package org.finos.legend.depot.store.mongo.projects;
 
+import org.finos.legend.depot.domain.project.ProjectVersion;
 import org.finos.legend.depot.domain.project.StoreProjectVersionData;
 import org.finos.legend.depot.store.api.projects.ProjectsVersions;
 import org.finos.legend.depot.store.mongo.TestStoreMongo;
@@ -24,6 +25,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -56,6 +58,15 @@ public class TestQueryProjectVersionApi extends TestStoreMongo
         Assert.assertFalse(projectConfig.isPresent());
     }
 
+    @Test
+    public void canFindManyProjectVersionsAtOnce()
+    {
+        List<StoreProjectVersionData> found = projectsVersionsAPI.find(Arrays.asList(new ProjectVersion("examples.metadata", "test", "2.2.0"),
+                new ProjectVersion("examples.metadata", "test", "1.0.0"), new ProjectVersion("examples.metadata", "test", "2.3.1")));
+        Assert.assertEquals(Arrays.asList("2.2.0", "2.3.1"), found.stream().map(StoreProjectVersionData::getVersionId).sorted().collect(Collectors.toList()));
+        Assert.assertTrue(projectsVersionsAPI.find(Collections.emptyList()).isEmpty());
+    }
+
     @Test
     public void canFindProjectByMavenCoordinates()
     {
@@ -82,4 +93,14 @@ public class TestQueryProjectVersionApi extends TestStoreMongo
         Assert.assertEquals("3.0.0", storeProjectVersionData.get(0).getVersionId());
     }
 
+    @Test
+    public void canFindDependantsByDependencyCoordinates()
+    {
+        List<StoreProjectVersionData> dependants = projectsVersionsAPI.findDependants("examples.metadata", "test-dependencies", "1.0.0");
+        Assert.assertEquals(Arrays.asList("2.3.1", "master-SNAPSHOT"), dependants.stream().map(StoreProjectVersionData::getVersionId).sorted().collect(Collectors.toList()));
+        Assert.assertEquals(2, projectsVersionsAPI.findDependants("examples.metadata", "test-dependencies", null).size());
+        Assert.assertTrue(projectsVersionsAPI.findDependants("examples.metadata", "test-dependencies", "2.0.0").isEmpty());
+        Assert.assertTrue(projectsVersionsAPI.findDependants("examples.metadata", "test", null).isEmpty());
+    }
+
 }
@@ -22,7 +22,6 @@ import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.IndexModel;
 import com.mongodb.client.model.Sorts;
-import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.finos.legend.depot.domain.api.status.MetadataEventStatus;
 import org.finos.legend.depot.store.mongo.core.BaseMongo;
@@ -38,7 +37,6 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
-import java.util.function.Consumer;
 
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
@@ -105,7 +103,6 @@ public class NotificationsMongo extends BaseMongo<MetadataNotification> implemen
     @Override
     public List<MetadataNotification> find(String groupId, String artifactId, String version, String eventId,String parentEventId, Boolean success, LocalDateTime fromDate, LocalDateTime toDate)
     {
-        MongoCollection<Document> events = getCollection();
         LocalDateTime to = LocalDateTime.now();
         if (toDate != null)
         {
@@ -121,9 +118,7 @@ public class NotificationsMongo extends BaseMongo<MetadataNotification> implemen
         filter = parentEventId != null ? and(filter, eq(PARENT_EVENT, parentEventId)) : filter;
         filter = success != null ? and(filter, eq(RESPONSE_STATUS, (success ? MetadataEventStatus.SUCCESS.name() : MetadataEventStatus.FAILED.name()))) : filter;
 
-        List<MetadataNotification> result = new ArrayList<>();
-        events.find(filter).sort(Sorts.descending(LAST_UPDATED)).forEach((Consumer<Document>)doc -> result.add(convert(doc, MetadataNotification.class)));
-        return result;
+        return withMaxTime(getTypedCollection().find(filter)).sort(Sorts.descending(LAST_UPDATED)).into(new ArrayList<>());
     }
 
     private long toTime(LocalDateTime date)
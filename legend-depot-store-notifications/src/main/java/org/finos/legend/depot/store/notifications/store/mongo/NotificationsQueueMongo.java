@@ -17,6 +17,7 @@ package org.finos.legend.depot.store.notifications.store.mongo;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.ReadPreference;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
@@ -62,7 +63,7 @@ public class NotificationsQueueMongo extends BaseMongo<MetadataNotification> imp
     @Override
     protected MongoCollection getCollection()
     {
-        return getMongoCollection(COLLECTION);
+        return getMongoCollection(COLLECTION).withReadPreference(ReadPreference.primary());
     }
 
     @Override
@@ -80,7 +81,7 @@ public class NotificationsQueueMongo extends BaseMongo<MetadataNotification> imp
     @Override
     public long size()
     {
-        return getCollection().countDocuments();
+        return getCollection().countDocuments(new Document(), countOptions());
     }
 
     public String push(MetadataNotification event)
@@ -102,12 +103,12 @@ public class NotificationsQueueMongo extends BaseMongo<MetadataNotification> imp
     public List<MetadataNotification> pullAll()
     {
         List<MetadataNotification> nextEvents = new ArrayList<>();
-        getCollection().find().forEach((Consumer<Document>)document ->
+        withMaxTime(getTypedCollection().find()).forEach((Consumer<MetadataNotification>)event ->
         {
-            DeleteResult del = getCollection().deleteOne(document);
+            DeleteResult del = getCollection().deleteOne(Filters.eq(ID_FIELD, new ObjectId(event.getId())));
             if (del.getDeletedCount() != 0)
             { //todo: if it errors, it will get stuck in the queue?
-                nextEvents.add(convert(document, MetadataNotification.class));
+                nextEvents.add(event);
             }
         });
         return nextEvents;
@@ -116,13 +117,8 @@ public class NotificationsQueueMongo extends BaseMongo<MetadataNotification> imp
     @Override
     public Optional<MetadataNotification> getFirstInQueue()
     {
-        Document first = (Document)getCollection().findOneAndDelete(Filters.exists("_id"),new FindOneAndDeleteOptions().sort(Sorts.ascending("eventPriority", "createdAt")));
-        if (first != null)
-        {
-            return Optional.of(convert(first, MetadataNotification.class));
-
-        }
-        return Optional.empty();
+        MetadataNotification first = getTypedCollection().findOneAndDelete(Filters.exists("_id"),new FindOneAndDeleteOptions().sort(Sorts.ascending("eventPriority", "createdAt")));
+        return Optional.ofNullable(first);
     }
 
     @Override
@@ -133,9 +129,7 @@ public class NotificationsQueueMongo extends BaseMongo<MetadataNotification> imp
 
     public List<MetadataNotification> getAll()
     {
-        List<MetadataNotification> allInQueue = new ArrayList<>();
-        getCollection().find().forEach((Consumer<Document>)document -> allInQueue.add(convert(document, MetadataNotification.class)));
-        return allInQueue;
+        return getAllStoredEntities();
     }
 
     @Override
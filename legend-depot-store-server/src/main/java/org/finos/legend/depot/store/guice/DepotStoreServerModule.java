@@ -24,7 +24,10 @@ import org.finos.legend.depot.artifacts.repository.api.VoidArtifactRepositoryPro
 import org.finos.legend.depot.core.http.guice.BaseModule;
 import org.finos.legend.depot.domain.project.IncludeProjectPropertiesConfiguration;
 import org.finos.legend.depot.schedules.services.SchedulesFactory;
+import org.finos.legend.depot.services.entities.DependencyEntitiesConfiguration;
+import org.finos.legend.depot.services.projects.DependenciesCache;
 import org.finos.legend.depot.store.admin.api.metrics.StorageMetrics;
+import org.finos.legend.depot.store.api.entities.UpdateEntities;
 import org.finos.legend.depot.store.notifications.domain.QueueManagerConfiguration;
 import org.finos.legend.depot.store.server.configuration.DepotStoreServerConfiguration;
 
@@ -36,6 +39,10 @@ import java.time.LocalDateTime;
 public class DepotStoreServerModule extends BaseModule<DepotStoreServerConfiguration>
 {
     private static final Logger LOGGER = org.slf4j.LoggerFactory.getLogger(DepotStoreServerModule.class);
+    private static final long ORPHANED_GENERATIONS_INTERVAL = 3600000L;
+    private static final long ORPHANED_GENERATIONS_AGE = 6 * 3600000L;
+    private static final long ENTITY_COUNTS_INTERVAL = 24 * 3600000L;
+    private static final long DEPENDENCY_CLOSURES_INTERVAL = 24 * 3600000L;
     private ArtifactRepository artifactRepository;
 
     @Override
@@ -46,6 +53,12 @@ public class DepotStoreServerModule extends BaseModule<DepotStoreServerConfigura
         binder.bind(ArtifactRepositoryProviderConfiguration.class).toProvider(this::getArtifactRepositoryConfiguration);
         binder.bind(IncludeProjectPropertiesConfiguration.class).toProvider(this::getIncludePropertiesConfiguration);
         binder.bind(QueueManagerConfiguration.class).toProvider(this::getQueueManagerConfiguration);
+        binder.bind(DependencyEntitiesConfiguration.class).toProvider(this::getDependencyEntitiesConfiguration);
+    }
+
+    private DependencyEntitiesConfiguration getDependencyEntitiesConfiguration()
+    {
+        return getConfiguration().getDependencyEntitiesConfiguration() != null ? getConfiguration().getDependencyEntitiesConfiguration() : new DependencyEntitiesConfiguration();
     }
 
     private QueueManagerConfiguration getQueueManagerConfiguration()
@@ -100,4 +113,31 @@ public class DepotStoreServerModule extends BaseModule<DepotStoreServerConfigura
         return true;
     }
 
+    @Provides
+    @Singleton
+    @Named("orphaned-generations")
+    boolean scheduleOrphanedGenerationsCleanUp(SchedulesFactory schedulesFactory, UpdateEntities entities)
+    {
+        schedulesFactory.register("clean-orphaned-generations", LocalDateTime.now().plusMinutes(5), ORPHANED_GENERATIONS_INTERVAL, false, () -> entities.deleteOrphanedGenerations(ORPHANED_GENERATIONS_AGE));
+        return true;
+    }
+
+    @Provides
+    @Singleton
+    @Named("entity-counts")
+    boolean scheduleEntityCountsBackfill(SchedulesFactory schedulesFactory, UpdateEntities entities)
+    {
+        schedulesFactory.register("backfill-entity-counts", LocalDateTime.now().plusMinutes(1), ENTITY_COUNTS_INTERVAL, false, entities::backfillEntityCounts);
+        return true;
+    }
+
+    @Provides
+    @Singleton
+    @Named("dependency-closures")
+    boolean scheduleDependencyClosuresBackfill(SchedulesFactory schedulesFactory, @Named("dependencyCache") DependenciesCache dependenciesCache)
+    {
+        schedulesFactory.register("backfill-dependency-closures", LocalDateTime.now().plusMinutes(2), DEPENDENCY_CLOSURES_INTERVAL, false, dependenciesCache::backfillStoredClosures);
+        return true;
+    }
+
 }
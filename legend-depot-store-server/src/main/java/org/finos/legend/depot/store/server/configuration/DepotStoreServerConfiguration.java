@@ -20,6 +20,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import org.finos.legend.depot.artifacts.repository.api.ArtifactRepositoryProviderConfiguration;
 import org.finos.legend.depot.core.http.ServersConfiguration;
 import org.finos.legend.depot.domain.project.IncludeProjectPropertiesConfiguration;
+import org.finos.legend.depot.services.entities.DependencyEntitiesConfiguration;
 import org.finos.legend.depot.store.notifications.domain.QueueManagerConfiguration;
 
 import javax.validation.constraints.NotNull;
@@ -39,6 +40,9 @@ public class DepotStoreServerConfiguration extends ServersConfiguration
     @JsonProperty("includeProjectPropertiesConfiguration")
     private IncludeProjectPropertiesConfiguration includeProjectPropertiesConfiguration;
 
+    @JsonProperty("dependencyEntities")
+    private DependencyEntitiesConfiguration dependencyEntitiesConfiguration;
+
     public QueueManagerConfiguration getQueueManagerConfiguration()
     {
         return queueManagerConfiguration;
@@ -69,4 +73,14 @@ public class DepotStoreServerConfiguration extends ServersConfiguration
         this.includeProjectPropertiesConfiguration = includeProjectPropertiesConfiguration;
     }
 
+    public DependencyEntitiesConfiguration getDependencyEntitiesConfiguration()
+    {
+        return dependencyEntitiesConfiguration;
+    }
+
+    public void setDependencyEntitiesConfiguration(DependencyEntitiesConfiguration dependencyEntitiesConfiguration)
+    {
+        this.dependencyEntitiesConfiguration = dependencyEntitiesConfiguration;
+    }
+
 }